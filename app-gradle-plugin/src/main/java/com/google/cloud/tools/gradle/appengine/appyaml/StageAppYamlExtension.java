@@ -19,11 +19,13 @@ package com.google.cloud.tools.gradle.appengine.appyaml;
 
 import com.google.cloud.tools.appengine.configuration.AppYamlProjectStageConfiguration;
 import com.google.cloud.tools.gradle.appengine.util.NullSafe;
+import com.google.cloud.tools.io.JarStore;
 import java.io.File;
 import java.util.ArrayList;
 import java.util.List;
 import org.gradle.api.Project;
 import org.gradle.api.file.FileCollection;
+import org.gradle.api.tasks.Input;
 import org.gradle.api.tasks.InputDirectory;
 import org.gradle.api.tasks.InputFile;
 import org.gradle.api.tasks.InputFiles;
@@ -41,6 +43,12 @@ public class StageAppYamlExtension {
   private File artifact;
   private File stagingDirectory;
   private List<File> extraFilesDirectories;
+  private List<String> extraFilesIncludes = new ArrayList<>();
+  private List<String> extraFilesExcludes = new ArrayList<>();
+  private List<String> dockerExcludes = new ArrayList<>();
+  private boolean linkFiles;
+  private boolean parallelCopy;
+  private boolean jarStore;
 
   public StageAppYamlExtension(Project project) {
     this.project = project;
@@ -106,13 +114,92 @@ public class StageAppYamlExtension {
     this.extraFilesDirectories = new ArrayList<>(project.files(extraFilesDirectories).getFiles());
   }
 
+  /**
+   * Glob patterns of the files to stage from the extra files directories, relative to each
+   * directory. Everything is staged if empty.
+   */
+  @Input
+  public List<String> getExtraFilesIncludes() {
+    return extraFilesIncludes;
+  }
+
+  public void setExtraFilesIncludes(List<String> extraFilesIncludes) {
+    this.extraFilesIncludes = new ArrayList<>(extraFilesIncludes);
+  }
+
+  /**
+   * Glob patterns of the files and directories not to stage from the extra files directories, for
+   * example {@code node_modules}.
+   */
+  @Input
+  public List<String> getExtraFilesExcludes() {
+    return extraFilesExcludes;
+  }
+
+  public void setExtraFilesExcludes(List<String> extraFilesExcludes) {
+    this.extraFilesExcludes = new ArrayList<>(extraFilesExcludes);
+  }
+
+  /** Glob patterns of the files and directories not to stage from the Docker directory. */
+  @Input
+  public List<String> getDockerExcludes() {
+    return dockerExcludes;
+  }
+
+  public void setDockerExcludes(List<String> dockerExcludes) {
+    this.dockerExcludes = new ArrayList<>(dockerExcludes);
+  }
+
+  /**
+   * Stage files as reflinks or hard links instead of copies when the staging directory is on the
+   * same file system.
+   */
+  @Input
+  public boolean isLinkFiles() {
+    return linkFiles;
+  }
+
+  public void setLinkFiles(boolean linkFiles) {
+    this.linkFiles = linkFiles;
+  }
+
+  /** Copy the changed files with several threads. */
+  @Input
+  public boolean isParallelCopy() {
+    return parallelCopy;
+  }
+
+  public void setParallelCopy(boolean parallelCopy) {
+    this.parallelCopy = parallelCopy;
+  }
+
+  /**
+   * Stage the jars of the artifact's Class-Path from a content-addressed store in the user cache
+   * directory, shared by every build on the machine.
+   */
+  @Input
+  public boolean isJarStore() {
+    return jarStore;
+  }
+
+  public void setJarStore(boolean jarStore) {
+    this.jarStore = jarStore;
+  }
+
   AppYamlProjectStageConfiguration toAppYamlProjectStageConfiguration() {
     return AppYamlProjectStageConfiguration.builder()
         .appEngineDirectory(appEngineDirectory.toPath())
         .artifact(artifact.toPath())
         .stagingDirectory(stagingDirectory.toPath())
         .dockerDirectory(NullSafe.convert(dockerDirectory, File::toPath))
+        .dockerExcludes(dockerExcludes)
         .extraFilesDirectories(NullSafe.convert(extraFilesDirectories, File::toPath))
+        .extraFilesIncludes(extraFilesIncludes)
+        .extraFilesExcludes(extraFilesExcludes)
+        .sync(true)
+        .linkFiles(linkFiles)
+        .parallelCopy(parallelCopy)
+        .jarStoreDirectory(jarStore ? JarStore.getDefaultDirectory() : null)
         .build();
   }
 }
@@ -40,7 +40,7 @@ public class StageAppYamlTask extends DefaultTask {
   /** Task entrypoint : Stage the app.yaml based application. */
   @TaskAction
   public void stageAction() throws AppEngineException {
-    getProject().delete(appYamlExtension.getStagingDirectory());
+    // staging synchronizes the directory, only files that changed are copied
     getProject().mkdir(appYamlExtension.getStagingDirectory().getAbsolutePath());
 
     AppYamlProjectStaging staging = new AppYamlProjectStaging();
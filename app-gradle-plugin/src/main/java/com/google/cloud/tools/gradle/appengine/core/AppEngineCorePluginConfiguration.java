@@ -108,7 +108,8 @@ public class AppEngineCorePluginConfiguration {
                 new CloudSdkOperations(
                     toolsExtension.getCloudSdkHome(),
                     toolsExtension.getServiceAccountKeyFile(),
-                    toolsExtension.getVerbosity());
+                    toolsExtension.getVerbosity(),
+                    CloudSdkOperations.getBuildProcessMetrics(project));
           } catch (CloudSdkNotFoundException ex) {
             // this should never happen, not found exception only occurs when auto-discovery fails,
             // but we don't use that mechanism anymore.
@@ -201,7 +202,7 @@ public class AppEngineCorePluginConfiguration {
   }
 
   private void createDeployTask() {
-    injectGcloud(DeployTask.class);
+    injectDeployGcloud(DeployTask.class);
     project
         .getTasks()
         .create(
@@ -305,7 +306,7 @@ public class AppEngineCorePluginConfiguration {
   }
 
   private void createDeployAllTask() {
-    injectGcloud(DeployAllTask.class);
+    injectDeployGcloud(DeployAllTask.class);
     project
         .getTasks()
         .create(
@@ -345,6 +346,16 @@ public class AppEngineCorePluginConfiguration {
     }
   }
 
+  private void injectDeployGcloud(Class<? extends GcloudTask> gcloudTask) {
+    project
+        .getTasks()
+        .withType(gcloudTask)
+        .whenTaskAdded(
+            task ->
+                project.afterEvaluate(
+                    project -> task.setGcloud(cloudSdkOperations.getDeployGcloud())));
+  }
+
   private void injectGcloud(Class<? extends GcloudTask> gcloudTask) {
     project
         .getTasks()
@@ -25,15 +25,23 @@ import com.google.cloud.tools.appengine.operations.cloudsdk.CloudSdkNotFoundExce
 import com.google.cloud.tools.appengine.operations.cloudsdk.process.LegacyProcessHandler;
 import com.google.cloud.tools.appengine.operations.cloudsdk.process.NonZeroExceptionExitListener;
 import com.google.cloud.tools.appengine.operations.cloudsdk.process.ProcessHandler;
+import com.google.cloud.tools.appengine.operations.cloudsdk.process.ProcessMetricsCollector;
+import com.google.cloud.tools.appengine.operations.cloudsdk.process.StructuredLogLineListener;
 import com.google.cloud.tools.gradle.appengine.util.NullSafe;
 import java.io.File;
+import java.util.List;
+import org.gradle.api.Project;
 import org.gradle.api.logging.Logger;
+import org.gradle.api.plugins.ExtraPropertiesExtension;
+import org.gradle.util.GradleVersion;
 
 /** Cloud Sdk Operations with all common configuration. */
 public class CloudSdkOperations {
 
   private final CloudSdk cloudSdk;
   private final Gcloud gcloud;
+  private final Gcloud deployGcloud;
+  private final ProcessMetricsCollector processMetrics;
 
   /**
    * Operations factory for Cloud Sdk based actions.
@@ -45,15 +53,40 @@ public class CloudSdkOperations {
    */
   public CloudSdkOperations(File cloudSdkHome, File credentialFile, String verbosity)
       throws CloudSdkNotFoundException {
+    this(cloudSdkHome, credentialFile, verbosity, new ProcessMetricsCollector());
+  }
+
+  /**
+   * Operations factory for Cloud Sdk based actions, reporting process resource usage to {@code
+   * processMetrics}, usually the collector of the build from {@link #getBuildProcessMetrics}.
+   *
+   * @param cloudSdkHome path to cloud sdk
+   * @param credentialFile optional path to a credential file
+   * @param verbosity logging verbosity level for gcloud commands
+   * @param processMetrics receives the resource usage of every process
+   * @throws CloudSdkNotFoundException when cloud sdk path cannot be validated
+   */
+  public CloudSdkOperations(
+      File cloudSdkHome,
+      File credentialFile,
+      String verbosity,
+      ProcessMetricsCollector processMetrics)
+      throws CloudSdkNotFoundException {
+    this.processMetrics = processMetrics;
     cloudSdk = new CloudSdk.Builder().sdkPath(cloudSdkHome.toPath()).build();
-    gcloud =
-        Gcloud.builder(cloudSdk)
-            .setCredentialFile(NullSafe.convert(credentialFile, File::toPath))
-            .setMetricsEnvironment(
-                getClass().getPackage().getImplementationTitle(),
-                getClass().getPackage().getImplementationVersion())
-            .setVerbosity(verbosity)
-            .build();
+    gcloud = newGcloudBuilder(credentialFile, verbosity).build();
+    deployGcloud =
+        newGcloudBuilder(credentialFile, verbosity).setShowStructuredLogs("always").build();
+  }
+
+  private Gcloud.Builder newGcloudBuilder(File credentialFile, String verbosity) {
+    return Gcloud.builder(cloudSdk)
+        .setCredentialFile(NullSafe.convert(credentialFile, File::toPath))
+        .setMetricsEnvironment(
+            getClass().getPackage().getImplementationTitle(),
+            getClass().getPackage().getImplementationVersion())
+        .setVerbosity(verbosity)
+        .setProcessMetricsListener(processMetrics);
   }
 
   public CloudSdk getCloudSdk() {
@@ -64,12 +97,20 @@ public class CloudSdkOperations {
     return gcloud;
   }
 
+  /**
+   * Gcloud for application deployments, it enables structured logs so that {@link
+   * #getDeployHandler(Logger)} can report the time spent in each deploy phase.
+   */
+  public Gcloud getDeployGcloud() {
+    return deployGcloud;
+  }
+
   /**
    * DevServers isn't initialized at construction time, because we optionally download the appengine
    * component for appengine-web.xml based applications
    */
   public DevServers getDevServers() {
-    return DevServers.builder(cloudSdk).build();
+    return DevServers.builder(cloudSdk).setProcessMetricsListener(processMetrics).build();
   }
 
   /**
@@ -77,7 +118,83 @@ public class CloudSdkOperations {
    * component for appengine-web.xml based applications
    */
   public AppCfg getAppcfg() {
-    return AppCfg.builder(cloudSdk).build();
+    return getAppcfg(false);
+  }
+
+  /**
+   * Like {@link #getAppcfg()}, optionally running AppCfg inside the Gradle daemon.
+   *
+   * @param inProcess run AppCfg inside the current JVM instead of a new java process
+   */
+  public AppCfg getAppcfg(boolean inProcess) {
+    return AppCfg.builder(cloudSdk)
+        .setProcessMetricsListener(processMetrics)
+        .setInProcess(inProcess)
+        .build();
+  }
+
+  /** Resource usage of every Cloud SDK process started through these operations. */
+  public ProcessMetricsCollector getProcessMetrics() {
+    return processMetrics;
+  }
+
+  /**
+   * Returns the collector shared by all projects of the build. A per command summary of the Cloud
+   * SDK processes it saw is logged once, when the build has finished.
+   */
+  public static ProcessMetricsCollector getBuildProcessMetrics(Project project) {
+    if (GradleVersion.current().compareTo(GradleVersion.version("6.1")) >= 0) {
+      return project
+          .getGradle()
+          .getSharedServices()
+          .registerIfAbsent(ProcessMetricsService.NAME, ProcessMetricsService.class, spec -> {})
+          .get()
+          .getProcessMetrics();
+    }
+    // build services don't exist before Gradle 6.1, keep one collector on the root project
+    ExtraPropertiesExtension rootProperties =
+        project.getRootProject().getExtensions().getExtraProperties();
+    if (rootProperties.has(ProcessMetricsService.NAME)) {
+      return (ProcessMetricsCollector) rootProperties.get(ProcessMetricsService.NAME);
+    }
+    ProcessMetricsCollector processMetrics = new ProcessMetricsCollector();
+    rootProperties.set(ProcessMetricsService.NAME, processMetrics);
+    Logger logger = project.getRootProject().getLogger();
+    project.getGradle().buildFinished(result -> logSummary(processMetrics, logger));
+    return processMetrics;
+  }
+
+  /** Log a per command summary of the processes {@code processMetrics} saw, if there were any. */
+  static void logSummary(ProcessMetricsCollector processMetrics, Logger logger) {
+    List<String> lines = processMetrics.formatSummary();
+    if (lines.isEmpty()) {
+      return;
+    }
+    logger.lifecycle("Cloud SDK process summary:");
+    lines.forEach(line -> logger.lifecycle("  " + line));
+  }
+
+  /**
+   * Create and return a process handler for deployments run through {@link #getDeployGcloud()}. It
+   * logs the messages of structured log lines and a breakdown of the deploy phase timings.
+   */
+  public static ProcessHandler getDeployHandler(Logger logger) {
+    StructuredLogLineListener structuredLogs =
+        new StructuredLogLineListener(
+            event -> logger.debug("Deploy event: {}", event), logger::lifecycle);
+    return LegacyProcessHandler.builder()
+        .addStdOutLineListener(logger::lifecycle)
+        .addStdErrLineListener(structuredLogs)
+        .setExitListener(structuredLogs)
+        .addExitListener(
+            exitCode -> {
+              String timings = structuredLogs.formatPhaseTimings();
+              if (!timings.isEmpty()) {
+                logger.lifecycle("Deploy phase timings: " + timings);
+              }
+            })
+        .addExitListener(new NonZeroExceptionExitListener())
+        .build();
   }
 
   /** Create a return a new default configured process handler. */
@@ -24,6 +24,7 @@ import java.io.File;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import org.gradle.api.GradleException;
 import org.gradle.api.tasks.TaskAction;
@@ -68,10 +69,17 @@ public class DeployAllTask extends GcloudTask {
     }
 
     // Deploy
-    Deployment deploy = gcloud.newDeployment(CloudSdkOperations.getDefaultHandler(getLogger()));
+    Deployment deploy = gcloud.newDeployment(CloudSdkOperations.getDeployHandler(getLogger()));
 
-    DeployConfiguration deployConfig = deployExtension.toDeployConfiguration(deployables);
-    deploy.deploy(deployConfig);
+    if (deployExtension.isResumable()) {
+      DeployConfiguration deployConfig =
+          deployExtension.toDeployConfiguration(Collections.singletonList(appYaml));
+      Path journal = getTemporaryDir().toPath().resolve("deploy-journal.properties");
+      deploy.deployAll(deployConfig, deployables.subList(1, deployables.size()), journal);
+    } else {
+      DeployConfiguration deployConfig = deployExtension.toDeployConfiguration(deployables);
+      deploy.deploy(deployConfig);
+    }
   }
 
   private void addDeployable(List<Path> deployables, Path yaml) {
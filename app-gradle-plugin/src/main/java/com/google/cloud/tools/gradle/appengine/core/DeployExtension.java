@@ -43,6 +43,7 @@ public class DeployExtension {
   private Boolean stopPreviousVersion;
   private String version;
   private File appEngineDirectory;
+  private boolean resumable;
 
   public DeployExtension(Project gradleProject) {
     this.gradleProject = gradleProject;
@@ -140,6 +141,18 @@ public class DeployExtension {
     this.version = version;
   }
 
+  /**
+   * Returns true if appengineDeployAll deploys in resumable steps: after a failure, the next
+   * deployment resumes at the failed step if the staged application is unchanged.
+   */
+  public boolean isResumable() {
+    return resumable;
+  }
+
+  public void setResumable(boolean resumable) {
+    this.resumable = resumable;
+  }
+
   public void setAppEngineDirectory(Object appEngineDirectory) {
     this.appEngineDirectory = gradleProject.file(appEngineDirectory);
   }
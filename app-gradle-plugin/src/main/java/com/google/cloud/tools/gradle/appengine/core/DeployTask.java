@@ -48,6 +48,6 @@ public class DeployTask extends GcloudTask {
   public void deployAction() throws AppEngineException {
     DeployConfiguration deployConfig =
         deployExtension.toDeployConfiguration(ImmutableList.of(appYaml));
-    gcloud.newDeployment(CloudSdkOperations.getDefaultHandler(getLogger())).deploy(deployConfig);
+    gcloud.newDeployment(CloudSdkOperations.getDeployHandler(getLogger())).deploy(deployConfig);
   }
 }
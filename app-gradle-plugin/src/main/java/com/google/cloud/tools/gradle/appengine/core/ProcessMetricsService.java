@@ -0,0 +1,48 @@
+/*
+ * Copyright 2026 Google LLC. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.google.cloud.tools.gradle.appengine.core;
+
+import com.google.cloud.tools.appengine.operations.cloudsdk.process.ProcessMetricsCollector;
+import org.gradle.api.logging.Logger;
+import org.gradle.api.logging.Logging;
+import org.gradle.api.services.BuildService;
+import org.gradle.api.services.BuildServiceParameters;
+
+/**
+ * Collects the resource usage of every Cloud SDK process started during a build, across all
+ * projects and App Engine plugins, and logs a single summary when the build service is closed at
+ * the end of the build.
+ */
+public abstract class ProcessMetricsService
+    implements BuildService<BuildServiceParameters.None>, AutoCloseable {
+
+  static final String NAME = "appengineCloudSdkProcessMetrics";
+
+  private static final Logger logger = Logging.getLogger(ProcessMetricsService.class);
+
+  private final ProcessMetricsCollector processMetrics = new ProcessMetricsCollector();
+
+  public ProcessMetricsCollector getProcessMetrics() {
+    return processMetrics;
+  }
+
+  @Override
+  public void close() {
+    CloudSdkOperations.logSummary(processMetrics, logger);
+  }
+}
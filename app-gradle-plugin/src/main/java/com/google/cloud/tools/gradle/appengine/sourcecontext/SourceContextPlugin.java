@@ -68,7 +68,11 @@ public class SourceContextPlugin implements Plugin<Project> {
         project -> {
           try {
             cloudSdkOperations =
-                new CloudSdkOperations(tools.getCloudSdkHome(), null, tools.getVerbosity());
+                new CloudSdkOperations(
+                    tools.getCloudSdkHome(),
+                    null,
+                    tools.getVerbosity(),
+                    CloudSdkOperations.getBuildProcessMetrics(project));
           } catch (CloudSdkNotFoundException ex) {
             // this should be caught in AppEngineCorePluginConfig before it can ever reach here.
             throw new GradleException("Could not find CloudSDK: ", ex);
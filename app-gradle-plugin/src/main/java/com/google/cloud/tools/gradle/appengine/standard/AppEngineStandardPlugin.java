@@ -100,7 +100,11 @@ public class AppEngineStandardPlugin implements Plugin<Project> {
           ToolsExtension tools = appengineExtension.getTools();
           try {
             cloudSdkOperations =
-                new CloudSdkOperations(tools.getCloudSdkHome(), null, tools.getVerbosity());
+                new CloudSdkOperations(
+                    tools.getCloudSdkHome(),
+                    null,
+                    tools.getVerbosity(),
+                    CloudSdkOperations.getBuildProcessMetrics(project));
           } catch (CloudSdkNotFoundException ex) {
             // this should be caught in AppEngineCorePluginConfig before it can ever reach here.
             throw new GradleException("Could not find CloudSDK: ", ex);
@@ -163,7 +167,11 @@ public class AppEngineStandardPlugin implements Plugin<Project> {
         .whenTaskAdded(
             stageStandardTask ->
                 project.afterEvaluate(
-                    ignored -> stageStandardTask.setAppCfg(cloudSdkOperations.getAppcfg())));
+                    ignored -> {
+                      StageStandardExtension stage = stageStandardTask.getStageStandardExtension();
+                      stageStandardTask.setAppCfg(
+                          cloudSdkOperations.getAppcfg(stage != null && stage.isInProcessAppCfg()));
+                    }));
 
     StageStandardTask stageTask =
         project
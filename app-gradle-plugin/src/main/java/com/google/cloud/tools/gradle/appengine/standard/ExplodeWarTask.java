@@ -17,33 +17,138 @@
 
 package com.google.cloud.tools.gradle.appengine.standard;
 
+import com.google.cloud.tools.gradle.appengine.util.io.WarExploder;
 import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.function.Predicate;
+import org.gradle.api.Action;
+import org.gradle.api.DefaultTask;
+import org.gradle.api.tasks.Input;
+import org.gradle.api.tasks.InputFile;
+import org.gradle.api.tasks.Internal;
 import org.gradle.api.tasks.OutputDirectory;
-import org.gradle.api.tasks.Sync;
+import org.gradle.api.tasks.TaskAction;
+import org.gradle.api.tasks.util.PatternFilterable;
+import org.gradle.api.tasks.util.PatternSet;
 
-/** Expand a war. */
-public class ExplodeWarTask extends Sync {
+/**
+ * Expand a war. Only the entries that changed since the last run are extracted, see {@link
+ * WarExploder}.
+ *
+ * <p>This task used to be a {@link org.gradle.api.tasks.Sync} task. Of its copy spec, the {@code
+ * include}, {@code exclude} and {@code preserve} patterns are still supported.
+ */
+public class ExplodeWarTask extends DefaultTask {
 
+  private static final String DATASTORE_INDEXES_AUTO_XML =
+      "WEB-INF/appengine-generated/datastore-indexes-auto.xml";
+
+  private File warFile;
   private File explodedAppDirectory;
+  private final PatternSet entries = new PatternSet();
+  private final PatternSet preserve = new PatternSet().include(DATASTORE_INDEXES_AUTO_XML);
+
+  @InputFile
+  public File getWarFile() {
+    return warFile;
+  }
 
   public void setWarFile(File warFile) {
-    from(getProject().zipTree(warFile));
+    this.warFile = warFile;
   }
 
-  /**
-   * Sets the output directory of Sync Task and preserves the setting so it can be recovered later
-   * via getter.
-   */
+  /** Sets the directory the war is expanded into. */
   public void setExplodedAppDirectory(File explodedAppDirectory) {
     this.explodedAppDirectory = explodedAppDirectory;
-    into(explodedAppDirectory);
-    preserve(
-        patternFilterable ->
-            patternFilterable.include("WEB-INF/appengine-generated/datastore-indexes-auto.xml"));
   }
 
   @OutputDirectory
   public File getExplodedAppDirectory() {
     return explodedAppDirectory;
   }
+
+  /** Only expands the war entries that match one of {@code includes}, like {@code Sync}. */
+  public ExplodeWarTask include(String... includes) {
+    entries.include(includes);
+    return this;
+  }
+
+  /** Doesn't expand the war entries that match one of {@code excludes}, like {@code Sync}. */
+  public ExplodeWarTask exclude(String... excludes) {
+    entries.exclude(excludes);
+    return this;
+  }
+
+  @Input
+  public Set<String> getIncludes() {
+    return entries.getIncludes();
+  }
+
+  @Input
+  public Set<String> getExcludes() {
+    return entries.getExcludes();
+  }
+
+  /**
+   * Returns the patterns of the files in the exploded directory that are kept even though they are
+   * not in the war, like {@code Sync}. Includes the generated datastore-indexes-auto.xml.
+   */
+  @Internal
+  public PatternFilterable getPreserve() {
+    return preserve;
+  }
+
+  /** Configures the files that are kept even though they are not in the war, like {@code Sync}. */
+  public ExplodeWarTask preserve(Action<? super PatternFilterable> action) {
+    action.execute(preserve);
+    return this;
+  }
+
+  /** Task entrypoint : expand the war, keeping the preserved files. */
+  @TaskAction
+  public void explodeWar() throws IOException {
+    WarExploder.Result result =
+        new WarExploder(
+                explodedAppDirectory.toPath(),
+                new File(getTemporaryDir(), "exploded-war.index").toPath(),
+                getPreservedFiles(),
+                getEntryFilter())
+            .explode(warFile.toPath());
+    getLogger()
+        .info(
+            "Exploded "
+                + warFile
+                + ": "
+                + result.getExtracted().size()
+                + " extracted, "
+                + result.getUnchanged().size()
+                + " unchanged, "
+                + result.getDeleted().size()
+                + " deleted");
+  }
+
+  private Set<String> getPreservedFiles() {
+    Path directory = explodedAppDirectory.toPath();
+    Set<String> preserved = new HashSet<>();
+    for (File file : getProject().fileTree(explodedAppDirectory).matching(preserve)) {
+      preserved.add(directory.relativize(file.toPath()).toString().replace('\\', '/'));
+    }
+    return preserved;
+  }
+
+  private Predicate<String> getEntryFilter() {
+    if (entries.isEmpty()) {
+      return entry -> true;
+    }
+    // match the entries like Sync did, visiting the tree doesn't extract anything
+    Set<String> accepted = new HashSet<>();
+    getProject()
+        .zipTree(warFile)
+        .matching(entries)
+        .visit(details -> accepted.add(details.getRelativePath().getPathString()));
+    return accepted::contains;
+  }
 }
@@ -43,6 +43,7 @@ public class StageStandardExtension {
   private Boolean deleteJsps;
   private Boolean enableJarClasses;
   private Boolean disableJarJsps;
+  private boolean inProcessAppCfg;
   private String runtime;
 
   /** Constuctor. */
@@ -158,6 +159,16 @@ public class StageStandardExtension {
     this.disableJarJsps = disableJarJsps;
   }
 
+  /** Run AppCfg inside the Gradle daemon instead of starting a new java process for every stage. */
+  @Input
+  public boolean isInProcessAppCfg() {
+    return inProcessAppCfg;
+  }
+
+  public void setInProcessAppCfg(boolean inProcessAppCfg) {
+    this.inProcessAppCfg = inProcessAppCfg;
+  }
+
   @Input
   @Optional
   public String getRuntime() {
@@ -17,16 +17,12 @@
 
 package com.google.cloud.tools.gradle.appengine.util;
 
+import com.google.cloud.tools.appengine.AppEngineDescriptor;
+import com.google.cloud.tools.appengine.AppEngineException;
+import com.google.cloud.tools.appengine.DescriptorCache;
 import java.io.File;
 import java.io.IOException;
-import javax.xml.parsers.DocumentBuilderFactory;
-import javax.xml.parsers.ParserConfigurationException;
-import javax.xml.xpath.XPath;
-import javax.xml.xpath.XPathConstants;
-import javax.xml.xpath.XPathExpressionException;
-import javax.xml.xpath.XPathFactory;
 import org.gradle.api.GradleException;
-import org.w3c.dom.Document;
 import org.xml.sax.SAXException;
 
 /**
@@ -35,12 +31,12 @@ import org.xml.sax.SAXException;
  */
 public class AppEngineWebXml {
 
-  private final Document document;
+  private final AppEngineDescriptor descriptor;
 
   private AppEngineWebXml(File appengineWebXml) {
     try {
-      document = DocumentBuilderFactory.newInstance().newDocumentBuilder().parse(appengineWebXml);
-    } catch (SAXException | IOException | ParserConfigurationException e) {
+      descriptor = DescriptorCache.getInstance().getAppEngineDescriptor(appengineWebXml.toPath());
+    } catch (SAXException | IOException e) {
       throw new GradleException("Failed to parse appengine-web.xml", e);
     }
   }
@@ -52,11 +48,9 @@ public class AppEngineWebXml {
   /** Check if vm = true. */
   public boolean isVm() {
     try {
-      XPath xpath = XPathFactory.newInstance().newXPath();
-      String expression = "/appengine-web-app/vm/text()='true'";
-      return (Boolean) xpath.evaluate(expression, document, XPathConstants.BOOLEAN);
-    } catch (XPathExpressionException e) {
-      throw new GradleException("XPath evaluation failed on appengine-web.xml", e);
+      return descriptor.isVm();
+    } catch (AppEngineException e) {
+      throw new GradleException("Failed to read vm from appengine-web.xml", e);
     }
   }
 }
@@ -0,0 +1,308 @@
+/*
+ * Copyright 2026 Google LLC. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.google.cloud.tools.gradle.appengine.util.io;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+/**
+ * Explodes a war into a directory incrementally. The CRC and size of every entry are read from the
+ * central directory of the war and compared with an index of the previous explosion, only entries
+ * that changed are extracted again. Exploded files whose size or last modified time no longer match
+ * the index are extracted again too.
+ *
+ * <p>The result is the same as syncing the whole war into the directory: files and directories that
+ * are not in the war are deleted, except for the preserved files.
+ */
+public class WarExploder {
+
+  private final Path explodedDirectory;
+  private final Path indexFile;
+  private final Set<String> preserved;
+  private final Predicate<String> entryFilter;
+
+  /**
+   * Creates an exploder.
+   *
+   * @param explodedDirectory the directory to explode wars into
+   * @param indexFile where the index of the last explosion is kept, outside of {@code
+   *     explodedDirectory}
+   * @param preserved files in {@code explodedDirectory} that are never deleted, as '/' separated
+   *     paths relative to it
+   */
+  public WarExploder(Path explodedDirectory, Path indexFile, Collection<String> preserved) {
+    this(explodedDirectory, indexFile, preserved, entry -> true);
+  }
+
+  /**
+   * Creates an exploder that only explodes the entries {@code entryFilter} accepts, the others are
+   * treated as if they were not in the war.
+   *
+   * @param entryFilter accepts entry names, without the trailing '/' of directories
+   */
+  public WarExploder(
+      Path explodedDirectory,
+      Path indexFile,
+      Collection<String> preserved,
+      Predicate<String> entryFilter) {
+    this.explodedDirectory = explodedDirectory.toAbsolutePath().normalize();
+    this.indexFile = indexFile;
+    this.preserved = new HashSet<>(preserved);
+    this.entryFilter = entryFilter;
+  }
+
+  /**
+   * Brings the exploded directory in line with {@code war}.
+   *
+   * @return what was extracted, left alone and deleted
+   */
+  public Result explode(Path war) throws IOException {
+    Map<String, IndexEntry> previous = readIndex();
+    Map<String, IndexEntry> index = new LinkedHashMap<>();
+    List<String> extracted = new ArrayList<>();
+    List<String> unchanged = new ArrayList<>();
+    List<String> deleted;
+
+    Files.createDirectories(explodedDirectory);
+    try (ZipFile zipFile = new ZipFile(war.toFile())) {
+      // the central directory lists every entry, so what to delete is known before extracting
+      Map<Path, ZipEntry> files = new LinkedHashMap<>();
+      Set<Path> directories = new HashSet<>();
+      Enumeration<? extends ZipEntry> entries = zipFile.entries();
+      while (entries.hasMoreElements()) {
+        ZipEntry entry = entries.nextElement();
+        String name = entry.getName();
+        if (!entryFilter.test(name.endsWith("/") ? name.substring(0, name.length() - 1) : name)) {
+          continue;
+        }
+        Path target = resolve(entry.getName());
+        if (entry.isDirectory()) {
+          addDirectories(directories, target);
+        } else {
+          files.put(target, entry);
+          addDirectories(directories, target.getParent());
+        }
+      }
+      // deleting first also replaces files that became directories and vice versa
+      deleted = deleteUnexploded(files.keySet(), directories);
+      for (Path directory : directories) {
+        Files.createDirectories(directory);
+      }
+
+      for (Map.Entry<Path, ZipEntry> file : files.entrySet()) {
+        Path target = file.getKey();
+        ZipEntry entry = file.getValue();
+        String name = relativeName(target);
+        IndexEntry last = previous.get(name);
+        if (last != null && last.matches(entry) && last.isExplodedTo(target)) {
+          index.put(name, last);
+          unchanged.add(name);
+          continue;
+        }
+        try (InputStream in = zipFile.getInputStream(entry)) {
+          Files.copy(in, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+        index.put(
+            name,
+            new IndexEntry(
+                entry.getCrc(), entry.getSize(), Files.getLastModifiedTime(target).toMillis()));
+        extracted.add(name);
+      }
+    }
+
+    writeIndex(index);
+    return new Result(extracted, unchanged, deleted);
+  }
+
+  /** Resolves an entry name, and blocks entries outside the exploded directory ("zip slip"). */
+  private Path resolve(String entryName) throws IOException {
+    Path target = explodedDirectory.resolve(entryName).normalize();
+    if (!target.startsWith(explodedDirectory) || target.equals(explodedDirectory)) {
+      throw new IOException("Blocked exploding war entry outside destination: " + entryName);
+    }
+    return target;
+  }
+
+  private void addDirectories(Set<Path> directories, Path directory) {
+    for (Path current = directory;
+        current != null && !current.equals(explodedDirectory) && directories.add(current);
+        current = current.getParent()) {
+      // its parents are added with it
+    }
+  }
+
+  /** Deletes files and directories that are neither in the war nor preserved. */
+  private List<String> deleteUnexploded(Set<Path> files, Set<Path> directories) throws IOException {
+    List<String> deleted = new ArrayList<>();
+    Files.walkFileTree(
+        explodedDirectory,
+        new SimpleFileVisitor<Path>() {
+          @Override
+          public FileVisitResult visitFile(Path file, BasicFileAttributes attrs)
+              throws IOException {
+            if (!files.contains(file) && !preserved.contains(relativeName(file))) {
+              Files.delete(file);
+              deleted.add(relativeName(file));
+            }
+            return FileVisitResult.CONTINUE;
+          }
+
+          @Override
+          public FileVisitResult postVisitDirectory(Path dir, IOException ex) throws IOException {
+            if (ex != null) {
+              throw ex;
+            }
+            if (!dir.equals(explodedDirectory) && !directories.contains(dir) && isEmpty(dir)) {
+              Files.delete(dir);
+              deleted.add(relativeName(dir));
+            }
+            return FileVisitResult.CONTINUE;
+          }
+        });
+    return deleted;
+  }
+
+  private String relativeName(Path path) {
+    return explodedDirectory.relativize(path).toString().replace('\\', '/');
+  }
+
+  private static boolean isEmpty(Path directory) throws IOException {
+    try (Stream<Path> children = Files.list(directory)) {
+      return !children.findAny().isPresent();
+    }
+  }
+
+  /** Reads the index of the last explosion, an unreadable index is treated as missing. */
+  private Map<String, IndexEntry> readIndex() throws IOException {
+    if (!Files.isRegularFile(indexFile)) {
+      return Collections.emptyMap();
+    }
+    Map<String, IndexEntry> index = new HashMap<>();
+    try (BufferedReader reader = Files.newBufferedReader(indexFile, StandardCharsets.UTF_8)) {
+      String line;
+      while ((line = reader.readLine()) != null) {
+        // crc size lastModified name, the name may contain spaces
+        String[] fields = line.split(" ", 4);
+        if (fields.length != 4) {
+          return Collections.emptyMap();
+        }
+        index.put(
+            fields[3],
+            new IndexEntry(
+                Long.parseLong(fields[0]), Long.parseLong(fields[1]), Long.parseLong(fields[2])));
+      }
+    } catch (NumberFormatException ex) {
+      return Collections.emptyMap();
+    }
+    return index;
+  }
+
+  private void writeIndex(Map<String, IndexEntry> index) throws IOException {
+    Path parent = indexFile.toAbsolutePath().getParent();
+    if (parent != null) {
+      Files.createDirectories(parent);
+    }
+    Path temporary = indexFile.resolveSibling(indexFile.getFileName() + ".tmp");
+    try (BufferedWriter writer = Files.newBufferedWriter(temporary, StandardCharsets.UTF_8)) {
+      for (Map.Entry<String, IndexEntry> entry : index.entrySet()) {
+        IndexEntry value = entry.getValue();
+        writer.write(
+            value.crc + " " + value.size + " " + value.lastModified + " " + entry.getKey());
+        writer.newLine();
+      }
+    }
+    Files.move(temporary, indexFile, StandardCopyOption.REPLACE_EXISTING);
+  }
+
+  private static class IndexEntry {
+    private final long crc;
+    private final long size;
+    private final long lastModified;
+
+    private IndexEntry(long crc, long size, long lastModified) {
+      this.crc = crc;
+      this.size = size;
+      this.lastModified = lastModified;
+    }
+
+    private boolean matches(ZipEntry entry) {
+      return entry.getCrc() == crc && entry.getSize() == size;
+    }
+
+    private boolean isExplodedTo(Path target) throws IOException {
+      if (!Files.isRegularFile(target, LinkOption.NOFOLLOW_LINKS)) {
+        return false;
+      }
+      BasicFileAttributes attributes =
+          Files.readAttributes(target, BasicFileAttributes.class, LinkOption.NOFOLLOW_LINKS);
+      return attributes.size() == size && attributes.lastModifiedTime().toMillis() == lastModified;
+    }
+  }
+
+  /** What an {@link #explode(Path)} did, as '/' separated paths relative to the directory. */
+  public static class Result {
+    private final List<String> extracted;
+    private final List<String> unchanged;
+    private final List<String> deleted;
+
+    private Result(List<String> extracted, List<String> unchanged, List<String> deleted) {
+      this.extracted = Collections.unmodifiableList(extracted);
+      this.unchanged = Collections.unmodifiableList(unchanged);
+      this.deleted = Collections.unmodifiableList(deleted);
+    }
+
+    /** Entries that were new or changed, and were extracted. */
+    public List<String> getExtracted() {
+      return extracted;
+    }
+
+    /** Entries that were already up to date. */
+    public List<String> getUnchanged() {
+      return unchanged;
+    }
+
+    /** Files and directories that were deleted, a deleted directory is listed after its content. */
+    public List<String> getDeleted() {
+      return deleted;
+    }
+  }
+}
@@ -18,6 +18,7 @@ package com.google.cloud.tools.gradle.appengine.appyaml;
 
 import com.google.cloud.tools.appengine.configuration.AppYamlProjectStageConfiguration;
 import com.google.cloud.tools.gradle.appengine.TestProject;
+import com.google.cloud.tools.io.JarStore;
 import com.google.common.base.Charsets;
 import java.io.File;
 import java.io.IOException;
@@ -66,6 +67,12 @@ public class StageAppYamlExtensionTest {
     extension.setAppEngineDirectory(appEngineDirectory);
     extension.setArtifact(artifact);
     extension.setDockerDirectory(dockerDirectory);
+    extension.setLinkFiles(true);
+    extension.setParallelCopy(true);
+    extension.setJarStore(true);
+    extension.setExtraFilesIncludes(Collections.singletonList("static"));
+    extension.setExtraFilesExcludes(Collections.singletonList("node_modules"));
+    extension.setDockerExcludes(Collections.singletonList("*.md"));
     extension.setExtraFilesDirectories(extraFilesDirectories);
 
     AppYamlProjectStageConfiguration generatedConfig =
@@ -77,6 +84,15 @@ public class StageAppYamlExtensionTest {
     Assert.assertEquals(
         extraFilesDirectories.stream().map(File::toPath).collect(Collectors.toList()),
         generatedConfig.getExtraFilesDirectory());
+    Assert.assertTrue(generatedConfig.isSync());
+    Assert.assertTrue(generatedConfig.isLinkFiles());
+    Assert.assertTrue(generatedConfig.isParallelCopy());
+    Assert.assertEquals(JarStore.getDefaultDirectory(), generatedConfig.getJarStoreDirectory());
+    Assert.assertEquals(
+        Collections.singletonList("static"), generatedConfig.getExtraFilesIncludes());
+    Assert.assertEquals(
+        Collections.singletonList("node_modules"), generatedConfig.getExtraFilesExcludes());
+    Assert.assertEquals(Collections.singletonList("*.md"), generatedConfig.getDockerExcludes());
   }
 
   @Test
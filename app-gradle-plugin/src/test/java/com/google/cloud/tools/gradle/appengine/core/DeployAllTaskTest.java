@@ -16,8 +16,11 @@
 
 package com.google.cloud.tools.gradle.appengine.core;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -29,6 +32,8 @@ import com.google.cloud.tools.appengine.operations.cloudsdk.process.ProcessHandl
 import java.io.File;
 import java.io.IOException;
 import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
 import org.gradle.api.Project;
 import org.gradle.testfixtures.ProjectBuilder;
 import org.junit.Before;
@@ -124,6 +129,24 @@ public class DeployAllTaskTest {
     assertFalse(captured.getDeployables().contains(invalidYaml));
   }
 
+  @Test
+  public void testDeployAllAction_resumable() throws AppEngineException, IOException {
+    deployExtension.setAppEngineDirectory(tempFolder.newFolder("appengine"));
+    deployExtension.setResumable(true);
+
+    final Path appYaml = tempFolder.newFile("staging/app.yaml").toPath();
+    final Path cronYaml = tempFolder.newFile("appengine/cron.yaml").toPath();
+    final Path queueYaml = tempFolder.newFile("appengine/queue.yaml").toPath();
+
+    deployAllTask.deployAllAction();
+
+    Path journal = deployAllTask.getTemporaryDir().toPath().resolve("deploy-journal.properties");
+    verify(deploy)
+        .deployAll(deployCapture.capture(), eq(Arrays.asList(cronYaml, queueYaml)), eq(journal));
+    verify(deploy, never()).deploy(Mockito.any());
+    assertEquals(Collections.singletonList(appYaml), deployCapture.getValue().getDeployables());
+  }
+
   @Test
   public void testDeployAllAction_validFileNotInDirStandard()
       throws AppEngineException, IOException {
@@ -19,8 +19,12 @@ package com.google.cloud.tools.gradle.appengine.standard;
 
 import com.google.cloud.tools.gradle.appengine.TestProject;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import org.gradle.testkit.runner.BuildResult;
+import org.gradle.testkit.runner.TaskOutcome;
 import org.junit.Assert;
 import org.junit.Rule;
 import org.junit.Test;
@@ -63,4 +67,63 @@ public class ExplodeWarTaskTest {
     Assert.assertTrue(Files.isRegularFile(datastoreIndexesAutoXml));
     Assert.assertFalse(Files.isRegularFile(junkXml));
   }
+
+  @Test
+  public void testUpToDate() throws IOException {
+    TestProject project =
+        new TestProject(testProjectDir.getRoot()).addStandardBuildFile().addAppEngineWebXml();
+
+    BuildResult first = project.applyGradleRunner("explodeWar");
+    BuildResult second = project.applyGradleRunner("explodeWar");
+
+    Assert.assertEquals(TaskOutcome.SUCCESS, first.task(":explodeWar").getOutcome());
+    Assert.assertEquals(TaskOutcome.UP_TO_DATE, second.task(":explodeWar").getOutcome());
+
+    Path appEngineWebXml =
+        testProjectDir.getRoot().toPath().resolve("src/main/webapp/WEB-INF/appengine-web.xml");
+    Files.write(
+        appEngineWebXml,
+        "<appengine-web-app><threadsafe>true</threadsafe></appengine-web-app>"
+            .getBytes(StandardCharsets.UTF_8));
+    BuildResult changed = project.applyGradleRunner("explodeWar");
+
+    Assert.assertEquals(TaskOutcome.SUCCESS, changed.task(":explodeWar").getOutcome());
+    Assert.assertArrayEquals(
+        Files.readAllBytes(appEngineWebXml),
+        Files.readAllBytes(getExplodedApp().resolve("WEB-INF/appengine-web.xml")));
+  }
+
+  @Test
+  public void testCopySpecPatterns() throws IOException {
+    TestProject project =
+        new TestProject(testProjectDir.getRoot()).addStandardBuildFile().addAppEngineWebXml();
+    Files.write(
+        testProjectDir.getRoot().toPath().resolve("build.gradle"),
+        ("\nexplodeWar {\n"
+                + "  exclude 'WEB-INF/appengine-web.xml'\n"
+                + "  preserve { include 'keep.txt' }\n"
+                + "}\n")
+            .getBytes(StandardCharsets.UTF_8),
+        StandardOpenOption.APPEND);
+    project.applyGradleRunner("explodeWar");
+
+    Path explodedApp = getExplodedApp();
+    Assert.assertTrue(Files.isRegularFile(explodedApp.resolve("META-INF/MANIFEST.MF")));
+    Assert.assertFalse(Files.exists(explodedApp.resolve("WEB-INF/appengine-web.xml")));
+
+    Files.createFile(explodedApp.resolve("keep.txt"));
+    Files.createFile(explodedApp.resolve("junk.txt"));
+    project.applyGradleRunner("explodeWar", "--rerun-tasks");
+
+    Assert.assertTrue(Files.exists(explodedApp.resolve("keep.txt")));
+    Assert.assertFalse(Files.exists(explodedApp.resolve("junk.txt")));
+  }
+
+  private Path getExplodedApp() {
+    return testProjectDir
+        .getRoot()
+        .toPath()
+        .resolve("build")
+        .resolve("exploded-" + testProjectDir.getRoot().getName());
+  }
 }
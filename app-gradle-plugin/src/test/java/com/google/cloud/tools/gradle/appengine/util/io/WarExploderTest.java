@@ -0,0 +1,191 @@
+/*
+ * Copyright 2026 Google LLC. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.google.cloud.tools.gradle.appengine.util.io;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class WarExploderTest {
+
+  private static final String PRESERVED = "WEB-INF/appengine-generated/datastore-indexes-auto.xml";
+
+  @Rule public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+  private Path war;
+  private Path exploded;
+  private WarExploder exploder;
+  private Map<String, String> entries;
+
+  @Before
+  public void setUp() throws IOException {
+    war = temporaryFolder.getRoot().toPath().resolve("app.war");
+    exploded = temporaryFolder.getRoot().toPath().resolve("exploded");
+    exploder =
+        new WarExploder(
+            exploded,
+            temporaryFolder.getRoot().toPath().resolve("tmp/exploded-war.index"),
+            Collections.singleton(PRESERVED));
+    entries = new LinkedHashMap<>();
+    entries.put("index.jsp", "<html/>");
+    entries.put("WEB-INF/", null);
+    entries.put("WEB-INF/web.xml", "<web-app/>");
+    entries.put("WEB-INF/lib/a.jar", "a");
+    entries.put("WEB-INF/lib/b.jar", "b");
+  }
+
+  @Test
+  public void testExplode_extractsEveryEntry() throws IOException {
+    WarExploder.Result result = exploder.explode(writeWar());
+
+    Assert.assertEquals(
+        Arrays.asList("index.jsp", "WEB-INF/web.xml", "WEB-INF/lib/a.jar", "WEB-INF/lib/b.jar"),
+        result.getExtracted());
+    Assert.assertEquals("a", read("WEB-INF/lib/a.jar"));
+    Assert.assertEquals("<html/>", read("index.jsp"));
+  }
+
+  @Test
+  public void testExplode_extractsOnlyChangedEntries() throws IOException {
+    exploder.explode(writeWar());
+    entries.put("index.jsp", "<html>changed</html>");
+
+    WarExploder.Result result = exploder.explode(writeWar());
+
+    Assert.assertEquals(Collections.singletonList("index.jsp"), result.getExtracted());
+    Assert.assertEquals(
+        Arrays.asList("WEB-INF/web.xml", "WEB-INF/lib/a.jar", "WEB-INF/lib/b.jar"),
+        result.getUnchanged());
+    Assert.assertEquals("<html>changed</html>", read("index.jsp"));
+  }
+
+  @Test
+  public void testExplode_deletesRemovedEntriesAndKeepsPreserved() throws IOException {
+    exploder.explode(writeWar());
+    entries.remove("WEB-INF/lib/a.jar");
+    entries.remove("WEB-INF/lib/b.jar");
+    Path preserved = exploded.resolve(PRESERVED);
+    Files.createDirectories(preserved.getParent());
+    Files.write(preserved, "<datastore-indexes/>".getBytes(StandardCharsets.UTF_8));
+    Files.createFile(exploded.resolve("WEB-INF/appengine-generated/junk.xml"));
+
+    WarExploder.Result result = exploder.explode(writeWar());
+
+    Assert.assertEquals(
+        Arrays.asList(
+            "WEB-INF/appengine-generated/junk.xml",
+            "WEB-INF/lib",
+            "WEB-INF/lib/a.jar",
+            "WEB-INF/lib/b.jar"),
+        sorted(result.getDeleted()));
+    Assert.assertTrue(Files.isRegularFile(preserved));
+    Assert.assertFalse(Files.exists(exploded.resolve("WEB-INF/lib")));
+  }
+
+  @Test
+  public void testExplode_entryFilter() throws IOException {
+    exploder.explode(writeWar());
+    WarExploder filtered =
+        new WarExploder(
+            exploded,
+            temporaryFolder.getRoot().toPath().resolve("tmp/exploded-war.index"),
+            Collections.singleton(PRESERVED),
+            entry -> !entry.startsWith("WEB-INF/lib"));
+
+    WarExploder.Result result = filtered.explode(writeWar());
+
+    Assert.assertEquals(
+        Arrays.asList("WEB-INF/lib", "WEB-INF/lib/a.jar", "WEB-INF/lib/b.jar"),
+        sorted(result.getDeleted()));
+    Assert.assertEquals(Arrays.asList("index.jsp", "WEB-INF/web.xml"), result.getUnchanged());
+  }
+
+  @Test
+  public void testExplode_reextractsModifiedFiles() throws IOException {
+    exploder.explode(writeWar());
+    Files.write(exploded.resolve("WEB-INF/web.xml"), "edited".getBytes(StandardCharsets.UTF_8));
+
+    WarExploder.Result result = exploder.explode(writeWar());
+
+    Assert.assertEquals(Collections.singletonList("WEB-INF/web.xml"), result.getExtracted());
+    Assert.assertEquals("<web-app/>", read("WEB-INF/web.xml"));
+  }
+
+  @Test
+  public void testExplode_fileReplacedByDirectory() throws IOException {
+    exploder.explode(writeWar());
+    entries.remove("index.jsp");
+    entries.put("index.jsp/nested.jsp", "nested");
+
+    exploder.explode(writeWar());
+
+    Assert.assertEquals("nested", read("index.jsp/nested.jsp"));
+  }
+
+  @Test
+  public void testExplode_blocksEntriesOutsideDirectory() throws IOException {
+    entries.put("../evil.jsp", "evil");
+    try {
+      exploder.explode(writeWar());
+      Assert.fail("IOException expected");
+    } catch (IOException ex) {
+      Assert.assertEquals(
+          "Blocked exploding war entry outside destination: ../evil.jsp", ex.getMessage());
+    }
+    Assert.assertFalse(Files.exists(temporaryFolder.getRoot().toPath().resolve("evil.jsp")));
+  }
+
+  private Path writeWar() throws IOException {
+    try (OutputStream out = Files.newOutputStream(war);
+        ZipOutputStream zip = new ZipOutputStream(out)) {
+      for (Map.Entry<String, String> entry : entries.entrySet()) {
+        zip.putNextEntry(new ZipEntry(entry.getKey()));
+        if (entry.getValue() != null) {
+          zip.write(entry.getValue().getBytes(StandardCharsets.UTF_8));
+        }
+        zip.closeEntry();
+      }
+    }
+    return war;
+  }
+
+  private String read(String name) throws IOException {
+    return new String(Files.readAllBytes(exploded.resolve(name)), StandardCharsets.UTF_8);
+  }
+
+  private static List<String> sorted(List<String> names) {
+    List<String> sorted = new ArrayList<>(names);
+    Collections.sort(sorted);
+    return sorted;
+  }
+}
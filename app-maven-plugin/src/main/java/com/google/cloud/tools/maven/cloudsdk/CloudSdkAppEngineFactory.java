@@ -33,7 +33,9 @@ import com.google.cloud.tools.appengine.operations.cloudsdk.CloudSdkVersionFileE
 import com.google.cloud.tools.appengine.operations.cloudsdk.process.LegacyProcessHandler;
 import com.google.cloud.tools.appengine.operations.cloudsdk.process.NonZeroExceptionExitListener;
 import com.google.cloud.tools.appengine.operations.cloudsdk.process.ProcessHandler;
+import com.google.cloud.tools.appengine.operations.cloudsdk.process.ProcessMetricsCollector;
 import com.google.cloud.tools.appengine.operations.cloudsdk.process.ProcessOutputLineListener;
+import com.google.cloud.tools.appengine.operations.cloudsdk.process.StructuredLogLineListener;
 import com.google.cloud.tools.managedcloudsdk.components.SdkComponent;
 import com.google.common.annotations.VisibleForTesting;
 import java.io.File;
@@ -45,17 +47,36 @@ import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.List;
+import org.apache.maven.execution.MavenSession;
 import org.apache.maven.plugin.logging.Log;
 
 /** Factory for App Engine dependencies. */
 public class CloudSdkAppEngineFactory {
 
+  private static final String STRUCTURED_LOGS_ALWAYS = "always";
+
   private final CloudSdkMojo mojo;
+  private ProcessMetricsCollector processMetrics;
 
   public CloudSdkAppEngineFactory(CloudSdkMojo mojo) {
     this.mojo = mojo;
   }
 
+  /**
+   * Returns the resource usage of every Cloud SDK process started in this Maven session. It is
+   * shared by all goals and modules and summarized once, when the session ends.
+   */
+  public synchronized ProcessMetricsCollector getProcessMetrics() {
+    if (processMetrics == null) {
+      MavenSession session = mojo.getMavenSession();
+      processMetrics =
+          session == null
+              ? new ProcessMetricsCollector()
+              : ProcessMetricsSessionListener.getProcessMetrics(session, mojo.getLog());
+    }
+    return processMetrics;
+  }
+
   /** Constructs an object used for auth. */
   public Auth auth() {
     return getGcloud().newAuth(newDefaultProcessHandler());
@@ -63,7 +84,16 @@ public class CloudSdkAppEngineFactory {
 
   /** Constructs an object used for appengine-web.xml based staging. */
   public AppEngineWebXmlProjectStaging appengineWebXmlStaging() {
-    return getAppCfg().newStaging(newDefaultProcessHandler());
+    return appengineWebXmlStaging(false);
+  }
+
+  /**
+   * Constructs an object used for appengine-web.xml based staging.
+   *
+   * @param inProcess run AppCfg inside the Maven JVM instead of a new java process
+   */
+  public AppEngineWebXmlProjectStaging appengineWebXmlStaging(boolean inProcess) {
+    return getAppCfg(inProcess).newStaging(newDefaultProcessHandler());
   }
 
   /** Constructs an object used for app.yaml based staging. */
@@ -71,9 +101,15 @@ public class CloudSdkAppEngineFactory {
     return new AppYamlProjectStaging();
   }
 
-  /** Constructs an object used for deployment. */
+  /**
+   * Constructs an object used for deployment. Deployments run with structured logs, so that the
+   * time spent in each deploy phase can be reported.
+   */
   public Deployment deployment() {
-    return getGcloud().newDeployment(newDefaultProcessHandler());
+    return newGcloudBuilder()
+        .setShowStructuredLogs(STRUCTURED_LOGS_ALWAYS)
+        .build()
+        .newDeployment(newDeployProcessHandler());
   }
 
   /** Constructs a dev server for the run goal. */
@@ -156,19 +192,28 @@ public class CloudSdkAppEngineFactory {
 
   /** Return a Gcloud instance using global configuration. */
   public Gcloud getGcloud() {
+    return newGcloudBuilder().build();
+  }
+
+  private Gcloud.Builder newGcloudBuilder() {
     return Gcloud.builder(buildCloudSdkMinimal())
         .setMetricsEnvironment(mojo.getArtifactId(), mojo.getArtifactVersion())
         .setCredentialFile(mojo.getServiceAccountKeyFile())
         .setVerbosity(mojo.getVerbosity())
-        .build();
+        .setProcessMetricsListener(getProcessMetrics());
   }
 
-  private AppCfg getAppCfg() {
-    return AppCfg.builder(buildCloudSdkWithAppEngineComponents()).build();
+  private AppCfg getAppCfg(boolean inProcess) {
+    return AppCfg.builder(buildCloudSdkWithAppEngineComponents())
+        .setProcessMetricsListener(getProcessMetrics())
+        .setInProcess(inProcess)
+        .build();
   }
 
   private DevServers getDevServers() {
-    return DevServers.builder(buildCloudSdkWithAppEngineComponents()).build();
+    return DevServers.builder(buildCloudSdkWithAppEngineComponents())
+        .setProcessMetricsListener(getProcessMetrics())
+        .build();
   }
 
   private ProcessHandler newDefaultProcessHandler() {
@@ -180,6 +225,26 @@ public class CloudSdkAppEngineFactory {
         .build();
   }
 
+  private ProcessHandler newDeployProcessHandler() {
+    ProcessOutputLineListener lineListener = new DefaultProcessOutputLineListener(mojo.getLog());
+    StructuredLogLineListener structuredLogs =
+        new StructuredLogLineListener(
+            event -> mojo.getLog().debug("Deploy event: " + event), lineListener);
+    return LegacyProcessHandler.builder()
+        .addStdOutLineListener(lineListener)
+        .addStdErrLineListener(structuredLogs)
+        .setExitListener(structuredLogs)
+        .addExitListener(
+            exitCode -> {
+              String timings = structuredLogs.formatPhaseTimings();
+              if (!timings.isEmpty()) {
+                mojo.getLog().info("Deploy phase timings: " + timings);
+              }
+            })
+        .addExitListener(new NonZeroExceptionExitListener())
+        .build();
+  }
+
   private ProcessHandler newDevAppServerAsyncHandler(int timeout) {
     Path logDir =
         Paths.get(mojo.getMavenProject().getBuild().getDirectory()).resolve("dev-appserver-out");
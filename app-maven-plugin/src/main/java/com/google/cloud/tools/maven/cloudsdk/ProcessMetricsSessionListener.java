@@ -0,0 +1,184 @@
+/*
+ * Copyright 2026 Google LLC. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.tools.maven.cloudsdk;
+
+import com.google.cloud.tools.appengine.operations.cloudsdk.process.ProcessMetricsCollector;
+import java.util.List;
+import org.apache.maven.execution.ExecutionEvent;
+import org.apache.maven.execution.ExecutionListener;
+import org.apache.maven.execution.MavenExecutionRequest;
+import org.apache.maven.execution.MavenSession;
+import org.apache.maven.plugin.logging.Log;
+
+/**
+ * Collects the resource usage of every Cloud SDK process started during a Maven session, by any
+ * goal of any module, and logs a single summary when the session ends. A plugin can't add a
+ * lifecycle participant unless it is declared with extensions, so this wraps the execution listener
+ * of the session request instead, forwarding every event to the listener it replaced.
+ */
+class ProcessMetricsSessionListener implements ExecutionListener {
+
+  private final ProcessMetricsCollector processMetrics = new ProcessMetricsCollector();
+  private final ExecutionListener delegate;
+  private final Log log;
+
+  private ProcessMetricsSessionListener(ExecutionListener delegate, Log log) {
+    this.delegate = delegate;
+    this.log = log;
+  }
+
+  /** Returns the collector of {@code session}, installing the listener on first use. */
+  static ProcessMetricsCollector getProcessMetrics(MavenSession session, Log log) {
+    MavenExecutionRequest request = session.getRequest();
+    synchronized (request) {
+      ExecutionListener listener = request.getExecutionListener();
+      if (listener instanceof ProcessMetricsSessionListener) {
+        return ((ProcessMetricsSessionListener) listener).processMetrics;
+      }
+      ProcessMetricsSessionListener installed = new ProcessMetricsSessionListener(listener, log);
+      request.setExecutionListener(installed);
+      return installed.processMetrics;
+    }
+  }
+
+  @Override
+  public void sessionEnded(ExecutionEvent event) {
+    // before the reactor summary of the default listener
+    List<String> lines = processMetrics.formatSummary();
+    if (!lines.isEmpty()) {
+      log.info("Cloud SDK process summary:");
+      for (String line : lines) {
+        log.info("  " + line);
+      }
+    }
+    if (delegate != null) {
+      delegate.sessionEnded(event);
+    }
+  }
+
+  @Override
+  public void projectDiscoveryStarted(ExecutionEvent event) {
+    if (delegate != null) {
+      delegate.projectDiscoveryStarted(event);
+    }
+  }
+
+  @Override
+  public void sessionStarted(ExecutionEvent event) {
+    if (delegate != null) {
+      delegate.sessionStarted(event);
+    }
+  }
+
+  @Override
+  public void projectSkipped(ExecutionEvent event) {
+    if (delegate != null) {
+      delegate.projectSkipped(event);
+    }
+  }
+
+  @Override
+  public void projectStarted(ExecutionEvent event) {
+    if (delegate != null) {
+      delegate.projectStarted(event);
+    }
+  }
+
+  @Override
+  public void projectSucceeded(ExecutionEvent event) {
+    if (delegate != null) {
+      delegate.projectSucceeded(event);
+    }
+  }
+
+  @Override
+  public void projectFailed(ExecutionEvent event) {
+    if (delegate != null) {
+      delegate.projectFailed(event);
+    }
+  }
+
+  @Override
+  public void mojoSkipped(ExecutionEvent event) {
+    if (delegate != null) {
+      delegate.mojoSkipped(event);
+    }
+  }
+
+  @Override
+  public void mojoStarted(ExecutionEvent event) {
+    if (delegate != null) {
+      delegate.mojoStarted(event);
+    }
+  }
+
+  @Override
+  public void mojoSucceeded(ExecutionEvent event) {
+    if (delegate != null) {
+      delegate.mojoSucceeded(event);
+    }
+  }
+
+  @Override
+  public void mojoFailed(ExecutionEvent event) {
+    if (delegate != null) {
+      delegate.mojoFailed(event);
+    }
+  }
+
+  @Override
+  public void forkStarted(ExecutionEvent event) {
+    if (delegate != null) {
+      delegate.forkStarted(event);
+    }
+  }
+
+  @Override
+  public void forkSucceeded(ExecutionEvent event) {
+    if (delegate != null) {
+      delegate.forkSucceeded(event);
+    }
+  }
+
+  @Override
+  public void forkFailed(ExecutionEvent event) {
+    if (delegate != null) {
+      delegate.forkFailed(event);
+    }
+  }
+
+  @Override
+  public void forkedProjectStarted(ExecutionEvent event) {
+    if (delegate != null) {
+      delegate.forkedProjectStarted(event);
+    }
+  }
+
+  @Override
+  public void forkedProjectSucceeded(ExecutionEvent event) {
+    if (delegate != null) {
+      delegate.forkedProjectSucceeded(event);
+    }
+  }
+
+  @Override
+  public void forkedProjectFailed(ExecutionEvent event) {
+    if (delegate != null) {
+      delegate.forkedProjectFailed(event);
+    }
+  }
+}
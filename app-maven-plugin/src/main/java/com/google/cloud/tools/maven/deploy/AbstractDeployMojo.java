@@ -17,6 +17,8 @@
 package com.google.cloud.tools.maven.deploy;
 
 import com.google.cloud.tools.maven.stage.AbstractStageMojo;
+import java.io.File;
+import java.nio.file.Path;
 import org.apache.maven.plugins.annotations.Parameter;
 
 /** Mojo configuration for Deploy with Staging inherited. */
@@ -60,6 +62,20 @@ public abstract class AbstractDeployMojo extends AbstractStageMojo {
   @Parameter(alias = "deploy.version", property = "app.deploy.version")
   private String version;
 
+  /**
+   * Deploy the application and its configuration files in resumable steps (deployAll only). After a
+   * failure, the next deployment resumes at the failed step if the staged application is unchanged.
+   * False by default.
+   */
+  @Parameter(alias = "deploy.resumable", property = "app.deploy.resumable", defaultValue = "false")
+  private boolean resumable;
+
+  /** Where a resumable deployment records its completed steps. */
+  @Parameter(
+      defaultValue = "${project.build.directory}/appengine-deploy-journal.properties",
+      readonly = true)
+  private File deployJournal;
+
   /** The Google Cloud Platform project Id to use for this invocation. */
   @Deprecated
   @Parameter(alias = "deploy.project", property = "app.deploy.project")
@@ -115,4 +131,12 @@ public abstract class AbstractDeployMojo extends AbstractStageMojo {
   public String getGcloudMode() {
     return gcloudMode;
   }
+
+  public boolean isResumable() {
+    return resumable;
+  }
+
+  public Path getDeployJournal() {
+    return deployJournal.toPath();
+  }
 }
@@ -83,11 +83,20 @@ public class AppDeployer implements Deployer {
       }
     }
 
-    DeployConfiguration config =
-        configBuilder.buildDeployConfiguration(computedDeployables.build());
-
+    List<Path> deployables = computedDeployables.build();
     try {
-      deployMojo.getAppEngineFactory().deployment().deploy(config);
+      if (deployMojo.isResumable()) {
+        DeployConfiguration config =
+            configBuilder.buildDeployConfiguration(ImmutableList.of(appYaml));
+        deployMojo
+            .getAppEngineFactory()
+            .deployment()
+            .deployAll(
+                config, deployables.subList(1, deployables.size()), deployMojo.getDeployJournal());
+      } else {
+        DeployConfiguration config = configBuilder.buildDeployConfiguration(deployables);
+        deployMojo.getAppEngineFactory().deployment().deploy(config);
+      }
     } catch (AppEngineException ex) {
       throw new MojoExecutionException("Failed to deploy", ex);
     }
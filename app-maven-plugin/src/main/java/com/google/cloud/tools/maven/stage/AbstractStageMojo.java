@@ -142,6 +142,24 @@ public abstract class AbstractStageMojo extends CloudSdkMojo {
   @Parameter(alias = "stage.extraFilesDirectories", property = "app.stage.extraFilesDirectories")
   private List<File> extraFilesDirectories;
 
+  /**
+   * Glob patterns of the files to stage from the extra files directories, relative to each
+   * directory. A pattern without a '/' matches a name at any depth. Everything is staged if empty.
+   *
+   * <p>Applies to App Engine app.yaml based applications.
+   */
+  @Parameter(alias = "stage.extraFilesIncludes", property = "app.stage.extraFilesIncludes")
+  private List<String> extraFilesIncludes;
+
+  /**
+   * Glob patterns of the files and directories not to stage from the extra files directories, for
+   * example {@code node_modules}. Excluded directories are not walked.
+   *
+   * <p>Applies to App Engine app.yaml based applications.
+   */
+  @Parameter(alias = "stage.extraFilesExcludes", property = "app.stage.extraFilesExcludes")
+  private List<String> extraFilesExcludes;
+
   /**
    * The directory containing the Dockerfile and other Docker resources.
    *
@@ -153,6 +171,14 @@ public abstract class AbstractStageMojo extends CloudSdkMojo {
       property = "app.stage.dockerDirectory")
   private File dockerDirectory;
 
+  /**
+   * Glob patterns of the files and directories not to stage from the Docker directory.
+   *
+   * <p>Applies to App Engine flexible environment only.
+   */
+  @Parameter(alias = "stage.dockerExcludes", property = "app.stage.dockerExcludes")
+  private List<String> dockerExcludes;
+
   /**
    * The location of the JAR or WAR archive to deploy.
    *
@@ -164,6 +190,43 @@ public abstract class AbstractStageMojo extends CloudSdkMojo {
       property = "app.stage.artifact")
   private File artifact;
 
+  /**
+   * Stage the artifact and its dependencies as reflinks or hard links instead of copies when the
+   * staging directory is on the same file system. Staged files are replaced, never written to.
+   *
+   * <p>Applies to App Engine app.yaml based applications.
+   */
+  @Parameter(alias = "stage.linkFiles", property = "app.stage.linkFiles")
+  private boolean linkFiles;
+
+  /**
+   * Copy the changed files with several threads. Faster for many files on SSDs and network file
+   * systems.
+   *
+   * <p>Applies to App Engine app.yaml based applications.
+   */
+  @Parameter(alias = "stage.parallelCopy", property = "app.stage.parallelCopy")
+  private boolean parallelCopy;
+
+  /**
+   * Stage the jars of the artifact's Class-Path from a content-addressed store in the user cache
+   * directory, shared by every build on the machine. Jars are stored once and linked into the
+   * staging directory where possible.
+   *
+   * <p>Applies to App Engine app.yaml based applications.
+   */
+  @Parameter(alias = "stage.jarStore", property = "app.stage.jarStore")
+  private boolean jarStore;
+
+  /**
+   * Run AppCfg inside the Maven JVM instead of starting a new java process for every stage. The App
+   * Engine tools are loaded once per build and reused by every module.
+   *
+   * <p>Applies to App Engine appengine-web.xml based applications.
+   */
+  @Parameter(alias = "stage.inProcessAppCfg", property = "app.stage.inProcessAppCfg")
+  private boolean inProcessAppCfg;
+
   public boolean isAppEngineCompatiblePackaging() {
     return ImmutableList.of("jar", "war").contains(getMavenProject().getPackaging());
   }
@@ -239,11 +302,39 @@ public abstract class AbstractStageMojo extends CloudSdkMojo {
         : extraFilesDirectories.stream().map(File::toPath).collect(Collectors.toList());
   }
 
+  public List<String> getExtraFilesIncludes() {
+    return extraFilesIncludes;
+  }
+
+  public List<String> getExtraFilesExcludes() {
+    return extraFilesExcludes;
+  }
+
   public Path getDockerDirectory() {
     return dockerDirectory == null ? null : dockerDirectory.toPath();
   }
 
+  public List<String> getDockerExcludes() {
+    return dockerExcludes;
+  }
+
   public Path getArtifact() {
     return artifact == null ? null : artifact.toPath();
   }
+
+  public boolean isLinkFiles() {
+    return linkFiles;
+  }
+
+  public boolean isParallelCopy() {
+    return parallelCopy;
+  }
+
+  public boolean isJarStore() {
+    return jarStore;
+  }
+
+  public boolean isInProcessAppCfg() {
+    return inProcessAppCfg;
+  }
 }
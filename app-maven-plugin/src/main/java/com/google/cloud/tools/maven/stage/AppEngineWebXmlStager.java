@@ -17,19 +17,13 @@
 package com.google.cloud.tools.maven.stage;
 
 import com.google.cloud.tools.appengine.AppEngineException;
+import com.google.cloud.tools.appengine.DescriptorCache;
 import com.google.cloud.tools.appengine.configuration.AppEngineWebXmlProjectStageConfiguration;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import javax.xml.parsers.DocumentBuilderFactory;
-import javax.xml.parsers.ParserConfigurationException;
-import javax.xml.xpath.XPath;
-import javax.xml.xpath.XPathConstants;
-import javax.xml.xpath.XPathExpressionException;
-import javax.xml.xpath.XPathFactory;
 import org.apache.commons.io.FileUtils;
 import org.apache.maven.plugin.MojoExecutionException;
-import org.w3c.dom.Document;
 import org.xml.sax.SAXException;
 
 public class AppEngineWebXmlStager implements Stager {
@@ -68,7 +62,10 @@ public class AppEngineWebXmlStager implements Stager {
     }
 
     try {
-      stageMojo.getAppEngineFactory().appengineWebXmlStaging().stageStandard(config);
+      stageMojo
+          .getAppEngineFactory()
+          .appengineWebXmlStaging(stageMojo.isInProcessAppCfg())
+          .stageStandard(config);
     } catch (AppEngineException ex) {
       throw new RuntimeException(ex);
     }
@@ -123,16 +120,8 @@ public class AppEngineWebXmlStager implements Stager {
 
     private boolean isVm(Path appengineWebXml) throws MojoExecutionException {
       try {
-        Document document =
-            DocumentBuilderFactory.newInstance()
-                .newDocumentBuilder()
-                .parse(appengineWebXml.toFile());
-        XPath xpath = XPathFactory.newInstance().newXPath();
-        String expression = "/appengine-web-app/vm/text()='true'";
-        return (Boolean) xpath.evaluate(expression, document, XPathConstants.BOOLEAN);
-      } catch (XPathExpressionException ex) {
-        throw new MojoExecutionException("XPath evaluation failed on appengine-web.xml", ex);
-      } catch (SAXException | IOException | ParserConfigurationException ex) {
+        return DescriptorCache.getInstance().getAppEngineDescriptor(appengineWebXml).isVm();
+      } catch (SAXException | IOException | AppEngineException ex) {
         throw new MojoExecutionException("Failed to parse appengine-web.xml", ex);
       }
     }
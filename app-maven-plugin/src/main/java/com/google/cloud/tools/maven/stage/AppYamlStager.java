@@ -18,6 +18,7 @@ package com.google.cloud.tools.maven.stage;
 
 import com.google.cloud.tools.appengine.AppEngineException;
 import com.google.cloud.tools.appengine.configuration.AppYamlProjectStageConfiguration;
+import com.google.cloud.tools.io.JarStore;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
@@ -74,7 +75,14 @@ public class AppYamlStager implements Stager {
               stageMojo.getArtifact(),
               stageMojo.getStagingDirectory())
           .extraFilesDirectories(stageMojo.getExtraFilesDirectories())
+          .extraFilesIncludes(stageMojo.getExtraFilesIncludes())
+          .extraFilesExcludes(stageMojo.getExtraFilesExcludes())
           .dockerDirectory(stageMojo.getDockerDirectory())
+          .dockerExcludes(stageMojo.getDockerExcludes())
+          .sync(true)
+          .linkFiles(stageMojo.isLinkFiles())
+          .parallelCopy(stageMojo.isParallelCopy())
+          .jarStoreDirectory(stageMojo.isJarStore() ? JarStore.getDefaultDirectory() : null)
           .build();
     }
 
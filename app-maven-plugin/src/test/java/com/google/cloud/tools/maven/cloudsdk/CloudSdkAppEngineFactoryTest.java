@@ -30,6 +30,7 @@ import com.google.cloud.tools.managedcloudsdk.components.SdkComponent;
 import com.google.common.collect.ImmutableList;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import org.apache.maven.execution.DefaultMavenExecutionRequest;
 import org.apache.maven.execution.MavenSession;
 import org.apache.maven.plugin.logging.Log;
 import org.junit.Assert;
@@ -87,6 +88,8 @@ public class CloudSdkAppEngineFactoryTest {
 
   @Test
   public void testGetGcloud() {
+    when(mavenSession.getRequest()).thenReturn(new DefaultMavenExecutionRequest());
+
     factory.getGcloud();
     verify(mojoMock).getArtifactId();
     verify(mojoMock).getArtifactVersion();
@@ -0,0 +1,113 @@
+/*
+ * Copyright 2026 Google LLC. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.tools.maven.cloudsdk;
+
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+import com.google.cloud.tools.appengine.operations.cloudsdk.process.ProcessMetrics;
+import com.google.cloud.tools.appengine.operations.cloudsdk.process.ProcessMetricsCollector;
+import com.google.common.collect.ImmutableList;
+import org.apache.maven.execution.DefaultMavenExecutionRequest;
+import org.apache.maven.execution.ExecutionEvent;
+import org.apache.maven.execution.ExecutionListener;
+import org.apache.maven.execution.MavenExecutionRequest;
+import org.apache.maven.execution.MavenSession;
+import org.apache.maven.plugin.logging.Log;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+@RunWith(MockitoJUnitRunner.class)
+public class ProcessMetricsSessionListenerTest {
+
+  @Mock private MavenSession session;
+  @Mock private Log logMock;
+  @Mock private ExecutionListener originalListener;
+  @Mock private ExecutionEvent event;
+
+  private final MavenExecutionRequest request = new DefaultMavenExecutionRequest();
+
+  @Before
+  public void setUp() {
+    request.setExecutionListener(originalListener);
+    when(session.getRequest()).thenReturn(request);
+  }
+
+  @Test
+  public void testGetProcessMetrics_sharedBySession() {
+    ProcessMetricsCollector first =
+        ProcessMetricsSessionListener.getProcessMetrics(session, logMock);
+    ProcessMetricsCollector second =
+        ProcessMetricsSessionListener.getProcessMetrics(session, logMock);
+
+    Assert.assertSame(first, second);
+    Assert.assertTrue(request.getExecutionListener() instanceof ProcessMetricsSessionListener);
+  }
+
+  @Test
+  public void testSessionEnded_logsSummary() {
+    ProcessMetricsSessionListener.getProcessMetrics(session, logMock)
+        .onProcessMetrics(
+            ProcessMetrics.builder("gcloud app deploy", ImmutableList.of("gcloud", "app", "deploy"))
+                .wallTimeMillis(1500)
+                .build());
+
+    request.getExecutionListener().sessionEnded(event);
+
+    verify(logMock).info("Cloud SDK process summary:");
+    verify(logMock)
+        .info("  gcloud app deploy: 1 run, wall 1.5s (max 1.5s), output 0/0 bytes (stdout/stderr)");
+    verify(originalListener).sessionEnded(event);
+  }
+
+  @Test
+  public void testSessionEnded_nothingRecorded() {
+    ProcessMetricsSessionListener.getProcessMetrics(session, logMock);
+
+    request.getExecutionListener().sessionEnded(event);
+
+    verifyNoMoreInteractions(logMock);
+    verify(originalListener).sessionEnded(event);
+  }
+
+  @Test
+  public void testEventsForwarded() {
+    ProcessMetricsSessionListener.getProcessMetrics(session, logMock);
+
+    request.getExecutionListener().mojoStarted(event);
+    request.getExecutionListener().projectSucceeded(event);
+
+    verify(originalListener).mojoStarted(event);
+    verify(originalListener).projectSucceeded(event);
+  }
+
+  @Test
+  public void testNoOriginalListener() {
+    request.setExecutionListener(null);
+    ProcessMetricsSessionListener.getProcessMetrics(session, logMock);
+
+    request.getExecutionListener().mojoStarted(event);
+    request.getExecutionListener().sessionEnded(event);
+
+    verifyNoMoreInteractions(logMock);
+  }
+}
@@ -138,6 +138,23 @@ public class AppDeployerTest {
     Mockito.verify(appEngineDeployment).deploy(deployConfiguration);
   }
 
+  @Test
+  public void testDeployAll_resumable()
+      throws MojoExecutionException, AppEngineException, IOException {
+    Path appYaml = createAppYaml();
+    List<Path> configFiles = createStagedYamls("cron", "queue");
+    Path journal = tempFolder.getRoot().toPath().resolve("journal.properties");
+    Mockito.when(deployMojo.isResumable()).thenReturn(true);
+    Mockito.when(deployMojo.getDeployJournal()).thenReturn(journal);
+    Mockito.when(configBuilder.buildDeployConfiguration(ImmutableList.of(appYaml)))
+        .thenReturn(deployConfiguration);
+
+    testDeployer.deployAll();
+    Mockito.verify(stager).stage();
+    Mockito.verify(appEngineDeployment).deployAll(deployConfiguration, configFiles, journal);
+    Mockito.verify(appEngineDeployment, Mockito.never()).deploy(Mockito.any());
+  }
+
   @Test
   public void testDeployAll_noAppYaml() throws IOException {
     createStagedYamls("dos", "cron");
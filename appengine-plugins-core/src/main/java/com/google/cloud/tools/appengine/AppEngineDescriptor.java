@@ -17,32 +17,85 @@
 package com.google.cloud.tools.appengine;
 
 import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableMap;
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.Collections;
+import java.util.EnumSet;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.Set;
 import javax.annotation.Nullable;
 import javax.xml.XMLConstants;
-import javax.xml.parsers.DocumentBuilderFactory;
-import javax.xml.parsers.ParserConfigurationException;
-import org.w3c.dom.DOMException;
+import javax.xml.stream.Location;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
 import org.w3c.dom.Document;
+import org.w3c.dom.Element;
 import org.w3c.dom.NamedNodeMap;
 import org.w3c.dom.Node;
 import org.w3c.dom.NodeList;
 import org.xml.sax.SAXException;
+import org.xml.sax.SAXParseException;
 
-/** Utilities to obtain information from appengine-web.xml. */
+/**
+ * Utilities to obtain information from appengine-web.xml. The descriptor is read in a single
+ * streaming pass that stops as soon as every requested {@link Field} was found; instances are
+ * immutable and safe to share between threads, see {@link DescriptorCache}.
+ */
 public class AppEngineDescriptor {
 
+  /** The parts of appengine-web.xml that can be requested from {@link #parse(InputStream, Set)}. */
+  public enum Field {
+    /** &lt;application&gt;, see {@link #getProjectId()}. */
+    APPLICATION,
+    /** &lt;runtime&gt;, see {@link #getRuntime()}. */
+    RUNTIME,
+    /** &lt;version&gt;, see {@link #getProjectVersion()}. */
+    VERSION,
+    /** &lt;service&gt; or &lt;module&gt;, see {@link #getServiceId()}. */
+    SERVICE,
+    /** &lt;env-variables&gt;, see {@link #getEnvironment()}. */
+    ENV_VARIABLES,
+    /** &lt;vm&gt;, see {@link #isVm()}. */
+    VM
+  }
+
   private static final String APP_ENGINE_NAMESPACE = "http://appengine.google.com/ns/1.0";
-  private static final String DISALLOW_DOCTYPE_DECLARATIONS =
-      "http://apache.org/xml/features/disallow-doctype-decl";
-  private final Document document;
+  private static final String ROOT_ELEMENT = "appengine-web-app";
+  private static final String DOCTYPE_DISALLOWED =
+      "DOCTYPE is disallowed when parsing appengine-web.xml.";
+
+  private static final XMLInputFactory XML_INPUT_FACTORY = newXmlInputFactory();
+
+  private final Set<Field> fields;
+  @Nullable private final String projectId;
+  @Nullable private final String runtime;
+  @Nullable private final String projectVersion;
+  @Nullable private final String serviceId;
+  private final Map<String, String> environment;
+  private final boolean vm;
 
-  // private to force use of parse method
+  /**
+   * Reads the descriptor from an already parsed document. Prefer {@link #parse(InputStream)}, which
+   * does not build a DOM.
+   */
   protected AppEngineDescriptor(Document document) {
-    this.document = document;
+    this(readDocument(document));
+  }
+
+  private AppEngineDescriptor(Values values) {
+    fields = Collections.unmodifiableSet(EnumSet.copyOf(values.requested));
+    projectId = values.application;
+    runtime = values.runtime;
+    projectVersion = values.version;
+    serviceId = values.service != null ? values.service : values.module;
+    environment =
+        values.environment == null ? ImmutableMap.of() : ImmutableMap.copyOf(values.environment);
+    vm = "true".equals(values.vm);
   }
 
   /**
@@ -54,15 +107,41 @@ public class AppEngineDescriptor {
    * @throws SAXException malformed XML
    */
   public static AppEngineDescriptor parse(InputStream in) throws IOException, SAXException {
+    return parse(in, EnumSet.allOf(Field.class));
+  }
+
+  /**
+   * Parses only {@code fields} of an appengine-web.xml file, and stops reading as soon as all of
+   * them were found. The getters of fields that were not requested throw {@link
+   * IllegalStateException}.
+   *
+   * @param in the contents of appengine-web.xml
+   * @param fields the fields to read
+   * @return a parsed object that can be queried for {@code fields}
+   * @throws IOException if parsing fails due to I/O errors
+   * @throws SAXException malformed XML
+   */
+  public static AppEngineDescriptor parse(InputStream in, Set<Field> fields)
+      throws IOException, SAXException {
     Preconditions.checkNotNull(in, "Null input");
+    Preconditions.checkArgument(!fields.isEmpty(), "No fields requested");
+    XMLStreamReader reader = null;
     try {
-      DocumentBuilderFactory documentBuilderFactory = DocumentBuilderFactory.newInstance();
-      documentBuilderFactory.setNamespaceAware(true);
-      documentBuilderFactory.setFeature(XMLConstants.FEATURE_SECURE_PROCESSING, true);
-      documentBuilderFactory.setFeature(DISALLOW_DOCTYPE_DECLARATIONS, true);
-      return new AppEngineDescriptor(documentBuilderFactory.newDocumentBuilder().parse(in));
-    } catch (ParserConfigurationException exception) {
-      throw new SAXException("Cannot parse appengine-web.xml", exception);
+      reader = XML_INPUT_FACTORY.createXMLStreamReader(in);
+      return new AppEngineDescriptor(read(reader, new Values(fields)));
+    } catch (XMLStreamException ex) {
+      if (ex.getNestedException() instanceof IOException) {
+        throw (IOException) ex.getNestedException();
+      }
+      throw newParseException(ex.getMessage(), ex.getLocation(), ex);
+    } finally {
+      if (reader != null) {
+        try {
+          reader.close();
+        } catch (XMLStreamException ex) {
+          // the underlying stream is owned by the caller
+        }
+      }
     }
   }
 
@@ -72,7 +151,8 @@ public class AppEngineDescriptor {
    */
   @Nullable
   public String getProjectId() throws AppEngineException {
-    return getText(getNode(document, "appengine-web-app", "application"));
+    checkRequested(Field.APPLICATION);
+    return projectId;
   }
 
   /**
@@ -80,9 +160,9 @@ public class AppEngineDescriptor {
    * when it is missing.
    */
   public String getRuntime() throws AppEngineException {
-    String runtime = getText(getNode(document, "appengine-web-app", "runtime"));
+    checkRequested(Field.RUNTIME);
     if (runtime == null) {
-      runtime = "java7"; // the default runtime when not specified.
+      return "java7"; // the default runtime when not specified.
     }
     return runtime;
   }
@@ -93,7 +173,8 @@ public class AppEngineDescriptor {
    */
   @Nullable
   public String getProjectVersion() throws AppEngineException {
-    return getText(getNode(document, "appengine-web-app", "version"));
+    checkRequested(Field.VERSION);
+    return projectVersion;
   }
 
   /**
@@ -102,11 +183,17 @@ public class AppEngineDescriptor {
    */
   @Nullable
   public String getServiceId() throws AppEngineException {
-    String serviceId = getText(getNode(document, "appengine-web-app", "service"));
-    if (serviceId != null) {
-      return serviceId;
-    }
-    return getText(getNode(document, "appengine-web-app", "module"));
+    checkRequested(Field.SERVICE);
+    return serviceId;
+  }
+
+  /**
+   * Returns true if the &lt;vm&gt; element of the appengine-web.xml is {@code true}. Unlike the
+   * other properties, this is also read from descriptors without the App Engine namespace.
+   */
+  public boolean isVm() throws AppEngineException {
+    checkRequested(Field.VM);
+    return vm;
   }
 
   /** Returns true if the runtime read from appengine-web.xml is Java8. */
@@ -137,72 +224,284 @@ public class AppEngineDescriptor {
    * @return a map representing the environment variable settings in the appengine-web.xml
    */
   public Map<String, String> getEnvironment() throws AppEngineException {
-    Node environmentParentNode = getNode(document, "appengine-web-app", "env-variables");
-    if (environmentParentNode != null) {
-      return getAttributeMap(environmentParentNode, "env-var", "name", "value");
+    checkRequested(Field.ENV_VARIABLES);
+    return new HashMap<>(environment);
+  }
+
+  private void checkRequested(Field field) {
+    if (!fields.contains(field)) {
+      throw new IllegalStateException(field + " was not parsed");
     }
-    return new HashMap<>();
   }
 
-  @Nullable
-  private static String getText(@Nullable Node node) throws AppEngineException {
-    if (node != null) {
-      try {
-        return node.getTextContent();
-      } catch (DOMException ex) {
-        throw new AppEngineException(
-            "Failed to parse text content from node " + node.getNodeName(), ex);
-      }
+  private static XMLInputFactory newXmlInputFactory() {
+    XMLInputFactory factory = XMLInputFactory.newFactory();
+    factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+    factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+    factory.setProperty(XMLInputFactory.IS_NAMESPACE_AWARE, true);
+    try {
+      factory.setProperty(XMLConstants.ACCESS_EXTERNAL_DTD, "");
+    } catch (IllegalArgumentException ex) {
+      // not every StAX implementation knows the JAXP 1.5 properties, DTDs are unsupported anyway
     }
+    return factory;
+  }
 
-    return null;
+  /** Reads the direct children of the root element, skipping everything that isn't requested. */
+  private static Values read(XMLStreamReader reader, Values values)
+      throws XMLStreamException, SAXException {
+    int depth = 0;
+    int rootDepth = -1;
+    boolean namespaced = false;
+    while (!values.isComplete() && reader.hasNext()) {
+      int event = reader.next();
+      if (event == XMLStreamConstants.DTD) {
+        throw newParseException(DOCTYPE_DISALLOWED, reader.getLocation(), null);
+      } else if (event == XMLStreamConstants.START_ELEMENT) {
+        depth++;
+        if (rootDepth < 0) {
+          if (ROOT_ELEMENT.equals(reader.getLocalName())) {
+            String namespace = reader.getNamespaceURI();
+            if (APP_ENGINE_NAMESPACE.equals(namespace)) {
+              rootDepth = depth;
+              namespaced = true;
+            } else if (namespace == null || namespace.isEmpty()) {
+              rootDepth = depth;
+            }
+          }
+        } else if (depth == rootDepth + 1) {
+          readChild(reader, values, namespaced);
+          depth--;
+        }
+      } else if (event == XMLStreamConstants.END_ELEMENT) {
+        if (depth == rootDepth) {
+          break;
+        }
+        depth--;
+      }
+    }
+    return values;
   }
 
-  /** Returns a map formed from the attributes of the nodes contained within the parent node. */
-  private static Map<String, String> getAttributeMap(
-      Node parent, String nodeName, String keyAttributeName, String valueAttributeName)
-      throws AppEngineException {
+  /** Reads the child element the reader is positioned at, up to and including its end tag. */
+  private static void readChild(XMLStreamReader reader, Values values, boolean namespaced)
+      throws XMLStreamException {
+    String prefix = reader.getPrefix();
+    String name =
+        prefix == null || prefix.isEmpty()
+            ? reader.getLocalName()
+            : prefix + ":" + reader.getLocalName();
+    Field field = values.accept(name, namespaced);
+    if (field == null) {
+      skipElement(reader);
+    } else if (field == Field.ENV_VARIABLES) {
+      values.environment = readEnvironment(reader);
+      values.found.add(field);
+    } else {
+      values.setText(name, readText(reader));
+    }
+  }
 
-    Map<String, String> nameValueAttributeMap = new HashMap<>();
-    if (parent.hasChildNodes()) {
-      for (int i = 0; i < parent.getChildNodes().getLength(); i++) {
-        Node child = parent.getChildNodes().item(i);
-        NamedNodeMap attributeMap = child.getAttributes();
+  /** Returns the text content of the current element, like {@link Node#getTextContent()}. */
+  private static String readText(XMLStreamReader reader) throws XMLStreamException {
+    StringBuilder text = new StringBuilder();
+    for (int depth = 1; depth > 0; ) {
+      switch (reader.next()) {
+        case XMLStreamConstants.START_ELEMENT:
+          depth++;
+          break;
+        case XMLStreamConstants.END_ELEMENT:
+          depth--;
+          break;
+        case XMLStreamConstants.CHARACTERS:
+        case XMLStreamConstants.CDATA:
+        case XMLStreamConstants.SPACE:
+          text.append(reader.getText());
+          break;
+        default:
+          break;
+      }
+    }
+    return text.toString();
+  }
 
-        if (nodeName.equals(child.getNodeName()) && attributeMap != null) {
-          Node keyNode = attributeMap.getNamedItem(keyAttributeName);
+  private static void skipElement(XMLStreamReader reader) throws XMLStreamException {
+    for (int depth = 1; depth > 0; ) {
+      int event = reader.next();
+      if (event == XMLStreamConstants.START_ELEMENT) {
+        depth++;
+      } else if (event == XMLStreamConstants.END_ELEMENT) {
+        depth--;
+      }
+    }
+  }
 
-          if (keyNode != null) {
-            Node valueNode = attributeMap.getNamedItem(valueAttributeName);
-            try {
-              nameValueAttributeMap.put(keyNode.getTextContent(), valueNode.getTextContent());
-            } catch (DOMException ex) {
-              throw new AppEngineException(
-                  "Failed to parse value from attribute node " + keyNode.getNodeName(), ex);
-            }
+  private static Map<String, String> readEnvironment(XMLStreamReader reader)
+      throws XMLStreamException {
+    Map<String, String> environment = new LinkedHashMap<>();
+    for (int depth = 1; depth > 0; ) {
+      int event = reader.next();
+      if (event == XMLStreamConstants.START_ELEMENT) {
+        depth++;
+        String prefix = reader.getPrefix();
+        if (depth == 2
+            && (prefix == null || prefix.isEmpty())
+            && "env-var".equals(reader.getLocalName())) {
+          String key = reader.getAttributeValue(null, "name");
+          if (key != null) {
+            String value = reader.getAttributeValue(null, "value");
+            environment.put(key, value == null ? "" : value);
           }
         }
+      } else if (event == XMLStreamConstants.END_ELEMENT) {
+        depth--;
       }
     }
+    return environment;
+  }
 
-    return nameValueAttributeMap;
+  private static SAXParseException newParseException(
+      @Nullable String message, @Nullable Location location, @Nullable Exception cause) {
+    String systemId = location == null ? null : location.getSystemId();
+    String publicId = location == null ? null : location.getPublicId();
+    int line = location == null ? -1 : location.getLineNumber();
+    int column = location == null ? -1 : location.getColumnNumber();
+    return cause == null
+        ? new SAXParseException(message, publicId, systemId, line, column)
+        : new SAXParseException(message, publicId, systemId, line, column, cause);
   }
 
-  /** Returns the first node found matching the given name contained within the parent node. */
-  @Nullable
-  private static Node getNode(Document doc, String parentNodeName, String targetNodeName) {
-    NodeList parentElements = doc.getElementsByTagNameNS(APP_ENGINE_NAMESPACE, parentNodeName);
-    if (parentElements.getLength() > 0) {
-      Node parent = parentElements.item(0);
-      if (parent.hasChildNodes()) {
-        for (int i = 0; i < parent.getChildNodes().getLength(); i++) {
-          Node child = parent.getChildNodes().item(i);
-          if (child.getNodeName().equals(targetNodeName)) {
-            return child;
-          }
+  private static Values readDocument(Document document) {
+    Values values = new Values(EnumSet.allOf(Field.class));
+    boolean namespaced = true;
+    NodeList roots = document.getElementsByTagNameNS(APP_ENGINE_NAMESPACE, ROOT_ELEMENT);
+    if (roots.getLength() == 0) {
+      roots = document.getElementsByTagNameNS(null, ROOT_ELEMENT);
+      namespaced = false;
+    }
+    if (roots.getLength() == 0) {
+      return values;
+    }
+    NodeList children = roots.item(0).getChildNodes();
+    for (int i = 0; i < children.getLength(); i++) {
+      Node child = children.item(i);
+      if (child.getNodeType() != Node.ELEMENT_NODE) {
+        continue;
+      }
+      String name = child.getNodeName();
+      Field field = values.accept(name, namespaced);
+      if (field == Field.ENV_VARIABLES) {
+        values.environment = readEnvironment((Element) child);
+        values.found.add(field);
+      } else if (field != null) {
+        values.setText(name, child.getTextContent());
+      }
+    }
+    return values;
+  }
+
+  private static Map<String, String> readEnvironment(Element parent) {
+    Map<String, String> environment = new LinkedHashMap<>();
+    NodeList children = parent.getChildNodes();
+    for (int i = 0; i < children.getLength(); i++) {
+      Node child = children.item(i);
+      NamedNodeMap attributes = child.getAttributes();
+      if ("env-var".equals(child.getNodeName()) && attributes != null) {
+        Node key = attributes.getNamedItem("name");
+        if (key != null) {
+          Node value = attributes.getNamedItem("value");
+          environment.put(key.getTextContent(), value == null ? "" : value.getTextContent());
         }
       }
     }
-    return null;
+    return environment;
+  }
+
+  /** The values found so far. Only the first occurrence of an element counts. */
+  private static class Values {
+    private final Set<Field> requested;
+    private final Set<Field> found = EnumSet.noneOf(Field.class);
+    @Nullable private String application;
+    @Nullable private String runtime;
+    @Nullable private String version;
+    @Nullable private String service;
+    @Nullable private String module;
+    @Nullable private Map<String, String> environment;
+    @Nullable private String vm;
+
+    private Values(Set<Field> requested) {
+      this.requested = EnumSet.copyOf(requested);
+    }
+
+    private boolean isComplete() {
+      return found.containsAll(requested);
+    }
+
+    /** Returns the field to read from the child element {@code name}, or null to skip it. */
+    @Nullable
+    private Field accept(String name, boolean namespaced) {
+      Field field;
+      switch (name) {
+        case "application":
+          field = application == null ? Field.APPLICATION : null;
+          break;
+        case "runtime":
+          field = runtime == null ? Field.RUNTIME : null;
+          break;
+        case "version":
+          field = version == null ? Field.VERSION : null;
+          break;
+        case "service":
+          field = service == null ? Field.SERVICE : null;
+          break;
+        case "module":
+          field = module == null ? Field.SERVICE : null;
+          break;
+        case "env-variables":
+          field = environment == null ? Field.ENV_VARIABLES : null;
+          break;
+        case "vm":
+          field = vm == null ? Field.VM : null;
+          break;
+        default:
+          return null;
+      }
+      // descriptors outside of the App Engine namespace are only consulted for <vm>
+      if (field == null || !requested.contains(field) || (!namespaced && field != Field.VM)) {
+        return null;
+      }
+      return field;
+    }
+
+    private void setText(String name, String text) {
+      switch (name) {
+        case "application":
+          application = text;
+          found.add(Field.APPLICATION);
+          break;
+        case "runtime":
+          runtime = text;
+          found.add(Field.RUNTIME);
+          break;
+        case "version":
+          version = text;
+          found.add(Field.VERSION);
+          break;
+        case "service":
+          service = text;
+          found.add(Field.SERVICE);
+          break;
+        case "module":
+          // <service> takes precedence, so keep reading
+          module = text;
+          break;
+        case "vm":
+          vm = text;
+          found.add(Field.VM);
+          break;
+        default:
+          throw new IllegalArgumentException(name);
+      }
+    }
   }
 }
@@ -0,0 +1,116 @@
+/*
+ * Copyright 2026 Google LLC.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.tools.appengine;
+
+import com.google.cloud.tools.project.AppYaml;
+import com.google.common.annotations.VisibleForTesting;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import org.xml.sax.SAXException;
+
+/**
+ * Parses each {@code app.yaml} and {@code appengine-web.xml} once and hands out the parsed, read
+ * only model to every caller that asks for the same file again. An entry is only reused while the
+ * file keeps the modification time and size it had when it was parsed, so edits between builds (or
+ * by an earlier task of the same build) are picked up. Failures are never cached.
+ */
+public class DescriptorCache {
+
+  private static final DescriptorCache INSTANCE = new DescriptorCache();
+
+  private final ConcurrentMap<Path, Entry<AppYaml>> appYamls = new ConcurrentHashMap<>();
+  private final ConcurrentMap<Path, Entry<AppEngineDescriptor>> appEngineDescriptors =
+      new ConcurrentHashMap<>();
+
+  @VisibleForTesting
+  DescriptorCache() {}
+
+  /** Returns the cache shared by all operations of this class loader. */
+  public static DescriptorCache getInstance() {
+    return INSTANCE;
+  }
+
+  /**
+   * Returns the parsed {@code app.yaml} at {@code appYaml}.
+   *
+   * @throws IOException if the file cannot be read
+   * @throws AppEngineException if the file is malformed
+   */
+  public AppYaml getAppYaml(Path appYaml) throws IOException, AppEngineException {
+    return get(appYamls, appYaml, AppYaml::parse);
+  }
+
+  /**
+   * Returns the parsed {@code appengine-web.xml} at {@code appEngineWebXml}.
+   *
+   * @throws IOException if the file cannot be read
+   * @throws SAXException if the file is malformed
+   */
+  public AppEngineDescriptor getAppEngineDescriptor(Path appEngineWebXml)
+      throws IOException, SAXException {
+    return get(appEngineDescriptors, appEngineWebXml, AppEngineDescriptor::parse);
+  }
+
+  /** Forgets every parsed file. */
+  public void clear() {
+    appYamls.clear();
+    appEngineDescriptors.clear();
+  }
+
+  private static <T, E extends Exception> T get(
+      ConcurrentMap<Path, Entry<T>> entries, Path file, Parser<T, E> parser) throws IOException, E {
+    Path key = file.toAbsolutePath().normalize();
+    // stat before reading, so that a change while parsing is noticed by the next lookup
+    BasicFileAttributes attributes = Files.readAttributes(key, BasicFileAttributes.class);
+    Entry<T> entry = entries.get(key);
+    if (entry != null && entry.matches(attributes)) {
+      return entry.value;
+    }
+    T value;
+    try (InputStream input = Files.newInputStream(key)) {
+      value = parser.parse(input);
+    }
+    entries.put(key, new Entry<>(attributes, value));
+    return value;
+  }
+
+  private interface Parser<T, E extends Exception> {
+    T parse(InputStream input) throws IOException, E;
+  }
+
+  private static final class Entry<T> {
+    private final FileTime modified;
+    private final long size;
+    private final T value;
+
+    private Entry(BasicFileAttributes attributes, T value) {
+      this.modified = attributes.lastModifiedTime();
+      this.size = attributes.size();
+      this.value = value;
+    }
+
+    private boolean matches(BasicFileAttributes attributes) {
+      return size == attributes.size() && modified.equals(attributes.lastModifiedTime());
+    }
+  }
+}
@@ -31,21 +31,45 @@ public class AppYamlProjectStageConfiguration {
   private final Path appEngineDirectory;
   @Nullable private final Path dockerDirectory;
   @Nullable private final List<Path> extraFilesDirectories;
+  private final List<String> extraFilesIncludes;
+  private final List<String> extraFilesExcludes;
+  private final List<String> dockerExcludes;
   private final Path artifact;
   private final Path stagingDirectory;
+  private final boolean sync;
+  private final boolean compareContent;
+  private final boolean linkFiles;
+  private final boolean parallelCopy;
+  @Nullable private final Path jarStoreDirectory;
 
   private AppYamlProjectStageConfiguration(
       Path appEngineDirectory,
       @Nullable Path dockerDirectory,
       @Nullable List<Path> extraFilesDirectories,
+      List<String> extraFilesIncludes,
+      List<String> extraFilesExcludes,
+      List<String> dockerExcludes,
       Path artifact,
-      Path stagingDirectory) {
+      Path stagingDirectory,
+      boolean sync,
+      boolean compareContent,
+      boolean linkFiles,
+      boolean parallelCopy,
+      @Nullable Path jarStoreDirectory) {
     this.appEngineDirectory = appEngineDirectory;
     this.dockerDirectory = dockerDirectory;
     this.artifact = artifact;
     this.stagingDirectory = stagingDirectory;
+    this.sync = sync;
+    this.compareContent = compareContent;
+    this.linkFiles = linkFiles;
+    this.parallelCopy = parallelCopy;
+    this.jarStoreDirectory = jarStoreDirectory;
     this.extraFilesDirectories =
         (extraFilesDirectories == null) ? null : ImmutableList.copyOf(extraFilesDirectories);
+    this.extraFilesIncludes = ImmutableList.copyOf(extraFilesIncludes);
+    this.extraFilesExcludes = ImmutableList.copyOf(extraFilesExcludes);
+    this.dockerExcludes = ImmutableList.copyOf(dockerExcludes);
   }
 
   /** Directory containing {@code app.yaml}. */
@@ -65,6 +89,30 @@ public class AppYamlProjectStageConfiguration {
     return extraFilesDirectories;
   }
 
+  /**
+   * Glob patterns of the files to stage from the extra files directories, relative to each
+   * directory, see {@link com.google.cloud.tools.io.PathFilter}. Everything is staged if empty.
+   */
+  public List<String> getExtraFilesIncludes() {
+    return extraFilesIncludes;
+  }
+
+  /**
+   * Glob patterns of files and directories not to stage from the extra files directories, like
+   * {@code node_modules} or {@code *.log}, see {@link com.google.cloud.tools.io.PathFilter}.
+   */
+  public List<String> getExtraFilesExcludes() {
+    return extraFilesExcludes;
+  }
+
+  /**
+   * Glob patterns of files and directories not to stage from the Docker directory, see {@link
+   * com.google.cloud.tools.io.PathFilter}.
+   */
+  public List<String> getDockerExcludes() {
+    return dockerExcludes;
+  }
+
   /** Artifact to deploy such as WAR or JAR. */
   public Path getArtifact() {
     return artifact;
@@ -78,6 +126,55 @@ public class AppYamlProjectStageConfiguration {
     return stagingDirectory;
   }
 
+  /**
+   * If true, the staging directory is synchronized rather than copied into: only files that changed
+   * since the last staging are copied, and files that are no longer staged are deleted. False by
+   * default.
+   */
+  public boolean isSync() {
+    return sync;
+  }
+
+  /**
+   * If true, a synchronized staging compares files by content rather than last modified time, see
+   * {@link com.google.cloud.tools.io.DirectorySync.Builder#compareContent(boolean)}.
+   */
+  public boolean isCompareContent() {
+    return compareContent;
+  }
+
+  /**
+   * If true, staged files are reflinked or hard linked into the staging directory where the file
+   * system allows it instead of being copied, see {@link com.google.cloud.tools.io.FileLinker}.
+   * Unless {@link #isSync()} is set, this only applies to app.yaml, the artifact and its Class-Path
+   * jars. False by default.
+   */
+  public boolean isLinkFiles() {
+    return linkFiles;
+  }
+
+  /**
+   * If true, files are copied with several threads, see {@link
+   * com.google.cloud.tools.io.ParallelDirectoryCopy}: with {@link #isSync()} the changed files,
+   * otherwise the Docker directory and the extra files directories. Faster for many files on SSDs
+   * and network file systems. False by default.
+   */
+  public boolean isParallelCopy() {
+    return parallelCopy;
+  }
+
+  /**
+   * Directory of a {@link com.google.cloud.tools.io.JarStore} to stage the jars of the artifact's
+   * "Class-Path" from, in parallel and linked where possible. Staging several services that share
+   * dependencies then stores each jar once. The store is pruned to {@link
+   * com.google.cloud.tools.io.JarStore#DEFAULT_MAX_BYTES} after staging. If null, the jars are
+   * copied.
+   */
+  @Nullable
+  public Path getJarStoreDirectory() {
+    return jarStoreDirectory;
+  }
+
   public static Builder builder() {
     return new Builder();
   }
@@ -100,8 +197,16 @@ public class AppYamlProjectStageConfiguration {
     @Nullable private Path appEngineDirectory;
     @Nullable private Path dockerDirectory;
     @Nullable private List<Path> extraFilesDirectories;
+    private List<String> extraFilesIncludes = ImmutableList.of();
+    private List<String> extraFilesExcludes = ImmutableList.of();
+    private List<String> dockerExcludes = ImmutableList.of();
     @Nullable private Path artifact;
     @Nullable private Path stagingDirectory;
+    private boolean sync;
+    private boolean compareContent;
+    private boolean linkFiles;
+    private boolean parallelCopy;
+    @Nullable private Path jarStoreDirectory;
 
     private Builder() {}
 
@@ -132,6 +237,52 @@ public class AppYamlProjectStageConfiguration {
       return this;
     }
 
+    public AppYamlProjectStageConfiguration.Builder extraFilesIncludes(
+        @Nullable List<String> extraFilesIncludes) {
+      this.extraFilesIncludes =
+          extraFilesIncludes == null ? ImmutableList.of() : extraFilesIncludes;
+      return this;
+    }
+
+    public AppYamlProjectStageConfiguration.Builder extraFilesExcludes(
+        @Nullable List<String> extraFilesExcludes) {
+      this.extraFilesExcludes =
+          extraFilesExcludes == null ? ImmutableList.of() : extraFilesExcludes;
+      return this;
+    }
+
+    public AppYamlProjectStageConfiguration.Builder dockerExcludes(
+        @Nullable List<String> dockerExcludes) {
+      this.dockerExcludes = dockerExcludes == null ? ImmutableList.of() : dockerExcludes;
+      return this;
+    }
+
+    public AppYamlProjectStageConfiguration.Builder sync(boolean sync) {
+      this.sync = sync;
+      return this;
+    }
+
+    public AppYamlProjectStageConfiguration.Builder compareContent(boolean compareContent) {
+      this.compareContent = compareContent;
+      return this;
+    }
+
+    public AppYamlProjectStageConfiguration.Builder linkFiles(boolean linkFiles) {
+      this.linkFiles = linkFiles;
+      return this;
+    }
+
+    public AppYamlProjectStageConfiguration.Builder parallelCopy(boolean parallelCopy) {
+      this.parallelCopy = parallelCopy;
+      return this;
+    }
+
+    public AppYamlProjectStageConfiguration.Builder jarStoreDirectory(
+        @Nullable Path jarStoreDirectory) {
+      this.jarStoreDirectory = jarStoreDirectory;
+      return this;
+    }
+
     /** Build a {@link AppYamlProjectStageConfiguration}. */
     @SuppressWarnings("NullAway")
     public AppYamlProjectStageConfiguration build() {
@@ -143,8 +294,16 @@ public class AppYamlProjectStageConfiguration {
           this.appEngineDirectory,
           this.dockerDirectory,
           this.extraFilesDirectories,
+          this.extraFilesIncludes,
+          this.extraFilesExcludes,
+          this.dockerExcludes,
           this.artifact,
-          this.stagingDirectory);
+          this.stagingDirectory,
+          this.sync,
+          this.compareContent,
+          this.linkFiles,
+          this.parallelCopy,
+          this.jarStoreDirectory);
     }
   }
 }
@@ -0,0 +1,37 @@
+/*
+ * Copyright 2026 Google LLC.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.tools.appengine.configuration;
+
+/** App Engine project configuration files that are deployed independently of any service. */
+public enum ConfigType {
+  CRON("cron.yaml"),
+  DISPATCH("dispatch.yaml"),
+  DOS("dos.yaml"),
+  INDEX("index.yaml"),
+  QUEUE("queue.yaml");
+
+  private final String fileName;
+
+  ConfigType(String fileName) {
+    this.fileName = fileName;
+  }
+
+  /** Returns the name of the yaml file, e.g. {@code cron.yaml}. */
+  public String getFileName() {
+    return fileName;
+  }
+}
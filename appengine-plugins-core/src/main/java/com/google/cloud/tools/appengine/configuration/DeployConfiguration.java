@@ -34,6 +34,8 @@ public class DeployConfiguration {
   @Nullable private final String server;
   @Nullable private final Boolean stopPreviousVersion;
   @Nullable private final String version;
+  private final boolean skipUnchanged;
+  @Nullable private final Path deployRecordDirectory;
 
   private DeployConfiguration(
       @Nullable String bucket,
@@ -44,7 +46,9 @@ public class DeployConfiguration {
       @Nullable Boolean promote,
       @Nullable String server,
       @Nullable Boolean stopPreviousVersion,
-      @Nullable String version) {
+      @Nullable String version,
+      boolean skipUnchanged,
+      @Nullable Path deployRecordDirectory) {
     this.bucket = bucket;
     this.deployables = deployables;
     this.gcloudMode = gcloudMode;
@@ -54,6 +58,8 @@ public class DeployConfiguration {
     this.server = server;
     this.stopPreviousVersion = stopPreviousVersion;
     this.version = version;
+    this.skipUnchanged = skipUnchanged;
+    this.deployRecordDirectory = deployRecordDirectory;
   }
 
   /** GCS storage bucket used for staging files associated with deployment. */
@@ -109,6 +115,25 @@ public class DeployConfiguration {
     return version;
   }
 
+  /**
+   * Whether {@link Deployment#deploy} skips a deployment whose staged content and configuration are
+   * identical to the last successful deployment of the same version from this machine, or only
+   * promotes it. Only applies to a single staging directory deployed with an explicit project ID
+   * and version. Defaults to {@code false}.
+   */
+  public boolean isSkipUnchanged() {
+    return skipUnchanged;
+  }
+
+  /**
+   * Directory where {@link Deployment#deploy} records the fingerprints of deployed versions, or
+   * {@code null} for the default location in the user cache directory.
+   */
+  @Nullable
+  public Path getDeployRecordDirectory() {
+    return deployRecordDirectory;
+  }
+
   public static Builder builder(List<Path> deployables) {
     return new Builder(deployables);
   }
@@ -123,6 +148,8 @@ public class DeployConfiguration {
     @Nullable private String server;
     @Nullable private Boolean stopPreviousVersion;
     @Nullable private String version;
+    private boolean skipUnchanged;
+    @Nullable private Path deployRecordDirectory;
 
     private Builder(List<Path> deployables) {
       Preconditions.checkNotNull(deployables);
@@ -171,6 +198,16 @@ public class DeployConfiguration {
       return this;
     }
 
+    public DeployConfiguration.Builder skipUnchanged(boolean skipUnchanged) {
+      this.skipUnchanged = skipUnchanged;
+      return this;
+    }
+
+    public DeployConfiguration.Builder deployRecordDirectory(@Nullable Path deployRecordDirectory) {
+      this.deployRecordDirectory = deployRecordDirectory;
+      return this;
+    }
+
     /** Build a {@link DeployConfiguration}. */
     public DeployConfiguration build() {
       return new DeployConfiguration(
@@ -182,7 +219,9 @@ public class DeployConfiguration {
           this.promote,
           this.server,
           this.stopPreviousVersion,
-          this.version);
+          this.version,
+          this.skipUnchanged,
+          this.deployRecordDirectory);
     }
   }
 }
@@ -27,12 +27,20 @@ public class DeployProjectConfigurationConfiguration {
   private final Path appEngineDirectory;
   @Nullable private final String projectId;
   @Nullable private final String server;
+  private final boolean skipUnchanged;
+  @Nullable private final Path deployRecordDirectory;
 
   private DeployProjectConfigurationConfiguration(
-      Path appEngineDirectory, @Nullable String projectId, @Nullable String server) {
+      Path appEngineDirectory,
+      @Nullable String projectId,
+      @Nullable String server,
+      boolean skipUnchanged,
+      @Nullable Path deployRecordDirectory) {
     this.appEngineDirectory = appEngineDirectory;
     this.projectId = projectId;
     this.server = server;
+    this.skipUnchanged = skipUnchanged;
+    this.deployRecordDirectory = deployRecordDirectory;
   }
 
   /** Directory with yaml configuration files. */
@@ -52,6 +60,24 @@ public class DeployProjectConfigurationConfiguration {
     return server;
   }
 
+  /**
+   * Whether {@link Deployment#deployConfigs} skips files whose content was already deployed to the
+   * same project from this machine. Only applies when a project ID is set. Defaults to {@code
+   * false}.
+   */
+  public boolean isSkipUnchanged() {
+    return skipUnchanged;
+  }
+
+  /**
+   * Directory where {@link Deployment#deployConfigs} records the content of deployed files, or
+   * {@code null} for the default location in the user cache directory.
+   */
+  @Nullable
+  public Path getDeployRecordDirectory() {
+    return deployRecordDirectory;
+  }
+
   public static Builder builder(Path appEngineDirectory) {
     return new Builder(Preconditions.checkNotNull(appEngineDirectory));
   }
@@ -60,6 +86,8 @@ public class DeployProjectConfigurationConfiguration {
     private Path appEngineDirectory;
     @Nullable private String projectId;
     @Nullable private String server;
+    private boolean skipUnchanged;
+    @Nullable private Path deployRecordDirectory;
 
     private Builder(Path appEngineDirectory) {
       this.appEngineDirectory = Preconditions.checkNotNull(appEngineDirectory);
@@ -75,12 +103,27 @@ public class DeployProjectConfigurationConfiguration {
       return this;
     }
 
+    public DeployProjectConfigurationConfiguration.Builder skipUnchanged(boolean skipUnchanged) {
+      this.skipUnchanged = skipUnchanged;
+      return this;
+    }
+
+    public DeployProjectConfigurationConfiguration.Builder deployRecordDirectory(
+        @Nullable Path deployRecordDirectory) {
+      this.deployRecordDirectory = deployRecordDirectory;
+      return this;
+    }
+
     /** Build a {@link DeployProjectConfigurationConfiguration}. */
     public DeployProjectConfigurationConfiguration build() {
       Preconditions.checkState(appEngineDirectory != null, "No AppEngine directory supplied");
 
       return new DeployProjectConfigurationConfiguration(
-          this.appEngineDirectory, this.projectId, this.server);
+          this.appEngineDirectory,
+          this.projectId,
+          this.server,
+          this.skipUnchanged,
+          this.deployRecordDirectory);
     }
   }
 }
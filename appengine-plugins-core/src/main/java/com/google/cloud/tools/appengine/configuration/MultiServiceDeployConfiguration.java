@@ -0,0 +1,231 @@
+/*
+ * Copyright 2026 Google LLC.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.tools.appengine.configuration;
+
+import com.google.cloud.tools.appengine.operations.Deployment;
+import com.google.cloud.tools.appengine.operations.GcloudExecutor;
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableList;
+import java.nio.file.Path;
+import java.util.List;
+import javax.annotation.Nullable;
+
+/**
+ * Configuration for {@link Deployment#deployServices(MultiServiceDeployConfiguration,
+ * com.google.cloud.tools.appengine.operations.cloudsdk.process.ProcessOutputLineListener)}. Each
+ * service is deployed by its own gcloud process, all with the same version id.
+ */
+public class MultiServiceDeployConfiguration {
+
+  private final List<Path> services;
+  private final List<Path> configFiles;
+  @Nullable private final String bucket;
+  @Nullable private final String gcloudMode;
+  @Nullable private final String projectId;
+  @Nullable private final Boolean promote;
+  @Nullable private final String server;
+  @Nullable private final Boolean stopPreviousVersion;
+  @Nullable private final String version;
+  private final int maxParallelDeployments;
+  private final boolean failFast;
+
+  private MultiServiceDeployConfiguration(
+      List<Path> services,
+      List<Path> configFiles,
+      @Nullable String bucket,
+      @Nullable String gcloudMode,
+      @Nullable String projectId,
+      @Nullable Boolean promote,
+      @Nullable String server,
+      @Nullable Boolean stopPreviousVersion,
+      @Nullable String version,
+      int maxParallelDeployments,
+      boolean failFast) {
+    this.services = services;
+    this.configFiles = configFiles;
+    this.bucket = bucket;
+    this.gcloudMode = gcloudMode;
+    this.projectId = projectId;
+    this.promote = promote;
+    this.server = server;
+    this.stopPreviousVersion = stopPreviousVersion;
+    this.version = version;
+    this.maxParallelDeployments = maxParallelDeployments;
+    this.failFast = failFast;
+  }
+
+  /** Staged service directories, or app.yaml files, each deployed by a separate gcloud process. */
+  public List<Path> getServices() {
+    return services;
+  }
+
+  /**
+   * Project configuration files (dispatch.yaml, cron.yaml, ...) deployed one after the other once
+   * every service was deployed successfully.
+   */
+  public List<Path> getConfigFiles() {
+    return configFiles;
+  }
+
+  /** GCS storage bucket used for staging files associated with deployment. */
+  @Nullable
+  public String getBucket() {
+    return bucket;
+  }
+
+  @Nullable
+  public String getGcloudMode() {
+    return gcloudMode;
+  }
+
+  @Nullable
+  public String getProjectId() {
+    return projectId;
+  }
+
+  @Nullable
+  public Boolean getPromote() {
+    return promote;
+  }
+
+  @Nullable
+  public String getServer() {
+    return server;
+  }
+
+  @Nullable
+  public Boolean getStopPreviousVersion() {
+    return stopPreviousVersion;
+  }
+
+  /**
+   * Version id shared by all services. If {@code null} one is generated, in the format gcloud uses
+   * for generated versions.
+   */
+  @Nullable
+  public String getVersion() {
+    return version;
+  }
+
+  /** The maximum number of services deployed at the same time. */
+  public int getMaxParallelDeployments() {
+    return maxParallelDeployments;
+  }
+
+  /**
+   * If true (the default), no new deployment is started after the first failure. Otherwise every
+   * service is attempted.
+   */
+  public boolean isFailFast() {
+    return failFast;
+  }
+
+  public static Builder builder(List<Path> services) {
+    return new Builder(services);
+  }
+
+  public static final class Builder {
+    private final List<Path> services;
+    private List<Path> configFiles = ImmutableList.of();
+    @Nullable private String bucket;
+    @Nullable private String gcloudMode;
+    @Nullable private String projectId;
+    @Nullable private Boolean promote;
+    @Nullable private String server;
+    @Nullable private Boolean stopPreviousVersion;
+    @Nullable private String version;
+    private int maxParallelDeployments = GcloudExecutor.DEFAULT_MAX_CONCURRENT_PROCESSES;
+    private boolean failFast = true;
+
+    private Builder(List<Path> services) {
+      Preconditions.checkNotNull(services);
+      Preconditions.checkArgument(services.size() != 0);
+
+      this.services = ImmutableList.copyOf(services);
+    }
+
+    public MultiServiceDeployConfiguration.Builder configFiles(List<Path> configFiles) {
+      this.configFiles = ImmutableList.copyOf(configFiles);
+      return this;
+    }
+
+    public MultiServiceDeployConfiguration.Builder bucket(@Nullable String bucket) {
+      this.bucket = bucket;
+      return this;
+    }
+
+    public MultiServiceDeployConfiguration.Builder gcloudMode(@Nullable String gcloudMode) {
+      this.gcloudMode = gcloudMode;
+      return this;
+    }
+
+    public MultiServiceDeployConfiguration.Builder projectId(@Nullable String projectId) {
+      this.projectId = projectId;
+      return this;
+    }
+
+    public MultiServiceDeployConfiguration.Builder promote(@Nullable Boolean promote) {
+      this.promote = promote;
+      return this;
+    }
+
+    public MultiServiceDeployConfiguration.Builder server(@Nullable String server) {
+      this.server = server;
+      return this;
+    }
+
+    public MultiServiceDeployConfiguration.Builder stopPreviousVersion(
+        @Nullable Boolean stopPreviousVersion) {
+      this.stopPreviousVersion = stopPreviousVersion;
+      return this;
+    }
+
+    public MultiServiceDeployConfiguration.Builder version(@Nullable String version) {
+      this.version = version;
+      return this;
+    }
+
+    public MultiServiceDeployConfiguration.Builder maxParallelDeployments(
+        int maxParallelDeployments) {
+      Preconditions.checkArgument(
+          maxParallelDeployments > 0, "maxParallelDeployments must be positive");
+      this.maxParallelDeployments = maxParallelDeployments;
+      return this;
+    }
+
+    public MultiServiceDeployConfiguration.Builder failFast(boolean failFast) {
+      this.failFast = failFast;
+      return this;
+    }
+
+    /** Build a {@link MultiServiceDeployConfiguration}. */
+    public MultiServiceDeployConfiguration build() {
+      return new MultiServiceDeployConfiguration(
+          services,
+          configFiles,
+          bucket,
+          gcloudMode,
+          projectId,
+          promote,
+          server,
+          stopPreviousVersion,
+          version,
+          maxParallelDeployments,
+          failFast);
+    }
+  }
+}
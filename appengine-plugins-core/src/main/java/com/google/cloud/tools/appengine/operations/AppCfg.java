@@ -17,17 +17,27 @@
 package com.google.cloud.tools.appengine.operations;
 
 import com.google.cloud.tools.appengine.operations.cloudsdk.process.ProcessHandler;
+import com.google.cloud.tools.appengine.operations.cloudsdk.process.ProcessMetricsListener;
 import com.google.common.annotations.VisibleForTesting;
+import javax.annotation.Nullable;
 
 /** Operations that use appcfg. */
 public class AppCfg {
   private final CloudSdk sdk;
   private final AppCfgRunner.Factory appCfgRunnerFactory;
+  @Nullable private final ProcessMetricsListener processMetricsListener;
+  private final boolean inProcess;
 
   @VisibleForTesting
-  AppCfg(CloudSdk sdk, AppCfgRunner.Factory appCfgRunnerFactory) {
+  AppCfg(
+      CloudSdk sdk,
+      AppCfgRunner.Factory appCfgRunnerFactory,
+      @Nullable ProcessMetricsListener processMetricsListener,
+      boolean inProcess) {
     this.appCfgRunnerFactory = appCfgRunnerFactory;
     this.sdk = sdk;
+    this.processMetricsListener = processMetricsListener;
+    this.inProcess = inProcess;
   }
 
   public AppEngineWebXmlProjectStaging newStaging(ProcessHandler processHandler) {
@@ -36,7 +46,10 @@ public class AppCfg {
 
   @VisibleForTesting
   AppCfgRunner getRunner(ProcessHandler processHandler) {
-    return appCfgRunnerFactory.newRunner(sdk, processHandler);
+    if (inProcess) {
+      return appCfgRunnerFactory.newInProcessRunner(sdk, processHandler, processMetricsListener);
+    }
+    return appCfgRunnerFactory.newRunner(sdk, processHandler, processMetricsListener);
   }
 
   public static Builder builder(CloudSdk sdk) {
@@ -46,6 +59,8 @@ public class AppCfg {
   public static class Builder {
     private final CloudSdk sdk;
     private final AppCfgRunner.Factory runnerFactory;
+    @Nullable private ProcessMetricsListener processMetricsListener;
+    private boolean inProcess;
 
     @VisibleForTesting
     Builder(CloudSdk sdk, AppCfgRunner.Factory runnerFactory) {
@@ -53,9 +68,26 @@ public class AppCfg {
       this.runnerFactory = runnerFactory;
     }
 
+    /** Sets a listener that receives the resource usage of every AppCfg process. */
+    public Builder setProcessMetricsListener(ProcessMetricsListener processMetricsListener) {
+      this.processMetricsListener = processMetricsListener;
+      return this;
+    }
+
+    /**
+     * Runs AppCfg inside the current JVM instead of starting a new java process for every
+     * invocation. The App Engine tools jar is loaded into an isolated class loader that is reused
+     * for the lifetime of the JVM, so this mostly pays off in long lived build processes like the
+     * Gradle daemon. AppCfg then runs on the current JVM, not on the java of the Cloud SDK.
+     */
+    public Builder setInProcess(boolean inProcess) {
+      this.inProcess = inProcess;
+      return this;
+    }
+
     /** Build an immutable AppCfg instance. */
     public AppCfg build() {
-      return new AppCfg(sdk, runnerFactory);
+      return new AppCfg(sdk, runnerFactory, processMetricsListener, inProcess);
     }
   }
 }
@@ -18,14 +18,19 @@ package com.google.cloud.tools.appengine.operations;
 
 import com.google.cloud.tools.appengine.operations.cloudsdk.AppEngineJavaComponentsNotInstalledException;
 import com.google.cloud.tools.appengine.operations.cloudsdk.InvalidJavaSdkException;
+import com.google.cloud.tools.appengine.operations.cloudsdk.internal.process.MeteredProcess;
 import com.google.cloud.tools.appengine.operations.cloudsdk.internal.process.ProcessBuilderFactory;
 import com.google.cloud.tools.appengine.operations.cloudsdk.process.ProcessHandler;
 import com.google.cloud.tools.appengine.operations.cloudsdk.process.ProcessHandlerException;
+import com.google.cloud.tools.appengine.operations.cloudsdk.process.ProcessMetrics;
+import com.google.cloud.tools.appengine.operations.cloudsdk.process.ProcessMetricsListener;
 import com.google.common.base.Joiner;
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.logging.Logger;
+import javax.annotation.Nullable;
 
 public class AppCfgRunner {
 
@@ -34,16 +39,39 @@ public class AppCfgRunner {
   private final CloudSdk sdk;
   private final ProcessBuilderFactory processBuilderFactory;
   private final ProcessHandler processHandler;
+  @Nullable private final ProcessMetricsListener processMetricsListener;
+  private final boolean inProcess;
 
   AppCfgRunner(
       CloudSdk sdk, ProcessBuilderFactory processBuilderFactory, ProcessHandler processHandler) {
+    this(sdk, processBuilderFactory, processHandler, null);
+  }
+
+  AppCfgRunner(
+      CloudSdk sdk,
+      ProcessBuilderFactory processBuilderFactory,
+      ProcessHandler processHandler,
+      @Nullable ProcessMetricsListener processMetricsListener) {
+    this(sdk, processBuilderFactory, processHandler, processMetricsListener, false);
+  }
+
+  AppCfgRunner(
+      CloudSdk sdk,
+      ProcessBuilderFactory processBuilderFactory,
+      ProcessHandler processHandler,
+      @Nullable ProcessMetricsListener processMetricsListener,
+      boolean inProcess) {
     this.sdk = sdk;
     this.processBuilderFactory = processBuilderFactory;
     this.processHandler = processHandler;
+    this.processMetricsListener = processMetricsListener;
+    this.inProcess = inProcess;
   }
 
   /**
-   * Executes an App Engine SDK CLI command.
+   * Executes an App Engine SDK CLI command. In process runners execute it on a worker thread of the
+   * current JVM, see {@link InProcessAppCfg}, others, and in process runners for SDKs that don't
+   * support it, start a new java process.
    *
    * @throws AppEngineJavaComponentsNotInstalledException when the App Engine Java components are
    *     not installed in the Cloud SDK
@@ -53,6 +81,23 @@ public class AppCfgRunner {
       throws ProcessHandlerException, AppEngineJavaComponentsNotInstalledException,
           InvalidJavaSdkException, IOException {
     sdk.validateAppEngineJavaComponents();
+    boolean runInProcess = inProcess && InProcessAppCfg.isSupported(sdk.getAppEngineToolsJar());
+    if (inProcess && !runInProcess) {
+      logger.info("AppCfg of this App Engine SDK can't run in process, starting a java process");
+    }
+    if (runInProcess) {
+      List<String> command = new ArrayList<>();
+      command.add(InProcessAppCfg.MAIN_CLASS);
+      command.addAll(args);
+      logger.info("running in process: " + Joiner.on(" ").join(command));
+
+      long startNanos = System.nanoTime();
+      Process process =
+          InProcessAppCfg.start(sdk.getAppEngineToolsJar(), sdk.getAppEngineSdkForJavaPath(), args);
+      handleProcess(process, command, args, startNanos);
+      return;
+    }
+
     sdk.validateJdk();
 
     // App Engine Java Sdk requires this system property to be set.
@@ -71,10 +116,36 @@ public class AppCfgRunner {
 
     ProcessBuilder processBuilder = processBuilderFactory.newProcessBuilder();
     processBuilder.command(command);
+    long startNanos = System.nanoTime();
     Process process = processBuilder.start();
+    handleProcess(process, command, args, startNanos);
+  }
+
+  private void handleProcess(
+      Process process, List<String> command, List<String> args, long startNanos)
+      throws ProcessHandlerException {
+    if (processMetricsListener != null) {
+      process =
+          MeteredProcess.wrap(
+              process,
+              ProcessMetrics.commandType("appcfg", subcommand(args)),
+              command,
+              processMetricsListener,
+              startNanos);
+    }
     processHandler.handleProcess(process);
   }
 
+  // AppCfg flags precede the action, e.g. "--enable_quickstart stage <src> <dest>"
+  private static List<String> subcommand(List<String> args) {
+    for (String arg : args) {
+      if (!arg.startsWith("-")) {
+        return Collections.singletonList(arg);
+      }
+    }
+    return Collections.emptyList();
+  }
+
   static class Factory {
     private final ProcessBuilderFactory processBuilderFactory;
 
@@ -86,8 +157,23 @@ public class AppCfgRunner {
       this.processBuilderFactory = processBuilderFactory;
     }
 
+    AppCfgRunner newRunner(
+        CloudSdk sdk,
+        ProcessHandler processHandler,
+        @Nullable ProcessMetricsListener processMetricsListener) {
+      return new AppCfgRunner(sdk, processBuilderFactory, processHandler, processMetricsListener);
+    }
+
     AppCfgRunner newRunner(CloudSdk sdk, ProcessHandler processHandler) {
-      return new AppCfgRunner(sdk, processBuilderFactory, processHandler);
+      return newRunner(sdk, processHandler, null);
+    }
+
+    AppCfgRunner newInProcessRunner(
+        CloudSdk sdk,
+        ProcessHandler processHandler,
+        @Nullable ProcessMetricsListener processMetricsListener) {
+      return new AppCfgRunner(
+          sdk, processBuilderFactory, processHandler, processMetricsListener, true);
     }
   }
 }
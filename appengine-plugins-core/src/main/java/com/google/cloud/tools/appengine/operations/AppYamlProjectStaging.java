@@ -19,26 +19,48 @@ package com.google.cloud.tools.appengine.operations;
 import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
 
 import com.google.cloud.tools.appengine.AppEngineException;
+import com.google.cloud.tools.appengine.DescriptorCache;
 import com.google.cloud.tools.appengine.configuration.AppYamlProjectStageConfiguration;
+import com.google.cloud.tools.io.DirectorySync;
+import com.google.cloud.tools.io.FileLinker;
 import com.google.cloud.tools.io.FileUtil;
-import com.google.cloud.tools.project.AppYaml;
+import com.google.cloud.tools.io.JarStore;
+import com.google.cloud.tools.io.ParallelDirectoryCopy;
+import com.google.cloud.tools.io.PathFilter;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Preconditions;
 import com.google.common.base.Splitter;
 import com.google.common.base.Strings;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
+import java.io.BufferedInputStream;
 import java.io.IOException;
-import java.io.InputStream;
+import java.nio.file.FileSystems;
 import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
 import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.jar.Attributes;
 import java.util.jar.JarFile;
+import java.util.jar.Manifest;
+import java.util.logging.Level;
 import java.util.logging.Logger;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
 import javax.annotation.Nullable;
 
-/** Application stager for app.yaml based applications before deployment. */
+/**
+ * Application stager for app.yaml based applications before deployment. The staging directory and
+ * the staged files may be on any {@link java.nio.file.FileSystem}, for example a deployable can be
+ * staged straight into a zip file system.
+ */
 public class AppYamlProjectStaging {
 
   private static final Logger log = Logger.getLogger(AppYamlProjectStaging.class.getName());
@@ -111,30 +133,48 @@ public class AppYamlProjectStaging {
   @VisibleForTesting
   void stageFlexibleArchive(AppYamlProjectStageConfiguration config, @Nullable String runtime)
       throws IOException, AppEngineException {
-    CopyService copyService = new CopyService();
+    CopyService copyService = newCopyService(config);
     copyDockerContext(config, copyService, runtime);
     copyExtraFiles(config, copyService);
     copyAppEngineContext(config, copyService);
     copyArtifact(config, copyService);
+    copyService.finish();
   }
 
   @VisibleForTesting
   void stageStandardArchive(AppYamlProjectStageConfiguration config)
       throws IOException, AppEngineException {
-    CopyService copyService = new CopyService();
+    CopyService copyService = newCopyService(config);
     copyExtraFiles(config, copyService);
     copyAppEngineContext(config, copyService);
     copyArtifact(config, copyService);
     copyArtifactJarClasspath(config, copyService);
+    copyService.finish();
+    pruneJarStore(config);
   }
 
   @VisibleForTesting
   void stageStandardBinary(AppYamlProjectStageConfiguration config)
       throws IOException, AppEngineException {
-    CopyService copyService = new CopyService();
+    CopyService copyService = newCopyService(config);
     copyExtraFiles(config, copyService);
     copyAppEngineContext(config, copyService);
     copyArtifact(config, copyService);
+    copyService.finish();
+  }
+
+  private static CopyService newCopyService(AppYamlProjectStageConfiguration config) {
+    if (config.isSync()) {
+      return new SyncCopyService(
+          DirectorySync.builder(config.getStagingDirectory())
+              .compareContent(config.isCompareContent())
+              .linkFiles(config.isLinkFiles())
+              .parallelCopy(config.isParallelCopy() ? ParallelDirectoryCopy.getDefault() : null)
+              .build());
+    }
+    return new CopyService(
+        config.isLinkFiles() ? FileLinker.getDefault() : null,
+        config.isParallelCopy() ? ParallelDirectoryCopy.getDefault() : null);
   }
 
   @VisibleForTesting
@@ -146,9 +186,7 @@ public class AppYamlProjectStaging {
       throw new AppEngineException("Invalid Staging Configuration: missing App Engine directory");
     }
     Path appYaml = appEngineDirectory.resolve(APP_YAML);
-    try (InputStream input = Files.newInputStream(appYaml)) {
-      return AppYaml.parse(input).getEnvironmentType();
-    }
+    return DescriptorCache.getInstance().getAppYaml(appYaml).getEnvironmentType();
   }
 
   @VisibleForTesting
@@ -161,9 +199,7 @@ public class AppYamlProjectStaging {
       throw new AppEngineException("Invalid Staging Configuration: missing App Engine directory");
     }
     Path appYaml = appEngineDirectory.resolve(APP_YAML);
-    try (InputStream input = Files.newInputStream(appYaml)) {
-      return AppYaml.parse(input).getRuntime();
-    }
+    return DescriptorCache.getInstance().getAppYaml(appYaml).getRuntime();
   }
 
   @VisibleForTesting
@@ -186,7 +222,10 @@ public class AppYamlProjectStaging {
                 "Docker directory " + dockerDirectory + " does not contain Dockerfile.");
           } else {
             Path stagingDirectory = config.getStagingDirectory();
-            copyService.copyDirectory(dockerDirectory, stagingDirectory);
+            copyService.copyDirectory(
+                dockerDirectory,
+                stagingDirectory,
+                PathFilter.builder().exclude(config.getDockerExcludes()).build());
           }
         }
       }
@@ -211,6 +250,11 @@ public class AppYamlProjectStaging {
     if (extraFilesDirectories == null) {
       return;
     }
+    PathFilter filter =
+        PathFilter.builder()
+            .include(config.getExtraFilesIncludes())
+            .exclude(config.getExtraFilesExcludes())
+            .build();
     for (Path extraFilesDirectory : extraFilesDirectories) {
       if (!Files.exists(extraFilesDirectory)) {
         throw new AppEngineException(
@@ -221,7 +265,7 @@ public class AppYamlProjectStaging {
             "Extra files location is not a directory. Location: " + extraFilesDirectory);
       }
       Path stagingDirectory = config.getStagingDirectory();
-      copyService.copyDirectory(extraFilesDirectory, stagingDirectory);
+      copyService.copyDirectory(extraFilesDirectory, stagingDirectory, filter);
     }
   }
 
@@ -230,7 +274,7 @@ public class AppYamlProjectStaging {
     Path artifact = config.getArtifact();
     if (Files.exists(artifact)) {
       Path stagingDirectory = config.getStagingDirectory();
-      Path destination = stagingDirectory.resolve(artifact.getFileName());
+      Path destination = stagingDirectory.resolve(artifact.getFileName().toString());
       copyService.copyFileAndReplace(artifact, destination);
     } else {
       throw new AppEngineException("Artifact doesn't exist at '" + artifact + "'.");
@@ -245,35 +289,146 @@ public class AppYamlProjectStaging {
       AppYamlProjectStageConfiguration config, CopyService copyService) throws IOException {
     Path artifact = config.getArtifact();
     Path targetDirectory = config.getStagingDirectory();
-    try (JarFile jarFile = new JarFile(artifact.toFile())) {
-      String jarClassPath =
-          jarFile.getManifest().getMainAttributes().getValue(Attributes.Name.CLASS_PATH);
-      if (jarClassPath == null) {
-        return;
+    Map<Path, Path> jars = resolveJarClasspath(artifact);
+    Map<Path, Path> jarTargets = new LinkedHashMap<>();
+    for (Map.Entry<Path, Path> jar : jars.entrySet()) {
+      Path jarSrc = jar.getValue();
+      Path jarTarget = FileUtil.resolve(targetDirectory, jar.getKey());
+      if (Files.exists(jarTarget)) {
+        log.fine(
+            "Overwriting 'Class-Path' jar: "
+                + jarTarget
+                + " with "
+                + jarSrc
+                + " referenced in MANIFEST.MF");
       }
-      Iterable<String> classpathEntries = Splitter.onPattern("\\s+").split(jarClassPath.trim());
-      for (String classpathEntry : classpathEntries) {
-        // classpath entries are relative to artifact's position and relativeness should be
-        // preserved in the target directory
-        Path jarSrc =
-            artifact.getParent() == null ? null : artifact.getParent().resolve(classpathEntry);
-        if (jarSrc == null || !Files.isRegularFile(jarSrc)) {
-          log.warning("Could not copy 'Class-Path' jar: " + jarSrc + " referenced in MANIFEST.MF");
+      jarTargets.put(jarTarget, jarSrc);
+    }
+
+    Path jarStoreDirectory = config.getJarStoreDirectory();
+    if (jarStoreDirectory != null) {
+      copyService.copyJarsAndReplace(jarTargets, new JarStore(jarStoreDirectory));
+      return;
+    }
+    for (Map.Entry<Path, Path> jar : jarTargets.entrySet()) {
+      copyService.copyFileAndReplace(jar.getValue(), jar.getKey());
+    }
+  }
+
+  /** Prunes the jar store, once every jar was staged so that none is deleted before it is used. */
+  private static void pruneJarStore(AppYamlProjectStageConfiguration config) {
+    Path jarStoreDirectory = config.getJarStoreDirectory();
+    if (jarStoreDirectory == null) {
+      return;
+    }
+    try {
+      new JarStore(jarStoreDirectory).prune(JarStore.DEFAULT_MAX_BYTES);
+    } catch (IOException ex) {
+      log.log(Level.WARNING, "Could not prune the jar store " + jarStoreDirectory, ex);
+    }
+  }
+
+  /**
+   * Resolves the "Class-Path" of {@code artifact}, including the "Class-Path" of the jars it
+   * references, so that the whole dependency graph is known before anything is staged. Jars
+   * referenced by other jars are skipped if they are outside of the directory of the artifact.
+   *
+   * @return the jars to stage by their path relative to the directory of the artifact, in the order
+   *     they are referenced
+   */
+  @VisibleForTesting
+  static Map<Path, Path> resolveJarClasspath(Path artifact) throws IOException {
+    Map<Path, Path> jars = new LinkedHashMap<>();
+    Path artifactDirectory = artifact.getParent();
+    if (artifactDirectory == null) {
+      // classpath entries are relative to artifact's position
+      return jars;
+    }
+    Set<Path> visited = new HashSet<>();
+    Deque<Path> manifests = new ArrayDeque<>();
+    manifests.add(artifact);
+    while (!manifests.isEmpty()) {
+      Path jar = manifests.poll();
+      boolean isArtifact = jar.equals(artifact);
+      Path jarDirectory = Preconditions.checkNotNull(jar.getParent());
+      for (String classpathEntry : readJarClasspath(jar, isArtifact)) {
+        // classpath entries are relative to the jar that references them and relativeness
+        // should be preserved in the target directory
+        Path jarSrc = jarDirectory.resolve(classpathEntry);
+        if (!Files.isRegularFile(jarSrc)) {
+          // dependencies often list optional jars that were never packaged, only the artifact's
+          // own classpath is expected to be complete
+          log.log(
+              isArtifact ? Level.WARNING : Level.FINE,
+              "Could not copy 'Class-Path' jar: " + jarSrc + " referenced in MANIFEST.MF");
           continue;
         }
-        Path jarTarget = targetDirectory.resolve(classpathEntry);
-
-        if (Files.exists(jarTarget)) {
-          log.fine(
-              "Overwriting 'Class-Path' jar: "
-                  + jarTarget
-                  + " with "
+        if (!visited.add(jarSrc.toAbsolutePath().normalize())) {
+          continue;
+        }
+        Path relative =
+            isArtifact
+                ? artifactDirectory.getFileSystem().getPath(classpathEntry)
+                : artifactDirectory.relativize(jarSrc).normalize();
+        if (!isArtifact && relative.startsWith("..")) {
+          // it would be staged outside of the staging directory
+          log.warning(
+              "Not copying 'Class-Path' jar: "
                   + jarSrc
-                  + " referenced in MANIFEST.MF");
+                  + " referenced in MANIFEST.MF of "
+                  + jar
+                  + ", it is outside of "
+                  + artifactDirectory);
+          continue;
+        }
+        jars.putIfAbsent(relative, jarSrc);
+        manifests.add(jarSrc);
+      }
+    }
+    return jars;
+  }
+
+  /**
+   * Returns the "Class-Path" entries of {@code jar}. Only the manifest of the artifact itself must
+   * be readable, a referenced file that isn't a jar has no entries.
+   */
+  private static List<String> readJarClasspath(Path jar, boolean required) throws IOException {
+    try {
+      Manifest manifest = readManifest(jar);
+      String jarClassPath =
+          manifest == null
+              ? null
+              : manifest.getMainAttributes().getValue(Attributes.Name.CLASS_PATH);
+      if (jarClassPath == null || jarClassPath.trim().isEmpty()) {
+        return ImmutableList.of();
+      }
+      return Splitter.onPattern("\\s+").splitToList(jarClassPath.trim());
+    } catch (IOException ex) {
+      if (required) {
+        throw ex;
+      }
+      log.fine("Not reading 'Class-Path' of " + jar + ": " + ex.getMessage());
+      return ImmutableList.of();
+    }
+  }
+
+  @Nullable
+  private static Manifest readManifest(Path jar) throws IOException {
+    if (jar.getFileSystem() == FileSystems.getDefault()) {
+      try (JarFile jarFile = new JarFile(jar.toFile())) {
+        return jarFile.getManifest();
+      }
+    }
+    // JarFile needs a java.io.File, jars on other file systems are read as a stream
+    try (ZipInputStream in =
+        new ZipInputStream(new BufferedInputStream(Files.newInputStream(jar)))) {
+      for (ZipEntry entry = in.getNextEntry(); entry != null; entry = in.getNextEntry()) {
+        if (JarFile.MANIFEST_NAME.equalsIgnoreCase(entry.getName())) {
+          return new Manifest(in);
         }
-        copyService.copyFileAndReplace(jarSrc, jarTarget);
       }
     }
+    return null;
   }
 
   @VisibleForTesting
@@ -285,26 +440,144 @@ public class AppYamlProjectStaging {
       throw new AppEngineException("Invalid Staging Configuration: missing App Engine directory");
     }
     Path appYamlFile = config.getAppEngineDirectory().resolve(APP_YAML);
-    try (InputStream input = Files.newInputStream(appYamlFile)) {
-      return AppYaml.parse(input).getEntrypoint() != null;
-    }
+    return DescriptorCache.getInstance().getAppYaml(appYamlFile).getEntrypoint() != null;
   }
 
   @VisibleForTesting
   static class CopyService {
+    @Nullable private final FileLinker linker;
+    @Nullable private final ParallelDirectoryCopy parallelCopy;
+
+    CopyService() {
+      this(null, null);
+    }
+
+    /**
+     * Creates a service that links single files with {@code linker} and copies filtered directories
+     * with {@code parallelCopy}, if they are not null.
+     */
+    CopyService(@Nullable FileLinker linker, @Nullable ParallelDirectoryCopy parallelCopy) {
+      this.linker = linker;
+      this.parallelCopy = parallelCopy;
+    }
+
     void copyDirectory(Path src, Path dest, List<Path> excludes) throws IOException {
       FileUtil.copyDirectory(src, dest, excludes);
     }
 
+    void copyDirectory(Path src, Path dest, PathFilter filter) throws IOException {
+      if (parallelCopy != null) {
+        FileUtil.copyDirectory(src, dest, filter, parallelCopy);
+        return;
+      }
+      FileUtil.copyDirectory(src, dest, filter);
+    }
+
     void copyDirectory(Path src, Path dest) throws IOException {
       FileUtil.copyDirectory(src, dest);
     }
 
     void copyFileAndReplace(Path src, Path dest) throws IOException {
+      if (linker != null) {
+        linker.link(src, dest);
+        return;
+      }
       if (!Files.exists(dest.getParent())) {
         Files.createDirectories(dest.getParent());
       }
       Files.copy(src, dest, REPLACE_EXISTING);
     }
+
+    /** Stages jars from {@code jarStore} in parallel, the keys are the target paths. */
+    void copyJarsAndReplace(Map<Path, Path> jars, JarStore jarStore) throws IOException {
+      jarStore.stageAll(jars);
+    }
+
+    /** Called once everything was copied. */
+    void finish() throws IOException {}
+  }
+
+  /**
+   * Plans the copies instead of making them, and then synchronizes the staging directory with the
+   * plan, so only changed files are copied and files that are no longer staged are removed.
+   */
+  @VisibleForTesting
+  static class SyncCopyService extends CopyService {
+    private final DirectorySync sync;
+    // jars staged from a store, linked again if another build prunes them before the sync
+    private final Map<Path, Path> storedJars = new LinkedHashMap<>();
+    @Nullable private JarStore jarStore;
+
+    SyncCopyService(DirectorySync sync) {
+      this.sync = sync;
+    }
+
+    @Override
+    void copyDirectory(Path src, Path dest, List<Path> excludes) throws IOException {
+      sync.addDirectory(src, dest, excludes);
+    }
+
+    @Override
+    void copyDirectory(Path src, Path dest, PathFilter filter) throws IOException {
+      sync.addDirectory(src, dest, filter);
+    }
+
+    @Override
+    void copyDirectory(Path src, Path dest) throws IOException {
+      sync.addDirectory(src, dest);
+    }
+
+    @Override
+    void copyFileAndReplace(Path src, Path dest) {
+      sync.addFile(src, dest);
+    }
+
+    @Override
+    void copyJarsAndReplace(Map<Path, Path> jars, JarStore jarStore) throws IOException {
+      if (jars.isEmpty()) {
+        return;
+      }
+      // all targets are in the staging directory
+      if (!jarStore.canLink(jars.keySet().iterator().next())) {
+        // nothing could be linked, like JarStore.stage the jars are copied directly
+        for (Map.Entry<Path, Path> jar : jars.entrySet()) {
+          sync.addFile(jar.getValue(), jar.getKey());
+        }
+        return;
+      }
+      this.jarStore = jarStore;
+      storedJars.putAll(jars);
+      linkStoredJars(jarStore);
+    }
+
+    private void linkStoredJars(JarStore jarStore) throws IOException {
+      Map<Path, Path> stored = jarStore.putAll(new LinkedHashSet<>(storedJars.values()));
+      for (Map.Entry<Path, Path> jar : storedJars.entrySet()) {
+        sync.linkFile(Preconditions.checkNotNull(stored.get(jar.getValue())), jar.getKey());
+      }
+    }
+
+    @Override
+    void finish() throws IOException {
+      DirectorySync.Result result;
+      try {
+        result = sync.sync();
+      } catch (NoSuchFileException ex) {
+        if (jarStore == null) {
+          throw ex;
+        }
+        // pruned by another build between being stored and linked, store them again
+        linkStoredJars(jarStore);
+        result = sync.sync();
+      }
+      log.fine(
+          "Staging synchronized: "
+              + result.getCopied().size()
+              + " copied, "
+              + result.getUnchanged().size()
+              + " unchanged, "
+              + result.getDeleted().size()
+              + " deleted");
+    }
   }
 }
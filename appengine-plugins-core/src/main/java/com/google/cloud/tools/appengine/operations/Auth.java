@@ -19,6 +19,7 @@ package com.google.cloud.tools.appengine.operations;
 import com.google.cloud.tools.appengine.AppEngineException;
 import com.google.cloud.tools.appengine.operations.cloudsdk.internal.args.GcloudArgs;
 import com.google.cloud.tools.appengine.operations.cloudsdk.process.ProcessHandlerException;
+import com.google.cloud.tools.appengine.operations.cloudsdk.process.ProcessOutputLineListener;
 import com.google.common.base.Preconditions;
 import com.google.common.collect.ImmutableList;
 import java.io.IOException;
@@ -26,7 +27,9 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import java.util.regex.Pattern;
+import javax.annotation.Nullable;
 
 /** Run various gcloud auth commands. */
 public class Auth {
@@ -34,9 +37,15 @@ public class Auth {
       Pattern.compile("^[A-Z0-9._%+-]+@[A-Z0-9.-]+\\.[A-Z]+$", Pattern.CASE_INSENSITIVE);
 
   private final GcloudRunner runner;
+  private final GcloudExecutor executor;
 
   Auth(GcloudRunner runner) {
+    this(runner, GcloudExecutor.getDefault());
+  }
+
+  Auth(GcloudRunner runner, GcloudExecutor executor) {
     this.runner = Preconditions.checkNotNull(runner);
+    this.executor = Preconditions.checkNotNull(executor);
   }
 
   /**
@@ -47,17 +56,45 @@ public class Auth {
    * @throws AppEngineException when there is an issue with the auth flow
    */
   public void login(String user) throws AppEngineException {
-    Preconditions.checkNotNull(user);
-    if (!EMAIL_PATTERN.matcher(user).find()) {
-      throw new AppEngineException("Invalid email address: " + user);
-    }
+    List<String> arguments = loginArgs(user);
     try {
-      runner.run(ImmutableList.of("auth", "login", user), null);
+      runner.run(arguments, null);
     } catch (ProcessHandlerException | IOException ex) {
       throw new AppEngineException(ex);
     }
   }
 
+  /**
+   * Logs into the Cloud SDK with a specific user without blocking, see {@link #login(String)}.
+   *
+   * @param user a user email
+   * @throws AppEngineException when the user is not a valid email address
+   */
+  public CompletableFuture<Void> loginAsync(String user) throws AppEngineException {
+    return loginAsync(user, null);
+  }
+
+  /**
+   * Logs into the Cloud SDK with a specific user without blocking, see {@link #login(String)}.
+   *
+   * @param user a user email
+   * @param outputListener if not null, receives the gcloud output
+   * @throws AppEngineException when the user is not a valid email address
+   */
+  public CompletableFuture<Void> loginAsync(
+      String user, @Nullable ProcessOutputLineListener outputListener) throws AppEngineException {
+    return executor.run(
+        runner, loginArgs(user), null, GcloudExecutor.Priority.NORMAL, outputListener);
+  }
+
+  private static List<String> loginArgs(String user) throws AppEngineException {
+    Preconditions.checkNotNull(user);
+    if (!EMAIL_PATTERN.matcher(user).find()) {
+      throw new AppEngineException("Invalid email address: " + user);
+    }
+    return ImmutableList.of("auth", "login", user);
+  }
+
   /** Launches the gcloud auth login flow. */
   public void login() throws AppEngineException {
     try {
@@ -67,6 +104,25 @@ public class Auth {
     }
   }
 
+  /** Launches the gcloud auth login flow without blocking. */
+  public CompletableFuture<Void> loginAsync() {
+    return loginAsync((ProcessOutputLineListener) null);
+  }
+
+  /**
+   * Launches the gcloud auth login flow without blocking.
+   *
+   * @param outputListener if not null, receives the gcloud output
+   */
+  public CompletableFuture<Void> loginAsync(@Nullable ProcessOutputLineListener outputListener) {
+    return executor.run(
+        runner,
+        ImmutableList.of("auth", "login"),
+        null,
+        GcloudExecutor.Priority.NORMAL,
+        outputListener);
+  }
+
   /**
    * Activates a service account based on a configured json key file.
    *
@@ -74,15 +130,44 @@ public class Auth {
    * @throws AppEngineException when there is an issue with the auth flow
    */
   public void activateServiceAccount(Path jsonFile) throws AppEngineException {
-    Preconditions.checkArgument(Files.exists(jsonFile), "File does not exist: " + jsonFile);
     try {
-      List<String> args = new ArrayList<>(3);
-      args.add("auth");
-      args.add("activate-service-account");
-      args.addAll(GcloudArgs.get("key-file", jsonFile));
-      runner.run(args, null);
+      runner.run(activateServiceAccountArgs(jsonFile), null);
     } catch (ProcessHandlerException | IOException ex) {
       throw new AppEngineException(ex);
     }
   }
+
+  /**
+   * Activates a service account without blocking, see {@link #activateServiceAccount(Path)}.
+   *
+   * @param jsonFile a service account json key file
+   */
+  public CompletableFuture<Void> activateServiceAccountAsync(Path jsonFile) {
+    return activateServiceAccountAsync(jsonFile, null);
+  }
+
+  /**
+   * Activates a service account without blocking, see {@link #activateServiceAccount(Path)}.
+   *
+   * @param jsonFile a service account json key file
+   * @param outputListener if not null, receives the gcloud output
+   */
+  public CompletableFuture<Void> activateServiceAccountAsync(
+      Path jsonFile, @Nullable ProcessOutputLineListener outputListener) {
+    return executor.run(
+        runner,
+        activateServiceAccountArgs(jsonFile),
+        null,
+        GcloudExecutor.Priority.NORMAL,
+        outputListener);
+  }
+
+  private static List<String> activateServiceAccountArgs(Path jsonFile) {
+    Preconditions.checkArgument(Files.exists(jsonFile), "File does not exist: " + jsonFile);
+    List<String> args = new ArrayList<>(3);
+    args.add("auth");
+    args.add("activate-service-account");
+    args.addAll(GcloudArgs.get("key-file", jsonFile));
+    return args;
+  }
 }
@@ -63,6 +63,7 @@ public class CloudSdk {
   private static final String VERSION_FILE_NAME = "VERSION";
 
   private final Map<String, Path> jarLocations = new HashMap<>();
+  private final CloudSdkValidationCache validationCache = CloudSdkValidationCache.getInstance();
   private final Path sdkPath;
   private final Path javaHomePath;
 
@@ -83,6 +84,12 @@ public class CloudSdk {
    * file located in the Cloud SDK directory.
    */
   public CloudSdkVersion getVersion() throws CloudSdkVersionFileException {
+    CloudSdkValidationCache.Stamp stamp = validationCache.stamp(sdkPath);
+    CloudSdkVersion cached = stamp == null ? null : validationCache.getVersion(sdkPath, stamp);
+    if (cached != null) {
+      return cached;
+    }
+
     Path versionFile = getPath().resolve(VERSION_FILE_NAME);
 
     if (!Files.isRegularFile(versionFile)) {
@@ -97,7 +104,11 @@ public class CloudSdk {
         // expect only a single line
         contents = lines.get(0);
       }
-      return new CloudSdkVersion(contents);
+      CloudSdkVersion version = new CloudSdkVersion(contents);
+      if (stamp != null) {
+        validationCache.putVersion(sdkPath, stamp, version);
+      }
+      return version;
     } catch (IOException ex) {
       throw new CloudSdkVersionFileException(ex);
     } catch (IllegalArgumentException ex) {
@@ -178,7 +189,8 @@ public class CloudSdk {
   }
 
   /**
-   * Checks whether the Cloud SDK path and version are valid.
+   * Checks whether the Cloud SDK path and version are valid. A successful result is remembered for
+   * the whole JVM until the VERSION file or the bin directory of the installation change.
    *
    * @throws CloudSdkNotFoundException when Cloud SDK is not installed where expected
    * @throws CloudSdkOutOfDateException when Cloud SDK is out of date
@@ -186,8 +198,15 @@ public class CloudSdk {
    */
   public void validateCloudSdk()
       throws CloudSdkNotFoundException, CloudSdkOutOfDateException, CloudSdkVersionFileException {
+    CloudSdkValidationCache.Stamp stamp = validationCache.stamp(sdkPath);
+    if (stamp != null && validationCache.isValidated(sdkPath, stamp)) {
+      return;
+    }
     validateCloudSdkLocation();
     validateCloudSdkVersion();
+    if (stamp != null) {
+      validationCache.putValidated(sdkPath, stamp);
+    }
   }
 
   private void validateCloudSdkVersion()
@@ -0,0 +1,148 @@
+/*
+ * Copyright 2026 Google LLC.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.tools.appengine.operations;
+
+import com.google.cloud.tools.appengine.operations.cloudsdk.serialization.CloudSdkVersion;
+import com.google.common.annotations.VisibleForTesting;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import javax.annotation.Nullable;
+
+/**
+ * Remembers, per Cloud SDK path, the parsed version and whether the installation passed validation,
+ * so that repeated operations don't read and parse the VERSION file and stat the SDK layout again.
+ * An entry is only reused while the VERSION file and the {@code bin} directory keep the
+ * modification time (and for VERSION, the size) they had when it was recorded; installing, updating
+ * or removing the SDK or its tools changes at least one of them. Failures are never cached.
+ */
+class CloudSdkValidationCache {
+
+  private static final CloudSdkValidationCache INSTANCE = new CloudSdkValidationCache();
+
+  private final ConcurrentMap<Path, Entry> entries = new ConcurrentHashMap<>();
+
+  @VisibleForTesting
+  CloudSdkValidationCache() {}
+
+  /** Returns the cache shared by all {@link CloudSdk} instances of this class loader. */
+  static CloudSdkValidationCache getInstance() {
+    return INSTANCE;
+  }
+
+  /**
+   * Reads the current state of the installation at {@code sdkPath}, or returns {@code null} if the
+   * VERSION file or the bin directory is missing, in which case nothing is cached.
+   */
+  @Nullable
+  Stamp stamp(Path sdkPath) {
+    try {
+      BasicFileAttributes version =
+          Files.readAttributes(sdkPath.resolve("VERSION"), BasicFileAttributes.class);
+      BasicFileAttributes bin =
+          Files.readAttributes(sdkPath.resolve("bin"), BasicFileAttributes.class);
+      return new Stamp(version.lastModifiedTime(), version.size(), bin.lastModifiedTime());
+    } catch (IOException ex) {
+      return null;
+    }
+  }
+
+  /** Returns the version recorded for {@code stamp}, or {@code null}. */
+  @Nullable
+  CloudSdkVersion getVersion(Path sdkPath, Stamp stamp) {
+    Entry entry = entries.get(sdkPath);
+    return entry != null && entry.stamp.equals(stamp) ? entry.version : null;
+  }
+
+  /** Returns true if the installation passed validation while it was in state {@code stamp}. */
+  boolean isValidated(Path sdkPath, Stamp stamp) {
+    Entry entry = entries.get(sdkPath);
+    return entry != null && entry.stamp.equals(stamp) && entry.validated;
+  }
+
+  void putVersion(Path sdkPath, Stamp stamp, CloudSdkVersion version) {
+    entries.compute(
+        sdkPath,
+        (path, entry) ->
+            entry != null && entry.stamp.equals(stamp)
+                ? new Entry(stamp, version, entry.validated)
+                : new Entry(stamp, version, false));
+  }
+
+  void putValidated(Path sdkPath, Stamp stamp) {
+    entries.compute(
+        sdkPath,
+        (path, entry) ->
+            entry != null && entry.stamp.equals(stamp)
+                ? new Entry(stamp, entry.version, true)
+                : new Entry(stamp, null, true));
+  }
+
+  /** Forgets everything, for example after an SDK was updated in place. */
+  void clear() {
+    entries.clear();
+  }
+
+  /** The state of an installation that cached results depend on. */
+  static final class Stamp {
+    private final FileTime versionModified;
+    private final long versionSize;
+    private final FileTime binModified;
+
+    private Stamp(FileTime versionModified, long versionSize, FileTime binModified) {
+      this.versionModified = versionModified;
+      this.versionSize = versionSize;
+      this.binModified = binModified;
+    }
+
+    @Override
+    public boolean equals(@Nullable Object other) {
+      if (this == other) {
+        return true;
+      }
+      if (!(other instanceof Stamp)) {
+        return false;
+      }
+      Stamp stamp = (Stamp) other;
+      return versionSize == stamp.versionSize
+          && versionModified.equals(stamp.versionModified)
+          && binModified.equals(stamp.binModified);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(versionModified, versionSize, binModified);
+    }
+  }
+
+  private static final class Entry {
+    private final Stamp stamp;
+    @Nullable private final CloudSdkVersion version;
+    private final boolean validated;
+
+    private Entry(Stamp stamp, @Nullable CloudSdkVersion version, boolean validated) {
+      this.stamp = stamp;
+      this.version = version;
+      this.validated = validated;
+    }
+  }
+}
@@ -0,0 +1,100 @@
+/*
+ * Copyright 2026 Google LLC.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.tools.appengine.operations;
+
+import com.google.cloud.tools.appengine.configuration.DeployConfiguration;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import com.google.common.io.MoreFiles;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import javax.annotation.Nullable;
+
+/**
+ * Computes a SHA-256 fingerprint of a staging directory and the parts of a {@link
+ * DeployConfiguration} that affect what gets deployed. Two deployments with the same fingerprint
+ * deploy the same thing. The version, promote and stop previous version settings are not part of
+ * the fingerprint, the caller compares them separately.
+ */
+final class DeployFingerprint {
+
+  private DeployFingerprint() {}
+
+  /** Returns the fingerprint of {@code stagingDirectory} deployed with {@code config}. */
+  static String compute(Path stagingDirectory, DeployConfiguration config) throws IOException {
+    Hasher hasher = Hashing.sha256().newHasher();
+    putField(hasher, "content", hashContent(stagingDirectory));
+    putField(hasher, "bucket", config.getBucket());
+    putField(hasher, "gcloudMode", config.getGcloudMode());
+    putField(hasher, "imageUrl", config.getImageUrl());
+    putField(hasher, "projectId", config.getProjectId());
+    putField(hasher, "server", config.getServer());
+    return hasher.hash().toString();
+  }
+
+  /**
+   * Hashes every regular file below {@code directory}, in parallel, and combines the file hashes
+   * with their relative paths in sorted order, so the result doesn't depend on the file system
+   * iteration order.
+   */
+  static String hashContent(Path directory) throws IOException {
+    List<Path> files;
+    try (Stream<Path> walk = Files.walk(directory)) {
+      files = walk.filter(Files::isRegularFile).sorted().collect(Collectors.toList());
+    }
+
+    List<String> fileHashes;
+    try {
+      fileHashes =
+          files.parallelStream().map(DeployFingerprint::hashFile).collect(Collectors.toList());
+    } catch (UncheckedIOException ex) {
+      throw ex.getCause();
+    }
+
+    Hasher hasher = Hashing.sha256().newHasher();
+    for (int i = 0; i < files.size(); i++) {
+      // use '/' on every platform, so the same content has the same hash everywhere
+      String relativePath = directory.relativize(files.get(i)).toString().replace('\\', '/');
+      putField(hasher, relativePath, fileHashes.get(i));
+    }
+    return hasher.hash().toString();
+  }
+
+  private static String hashFile(Path file) {
+    try {
+      return MoreFiles.asByteSource(file).hash(Hashing.sha256()).toString();
+    } catch (IOException ex) {
+      throw new UncheckedIOException(ex);
+    }
+  }
+
+  private static void putField(Hasher hasher, String name, @Nullable String value) {
+    // length prefixes keep ("ab", "c") and ("a", "bc") apart
+    hasher.putInt(name.length()).putString(name, StandardCharsets.UTF_8);
+    if (value == null) {
+      hasher.putInt(-1);
+    } else {
+      hasher.putInt(value.length()).putString(value, StandardCharsets.UTF_8);
+    }
+  }
+}
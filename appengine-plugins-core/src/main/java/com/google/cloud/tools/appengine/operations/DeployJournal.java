@@ -0,0 +1,155 @@
+/*
+ * Copyright 2026 Google LLC.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.tools.appengine.operations;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Properties;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import javax.annotation.Nullable;
+
+/**
+ * Records the completed steps of a {@link Deployment#deployAll} run, so that a retry after a
+ * failure resumes at the first incomplete step. The journal is a properties file holding the
+ * fingerprint of the staged application, the version being deployed, and which of the service
+ * deployment, the configuration files and the promotion have completed. Failures to write the
+ * journal are logged, not thrown: the deployment goes on, a retry just resumes from an earlier
+ * step.
+ */
+class DeployJournal {
+
+  private static final Logger logger = Logger.getLogger(DeployJournal.class.getName());
+
+  private static final String STAGING = "staging";
+  private static final String REQUESTED_VERSION = "requestedVersion";
+  private static final String VERSION = "version";
+  private static final String SERVICE_DEPLOYED = "serviceDeployed";
+  private static final String PROMOTED = "promoted";
+  private static final String FINISHED = "finished";
+  private static final String CONFIG_PREFIX = "config.";
+
+  private final Path file;
+  private final Properties steps;
+
+  private DeployJournal(Path file, Properties steps) {
+    this.file = file;
+    this.steps = steps;
+  }
+
+  /**
+   * Loads the journal in {@code file}, or an empty journal if there is none yet or it can't be
+   * read.
+   */
+  static DeployJournal load(Path file) {
+    Properties steps = new Properties();
+    if (Files.exists(file)) {
+      try (InputStream in = Files.newInputStream(file)) {
+        steps.load(in);
+      } catch (IOException | IllegalArgumentException ex) {
+        // a damaged journal only means starting over
+        steps.clear();
+      }
+    }
+    return new DeployJournal(file, steps);
+  }
+
+  /**
+   * Returns true if the journal belongs to a deployment of the same staged application with the
+   * same requested version that has not finished yet, so its completed steps are still current.
+   *
+   * @param stagingFingerprint the {@link DeployFingerprint} of the staged application
+   * @param requestedVersion the configured version, or null if one is generated
+   */
+  boolean isCurrent(String stagingFingerprint, @Nullable String requestedVersion) {
+    return stagingFingerprint.equals(steps.getProperty(STAGING))
+        && Objects.equals(
+            requestedVersion == null ? "" : requestedVersion, steps.getProperty(REQUESTED_VERSION))
+        && steps.getProperty(VERSION) != null
+        && !Boolean.parseBoolean(steps.getProperty(FINISHED));
+  }
+
+  /** Discards all steps and starts a journal for a new deployment. */
+  void start(String stagingFingerprint, @Nullable String requestedVersion, String version) {
+    steps.clear();
+    steps.setProperty(STAGING, stagingFingerprint);
+    steps.setProperty(REQUESTED_VERSION, requestedVersion == null ? "" : requestedVersion);
+    steps.setProperty(VERSION, version);
+    store();
+  }
+
+  /** Returns the version being deployed, or null if the journal was not started. */
+  @Nullable
+  String getVersion() {
+    return steps.getProperty(VERSION);
+  }
+
+  boolean isServiceDeployed() {
+    return Boolean.parseBoolean(steps.getProperty(SERVICE_DEPLOYED));
+  }
+
+  void serviceDeployed() {
+    steps.setProperty(SERVICE_DEPLOYED, "true");
+    store();
+  }
+
+  /** Returns true if {@code configFile} was deployed with the content {@code hash}. */
+  boolean isConfigDeployed(Path configFile, String hash) {
+    return hash.equals(steps.getProperty(CONFIG_PREFIX + configFile.getFileName()));
+  }
+
+  /** Records configuration files, mapped to the hash of their content, as deployed. */
+  void configsDeployed(Map<Path, String> configFiles) {
+    for (Map.Entry<Path, String> configFile : configFiles.entrySet()) {
+      steps.setProperty(CONFIG_PREFIX + configFile.getKey().getFileName(), configFile.getValue());
+    }
+    store();
+  }
+
+  boolean isPromoted() {
+    return Boolean.parseBoolean(steps.getProperty(PROMOTED));
+  }
+
+  void promoted() {
+    steps.setProperty(PROMOTED, "true");
+    store();
+  }
+
+  /** Deletes the journal once every step has completed. */
+  void finish() {
+    try {
+      Files.deleteIfExists(file);
+    } catch (IOException ex) {
+      // make sure the next deployment starts over rather than skipping every step
+      steps.setProperty(FINISHED, "true");
+      store();
+      logger.log(Level.WARNING, "Failed to delete the deployment journal " + file, ex);
+    }
+  }
+
+  private void store() {
+    try {
+      DeployedConfigRecord.store(steps, file);
+    } catch (IOException ex) {
+      logger.log(Level.WARNING, "Failed to write the deployment journal " + file, ex);
+    }
+  }
+}
@@ -0,0 +1,101 @@
+/*
+ * Copyright 2026 Google LLC.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.tools.appengine.operations;
+
+import com.google.cloud.tools.appengine.AppEngineException;
+import com.google.cloud.tools.appengine.operations.cloudsdk.serialization.AppEngineDeployResult;
+import com.google.common.base.Preconditions;
+import java.nio.file.Path;
+import javax.annotation.Nullable;
+
+/** Outcome of deploying a single service or configuration file as part of a batch. */
+public class DeployableResult {
+
+  /** What happened to the deployable. */
+  public enum Status {
+    SUCCEEDED,
+    FAILED,
+    /** Not attempted because an earlier deployment failed. */
+    SKIPPED
+  }
+
+  private final Path deployable;
+  private final Status status;
+  @Nullable private final AppEngineDeployResult deployResult;
+  @Nullable private final AppEngineException failure;
+  private final long durationMillis;
+
+  private DeployableResult(
+      Path deployable,
+      Status status,
+      @Nullable AppEngineDeployResult deployResult,
+      @Nullable AppEngineException failure,
+      long durationMillis) {
+    this.deployable = Preconditions.checkNotNull(deployable);
+    this.status = status;
+    this.deployResult = deployResult;
+    this.failure = failure;
+    this.durationMillis = durationMillis;
+  }
+
+  static DeployableResult succeeded(
+      Path deployable, @Nullable AppEngineDeployResult deployResult, long durationMillis) {
+    return new DeployableResult(deployable, Status.SUCCEEDED, deployResult, null, durationMillis);
+  }
+
+  static DeployableResult failed(Path deployable, AppEngineException failure, long durationMillis) {
+    return new DeployableResult(deployable, Status.FAILED, null, failure, durationMillis);
+  }
+
+  static DeployableResult skipped(Path deployable) {
+    return new DeployableResult(deployable, Status.SKIPPED, null, null, 0);
+  }
+
+  /** The staged service directory or configuration file. */
+  public Path getDeployable() {
+    return deployable;
+  }
+
+  public Status getStatus() {
+    return status;
+  }
+
+  /**
+   * The parsed output of {@code gcloud app deploy}, or {@code null} if the deployment did not
+   * succeed or gcloud did not print a result (configuration files don't have one).
+   */
+  @Nullable
+  public AppEngineDeployResult getDeployResult() {
+    return deployResult;
+  }
+
+  /** The reason the deployment failed, or {@code null} if it didn't. */
+  @Nullable
+  public AppEngineException getFailure() {
+    return failure;
+  }
+
+  /** Wall time of the gcloud invocation, excluding time spent waiting for a free slot. */
+  public long getDurationMillis() {
+    return durationMillis;
+  }
+
+  @Override
+  public String toString() {
+    return deployable + ": " + status;
+  }
+}
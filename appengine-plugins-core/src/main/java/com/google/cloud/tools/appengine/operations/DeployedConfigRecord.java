@@ -0,0 +1,130 @@
+/*
+ * Copyright 2026 Google LLC.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.tools.appengine.operations;
+
+import com.google.cloud.tools.appengine.configuration.ConfigType;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.hash.Hashing;
+import com.google.common.io.MoreFiles;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.Map;
+import java.util.Properties;
+import javax.annotation.Nullable;
+
+/**
+ * Remembers the content hash of the configuration files last deployed to a project from this
+ * machine, so that unchanged files don't need to be deployed again. The record is a properties file
+ * per project (and server), mapping each {@link ConfigType} to the SHA-256 of the deployed file.
+ *
+ * <p>Changes made from elsewhere, for example from another machine or the Cloud Console, are not
+ * seen, so callers must allow users to force a deployment.
+ */
+class DeployedConfigRecord {
+
+  private final Path file;
+  private final Properties hashes;
+
+  private DeployedConfigRecord(Path file, Properties hashes) {
+    this.file = file;
+    this.hashes = hashes;
+  }
+
+  /** Returns the default record directory in the user cache directory. */
+  static Path getDefaultDirectory() {
+    return Paths.get(System.getProperty("user.home"))
+        .resolve(".cache")
+        .resolve("google-cloud-tools-java")
+        .resolve("deployed-configs");
+  }
+
+  /**
+   * Loads the record of {@code projectId}, or an empty record if there is none yet.
+   *
+   * @throws IOException if an existing record can't be read
+   */
+  static DeployedConfigRecord load(Path directory, String projectId, @Nullable String server)
+      throws IOException {
+    Path file = directory.resolve(getFileName(projectId, server));
+    Properties hashes = new Properties();
+    if (Files.exists(file)) {
+      try (InputStream in = Files.newInputStream(file)) {
+        hashes.load(in);
+      }
+    }
+    return new DeployedConfigRecord(file, hashes);
+  }
+
+  @VisibleForTesting
+  static String getFileName(String projectId, @Nullable String server) {
+    return getProjectKey(projectId, server) + ".properties";
+  }
+
+  /** Returns a name that identifies the project and server and is safe to use as a file name. */
+  static String getProjectKey(String projectId, @Nullable String server) {
+    // domain scoped project ids contain a ':'
+    String name = toSafeFileName(projectId);
+    if (server != null) {
+      name += "-" + Hashing.sha256().hashString(server, StandardCharsets.UTF_8).toString();
+    }
+    return name;
+  }
+
+  static String toSafeFileName(String name) {
+    return name.replaceAll("[^A-Za-z0-9._-]", "_");
+  }
+
+  /** Returns the SHA-256 of the content of {@code configFile}. */
+  static String hash(Path configFile) throws IOException {
+    return MoreFiles.asByteSource(configFile).hash(Hashing.sha256()).toString();
+  }
+
+  /** Returns true if a file with content {@code hash} was the last one deployed as {@code type}. */
+  boolean isDeployed(ConfigType type, String hash) {
+    return hash.equals(hashes.getProperty(type.name()));
+  }
+
+  /** Records the given files as deployed and writes the record. */
+  void update(Map<ConfigType, String> deployed) throws IOException {
+    for (Map.Entry<ConfigType, String> entry : deployed.entrySet()) {
+      hashes.setProperty(entry.getKey().name(), entry.getValue());
+    }
+    store(hashes, file);
+  }
+
+  /** Writes {@code properties} to {@code file}, creating its directory if needed. */
+  static void store(Properties properties, Path file) throws IOException {
+    Path directory = file.getParent();
+    Files.createDirectories(directory);
+    // write then move, so that a concurrent build never reads a partial record
+    Path temporary = Files.createTempFile(directory, file.getFileName().toString(), ".tmp");
+    try {
+      try (OutputStream out = Files.newOutputStream(temporary)) {
+        properties.store(out, null);
+      }
+      Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING);
+    } finally {
+      Files.deleteIfExists(temporary);
+    }
+  }
+}
@@ -0,0 +1,79 @@
+/*
+ * Copyright 2026 Google LLC.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.tools.appengine.operations;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Properties;
+import javax.annotation.Nullable;
+
+/**
+ * Remembers the {@link DeployFingerprint} of every version of a service that was deployed from this
+ * machine. The record is a properties file per project (and server) and service, mapping each
+ * version to its fingerprint.
+ */
+class DeployedVersionRecord {
+
+  private final Path file;
+  private final Properties versions;
+
+  private DeployedVersionRecord(Path file, Properties versions) {
+    this.file = file;
+    this.versions = versions;
+  }
+
+  /** Returns the default record directory in the user cache directory. */
+  static Path getDefaultDirectory() {
+    return DeployedConfigRecord.getDefaultDirectory().resolveSibling("deployed-versions");
+  }
+
+  /**
+   * Loads the record of {@code service} in {@code projectId}, or an empty record if there is none
+   * yet.
+   *
+   * @throws IOException if an existing record can't be read
+   */
+  static DeployedVersionRecord load(
+      Path directory, String projectId, @Nullable String server, String service)
+      throws IOException {
+    Path file =
+        directory
+            .resolve(DeployedConfigRecord.getProjectKey(projectId, server))
+            .resolve(DeployedConfigRecord.toSafeFileName(service) + ".properties");
+    Properties versions = new Properties();
+    if (Files.exists(file)) {
+      try (InputStream in = Files.newInputStream(file)) {
+        versions.load(in);
+      }
+    }
+    return new DeployedVersionRecord(file, versions);
+  }
+
+  /** Returns the fingerprint {@code version} was last deployed with, or null if unknown. */
+  @Nullable
+  String getFingerprint(String version) {
+    return versions.getProperty(version);
+  }
+
+  /** Records a successful deployment of {@code version} and writes the record. */
+  void update(String version, String fingerprint) throws IOException {
+    versions.setProperty(version, fingerprint);
+    DeployedConfigRecord.store(versions, file);
+  }
+}
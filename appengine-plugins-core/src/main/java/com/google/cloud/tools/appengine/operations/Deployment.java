@@ -17,38 +17,112 @@
 package com.google.cloud.tools.appengine.operations;
 
 import com.google.cloud.tools.appengine.AppEngineException;
+import com.google.cloud.tools.appengine.configuration.ConfigType;
 import com.google.cloud.tools.appengine.configuration.DeployConfiguration;
 import com.google.cloud.tools.appengine.configuration.DeployProjectConfigurationConfiguration;
+import com.google.cloud.tools.appengine.configuration.MultiServiceDeployConfiguration;
+import com.google.cloud.tools.appengine.operations.api.NativeDeployer;
 import com.google.cloud.tools.appengine.operations.cloudsdk.CloudSdkNotFoundException;
 import com.google.cloud.tools.appengine.operations.cloudsdk.CloudSdkOutOfDateException;
 import com.google.cloud.tools.appengine.operations.cloudsdk.internal.args.GcloudArgs;
 import com.google.cloud.tools.appengine.operations.cloudsdk.process.ProcessHandlerException;
+import com.google.cloud.tools.appengine.operations.cloudsdk.process.ProcessOutputLineListener;
+import com.google.cloud.tools.appengine.operations.coordination.DeployCoordinator;
+import com.google.cloud.tools.appengine.operations.coordination.DeploySupersededException;
+import com.google.cloud.tools.appengine.operations.coordination.LeaseLostException;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Preconditions;
 import com.google.common.collect.ImmutableList;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 import javax.annotation.Nullable;
 
 /** Deploy staged application and project configuration. */
 public class Deployment {
 
+  private static final Logger logger = Logger.getLogger(Deployment.class.getName());
+
   // optional gcloud modes
   private static final ImmutableList<String> GCLOUD_MODES = ImmutableList.of("alpha", "beta");
+  // lock of deployments that don't name a project, gcloud deploys them to its configured one
+  private static final String DEFAULT_LOCK_NAME = "default-project";
+  private static final DateTimeFormatter GENERATED_VERSION_FORMAT =
+      DateTimeFormatter.ofPattern("yyyyMMdd't'HHmmss", Locale.ROOT);
 
   private final GcloudRunner runner;
+  private final GcloudExecutor executor;
+  @Nullable private final NativeDeployer nativeDeployer;
+  @Nullable private final DeployCoordinator coordinator;
+  // gcloud generates versions from the local time, in the system's default zone
+  private final Clock clock;
 
   Deployment(GcloudRunner runner) {
+    this(runner, GcloudExecutor.getDefault());
+  }
+
+  Deployment(GcloudRunner runner, GcloudExecutor executor) {
+    this(runner, executor, null);
+  }
+
+  Deployment(
+      GcloudRunner runner, GcloudExecutor executor, @Nullable NativeDeployer nativeDeployer) {
+    this(runner, executor, nativeDeployer, null);
+  }
+
+  Deployment(
+      GcloudRunner runner,
+      GcloudExecutor executor,
+      @Nullable NativeDeployer nativeDeployer,
+      @Nullable DeployCoordinator coordinator) {
+    this(runner, executor, nativeDeployer, coordinator, Clock.system(ZoneId.systemDefault()));
+  }
+
+  @VisibleForTesting
+  Deployment(
+      GcloudRunner runner,
+      GcloudExecutor executor,
+      @Nullable NativeDeployer nativeDeployer,
+      @Nullable DeployCoordinator coordinator,
+      Clock clock) {
     this.runner = Preconditions.checkNotNull(runner);
+    this.executor = Preconditions.checkNotNull(executor);
+    this.nativeDeployer = nativeDeployer;
+    this.coordinator = coordinator;
+    this.clock = Preconditions.checkNotNull(clock);
   }
 
   /**
-   * Deploys a project to App Engine.
+   * Deploys a project to App Engine. If {@link DeployConfiguration#isSkipUnchanged()} is set and
+   * the staged content was already deployed as the same version, the deployment is skipped or
+   * reduced to a promote. If a {@link NativeDeployer} is configured and supports the deployment, it
+   * is made through the App Engine Admin API instead of gcloud. If a {@link DeployCoordinator} is
+   * configured, the deployment first waits for other deployments to the same project to finish, and
+   * is dropped if the coordinator coalesces it with a newer deployment of the same service.
    *
+   * @throws DeploySupersededException when the coordinator dropped the deployment for a newer one
+   * @throws LeaseLostException when the deployment completed, but the coordinator's lock expired
+   *     meanwhile so another deployment may have overlapped it
    * @throws CloudSdkNotFoundException when the Cloud SDK is not installed where expected
    * @throws CloudSdkOutOfDateException when the installed Cloud SDK is too old
    * @throws AppEngineException when there is an issue uploading project files to the cloud
@@ -56,11 +130,365 @@ public class Deployment {
    *     found
    */
   public void deploy(DeployConfiguration config) throws AppEngineException {
+    Path workingDirectory = getDeployWorkingDirectory(config);
+    List<String> arguments = getDeployArguments(config, workingDirectory);
+
+    NoOpDeployCheck noOpCheck =
+        workingDirectory == null ? null : NoOpDeployCheck.create(config, workingDirectory);
+    // the service is only needed to coalesce queued deployments
+    String service =
+        coordinator == null || workingDirectory == null
+            ? null
+            : NoOpDeployCheck.readServiceId(workingDirectory);
+    if (noOpCheck != null) {
+      NoOpDeployCheck.Result result = noOpCheck.check();
+      if (result == NoOpDeployCheck.Result.SKIP) {
+        logger.info(
+            "Skipping deployment of version "
+                + noOpCheck.getVersion()
+                + ", unchanged since the last deployment");
+        return;
+      }
+      if (result == NoOpDeployCheck.Result.PROMOTE) {
+        logger.info(
+            "Version "
+                + noOpCheck.getVersion()
+                + " is unchanged since the last deployment, only promoting it");
+        arguments = getPromoteArguments(config, noOpCheck.getService(), noOpCheck.getVersion());
+        workingDirectory = null;
+      }
+    }
+
+    Path deployDirectory = workingDirectory;
+    List<String> deployArguments = arguments;
+    DeployCoordinator.Action deployment =
+        () -> {
+          runDeployment(config, deployArguments, deployDirectory);
+          if (noOpCheck != null) {
+            noOpCheck.recordDeployed();
+          }
+        };
+    runCoordinated(config, service, deployment);
+  }
+
+  private void runCoordinated(
+      DeployConfiguration config, @Nullable String service, DeployCoordinator.Action action)
+      throws AppEngineException {
+    if (coordinator == null) {
+      action.run();
+      return;
+    }
+    String projectId = config.getProjectId();
+    String lockName = projectId != null ? projectId : DEFAULT_LOCK_NAME;
+    if (coordinator.run(lockName, service, action) == DeployCoordinator.Outcome.SUPERSEDED) {
+      throw new DeploySupersededException(
+          "Service "
+              + (service != null ? service : "default")
+              + " was not deployed, a newer deployment of it is queued for "
+              + lockName);
+    }
+  }
+
+  private void runDeployment(
+      DeployConfiguration config, List<String> arguments, @Nullable Path workingDirectory)
+      throws AppEngineException {
+    if (nativeDeployer != null
+        && workingDirectory != null
+        && nativeDeployer.supports(workingDirectory, config)) {
+      nativeDeployer.deploy(workingDirectory, config);
+    } else {
+      try {
+        runner.run(arguments, workingDirectory);
+      } catch (ProcessHandlerException | IOException ex) {
+        throw new AppEngineException(ex);
+      }
+    }
+  }
+
+  /**
+   * Deploys a staged service and the project configuration files in resumable steps: the staged
+   * application is fingerprinted, then the service is deployed, then the configuration files, and
+   * finally the new version is promoted. Completed steps are recorded in {@code journalFile}. If a
+   * previous run with the same journal failed, the deployment resumes at the first incomplete step
+   * with the same version, as long as the staged application, the deployment settings and the
+   * requested version are unchanged. Configuration files are only deployed again if their content
+   * changed. The journal is deleted once every step has completed.
+   *
+   * <p>Unless previous versions are stopped, the service is deployed without promotion and the new
+   * version is promoted once the configuration files are deployed. If {@link
+   * DeployConfiguration#isSkipUnchanged()} is set, deploying the service is skipped when the same
+   * content was already deployed as the same version, like in {@link #deploy}.
+   *
+   * @param config the service deployment, its only deployable is the staged app.yaml or the staging
+   *     directory
+   * @param configFiles project configuration files (cron.yaml, dispatch.yaml, ...)
+   * @param journalFile where completed steps are recorded
+   * @throws DeploySupersededException when the coordinator dropped the deployment for a newer one,
+   *     a retry resumes where the journal left off
+   * @throws LeaseLostException when every step completed, but the coordinator's lock expired
+   *     meanwhile
+   * @throws AppEngineException when a step fails, a retry resumes at that step
+   * @throws IllegalArgumentException when a deployable or configuration file isn't found
+   */
+  public void deployAll(DeployConfiguration config, List<Path> configFiles, Path journalFile)
+      throws AppEngineException {
+    Preconditions.checkNotNull(config);
+    Preconditions.checkNotNull(configFiles);
+    Preconditions.checkNotNull(journalFile);
+    Preconditions.checkArgument(
+        config.getDeployables().size() == 1, "Only a single service can be deployed with configs");
+    Path deployable = config.getDeployables().get(0);
+    if (!Files.exists(deployable)) {
+      throw new IllegalArgumentException("Deployable " + deployable + " does not exist.");
+    }
+    for (Path configFile : configFiles) {
+      Preconditions.checkArgument(
+          Files.isRegularFile(configFile), configFile.toString() + " does not exist.");
+    }
+    Path stagingDirectory =
+        Files.isDirectory(deployable)
+            ? deployable
+            : Preconditions.checkNotNull(deployable.toAbsolutePath().getParent());
+
+    String fingerprint;
+    try {
+      fingerprint = DeployFingerprint.compute(stagingDirectory, config);
+    } catch (IOException ex) {
+      throw new AppEngineException("Failed to read " + stagingDirectory, ex);
+    }
+    DeployJournal journal = DeployJournal.load(journalFile);
+    String version = journal.getVersion();
+    if (version != null && journal.isCurrent(fingerprint, config.getVersion())) {
+      logger.info("Resuming the deployment of version " + version);
+    } else {
+      version = config.getVersion();
+      if (version == null) {
+        version = generateVersion();
+      }
+      journal.start(fingerprint, config.getVersion(), version);
+    }
+
+    String service = NoOpDeployCheck.readServiceId(stagingDirectory);
+    String deployedVersion = version;
+    DeployCoordinator.Action steps =
+        () -> {
+          runDeployAllSteps(config, configFiles, service, deployedVersion, journal);
+          journal.finish();
+        };
+    runCoordinated(config, service, steps);
+  }
+
+  private void runDeployAllSteps(
+      DeployConfiguration config,
+      List<Path> configFiles,
+      @Nullable String service,
+      String version,
+      DeployJournal journal)
+      throws AppEngineException {
+    // gcloud only stops the previous version while promoting, so then both happen on deploy
+    boolean promoteLast =
+        !Boolean.FALSE.equals(config.getPromote())
+            && !Boolean.TRUE.equals(config.getStopPreviousVersion());
+
+    if (journal.isServiceDeployed()) {
+      logger.info("Version " + version + " was already deployed, skipping");
+    } else {
+      DeployConfiguration serviceConfig =
+          DeployConfiguration.builder(config.getDeployables())
+              .bucket(config.getBucket())
+              .gcloudMode(config.getGcloudMode())
+              .imageUrl(config.getImageUrl())
+              .projectId(config.getProjectId())
+              .promote(promoteLast ? Boolean.FALSE : config.getPromote())
+              .server(config.getServer())
+              .stopPreviousVersion(config.getStopPreviousVersion())
+              .version(version)
+              .skipUnchanged(config.isSkipUnchanged())
+              .deployRecordDirectory(config.getDeployRecordDirectory())
+              .build();
+      Path workingDirectory = getDeployWorkingDirectory(serviceConfig);
+      NoOpDeployCheck noOpCheck =
+          workingDirectory == null ? null : NoOpDeployCheck.create(serviceConfig, workingDirectory);
+      // the service is deployed without promotion or while stopping the previous version, so an
+      // unchanged version is never only promoted here
+      if (noOpCheck != null && noOpCheck.check() == NoOpDeployCheck.Result.SKIP) {
+        logger.info(
+            "Skipping deployment of version " + version + ", unchanged since the last deployment");
+      } else {
+        runDeployment(
+            serviceConfig, getDeployArguments(serviceConfig, workingDirectory), workingDirectory);
+        if (noOpCheck != null) {
+          noOpCheck.recordDeployed();
+        }
+      }
+      journal.serviceDeployed();
+    }
+
+    Map<Path, String> pendingConfigFiles = new LinkedHashMap<>();
+    for (Path configFile : configFiles) {
+      String hash = hashConfigFile(configFile);
+      if (journal.isConfigDeployed(configFile, hash)) {
+        logger.info(configFile + " was already deployed, skipping");
+      } else {
+        pendingConfigFiles.put(configFile, hash);
+      }
+    }
+    if (!pendingConfigFiles.isEmpty()) {
+      runGcloud(
+          getDeployConfigArguments(
+              pendingConfigFiles.keySet(), config.getServer(), config.getProjectId()));
+      journal.configsDeployed(pendingConfigFiles);
+    }
+
+    if (promoteLast && !journal.isPromoted()) {
+      runGcloud(getPromoteArguments(config, service != null ? service : "default", version));
+      journal.promoted();
+    }
+  }
+
+  private void runGcloud(List<String> arguments) throws AppEngineException {
+    try {
+      runner.run(arguments, null);
+    } catch (ProcessHandlerException | IOException ex) {
+      throw new AppEngineException(ex);
+    }
+  }
+
+  /**
+   * Deploys a project to App Engine without blocking. The configuration is validated before this
+   * method returns, the deployment runs on the {@link GcloudExecutor} with {@link
+   * GcloudExecutor.Priority#LOW} priority. The gcloud output is discarded, see {@link
+   * #deployAsync(DeployConfiguration, ProcessOutputLineListener)} to receive it.
+   *
+   * @return a future completed when gcloud exits, or exceptionally with an {@link
+   *     AppEngineException}
+   * @throws AppEngineException when the configured gcloud mode is invalid
+   * @throws IllegalArgumentException when a local deployable referenced by the configuration isn't
+   *     found
+   */
+  public CompletableFuture<Void> deployAsync(DeployConfiguration config) throws AppEngineException {
+    return deployAsync(config, null);
+  }
+
+  /**
+   * Deploys a project to App Engine without blocking, see {@link
+   * #deployAsync(DeployConfiguration)}. The process handler of this deployment isn't used, every
+   * call runs gcloud with its own.
+   *
+   * @param outputListener if not null, receives the gcloud output of the deployment
+   */
+  public CompletableFuture<Void> deployAsync(
+      DeployConfiguration config, @Nullable ProcessOutputLineListener outputListener)
+      throws AppEngineException {
+    Path workingDirectory = getDeployWorkingDirectory(config);
+    List<String> arguments = getDeployArguments(config, workingDirectory);
+
+    return executor.run(
+        runner, arguments, workingDirectory, GcloudExecutor.Priority.LOW, outputListener);
+  }
+
+  /**
+   * Deploys many services with the same version id, running up to {@link
+   * MultiServiceDeployConfiguration#getMaxParallelDeployments()} gcloud processes at the same time
+   * (also bounded by the {@link GcloudExecutor}). Configuration files are deployed afterwards, one
+   * at a time, and only if every service was deployed. Blocks until everything has finished.
+   *
+   * @param outputListener if not null, receives the gcloud output of every deployment, each line
+   *     prefixed with the name of the service directory
+   * @return per service and per configuration file results, failures are reported there rather than
+   *     thrown
+   * @throws AppEngineException when the configured gcloud mode is invalid or the wait is
+   *     interrupted
+   * @throws IllegalArgumentException when a deployable isn't found
+   */
+  public MultiServiceDeployResult deployServices(
+      MultiServiceDeployConfiguration config, @Nullable ProcessOutputLineListener outputListener)
+      throws AppEngineException {
+    try {
+      return deployServicesAsync(config, outputListener).get();
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+      throw new AppEngineException(ex);
+    } catch (ExecutionException ex) {
+      // not expected, failures are reported in the result
+      throw new AppEngineException(ex);
+    }
+  }
+
+  /**
+   * Asynchronous version of {@link #deployServices}. All deployables are validated before this
+   * method returns.
+   *
+   * @return a future completed with the results once every deployment has finished or was skipped
+   */
+  public CompletableFuture<MultiServiceDeployResult> deployServicesAsync(
+      MultiServiceDeployConfiguration config, @Nullable ProcessOutputLineListener outputListener)
+      throws AppEngineException {
+    Preconditions.checkNotNull(config);
+    String version = config.getVersion();
+    if (version == null) {
+      // the format gcloud uses when it generates a version, but the same for every service
+      version = generateVersion();
+    }
+
+    List<MultiServiceDeployer.Invocation> services = new ArrayList<>();
+    for (Path service : config.getServices()) {
+      DeployConfiguration serviceConfig =
+          DeployConfiguration.builder(Collections.singletonList(service))
+              .bucket(config.getBucket())
+              .gcloudMode(config.getGcloudMode())
+              .projectId(config.getProjectId())
+              .promote(config.getPromote())
+              .server(config.getServer())
+              .stopPreviousVersion(config.getStopPreviousVersion())
+              .version(version)
+              .build();
+      Path workingDirectory = getDeployWorkingDirectory(serviceConfig);
+      List<String> arguments = getDeployArguments(serviceConfig, workingDirectory);
+      arguments.addAll(GcloudArgs.get("format", "json"));
+      services.add(new MultiServiceDeployer.Invocation(service, arguments, workingDirectory));
+    }
+    List<MultiServiceDeployer.Invocation> configFiles = new ArrayList<>();
+    for (Path configFile : config.getConfigFiles()) {
+      configFiles.add(
+          new MultiServiceDeployer.Invocation(
+              configFile,
+              getDeployConfigArguments(configFile, config.getServer(), config.getProjectId()),
+              null));
+    }
+
+    return new MultiServiceDeployer(
+            runner,
+            executor,
+            version,
+            services,
+            configFiles,
+            config.getMaxParallelDeployments(),
+            config.isFailFast(),
+            outputListener)
+        .start();
+  }
+
+  /**
+   * Unfortunately, 'gcloud app deploy' does not let you pass a staging directory as a deployable.
+   * Instead, we have to run 'gcloud app deploy' from the staging directory to achieve this. So, if
+   * we find that the only deployable in the list is a directory, we just run the command from that
+   * directory without passing in any deployables to gcloud.
+   */
+  @Nullable
+  private static Path getDeployWorkingDirectory(DeployConfiguration config) {
     Preconditions.checkNotNull(config);
     Preconditions.checkNotNull(config.getDeployables());
     Preconditions.checkArgument(config.getDeployables().size() > 0);
-    Path workingDirectory = null;
 
+    if (config.getDeployables().size() == 1 && Files.isDirectory(config.getDeployables().get(0))) {
+      return config.getDeployables().get(0);
+    }
+    return null;
+  }
+
+  private List<String> getDeployArguments(
+      DeployConfiguration config, @Nullable Path workingDirectory) throws AppEngineException {
     List<String> arguments = new ArrayList<>();
     String mode = processMode(config.getGcloudMode());
     if (mode != null) {
@@ -69,13 +497,7 @@ public class Deployment {
     arguments.add("app");
     arguments.add("deploy");
 
-    // Unfortunately, 'gcloud app deploy' does not let you pass a staging directory as a deployable.
-    // Instead, we have to run 'gcloud app deploy' from the staging directory to achieve this.
-    // So, if we find that the only deployable in the list is a directory, we just run the command
-    // from that directory without passing in any deployables to gcloud.
-    if (config.getDeployables().size() == 1 && Files.isDirectory(config.getDeployables().get(0))) {
-      workingDirectory = config.getDeployables().get(0);
-    } else {
+    if (workingDirectory == null) {
       for (Path deployable : config.getDeployables()) {
         if (!Files.exists(deployable)) {
           throw new IllegalArgumentException("Deployable " + deployable + " does not exist.");
@@ -91,12 +513,24 @@ public class Deployment {
     arguments.addAll(GcloudArgs.get("stop-previous-version", config.getStopPreviousVersion()));
     arguments.addAll(GcloudArgs.get("version", config.getVersion()));
     arguments.addAll(GcloudArgs.get("project", config.getProjectId()));
+    return arguments;
+  }
 
-    try {
-      runner.run(arguments, workingDirectory);
-    } catch (ProcessHandlerException | IOException ex) {
-      throw new AppEngineException(ex);
+  /** Routes all traffic of {@code service} to {@code version}, which must already exist. */
+  private List<String> getPromoteArguments(
+      DeployConfiguration config, String service, String version) throws AppEngineException {
+    List<String> arguments = new ArrayList<>();
+    String mode = processMode(config.getGcloudMode());
+    if (mode != null) {
+      arguments.add(mode);
     }
+    arguments.add("app");
+    arguments.add("services");
+    arguments.add("set-traffic");
+    arguments.add(service);
+    arguments.addAll(GcloudArgs.get("splits", version + "=1"));
+    arguments.addAll(GcloudArgs.get("project", config.getProjectId()));
+    return arguments;
   }
 
   /** Deploy cron.yaml to App Engine. */
@@ -127,6 +561,101 @@ public class Deployment {
     deployConfig("queue.yaml", config);
   }
 
+  /**
+   * Deploys the selected project configuration files with a single gcloud invocation. If {@link
+   * DeployProjectConfigurationConfiguration#isSkipUnchanged()} is enabled and a project ID is
+   * configured, files whose content was already deployed to the project from this machine are
+   * skipped, and gcloud isn't run at all if nothing changed.
+   *
+   * @param configTypes the files to deploy, all must exist in the App Engine directory
+   * @param configuration Deployment configuration
+   * @return the types that were deployed, empty if all were unchanged
+   * @throws AppEngineException when the deployment fails or a file can't be read
+   * @throws IllegalArgumentException when a selected file doesn't exist
+   */
+  public Set<ConfigType> deployConfigs(
+      Set<ConfigType> configTypes, DeployProjectConfigurationConfiguration configuration)
+      throws AppEngineException {
+    Preconditions.checkNotNull(configTypes);
+    Preconditions.checkNotNull(configuration);
+    Preconditions.checkNotNull(configuration.getAppEngineDirectory());
+
+    Map<ConfigType, Path> files = new EnumMap<>(ConfigType.class);
+    for (ConfigType type : configTypes) {
+      Path file = configuration.getAppEngineDirectory().resolve(type.getFileName());
+      Preconditions.checkArgument(Files.isRegularFile(file), file.toString() + " does not exist.");
+      files.put(type, file);
+    }
+
+    DeployedConfigRecord record = null;
+    Map<ConfigType, String> hashes = new EnumMap<>(ConfigType.class);
+    String projectId = configuration.getProjectId();
+    if (configuration.isSkipUnchanged() && projectId != null) {
+      record = loadDeployedConfigRecord(configuration, projectId);
+      Iterator<Map.Entry<ConfigType, Path>> iterator = files.entrySet().iterator();
+      while (iterator.hasNext()) {
+        Map.Entry<ConfigType, Path> file = iterator.next();
+        String hash = hashConfigFile(file.getValue());
+        if (record != null && record.isDeployed(file.getKey(), hash)) {
+          logger.info("Skipping " + file.getValue() + ", unchanged since the last deployment");
+          iterator.remove();
+        } else {
+          hashes.put(file.getKey(), hash);
+        }
+      }
+    }
+    if (files.isEmpty()) {
+      return Collections.emptySet();
+    }
+
+    try {
+      runner.run(
+          getDeployConfigArguments(
+              files.values(), configuration.getServer(), configuration.getProjectId()),
+          null);
+    } catch (ProcessHandlerException | IOException ex) {
+      throw new AppEngineException(ex);
+    }
+
+    if (record != null) {
+      try {
+        record.update(hashes);
+      } catch (IOException ex) {
+        // the files were deployed, at worst they are deployed again next time
+        logger.log(Level.WARNING, "Failed to record the deployed configuration files", ex);
+      }
+    }
+    return Collections.unmodifiableSet(EnumSet.copyOf(files.keySet()));
+  }
+
+  @Nullable
+  private static DeployedConfigRecord loadDeployedConfigRecord(
+      DeployProjectConfigurationConfiguration configuration, String projectId) {
+    Path directory = configuration.getDeployRecordDirectory();
+    if (directory == null) {
+      directory = DeployedConfigRecord.getDefaultDirectory();
+    }
+    try {
+      return DeployedConfigRecord.load(directory, projectId, configuration.getServer());
+    } catch (IOException ex) {
+      logger.log(Level.WARNING, "Failed to read the deployed configuration record", ex);
+      return null;
+    }
+  }
+
+  /** Returns a version id in the format gcloud uses when it generates one. */
+  private String generateVersion() {
+    return GENERATED_VERSION_FORMAT.format(LocalDateTime.now(clock));
+  }
+
+  private static String hashConfigFile(Path file) throws AppEngineException {
+    try {
+      return DeployedConfigRecord.hash(file);
+    } catch (IOException ex) {
+      throw new AppEngineException("Failed to read " + file, ex);
+    }
+  }
+
   /**
    * Common configuration deployment function.
    *
@@ -136,25 +665,72 @@ public class Deployment {
   @VisibleForTesting
   void deployConfig(String filename, DeployProjectConfigurationConfiguration configuration)
       throws AppEngineException {
+    try {
+      runner.run(getDeployConfigArguments(filename, configuration), null);
+    } catch (ProcessHandlerException | IOException ex) {
+      throw new AppEngineException(ex);
+    }
+  }
+
+  /**
+   * Deploys a project configuration file (cron.yaml, dos.yaml, etc) without blocking.
+   *
+   * @param filename Yaml file that we want to deploy
+   * @param configuration Deployment configuration
+   * @return a future completed when gcloud exits, or exceptionally with an {@link
+   *     AppEngineException}
+   */
+  public CompletableFuture<Void> deployConfigAsync(
+      String filename, DeployProjectConfigurationConfiguration configuration) {
+    return deployConfigAsync(filename, configuration, null);
+  }
+
+  /**
+   * Deploys a project configuration file without blocking, see {@link #deployConfigAsync(String,
+   * DeployProjectConfigurationConfiguration)}.
+   *
+   * @param outputListener if not null, receives the gcloud output of the deployment
+   */
+  public CompletableFuture<Void> deployConfigAsync(
+      String filename,
+      DeployProjectConfigurationConfiguration configuration,
+      @Nullable ProcessOutputLineListener outputListener) {
+    return executor.run(
+        runner,
+        getDeployConfigArguments(filename, configuration),
+        null,
+        GcloudExecutor.Priority.NORMAL,
+        outputListener);
+  }
+
+  private static List<String> getDeployConfigArguments(
+      String filename, DeployProjectConfigurationConfiguration configuration) {
     Preconditions.checkNotNull(configuration);
     Preconditions.checkNotNull(configuration.getAppEngineDirectory());
 
     Path deployable = configuration.getAppEngineDirectory().resolve(filename);
+    return getDeployConfigArguments(
+        deployable, configuration.getServer(), configuration.getProjectId());
+  }
+
+  private static List<String> getDeployConfigArguments(
+      Path deployable, @Nullable String server, @Nullable String projectId) {
     Preconditions.checkArgument(
         Files.isRegularFile(deployable), deployable.toString() + " does not exist.");
+    return getDeployConfigArguments(Collections.singletonList(deployable), server, projectId);
+  }
 
+  private static List<String> getDeployConfigArguments(
+      Collection<Path> deployables, @Nullable String server, @Nullable String projectId) {
     List<String> arguments = new ArrayList<>();
     arguments.add("app");
     arguments.add("deploy");
-    arguments.add(deployable.toAbsolutePath().toString());
-    arguments.addAll(GcloudArgs.get("server", configuration.getServer()));
-    arguments.addAll(GcloudArgs.get("project", configuration.getProjectId()));
-
-    try {
-      runner.run(arguments, null);
-    } catch (ProcessHandlerException | IOException ex) {
-      throw new AppEngineException(ex);
+    for (Path deployable : deployables) {
+      arguments.add(deployable.toAbsolutePath().toString());
     }
+    arguments.addAll(GcloudArgs.get("server", server));
+    arguments.addAll(GcloudArgs.get("project", projectId));
+    return arguments;
   }
 
   @VisibleForTesting
@@ -18,9 +18,11 @@ package com.google.cloud.tools.appengine.operations;
 
 import com.google.cloud.tools.appengine.operations.cloudsdk.AppEngineJavaComponentsNotInstalledException;
 import com.google.cloud.tools.appengine.operations.cloudsdk.InvalidJavaSdkException;
+import com.google.cloud.tools.appengine.operations.cloudsdk.internal.process.MeteredProcess;
 import com.google.cloud.tools.appengine.operations.cloudsdk.internal.process.ProcessBuilderFactory;
 import com.google.cloud.tools.appengine.operations.cloudsdk.process.ProcessHandler;
 import com.google.cloud.tools.appengine.operations.cloudsdk.process.ProcessHandlerException;
+import com.google.cloud.tools.appengine.operations.cloudsdk.process.ProcessMetricsListener;
 import com.google.common.base.Joiner;
 import com.google.common.collect.Maps;
 import java.io.IOException;
@@ -37,12 +39,22 @@ public class DevAppServerRunner {
   private final CloudSdk sdk;
   private final ProcessBuilderFactory processBuilderFactory;
   private final ProcessHandler processHandler;
+  @Nullable private final ProcessMetricsListener processMetricsListener;
 
   DevAppServerRunner(
       CloudSdk sdk, ProcessBuilderFactory processBuilderFactory, ProcessHandler processHandler) {
+    this(sdk, processBuilderFactory, processHandler, null);
+  }
+
+  DevAppServerRunner(
+      CloudSdk sdk,
+      ProcessBuilderFactory processBuilderFactory,
+      ProcessHandler processHandler,
+      @Nullable ProcessMetricsListener processMetricsListener) {
     this.sdk = sdk;
     this.processBuilderFactory = processBuilderFactory;
     this.processHandler = processHandler;
+    this.processMetricsListener = processMetricsListener;
   }
 
   /**
@@ -94,7 +106,13 @@ public class DevAppServerRunner {
       processBuilder.directory(workingDirectory.toFile());
     }
     processBuilder.environment().putAll(devServerEnvironment);
+    long startNanos = System.nanoTime();
     Process process = processBuilder.start();
+    if (processMetricsListener != null) {
+      process =
+          MeteredProcess.wrap(
+              process, "dev_appserver", command, processMetricsListener, startNanos);
+    }
 
     processHandler.handleProcess(process);
   }
@@ -110,8 +128,16 @@ public class DevAppServerRunner {
       this.processBuilderFactory = processBuilderFactory;
     }
 
+    DevAppServerRunner newRunner(
+        CloudSdk sdk,
+        ProcessHandler processHandler,
+        @Nullable ProcessMetricsListener processMetricsListener) {
+      return new DevAppServerRunner(
+          sdk, processBuilderFactory, processHandler, processMetricsListener);
+    }
+
     DevAppServerRunner newRunner(CloudSdk sdk, ProcessHandler processHandler) {
-      return new DevAppServerRunner(sdk, processBuilderFactory, processHandler);
+      return newRunner(sdk, processHandler, null);
     }
   }
 }
@@ -17,16 +17,23 @@
 package com.google.cloud.tools.appengine.operations;
 
 import com.google.cloud.tools.appengine.operations.cloudsdk.process.ProcessHandler;
+import com.google.cloud.tools.appengine.operations.cloudsdk.process.ProcessMetricsListener;
 import com.google.common.annotations.VisibleForTesting;
+import javax.annotation.Nullable;
 
 /** Create Dev App Servers. */
 public class DevServers {
   private final CloudSdk sdk;
   private final DevAppServerRunner.Factory devAppServerRunnerFactory;
+  @Nullable private final ProcessMetricsListener processMetricsListener;
 
-  private DevServers(CloudSdk sdk, DevAppServerRunner.Factory devAppServerRunnerFactory) {
+  private DevServers(
+      CloudSdk sdk,
+      DevAppServerRunner.Factory devAppServerRunnerFactory,
+      @Nullable ProcessMetricsListener processMetricsListener) {
     this.devAppServerRunnerFactory = devAppServerRunnerFactory;
     this.sdk = sdk;
+    this.processMetricsListener = processMetricsListener;
   }
 
   public DevServer newDevAppServer(ProcessHandler processHandler) {
@@ -35,7 +42,7 @@ public class DevServers {
 
   @VisibleForTesting
   DevAppServerRunner getRunner(ProcessHandler processHandler) {
-    return devAppServerRunnerFactory.newRunner(sdk, processHandler);
+    return devAppServerRunnerFactory.newRunner(sdk, processHandler, processMetricsListener);
   }
 
   public static Builder builder(CloudSdk sdk) {
@@ -45,6 +52,7 @@ public class DevServers {
   public static class Builder {
     private final CloudSdk sdk;
     private final DevAppServerRunner.Factory runnerFactory;
+    @Nullable private ProcessMetricsListener processMetricsListener;
 
     @VisibleForTesting
     Builder(CloudSdk sdk, DevAppServerRunner.Factory runnerFactory) {
@@ -52,9 +60,15 @@ public class DevServers {
       this.runnerFactory = runnerFactory;
     }
 
+    /** Sets a listener that receives the resource usage of every dev_appserver process. */
+    public Builder setProcessMetricsListener(ProcessMetricsListener processMetricsListener) {
+      this.processMetricsListener = processMetricsListener;
+      return this;
+    }
+
     /** Build an immutable DevServers instance. */
     public DevServers build() {
-      return new DevServers(sdk, runnerFactory);
+      return new DevServers(sdk, runnerFactory, processMetricsListener);
     }
   }
 }
@@ -16,28 +16,43 @@
 
 package com.google.cloud.tools.appengine.operations;
 
+import com.google.cloud.tools.appengine.operations.api.AccessTokenProvider;
+import com.google.cloud.tools.appengine.operations.api.AppEngineAdminClient;
+import com.google.cloud.tools.appengine.operations.api.NativeDeployer;
+import com.google.cloud.tools.appengine.operations.api.ServiceAccountCredentials;
 import com.google.cloud.tools.appengine.operations.cloudsdk.CloudSdkNotFoundException;
 import com.google.cloud.tools.appengine.operations.cloudsdk.CloudSdkOutOfDateException;
 import com.google.cloud.tools.appengine.operations.cloudsdk.CloudSdkVersionFileException;
+import com.google.cloud.tools.appengine.operations.cloudsdk.GcloudConfigReader;
 import com.google.cloud.tools.appengine.operations.cloudsdk.internal.args.GcloudArgs;
 import com.google.cloud.tools.appengine.operations.cloudsdk.internal.process.ExitCodeRecorderProcessExitListener;
+import com.google.cloud.tools.appengine.operations.cloudsdk.internal.process.MeteredProcess;
 import com.google.cloud.tools.appengine.operations.cloudsdk.process.LegacyProcessHandler;
 import com.google.cloud.tools.appengine.operations.cloudsdk.process.ProcessHandler;
 import com.google.cloud.tools.appengine.operations.cloudsdk.process.ProcessHandlerException;
+import com.google.cloud.tools.appengine.operations.cloudsdk.process.ProcessMetrics;
+import com.google.cloud.tools.appengine.operations.cloudsdk.process.ProcessMetricsListener;
 import com.google.cloud.tools.appengine.operations.cloudsdk.process.StringBuilderProcessOutputLineListener;
 import com.google.cloud.tools.appengine.operations.cloudsdk.serialization.CloudSdkComponent;
 import com.google.cloud.tools.appengine.operations.cloudsdk.serialization.CloudSdkConfig;
+import com.google.cloud.tools.appengine.operations.coordination.DeployCoordinator;
 import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Preconditions;
 import com.google.common.collect.ImmutableList;
 import com.google.gson.JsonSyntaxException;
 import java.io.IOException;
 import java.nio.file.Path;
 import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.logging.Level;
 import java.util.logging.Logger;
 import javax.annotation.Nullable;
 
 /** Operations that use gcloud. */
 public class Gcloud {
+  private static final Logger logger = Logger.getLogger(Gcloud.class.getName());
+
   private final CloudSdk sdk;
   private final GcloudRunner.Factory gcloudRunnerFactory;
   @Nullable private final String metricsEnvironment;
@@ -47,6 +62,11 @@ public class Gcloud {
   @Nullable private final String outputFormat;
   @Nullable private final String showStructuredLogs;
   @Nullable private final String verbosity;
+  @Nullable private final ProcessMetricsListener processMetricsListener;
+  private final GcloudExecutor executor;
+  private final GcloudConfigReader configReader;
+  @Nullable private final NativeDeployer nativeDeployer;
+  @Nullable private final DeployCoordinator deployCoordinator;
 
   private Gcloud(
       CloudSdk sdk,
@@ -57,7 +77,12 @@ public class Gcloud {
       @Nullable List<Path> flagsFiles,
       @Nullable String outputFormat,
       @Nullable String showStructuredLogs,
-      @Nullable String verbosity) {
+      @Nullable String verbosity,
+      @Nullable ProcessMetricsListener processMetricsListener,
+      GcloudExecutor executor,
+      GcloudConfigReader configReader,
+      @Nullable NativeDeployer nativeDeployer,
+      @Nullable DeployCoordinator deployCoordinator) {
     this.gcloudRunnerFactory = gcloudRunnerFactory;
     this.sdk = sdk;
     this.metricsEnvironment = metricsEnvironment;
@@ -67,24 +92,42 @@ public class Gcloud {
     this.outputFormat = outputFormat;
     this.showStructuredLogs = showStructuredLogs;
     this.verbosity = verbosity;
+    this.processMetricsListener = processMetricsListener;
+    this.executor = executor;
+    this.configReader = configReader;
+    this.nativeDeployer = nativeDeployer;
+    this.deployCoordinator = deployCoordinator;
   }
 
   public Deployment newDeployment(ProcessHandler processHandler) {
-    return new Deployment(getRunner(processHandler));
+    return new Deployment(getRunner(processHandler), executor, nativeDeployer, deployCoordinator);
   }
 
   public Versions newVersions(ProcessHandler processHandler) {
-    return new Versions(getRunner(processHandler));
+    return new Versions(getRunner(processHandler), executor);
   }
 
   public Auth newAuth(ProcessHandler processHandler) {
-    return new Auth(getRunner(processHandler));
+    return new Auth(getRunner(processHandler), executor);
   }
 
   public GenRepoInfoFile newGenRepoInfo(ProcessHandler processHandler) {
     return new GenRepoInfoFile(getRunner(processHandler));
   }
 
+  /**
+   * Returns a provider of access tokens, for example for an {@link AppEngineAdminClient}. If the
+   * credential file is a service account key, tokens are minted in-process and shared with every
+   * other user of the same key file in the JVM. Otherwise they are obtained for the account gcloud
+   * is logged in with by running {@code gcloud auth print-access-token}.
+   */
+  public AccessTokenProvider newAccessTokenProvider() {
+    if (credentialFile != null && ServiceAccountCredentials.isServiceAccountKey(credentialFile)) {
+      return ServiceAccountCredentials.forKeyFile(credentialFile);
+    }
+    return new GcloudAccessTokenProvider(this);
+  }
+
   /**
    * Returns the list of Cloud SDK Components and their settings, reported by the current gcloud
    * installation. Unlike other methods in this class that call gcloud, this method always uses a
@@ -113,14 +156,20 @@ public class Gcloud {
   }
 
   /**
-   * Returns a representation of gcloud config, it makes a synchronous call to gcloud config list to
-   * do so.
+   * Returns a representation of gcloud config. The active configuration is read directly from the
+   * gcloud configuration files, gcloud config list is only run if they cannot be located.
    */
   public CloudSdkConfig getConfig()
       throws CloudSdkNotFoundException, CloudSdkOutOfDateException, CloudSdkVersionFileException,
           IOException, ProcessHandlerException {
     sdk.validateCloudSdk();
 
+    try {
+      return CloudSdkConfig.fromProperties(configReader.getProperties());
+    } catch (IOException ex) {
+      logger.log(Level.FINE, "Cannot read gcloud configuration files, running gcloud", ex);
+    }
+
     List<String> command =
         new ImmutableList.Builder<String>()
             .add("config", "list")
@@ -131,6 +180,24 @@ public class Gcloud {
     return CloudSdkConfig.fromJson(configJson);
   }
 
+  /**
+   * Asynchronous version of {@link #getComponents()}. Concurrent calls against the same Cloud SDK
+   * share a single gcloud process.
+   */
+  public CompletableFuture<List<CloudSdkComponent>> getComponentsAsync() {
+    return executor.submitShared(
+        sharedCommandKey("components", "list"), GcloudExecutor.Priority.HIGH, this::getComponents);
+  }
+
+  /**
+   * Asynchronous version of {@link #getConfig()}. Concurrent calls against the same Cloud SDK share
+   * a single gcloud process.
+   */
+  public CompletableFuture<CloudSdkConfig> getConfigAsync() {
+    return executor.submitShared(
+        sharedCommandKey("config", "list"), GcloudExecutor.Priority.HIGH, this::getConfig);
+  }
+
   /**
    * Run short lived gcloud commands.
    *
@@ -154,7 +221,17 @@ public class Gcloud {
             .addAll(args)
             .build();
 
+    long startNanos = System.nanoTime();
     Process process = new ProcessBuilder(command).start();
+    if (processMetricsListener != null) {
+      process =
+          MeteredProcess.wrap(
+              process,
+              ProcessMetrics.commandType("gcloud", args),
+              command,
+              processMetricsListener,
+              startNanos);
+    }
     LegacyProcessHandler.builder()
         .addStdOutLineListener(stdOutListener)
         .addStdErrLineListener(stdErrListener)
@@ -164,7 +241,7 @@ public class Gcloud {
 
     if (exitListener.getMostRecentExitCode() != null
         && !exitListener.getMostRecentExitCode().equals(0)) {
-      Logger.getLogger(Gcloud.class.getName()).severe(stdErrListener.toString());
+      logger.severe(stdErrListener.toString());
       throw new ProcessHandlerException(
           "Process exited unsuccessfully with code " + exitListener.getMostRecentExitCode());
     }
@@ -172,6 +249,33 @@ public class Gcloud {
     return stdOutListener.toString();
   }
 
+  /**
+   * Run a short lived gcloud command without blocking, see {@link #runCommand(List)}. Commands are
+   * never merged with identical concurrent invocations because they may have side effects.
+   *
+   * @param args the arguments to gcloud command (not including 'gcloud')
+   * @return a future completed with standard out collected as a single string
+   */
+  public CompletableFuture<String> runCommandAsync(List<String> args) {
+    List<String> arguments = ImmutableList.copyOf(args);
+    return executor.submit(GcloudExecutor.Priority.NORMAL, () -> runCommand(arguments));
+  }
+
+  /**
+   * Identifies a read-only query against this Cloud SDK installation. Queries are only shared
+   * between instances with the same credentials and gcloud environment, as both change the result.
+   */
+  @VisibleForTesting
+  List<Object> sharedCommandKey(String... command) {
+    return ImmutableList.builder()
+        .add(sdk.getPath())
+        .add(Optional.ofNullable(credentialFile))
+        .add(Optional.ofNullable(configReader.getConfigurationDirectory()))
+        .add(configReader.getCloudSdkEnvironment())
+        .add((Object[]) command)
+        .build();
+  }
+
   @VisibleForTesting
   GcloudRunner getRunner(ProcessHandler processHandler) {
     return gcloudRunnerFactory.newRunner(
@@ -183,7 +287,8 @@ public class Gcloud {
         outputFormat,
         showStructuredLogs,
         verbosity,
-        processHandler);
+        processHandler,
+        processMetricsListener);
   }
 
   public static Builder builder(CloudSdk sdk) {
@@ -202,6 +307,11 @@ public class Gcloud {
     @Nullable private String outputFormat;
     @Nullable private String showStructuredLogs;
     @Nullable private String verbosity;
+    @Nullable private ProcessMetricsListener processMetricsListener;
+    private GcloudExecutor executor = GcloudExecutor.getDefault();
+    @Nullable private GcloudConfigReader configReader;
+    @Nullable private NativeDeployer nativeDeployer;
+    @Nullable private DeployCoordinator deployCoordinator;
 
     private Builder(CloudSdk sdk) {
       this(sdk, new GcloudRunner.Factory());
@@ -261,6 +371,53 @@ public class Gcloud {
       return this;
     }
 
+    /**
+     * Sets a listener that receives the resource usage of every gcloud process started by the
+     * operations created from this instance.
+     */
+    public Builder setProcessMetricsListener(ProcessMetricsListener processMetricsListener) {
+      this.processMetricsListener = processMetricsListener;
+      return this;
+    }
+
+    /**
+     * Sets the executor that runs asynchronous operations. Defaults to {@link
+     * GcloudExecutor#getDefault()}, which is shared by the whole JVM.
+     */
+    public Builder setExecutor(GcloudExecutor executor) {
+      this.executor = Preconditions.checkNotNull(executor);
+      return this;
+    }
+
+    /**
+     * Sets the reader used by {@link Gcloud#getConfig()}. Defaults to a reader for the current user
+     * and environment, share one instance to share its cache of parsed files.
+     */
+    public Builder setConfigReader(GcloudConfigReader configReader) {
+      this.configReader = Preconditions.checkNotNull(configReader);
+      return this;
+    }
+
+    /**
+     * Makes {@link Deployment#deploy} deploy staging directories through the App Engine Admin API
+     * when {@link NativeDeployer#supports supported}, without starting gcloud. Everything else is
+     * still deployed with gcloud.
+     */
+    public Builder setNativeDeployer(NativeDeployer nativeDeployer) {
+      this.nativeDeployer = Preconditions.checkNotNull(nativeDeployer);
+      return this;
+    }
+
+    /**
+     * Makes {@link Deployment#deploy} wait for other deployments to the same project, in this and
+     * other processes that share the coordinator's lock backend, instead of failing with a
+     * conflict.
+     */
+    public Builder setDeployCoordinator(DeployCoordinator deployCoordinator) {
+      this.deployCoordinator = Preconditions.checkNotNull(deployCoordinator);
+      return this;
+    }
+
     /** Build an immutable Gcloud instance. */
     public Gcloud build() {
       return new Gcloud(
@@ -272,7 +429,12 @@ public class Gcloud {
           flagsFiles,
           outputFormat,
           showStructuredLogs,
-          verbosity);
+          verbosity,
+          processMetricsListener,
+          executor,
+          configReader != null ? configReader : new GcloudConfigReader(sdk.getPath()),
+          nativeDeployer,
+          deployCoordinator);
     }
   }
 }
@@ -0,0 +1,73 @@
+/*
+ * Copyright 2026 Google LLC.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.tools.appengine.operations;
+
+import com.google.cloud.tools.appengine.operations.api.AccessTokenProvider;
+import com.google.cloud.tools.appengine.operations.cloudsdk.CloudSdkNotFoundException;
+import com.google.cloud.tools.appengine.operations.cloudsdk.process.ProcessHandlerException;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Ticker;
+import com.google.common.collect.ImmutableList;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.Nullable;
+
+/**
+ * Obtains access tokens by running {@code gcloud auth print-access-token}. gcloud refreshes tokens
+ * that are about to expire, so a printed token is reused for a short time only.
+ */
+class GcloudAccessTokenProvider implements AccessTokenProvider {
+
+  private static final long REUSE_NANOS = TimeUnit.MINUTES.toNanos(1);
+
+  private final Gcloud gcloud;
+  private final Ticker ticker;
+
+  // guarded by this
+  @Nullable private String token;
+  private long tokenNanos;
+
+  GcloudAccessTokenProvider(Gcloud gcloud) {
+    this(gcloud, Ticker.systemTicker());
+  }
+
+  @VisibleForTesting
+  GcloudAccessTokenProvider(Gcloud gcloud, Ticker ticker) {
+    this.gcloud = gcloud;
+    this.ticker = ticker;
+  }
+
+  @Override
+  public synchronized String getAccessToken() throws IOException {
+    String cached = token;
+    if (cached != null && ticker.read() - tokenNanos < REUSE_NANOS) {
+      return cached;
+    }
+    String printed;
+    try {
+      printed = gcloud.runCommand(ImmutableList.of("auth", "print-access-token")).trim();
+    } catch (ProcessHandlerException | CloudSdkNotFoundException ex) {
+      throw new IOException("Failed to obtain an access token from gcloud", ex);
+    }
+    if (printed.isEmpty()) {
+      throw new IOException("gcloud printed no access token, run gcloud auth login");
+    }
+    token = printed;
+    tokenNanos = ticker.read();
+    return printed;
+  }
+}
@@ -0,0 +1,340 @@
+/*
+ * Copyright 2026 Google LLC.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.tools.appengine.operations;
+
+import com.google.cloud.tools.appengine.AppEngineException;
+import com.google.cloud.tools.appengine.operations.cloudsdk.internal.process.ExitCodeRecorderProcessExitListener;
+import com.google.cloud.tools.appengine.operations.cloudsdk.process.LegacyProcessHandler;
+import com.google.cloud.tools.appengine.operations.cloudsdk.process.ProcessHandlerException;
+import com.google.cloud.tools.appengine.operations.cloudsdk.process.ProcessOutputLineListener;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Preconditions;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.annotation.Nullable;
+
+/**
+ * Runs gcloud invocations asynchronously while bounding how many gcloud processes run at the same
+ * time. Invocations that cannot start immediately are queued by {@link Priority} and then in
+ * submission order. Read-only invocations can be submitted with a key so that identical requests
+ * that are already queued or running share a single process (single-flight).
+ *
+ * <p>All operations created from {@link Gcloud} instances that don't configure an executor share
+ * {@link #getDefault()}. Its limit applies to the whole host: every JVM that uses it shares {@link
+ * #DEFAULT_MAX_CONCURRENT_PROCESSES} slots, held as file locks in the user cache directory. An
+ * executor created with {@link #GcloudExecutor(int)} only limits its own invocations.
+ */
+public class GcloudExecutor {
+
+  /** The number of gcloud processes that the default executor runs at the same time on a host. */
+  public static final int DEFAULT_MAX_CONCURRENT_PROCESSES = 4;
+
+  private static final GcloudExecutor DEFAULT =
+      new GcloudExecutor(
+          DEFAULT_MAX_CONCURRENT_PROCESSES,
+          newWorkers(),
+          new HostProcessLimit(
+              HostProcessLimit.getDefaultDirectory(), DEFAULT_MAX_CONCURRENT_PROCESSES));
+
+  /**
+   * Scheduling priority of an invocation. Short read-only queries should not wait behind long
+   * running deployments, so queued invocations are started highest priority first.
+   */
+  public enum Priority {
+    /** Short read-only queries, e.g. {@code gcloud config list}. */
+    HIGH,
+    /** Short commands that change state, e.g. {@code gcloud app versions stop}. */
+    NORMAL,
+    /** Long running commands, e.g. {@code gcloud app deploy}. */
+    LOW
+  }
+
+  private final int maxConcurrentProcesses;
+  private final Executor workers;
+  @Nullable private final HostProcessLimit hostLimit;
+
+  // all guarded by this
+  private final PriorityQueue<PendingTask<?>> pending =
+      new PriorityQueue<>(
+          Comparator.<PendingTask<?>, Priority>comparing(task -> task.priority)
+              .thenComparingLong(task -> task.sequence));
+  private final Map<Object, CompletableFuture<?>> inFlight = new HashMap<>();
+  private long sequence;
+  private int running;
+
+  /**
+   * Creates an executor that runs at most {@code maxConcurrentProcesses} gcloud processes at the
+   * same time. Prefer {@link #getDefault()} unless a separate limit is required.
+   */
+  public GcloudExecutor(int maxConcurrentProcesses) {
+    this(maxConcurrentProcesses, newWorkers());
+  }
+
+  @VisibleForTesting
+  GcloudExecutor(int maxConcurrentProcesses, Executor workers) {
+    this(maxConcurrentProcesses, workers, null);
+  }
+
+  @VisibleForTesting
+  GcloudExecutor(
+      int maxConcurrentProcesses, Executor workers, @Nullable HostProcessLimit hostLimit) {
+    Preconditions.checkArgument(
+        maxConcurrentProcesses > 0, "maxConcurrentProcesses must be positive");
+    this.maxConcurrentProcesses = maxConcurrentProcesses;
+    this.workers = workers;
+    this.hostLimit = hostLimit;
+  }
+
+  /** Returns the executor shared by all operations that don't configure their own. */
+  public static GcloudExecutor getDefault() {
+    return DEFAULT;
+  }
+
+  public int getMaxConcurrentProcesses() {
+    return maxConcurrentProcesses;
+  }
+
+  /**
+   * Queues {@code task} for execution. Cancelling the returned future before the task has started
+   * removes it from the queue, a task that is already running is not interrupted.
+   *
+   * @param priority the scheduling priority
+   * @param task the work to run, typically a single blocking gcloud invocation
+   * @return a future completed with the result of the task, or exceptionally with the exception it
+   *     threw
+   */
+  public <T> CompletableFuture<T> submit(Priority priority, Callable<T> task) {
+    Preconditions.checkNotNull(priority);
+    Preconditions.checkNotNull(task);
+    CompletableFuture<T> future = new CompletableFuture<>();
+    synchronized (this) {
+      pending.add(new PendingTask<>(priority, sequence++, task, future));
+      dispatch();
+    }
+    return future;
+  }
+
+  /**
+   * Queues a read-only {@code task}, or joins an identical one that is already queued or running.
+   * Only use this for invocations without side effects: all callers that submit the same {@code
+   * key} while the first invocation is in flight receive its result. The priority of a joined
+   * invocation is not changed.
+   *
+   * @param key identifies the invocation, for example the full command line
+   * @param priority the scheduling priority if a new invocation is queued
+   * @param task the work to run if no identical invocation is in flight
+   * @return a future completed with the shared result. Cancelling it does not affect other callers.
+   */
+  public <T> CompletableFuture<T> submitShared(Object key, Priority priority, Callable<T> task) {
+    Preconditions.checkNotNull(key);
+    CompletableFuture<T> shared;
+    synchronized (this) {
+      @SuppressWarnings("unchecked")
+      CompletableFuture<T> existing = (CompletableFuture<T>) inFlight.get(key);
+      // dependent callbacks may run before the in-flight entry of a completed invocation is removed
+      if (existing != null && !existing.isDone()) {
+        shared = existing;
+      } else {
+        shared = submit(priority, task);
+        inFlight.put(key, shared);
+        CompletableFuture<T> registered = shared;
+        // the callback can't fail, its future has nothing to report
+        CompletableFuture<T> unused =
+            shared.whenComplete((result, ex) -> removeInFlight(key, registered));
+      }
+    }
+    return forward(shared);
+  }
+
+  /**
+   * Runs a gcloud invocation through {@code runner}, wrapping failures in {@link
+   * AppEngineException} like the synchronous operations do. Every invocation gets its own process
+   * handler rather than the one of {@code runner}, which isn't safe to share between processes
+   * running at the same time, and fails when gcloud exits with a non zero code.
+   *
+   * @param outputListener if not null, receives the standard output and standard error lines
+   */
+  CompletableFuture<Void> run(
+      GcloudRunner runner,
+      List<String> arguments,
+      @Nullable Path workingDirectory,
+      Priority priority,
+      @Nullable ProcessOutputLineListener outputListener) {
+    return submit(
+        priority,
+        () -> {
+          List<String> errors = new ArrayList<>();
+          ExitCodeRecorderProcessExitListener exitListener =
+              new ExitCodeRecorderProcessExitListener();
+          LegacyProcessHandler processHandler =
+              LegacyProcessHandler.builder()
+                  .addStdOutLineListener(
+                      line -> {
+                        if (outputListener != null) {
+                          outputListener.onOutputLine(line);
+                        }
+                      })
+                  .addStdErrLineListener(
+                      line -> {
+                        if (line.startsWith("ERROR:")) {
+                          errors.add(line);
+                        }
+                        if (outputListener != null) {
+                          outputListener.onOutputLine(line);
+                        }
+                      })
+                  .setExitListener(exitListener)
+                  .build();
+          try {
+            runner.run(arguments, workingDirectory, processHandler);
+          } catch (ProcessHandlerException | IOException ex) {
+            throw new AppEngineException(ex);
+          }
+          Integer exitCode = exitListener.getMostRecentExitCode();
+          if (exitCode != null && exitCode != 0) {
+            throw new AppEngineException(
+                "gcloud "
+                    + String.join(" ", arguments)
+                    + " exited with code "
+                    + exitCode
+                    + (errors.isEmpty() ? "" : ": " + String.join(" ", errors)));
+          }
+          return null;
+        });
+  }
+
+  private synchronized void removeInFlight(Object key, CompletableFuture<?> future) {
+    inFlight.remove(key, future);
+  }
+
+  private synchronized void finished() {
+    running--;
+    dispatch();
+  }
+
+  private synchronized void dispatch() {
+    while (running < maxConcurrentProcesses && !pending.isEmpty()) {
+      PendingTask<?> task = pending.poll();
+      if (task.future.isDone()) {
+        // cancelled while queued
+        continue;
+      }
+      running++;
+      try {
+        workers.execute(
+            () -> {
+              try {
+                runWithHostSlot(task);
+              } finally {
+                finished();
+              }
+            });
+      } catch (RuntimeException ex) {
+        running--;
+        task.future.completeExceptionally(ex);
+      }
+    }
+  }
+
+  /** Runs {@code task} once a host slot is free, if the host limit applies. */
+  private void runWithHostSlot(PendingTask<?> task) {
+    if (hostLimit == null || task.future.isDone()) {
+      task.run();
+      return;
+    }
+    HostProcessLimit.Slot slot;
+    try {
+      slot = hostLimit.acquire();
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+      task.future.completeExceptionally(ex);
+      return;
+    }
+    try {
+      task.run();
+    } finally {
+      slot.release();
+    }
+  }
+
+  /** Returns a future that completes with {@code shared}, but can be cancelled independently. */
+  private static <T> CompletableFuture<T> forward(CompletableFuture<T> shared) {
+    CompletableFuture<T> forwarded = new CompletableFuture<>();
+    // the callback can't fail, its future has nothing to report
+    CompletableFuture<T> unused =
+        shared.whenComplete(
+            (result, ex) -> {
+              if (ex == null) {
+                forwarded.complete(result);
+              } else {
+                forwarded.completeExceptionally(
+                    ex instanceof CompletionException && ex.getCause() != null
+                        ? ex.getCause()
+                        : ex);
+              }
+            });
+    return forwarded;
+  }
+
+  private static Executor newWorkers() {
+    AtomicInteger threadCount = new AtomicInteger();
+    return Executors.newCachedThreadPool(
+        runnable -> {
+          Thread thread = new Thread(runnable, "gcloud-executor-" + threadCount.incrementAndGet());
+          thread.setDaemon(true);
+          return thread;
+        });
+  }
+
+  private static class PendingTask<T> {
+    private final Priority priority;
+    private final long sequence;
+    private final Callable<T> task;
+    private final CompletableFuture<T> future;
+
+    private PendingTask(
+        Priority priority, long sequence, Callable<T> task, CompletableFuture<T> future) {
+      this.priority = priority;
+      this.sequence = sequence;
+      this.task = task;
+      this.future = future;
+    }
+
+    private void run() {
+      if (future.isDone()) {
+        return;
+      }
+      try {
+        future.complete(task.call());
+      } catch (Exception ex) {
+        future.completeExceptionally(ex);
+      }
+    }
+  }
+}
@@ -20,9 +20,12 @@ import com.google.cloud.tools.appengine.operations.cloudsdk.CloudSdkNotFoundExce
 import com.google.cloud.tools.appengine.operations.cloudsdk.CloudSdkOutOfDateException;
 import com.google.cloud.tools.appengine.operations.cloudsdk.CloudSdkVersionFileException;
 import com.google.cloud.tools.appengine.operations.cloudsdk.internal.args.GcloudArgs;
+import com.google.cloud.tools.appengine.operations.cloudsdk.internal.process.MeteredProcess;
 import com.google.cloud.tools.appengine.operations.cloudsdk.internal.process.ProcessBuilderFactory;
 import com.google.cloud.tools.appengine.operations.cloudsdk.process.ProcessHandler;
 import com.google.cloud.tools.appengine.operations.cloudsdk.process.ProcessHandlerException;
+import com.google.cloud.tools.appengine.operations.cloudsdk.process.ProcessMetrics;
+import com.google.cloud.tools.appengine.operations.cloudsdk.process.ProcessMetricsListener;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Joiner;
 import com.google.common.collect.Maps;
@@ -48,6 +51,7 @@ public class GcloudRunner {
   @Nullable private final String verbosity;
   private final ProcessBuilderFactory processBuilderFactory;
   private final ProcessHandler processHandler;
+  @Nullable private final ProcessMetricsListener processMetricsListener;
 
   GcloudRunner(
       CloudSdk sdk,
@@ -60,6 +64,32 @@ public class GcloudRunner {
       @Nullable String verbosity,
       ProcessBuilderFactory processBuilderFactory,
       ProcessHandler processHandler) {
+    this(
+        sdk,
+        metricsEnvironment,
+        metricsEnvironmentVersion,
+        credentialFile,
+        flagsFiles,
+        outputFormat,
+        showStructuredLogs,
+        verbosity,
+        processBuilderFactory,
+        processHandler,
+        null);
+  }
+
+  GcloudRunner(
+      CloudSdk sdk,
+      @Nullable String metricsEnvironment,
+      @Nullable String metricsEnvironmentVersion,
+      @Nullable Path credentialFile,
+      @Nullable List<Path> flagsFiles,
+      @Nullable String outputFormat,
+      @Nullable String showStructuredLogs,
+      @Nullable String verbosity,
+      ProcessBuilderFactory processBuilderFactory,
+      ProcessHandler processHandler,
+      @Nullable ProcessMetricsListener processMetricsListener) {
     this.sdk = sdk;
     this.metricsEnvironment = metricsEnvironment;
     this.metricsEnvironmentVersion = metricsEnvironmentVersion;
@@ -70,6 +100,7 @@ public class GcloudRunner {
     this.verbosity = verbosity;
     this.processBuilderFactory = processBuilderFactory;
     this.processHandler = processHandler;
+    this.processMetricsListener = processMetricsListener;
   }
 
   /**
@@ -80,6 +111,20 @@ public class GcloudRunner {
   void run(List<String> arguments, @Nullable Path workingDirectory)
       throws ProcessHandlerException, CloudSdkNotFoundException, CloudSdkOutOfDateException,
           CloudSdkVersionFileException, IOException {
+    run(arguments, workingDirectory, processHandler);
+  }
+
+  /**
+   * Launch an external process that runs gcloud, handled by {@code processHandler} instead of the
+   * handler of this runner. Used when every invocation needs its own output listeners. A {@code
+   * --format} in {@code arguments} replaces the configured output format, for output that is
+   * parsed.
+   *
+   * @param workingDirectory if null then the working directory of current Java process
+   */
+  void run(List<String> arguments, @Nullable Path workingDirectory, ProcessHandler processHandler)
+      throws ProcessHandlerException, CloudSdkNotFoundException, CloudSdkOutOfDateException,
+          CloudSdkVersionFileException, IOException {
 
     sdk.validateCloudSdk();
 
@@ -87,7 +132,7 @@ public class GcloudRunner {
     command.add(sdk.getGCloudPath().toAbsolutePath().toString());
 
     command.addAll(arguments);
-    if (outputFormat != null) {
+    if (outputFormat != null && !arguments.contains("--format")) {
       command.addAll(GcloudArgs.get("format", outputFormat));
     }
 
@@ -113,7 +158,17 @@ public class GcloudRunner {
       processBuilder.directory(workingDirectory.toFile());
     }
     processBuilder.environment().putAll(getGcloudCommandEnvironment());
+    long startNanos = System.nanoTime();
     Process process = processBuilder.start();
+    if (processMetricsListener != null) {
+      process =
+          MeteredProcess.wrap(
+              process,
+              ProcessMetrics.commandType("gcloud", arguments),
+              command,
+              processMetricsListener,
+              startNanos);
+    }
     processHandler.handleProcess(process);
   }
 
@@ -165,6 +220,30 @@ public class GcloudRunner {
         @Nullable String showStructuredLogs,
         @Nullable String verbosity,
         ProcessHandler processHandler) {
+      return newRunner(
+          sdk,
+          metricsEnvironment,
+          metricsEnvironmentVersion,
+          credentialFile,
+          flagsFiles,
+          outputFormat,
+          showStructuredLogs,
+          verbosity,
+          processHandler,
+          null);
+    }
+
+    GcloudRunner newRunner(
+        CloudSdk sdk,
+        @Nullable String metricsEnvironment,
+        @Nullable String metricsEnvironmentVersion,
+        @Nullable Path credentialFile,
+        @Nullable List<Path> flagsFiles,
+        @Nullable String outputFormat,
+        @Nullable String showStructuredLogs,
+        @Nullable String verbosity,
+        ProcessHandler processHandler,
+        @Nullable ProcessMetricsListener processMetricsListener) {
       return new GcloudRunner(
           sdk,
           metricsEnvironment,
@@ -175,7 +254,8 @@ public class GcloudRunner {
           showStructuredLogs,
           verbosity,
           processBuilderFactory,
-          processHandler);
+          processHandler,
+          processMetricsListener);
     }
   }
 }
@@ -0,0 +1,131 @@
+/*
+ * Copyright 2026 Google LLC.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.tools.appengine.operations;
+
+import com.google.common.base.Preconditions;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import javax.annotation.Nullable;
+
+/**
+ * Limits how many gcloud processes run at the same time on this host, across JVMs. A running
+ * process holds an exclusive lock on one of a fixed number of slot files in a shared directory. The
+ * operating system releases the lock when its JVM exits, so a crashed build never leaks a slot.
+ *
+ * <p>If the slot files can't be used, for example because the directory is read-only, the limit is
+ * not enforced and a warning is logged once.
+ */
+class HostProcessLimit {
+
+  private static final Logger logger = Logger.getLogger(HostProcessLimit.class.getName());
+
+  private static final long MAX_POLL_MILLIS = 500;
+
+  /** A slot held while a process runs. */
+  interface Slot {
+    void release();
+  }
+
+  private static final Slot UNLIMITED = () -> {};
+
+  private final Path directory;
+  // guarded by this, opened on first use and never closed: on some systems closing a channel
+  // releases every lock the JVM holds on its file
+  private final FileChannel[] channels;
+  private boolean warned;
+
+  HostProcessLimit(Path directory, int slots) {
+    Preconditions.checkArgument(slots > 0, "slots must be positive");
+    this.directory = Preconditions.checkNotNull(directory);
+    this.channels = new FileChannel[slots];
+  }
+
+  /** Returns the directory of the slot files shared by every build on the machine. */
+  static Path getDefaultDirectory() {
+    return Paths.get(System.getProperty("user.home"))
+        .resolve(".cache")
+        .resolve("google-cloud-tools-java")
+        .resolve("gcloud-processes");
+  }
+
+  /** Blocks until a slot is free, then holds it until it is released. */
+  Slot acquire() throws InterruptedException {
+    long pollMillis = 10;
+    while (true) {
+      for (int slot = 0; slot < channels.length; slot++) {
+        FileLock lock;
+        try {
+          lock = tryLock(slot);
+        } catch (IOException ex) {
+          warnOnce(ex);
+          return UNLIMITED;
+        }
+        if (lock != null) {
+          return () -> release(lock);
+        }
+      }
+      Thread.sleep(pollMillis);
+      pollMillis = Math.min(MAX_POLL_MILLIS, pollMillis * 2);
+    }
+  }
+
+  @Nullable
+  private synchronized FileLock tryLock(int slot) throws IOException {
+    FileChannel channel = channels[slot];
+    if (channel == null) {
+      Files.createDirectories(directory);
+      channel =
+          FileChannel.open(
+              directory.resolve("slot-" + slot + ".lock"),
+              StandardOpenOption.CREATE,
+              StandardOpenOption.WRITE);
+      channels[slot] = channel;
+    }
+    try {
+      return channel.tryLock();
+    } catch (OverlappingFileLockException ex) {
+      // held by this JVM, through this or another instance
+      return null;
+    }
+  }
+
+  private static void release(FileLock lock) {
+    try {
+      lock.release();
+    } catch (IOException ex) {
+      logger.log(Level.WARNING, "Failed to release the gcloud process slot " + lock.channel(), ex);
+    }
+  }
+
+  private synchronized void warnOnce(IOException ex) {
+    if (!warned) {
+      warned = true;
+      logger.log(
+          Level.WARNING,
+          "Cannot use " + directory + ", gcloud processes are only limited within this JVM",
+          ex);
+    }
+  }
+}
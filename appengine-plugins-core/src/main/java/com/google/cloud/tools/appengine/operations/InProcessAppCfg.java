@@ -0,0 +1,340 @@
+/*
+ * Copyright 2026 Google LLC.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.tools.appengine.operations;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.io.ByteStreams;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.lang.reflect.InvocationTargetException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.channels.Channels;
+import java.nio.channels.Pipe;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.annotation.Nullable;
+
+/**
+ * Runs {@code com.google.appengine.tools.admin.AppCfg} on a worker thread of the current JVM and
+ * exposes it as a {@link Process}, so that it can be handled by the usual {@code ProcessHandler}s.
+ *
+ * <p>The tools jar is loaded into a class loader that only delegates to the JDK, and that is cached
+ * per jar for the lifetime of the JVM (for example a Gradle daemon), so repeated runs skip JVM
+ * startup and class loading. {@code System.out} and {@code System.err} of the worker thread, and of
+ * threads it starts, are captured into the streams of the returned process until AppCfg returns;
+ * other threads, and threads that outlive the run, write to the original streams. The App Engine
+ * SDK root is handed to the SDK with {@code SdkInfo.setSdkRoot}, never through the global {@code
+ * appengine.sdk.root} system property, so SDKs without that method are not supported, see {@link
+ * #isSupported(Path)}.
+ */
+class InProcessAppCfg extends Process {
+
+  static final String MAIN_CLASS = "com.google.appengine.tools.admin.AppCfg";
+
+  private static final String SDK_INFO_CLASS = "com.google.appengine.tools.info.SdkInfo";
+
+  private static final Map<Path, ClassLoader> classLoaders = new ConcurrentHashMap<>();
+  private static final AtomicInteger threadCount = new AtomicInteger();
+
+  // the route of the current thread, inherited by the threads it starts
+  private static final InheritableThreadLocal<Route> routes = new InheritableThreadLocal<>();
+  private static final RoutingOutputStream stdOutRouting =
+      new RoutingOutputStream(System.out, false);
+  private static final RoutingOutputStream stdErrRouting =
+      new RoutingOutputStream(System.err, true);
+
+  private static final Object globalStateLock = new Object();
+  // guarded by globalStateLock
+  private static int routedRuns;
+
+  private final Thread worker;
+  private final InputStream stdOut;
+  private final InputStream stdErr;
+  private final CountDownLatch exited = new CountDownLatch(1);
+  private volatile int exitCode;
+
+  private InProcessAppCfg(
+      ClassLoader classLoader, String mainClass, Path sdkRoot, List<String> args)
+      throws IOException {
+    Pipe outPipe = Pipe.open();
+    Pipe errPipe = Pipe.open();
+    stdOut = Channels.newInputStream(outPipe.source());
+    stdErr = Channels.newInputStream(errPipe.source());
+    OutputStream out = Channels.newOutputStream(outPipe.sink());
+    OutputStream err = Channels.newOutputStream(errPipe.sink());
+    String[] arguments = args.toArray(new String[0]);
+    worker =
+        new Thread(
+            () -> run(classLoader, mainClass, sdkRoot, arguments, out, err),
+            "appcfg-" + threadCount.incrementAndGet());
+    worker.setDaemon(true);
+    worker.setContextClassLoader(classLoader);
+  }
+
+  /**
+   * Returns true if AppCfg from {@code toolsJar} can run in process, that is if its SDK root can be
+   * set without the global system property.
+   */
+  static boolean isSupported(Path toolsJar) {
+    return isSupported(getClassLoader(toolsJar));
+  }
+
+  @VisibleForTesting
+  static boolean isSupported(ClassLoader classLoader) {
+    try {
+      Class.forName(SDK_INFO_CLASS, false, classLoader).getMethod("setSdkRoot", File.class);
+      return true;
+    } catch (ReflectiveOperationException | LinkageError ex) {
+      return false;
+    }
+  }
+
+  /**
+   * Starts AppCfg from {@code toolsJar} with {@code args}, only if {@link #isSupported(Path)}.
+   *
+   * @param toolsJar the {@code appengine-tools-api.jar} of the App Engine SDK
+   * @param sdkRoot the root directory of the App Engine SDK
+   * @param args the AppCfg command line, without the main class
+   */
+  static InProcessAppCfg start(Path toolsJar, Path sdkRoot, List<String> args) throws IOException {
+    return start(getClassLoader(toolsJar), MAIN_CLASS, sdkRoot, args);
+  }
+
+  @VisibleForTesting
+  static InProcessAppCfg start(
+      ClassLoader classLoader, String mainClass, Path sdkRoot, List<String> args)
+      throws IOException {
+    InProcessAppCfg process = new InProcessAppCfg(classLoader, mainClass, sdkRoot, args);
+    process.worker.start();
+    return process;
+  }
+
+  /** Returns the isolated class loader of {@code toolsJar}, creating it on first use. */
+  @VisibleForTesting
+  static ClassLoader getClassLoader(Path toolsJar) {
+    return classLoaders.computeIfAbsent(
+        toolsJar.toAbsolutePath().normalize(),
+        jar -> {
+          try {
+            // the platform (or, on Java 8, extension) class loader: JDK classes only
+            ClassLoader jdkOnly = ClassLoader.getSystemClassLoader().getParent();
+            return new URLClassLoader(new URL[] {jar.toUri().toURL()}, jdkOnly);
+          } catch (IOException ex) {
+            throw new IllegalArgumentException("Invalid tools jar: " + jar, ex);
+          }
+        });
+  }
+
+  private void run(
+      ClassLoader classLoader,
+      String mainClass,
+      Path sdkRoot,
+      String[] args,
+      OutputStream out,
+      OutputStream err) {
+    int code = 0;
+    Route route = routeOutput(out, err);
+    try {
+      setSdkRoot(classLoader, sdkRoot);
+      invokeAppCfg(classLoader, mainClass, args);
+    } catch (InvocationTargetException ex) {
+      code = 1;
+      (ex.getCause() == null ? ex : ex.getCause()).printStackTrace(System.err);
+    } catch (ReflectiveOperationException | RuntimeException | LinkageError ex) {
+      code = 1;
+      ex.printStackTrace(System.err);
+    } finally {
+      System.out.flush();
+      System.err.flush();
+      unrouteOutput(route);
+      closeQuietly(out);
+      closeQuietly(err);
+      exitCode = code;
+      exited.countDown();
+    }
+  }
+
+  // AppCfg's constructor runs the action and reports errors itself, while main() may call
+  // System.exit() on failures, which would terminate the host JVM
+  private static void invokeAppCfg(ClassLoader classLoader, String mainClass, String[] args)
+      throws ReflectiveOperationException {
+    Class<?> appCfg = Class.forName(mainClass, true, classLoader);
+    try {
+      appCfg.getConstructor(String[].class).newInstance((Object) args);
+    } catch (NoSuchMethodException ex) {
+      appCfg.getMethod("main", String[].class).invoke(null, (Object) args);
+    }
+  }
+
+  private static void setSdkRoot(ClassLoader classLoader, Path sdkRoot)
+      throws ReflectiveOperationException {
+    Class.forName(SDK_INFO_CLASS, true, classLoader)
+        .getMethod("setSdkRoot", File.class)
+        .invoke(null, sdkRoot.toFile());
+  }
+
+  private static Route routeOutput(OutputStream out, OutputStream err) {
+    Route route = new Route(out, err);
+    synchronized (globalStateLock) {
+      if (routedRuns++ == 0) {
+        stdOutRouting.install(System.out);
+        System.setOut(stdOutRouting.printStream);
+        stdErrRouting.install(System.err);
+        System.setErr(stdErrRouting.printStream);
+      }
+    }
+    routes.set(route);
+    return route;
+  }
+
+  private static void unrouteOutput(Route route) {
+    // threads started by AppCfg that are still running share the route, they must stop writing to
+    // the streams of this process before they are closed
+    route.close();
+    routes.remove();
+    synchronized (globalStateLock) {
+      if (--routedRuns == 0) {
+        // leave the streams alone if someone else replaced them in the meantime
+        if (System.out == stdOutRouting.printStream) {
+          System.setOut(stdOutRouting.fallback);
+        }
+        if (System.err == stdErrRouting.printStream) {
+          System.setErr(stdErrRouting.fallback);
+        }
+      }
+    }
+  }
+
+  private static void closeQuietly(OutputStream stream) {
+    try {
+      stream.close();
+    } catch (IOException ex) {
+      // nothing is reading anymore
+    }
+  }
+
+  @Override
+  public OutputStream getOutputStream() {
+    return ByteStreams.nullOutputStream();
+  }
+
+  @Override
+  public InputStream getInputStream() {
+    return stdOut;
+  }
+
+  @Override
+  public InputStream getErrorStream() {
+    return stdErr;
+  }
+
+  @Override
+  public int waitFor() throws InterruptedException {
+    exited.await();
+    return exitCode;
+  }
+
+  @Override
+  public boolean waitFor(long timeout, TimeUnit unit) throws InterruptedException {
+    return exited.await(timeout, unit);
+  }
+
+  @Override
+  public int exitValue() {
+    if (exited.getCount() > 0) {
+      throw new IllegalThreadStateException("AppCfg is still running");
+    }
+    return exitCode;
+  }
+
+  /** Interrupts the worker thread, AppCfg is not guaranteed to stop. */
+  @Override
+  public void destroy() {
+    worker.interrupt();
+  }
+
+  @Override
+  public boolean isAlive() {
+    return exited.getCount() > 0;
+  }
+
+  /** The streams of one run, shared by the worker thread and the threads it starts. */
+  private static class Route {
+    @Nullable private volatile OutputStream out;
+    @Nullable private volatile OutputStream err;
+
+    private Route(OutputStream out, OutputStream err) {
+      this.out = out;
+      this.err = err;
+    }
+
+    /** Sends the output of every thread of this run to the original streams from now on. */
+    private void close() {
+      out = null;
+      err = null;
+    }
+  }
+
+  /**
+   * Sends the output of threads with an open {@link Route} to it, and the output of all other
+   * threads to the stream that was installed before.
+   */
+  private static class RoutingOutputStream extends OutputStream {
+    private final PrintStream printStream = new PrintStream(this, true);
+    private final boolean stdErr;
+    private volatile PrintStream fallback;
+
+    private RoutingOutputStream(PrintStream fallback, boolean stdErr) {
+      this.fallback = fallback;
+      this.stdErr = stdErr;
+    }
+
+    private void install(PrintStream current) {
+      fallback = current;
+    }
+
+    private OutputStream current() {
+      Route route = routes.get();
+      OutputStream routed = route == null ? null : (stdErr ? route.err : route.out);
+      return routed == null ? fallback : routed;
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+      current().write(b);
+    }
+
+    @Override
+    public void write(byte[] buffer, int offset, int length) throws IOException {
+      current().write(buffer, offset, length);
+    }
+
+    @Override
+    public void flush() throws IOException {
+      current().flush();
+    }
+  }
+}
@@ -0,0 +1,66 @@
+/*
+ * Copyright 2026 Google LLC.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.tools.appengine.operations;
+
+import com.google.common.collect.ImmutableList;
+import java.util.List;
+
+/**
+ * Outcome of {@link Deployment#deployServices}, with one result per service and per configuration
+ * file, in the order they were configured.
+ */
+public class MultiServiceDeployResult {
+
+  private final String version;
+  private final List<DeployableResult> services;
+  private final List<DeployableResult> configFiles;
+
+  MultiServiceDeployResult(
+      String version, List<DeployableResult> services, List<DeployableResult> configFiles) {
+    this.version = version;
+    this.services = ImmutableList.copyOf(services);
+    this.configFiles = ImmutableList.copyOf(configFiles);
+  }
+
+  /** The version id all services were deployed with. */
+  public String getVersion() {
+    return version;
+  }
+
+  public List<DeployableResult> getServices() {
+    return services;
+  }
+
+  public List<DeployableResult> getConfigFiles() {
+    return configFiles;
+  }
+
+  /** Returns true if every service and configuration file was deployed. */
+  public boolean isSuccessful() {
+    for (DeployableResult result : services) {
+      if (result.getStatus() != DeployableResult.Status.SUCCEEDED) {
+        return false;
+      }
+    }
+    for (DeployableResult result : configFiles) {
+      if (result.getStatus() != DeployableResult.Status.SUCCEEDED) {
+        return false;
+      }
+    }
+    return true;
+  }
+}
@@ -0,0 +1,303 @@
+/*
+ * Copyright 2026 Google LLC.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.tools.appengine.operations;
+
+import com.google.cloud.tools.appengine.AppEngineException;
+import com.google.cloud.tools.appengine.operations.cloudsdk.JsonParseException;
+import com.google.cloud.tools.appengine.operations.cloudsdk.internal.process.ExitCodeRecorderProcessExitListener;
+import com.google.cloud.tools.appengine.operations.cloudsdk.process.LegacyProcessHandler;
+import com.google.cloud.tools.appengine.operations.cloudsdk.process.ProcessHandlerException;
+import com.google.cloud.tools.appengine.operations.cloudsdk.process.ProcessOutputLineListener;
+import com.google.cloud.tools.appengine.operations.cloudsdk.process.StringBuilderProcessOutputLineListener;
+import com.google.cloud.tools.appengine.operations.cloudsdk.serialization.AppEngineDeployResult;
+import com.google.common.collect.ImmutableList;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import javax.annotation.Nullable;
+
+/**
+ * Runs the gcloud invocations of a multi-service deployment. Services run on the {@link
+ * GcloudExecutor}, at most {@code maxParallelDeployments} at a time, configuration files run one
+ * after the other once all services have been deployed. See {@link Deployment#deployServices}.
+ */
+class MultiServiceDeployer {
+
+  private static final Logger logger = Logger.getLogger(MultiServiceDeployer.class.getName());
+
+  /** A prepared {@code gcloud app deploy} invocation. */
+  static class Invocation {
+    private final Path deployable;
+    private final List<String> arguments;
+    @Nullable private final Path workingDirectory;
+
+    Invocation(Path deployable, List<String> arguments, @Nullable Path workingDirectory) {
+      this.deployable = deployable;
+      this.arguments = ImmutableList.copyOf(arguments);
+      this.workingDirectory = workingDirectory;
+    }
+  }
+
+  private final GcloudRunner runner;
+  private final GcloudExecutor executor;
+  private final String version;
+  private final List<Invocation> services;
+  private final List<Invocation> configFiles;
+  private final int maxParallelDeployments;
+  private final boolean failFast;
+  @Nullable private final ProcessOutputLineListener outputListener;
+  private final CompletableFuture<MultiServiceDeployResult> result = new CompletableFuture<>();
+
+  // all guarded by this
+  private final DeployableResult[] serviceResults;
+  private int nextService;
+  private int running;
+  private boolean failed;
+  private boolean servicesDone;
+
+  MultiServiceDeployer(
+      GcloudRunner runner,
+      GcloudExecutor executor,
+      String version,
+      List<Invocation> services,
+      List<Invocation> configFiles,
+      int maxParallelDeployments,
+      boolean failFast,
+      @Nullable ProcessOutputLineListener outputListener) {
+    this.runner = runner;
+    this.executor = executor;
+    this.version = version;
+    this.services = ImmutableList.copyOf(services);
+    this.configFiles = ImmutableList.copyOf(configFiles);
+    this.maxParallelDeployments = maxParallelDeployments;
+    this.failFast = failFast;
+    this.outputListener = outputListener;
+    this.serviceResults = new DeployableResult[services.size()];
+  }
+
+  /**
+   * Starts deploying. Failed deployments are reported in the result, the returned future only
+   * completes exceptionally if scheduling the deployments failed.
+   */
+  CompletableFuture<MultiServiceDeployResult> start() {
+    schedule();
+    return result;
+  }
+
+  private void schedule() {
+    List<Integer> toStart = new ArrayList<>();
+    boolean finished = false;
+    synchronized (this) {
+      boolean stopping = failFast && failed;
+      while (!stopping && running < maxParallelDeployments && nextService < services.size()) {
+        toStart.add(nextService++);
+        running++;
+      }
+      if (!servicesDone && running == 0 && (stopping || nextService == services.size())) {
+        servicesDone = true;
+        finished = true;
+        for (; nextService < services.size(); nextService++) {
+          serviceResults[nextService] =
+              DeployableResult.skipped(services.get(nextService).deployable);
+        }
+      }
+    }
+    // started outside the lock, an executor may run the deployment on this thread
+    for (int index : toStart) {
+      Invocation service = services.get(index);
+      whenComplete(
+          executor.submit(GcloudExecutor.Priority.LOW, () -> deploy(service, true)),
+          (deployed, ex) -> onServiceDone(index, orFailure(service, deployed, ex)));
+    }
+    if (finished) {
+      deployConfigFiles();
+    }
+  }
+
+  /**
+   * Runs {@code action} once {@code deployment} completes. If the action throws, the result
+   * completes with its exception rather than never completing.
+   */
+  private void whenComplete(
+      CompletableFuture<DeployableResult> deployment,
+      BiConsumer<DeployableResult, Throwable> action) {
+    // the action handles every failure, nothing is left to report through the returned future
+    CompletableFuture<DeployableResult> unused =
+        deployment.whenComplete(
+            (deployed, ex) -> {
+              try {
+                action.accept(deployed, ex);
+              } catch (RuntimeException failure) {
+                logger.log(Level.SEVERE, "Failed to schedule the next deployment", failure);
+                result.completeExceptionally(failure);
+              }
+            });
+  }
+
+  private void onServiceDone(int index, DeployableResult deployed) {
+    synchronized (this) {
+      serviceResults[index] = deployed;
+      running--;
+      if (deployed.getStatus() == DeployableResult.Status.FAILED) {
+        failed = true;
+      }
+    }
+    schedule();
+  }
+
+  private void deployConfigFiles() {
+    List<DeployableResult> results = new ArrayList<>();
+    boolean servicesFailed;
+    synchronized (this) {
+      servicesFailed = failed;
+    }
+    if (servicesFailed) {
+      // e.g. a dispatch.yaml must not route to a service that failed to deploy
+      skipConfigFiles(0, results);
+      return;
+    }
+    deployConfigFile(0, results);
+  }
+
+  private void deployConfigFile(int index, List<DeployableResult> results) {
+    if (index == configFiles.size()) {
+      complete(results);
+      return;
+    }
+    Invocation configFile = configFiles.get(index);
+    whenComplete(
+        executor.submit(GcloudExecutor.Priority.NORMAL, () -> deploy(configFile, false)),
+        (deployed, ex) -> {
+          DeployableResult configResult = orFailure(configFile, deployed, ex);
+          results.add(configResult);
+          if (failFast && configResult.getStatus() == DeployableResult.Status.FAILED) {
+            skipConfigFiles(index + 1, results);
+          } else {
+            deployConfigFile(index + 1, results);
+          }
+        });
+  }
+
+  private void skipConfigFiles(int from, List<DeployableResult> results) {
+    for (int index = from; index < configFiles.size(); index++) {
+      results.add(DeployableResult.skipped(configFiles.get(index).deployable));
+    }
+    complete(results);
+  }
+
+  private void complete(List<DeployableResult> configResults) {
+    List<DeployableResult> serviceList;
+    synchronized (this) {
+      serviceList = Arrays.asList(serviceResults.clone());
+    }
+    result.complete(new MultiServiceDeployResult(version, serviceList, configResults));
+  }
+
+  /** Runs one invocation, failures are reported in the result rather than thrown. */
+  private DeployableResult deploy(Invocation invocation, boolean parseResult) {
+    String prefix = "[" + getLabel(invocation.deployable) + "] ";
+    StringBuilderProcessOutputLineListener stdOut =
+        StringBuilderProcessOutputLineListener.newListener();
+    List<String> errors = new ArrayList<>();
+    ExitCodeRecorderProcessExitListener exitListener = new ExitCodeRecorderProcessExitListener();
+    LegacyProcessHandler processHandler =
+        LegacyProcessHandler.builder()
+            .addStdOutLineListener(stdOut)
+            .addStdErrLineListener(
+                line -> {
+                  if (line.startsWith("ERROR:")) {
+                    errors.add(line);
+                  }
+                  if (outputListener != null) {
+                    outputListener.onOutputLine(prefix + line);
+                  }
+                })
+            .setExitListener(exitListener)
+            .build();
+
+    long startNanos = System.nanoTime();
+    try {
+      runner.run(invocation.arguments, invocation.workingDirectory, processHandler);
+      Integer exitCode = exitListener.getMostRecentExitCode();
+      if (exitCode != null && exitCode != 0) {
+        throw new AppEngineException(
+            "Deploying "
+                + invocation.deployable
+                + " failed, gcloud exited with code "
+                + exitCode
+                + (errors.isEmpty() ? "" : ": " + String.join(" ", errors)));
+      }
+      AppEngineDeployResult deployResult = parseResult ? parse(stdOut.toString()) : null;
+      return DeployableResult.succeeded(
+          invocation.deployable, deployResult, elapsedMillis(startNanos));
+    } catch (AppEngineException ex) {
+      return DeployableResult.failed(invocation.deployable, ex, elapsedMillis(startNanos));
+    } catch (ProcessHandlerException | IOException | RuntimeException ex) {
+      return DeployableResult.failed(
+          invocation.deployable, new AppEngineException(ex), elapsedMillis(startNanos));
+    }
+  }
+
+  @Nullable
+  private static AppEngineDeployResult parse(String json) {
+    try {
+      return AppEngineDeployResult.parse(json);
+    } catch (JsonParseException ex) {
+      logger.log(Level.WARNING, "Cannot parse gcloud app deploy result: " + json, ex);
+      return null;
+    }
+  }
+
+  private static DeployableResult orFailure(
+      Invocation invocation, @Nullable DeployableResult deployed, @Nullable Throwable ex) {
+    if (deployed != null) {
+      return deployed;
+    }
+    Throwable cause = ex;
+    Throwable wrapped = cause == null ? null : cause.getCause();
+    if (cause instanceof CompletionException && wrapped != null) {
+      cause = wrapped;
+    }
+    AppEngineException failure =
+        cause == null
+            ? new AppEngineException("Deploying " + invocation.deployable + " did not complete")
+            : new AppEngineException(cause);
+    return DeployableResult.failed(invocation.deployable, failure, 0);
+  }
+
+  /** Names a deployable in output, {@code app.yaml} files by their directory. */
+  private static String getLabel(Path deployable) {
+    Path fileName = deployable.getFileName();
+    Path parent = deployable.getParent();
+    if (fileName != null && fileName.toString().equals("app.yaml") && parent != null) {
+      fileName = parent.getFileName();
+    }
+    return fileName == null ? deployable.toString() : fileName.toString();
+  }
+
+  private static long elapsedMillis(long startNanos) {
+    return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+  }
+}
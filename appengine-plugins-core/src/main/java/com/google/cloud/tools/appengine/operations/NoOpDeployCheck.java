@@ -0,0 +1,155 @@
+/*
+ * Copyright 2026 Google LLC.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.tools.appengine.operations;
+
+import com.google.cloud.tools.appengine.AppEngineException;
+import com.google.cloud.tools.appengine.DescriptorCache;
+import com.google.cloud.tools.appengine.configuration.DeployConfiguration;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import javax.annotation.Nullable;
+import org.xml.sax.SAXException;
+
+/**
+ * Detects a deployment of a staging directory that is identical to the last successful deployment
+ * of the same version from this machine, see {@link DeployConfiguration#isSkipUnchanged()}.
+ *
+ * <p>Deploying identical content again only changes which version receives traffic, so such a
+ * deployment is either skipped, or reduced to a promote if it would have promoted the version.
+ * Previous versions can't be stopped without a deployment, so a deployment that stops the previous
+ * version always runs.
+ */
+class NoOpDeployCheck {
+
+  private static final Logger logger = Logger.getLogger(NoOpDeployCheck.class.getName());
+
+  /** What to do instead of the deployment. */
+  enum Result {
+    /** Something changed, deploy. */
+    DEPLOY,
+    /** Nothing changed, do nothing. */
+    SKIP,
+    /** Nothing changed, only route all traffic to the version. */
+    PROMOTE
+  }
+
+  private final DeployConfiguration config;
+  private final DeployedVersionRecord record;
+  private final String service;
+  private final String version;
+  private final String fingerprint;
+
+  private NoOpDeployCheck(
+      DeployConfiguration config,
+      DeployedVersionRecord record,
+      String service,
+      String version,
+      String fingerprint) {
+    this.config = config;
+    this.record = record;
+    this.service = service;
+    this.version = version;
+    this.fingerprint = fingerprint;
+  }
+
+  /**
+   * Prepares the check for deploying {@code stagingDirectory}, or returns null if the deployment
+   * can't be checked: skipping is disabled, the project ID or version is not set, or the service
+   * can't be determined.
+   */
+  @Nullable
+  static NoOpDeployCheck create(DeployConfiguration config, Path stagingDirectory) {
+    String projectId = config.getProjectId();
+    String version = config.getVersion();
+    if (!config.isSkipUnchanged() || projectId == null || version == null) {
+      return null;
+    }
+    String service = readServiceId(stagingDirectory);
+    if (service == null) {
+      logger.fine("Can't determine the service of " + stagingDirectory + ", not skipping");
+      return null;
+    }
+
+    Path directory = config.getDeployRecordDirectory();
+    if (directory == null) {
+      directory = DeployedVersionRecord.getDefaultDirectory();
+    }
+    try {
+      DeployedVersionRecord record =
+          DeployedVersionRecord.load(directory, projectId, config.getServer(), service);
+      String fingerprint = DeployFingerprint.compute(stagingDirectory, config);
+      return new NoOpDeployCheck(config, record, service, version, fingerprint);
+    } catch (IOException ex) {
+      logger.log(Level.WARNING, "Failed to fingerprint " + stagingDirectory + ", not skipping", ex);
+      return null;
+    }
+  }
+
+  /** Compares the deployment with the recorded one. */
+  Result check() {
+    if (!fingerprint.equals(record.getFingerprint(version))) {
+      return Result.DEPLOY;
+    }
+    if (Boolean.TRUE.equals(config.getStopPreviousVersion())) {
+      return Result.DEPLOY;
+    }
+    // gcloud promotes by default
+    return Boolean.FALSE.equals(config.getPromote()) ? Result.SKIP : Result.PROMOTE;
+  }
+
+  String getService() {
+    return service;
+  }
+
+  String getVersion() {
+    return version;
+  }
+
+  /** Records the deployment as successful. Failures are logged, not thrown. */
+  void recordDeployed() {
+    try {
+      record.update(version, fingerprint);
+    } catch (IOException ex) {
+      // the deployment succeeded, at worst the next identical one isn't skipped
+      logger.log(Level.WARNING, "Failed to record the deployment of version " + version, ex);
+    }
+  }
+
+  /** Returns the service ID of a staged app.yaml or appengine-web.xml, or null if there is none. */
+  @Nullable
+  static String readServiceId(Path stagingDirectory) {
+    try {
+      Path appYaml = stagingDirectory.resolve("app.yaml");
+      if (Files.isRegularFile(appYaml)) {
+        String service = DescriptorCache.getInstance().getAppYaml(appYaml).getServiceId();
+        return service == null ? "default" : service;
+      }
+      Path appEngineWebXml = stagingDirectory.resolve("WEB-INF").resolve("appengine-web.xml");
+      if (Files.isRegularFile(appEngineWebXml)) {
+        String service =
+            DescriptorCache.getInstance().getAppEngineDescriptor(appEngineWebXml).getServiceId();
+        return service == null ? "default" : service;
+      }
+    } catch (IOException | AppEngineException | SAXException ex) {
+      logger.log(Level.FINE, "Failed to read the service of " + stagingDirectory, ex);
+    }
+    return null;
+  }
+}
@@ -23,18 +23,27 @@ import com.google.cloud.tools.appengine.operations.cloudsdk.CloudSdkNotFoundExce
 import com.google.cloud.tools.appengine.operations.cloudsdk.CloudSdkOutOfDateException;
 import com.google.cloud.tools.appengine.operations.cloudsdk.internal.args.GcloudArgs;
 import com.google.cloud.tools.appengine.operations.cloudsdk.process.ProcessHandlerException;
+import com.google.cloud.tools.appengine.operations.cloudsdk.process.ProcessOutputLineListener;
 import com.google.common.base.Preconditions;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import javax.annotation.Nullable;
 
 /** Run various gcloud versions commands. */
 public class Versions {
 
   private final GcloudRunner runner;
+  private final GcloudExecutor executor;
 
   Versions(GcloudRunner runner) {
+    this(runner, GcloudExecutor.getDefault());
+  }
+
+  Versions(GcloudRunner runner, GcloudExecutor executor) {
     this.runner = runner;
+    this.executor = executor;
   }
 
   private void execute(List<String> arguments) throws AppEngineException {
@@ -45,6 +54,13 @@ public class Versions {
     }
   }
 
+  private CompletableFuture<Void> executeAsync(
+      List<String> arguments,
+      GcloudExecutor.Priority priority,
+      @Nullable ProcessOutputLineListener outputListener) {
+    return executor.run(runner, arguments, null, priority, outputListener);
+  }
+
   /**
    * Starts serving a specific version or versions.
    *
@@ -52,17 +68,26 @@ public class Versions {
    * @throws CloudSdkOutOfDateException when the installed Cloud SDK is too old
    */
   public void start(VersionsSelectionConfiguration configuration) throws AppEngineException {
-    Preconditions.checkNotNull(configuration);
-    Preconditions.checkNotNull(configuration.getVersions());
-    Preconditions.checkArgument(configuration.getVersions().size() > 0);
+    execute(versionSelectionArgs("start", configuration));
+  }
 
-    List<String> arguments = new ArrayList<>();
-    arguments.add("app");
-    arguments.add("versions");
-    arguments.add("start");
-    arguments.addAll(commonVersionSelectionArgs(configuration));
+  /** Starts serving a specific version or versions without blocking. */
+  public CompletableFuture<Void> startAsync(VersionsSelectionConfiguration configuration) {
+    return startAsync(configuration, null);
+  }
 
-    execute(arguments);
+  /**
+   * Starts serving a specific version or versions without blocking.
+   *
+   * @param outputListener if not null, receives the gcloud output
+   */
+  public CompletableFuture<Void> startAsync(
+      VersionsSelectionConfiguration configuration,
+      @Nullable ProcessOutputLineListener outputListener) {
+    return executeAsync(
+        versionSelectionArgs("start", configuration),
+        GcloudExecutor.Priority.NORMAL,
+        outputListener);
   }
 
   /**
@@ -72,17 +97,26 @@ public class Versions {
    * @throws CloudSdkOutOfDateException when the installed Cloud SDK is too old
    */
   public void stop(VersionsSelectionConfiguration configuration) throws AppEngineException {
-    Preconditions.checkNotNull(configuration);
-    Preconditions.checkNotNull(configuration.getVersions());
-    Preconditions.checkArgument(configuration.getVersions().size() > 0);
+    execute(versionSelectionArgs("stop", configuration));
+  }
 
-    List<String> arguments = new ArrayList<>();
-    arguments.add("app");
-    arguments.add("versions");
-    arguments.add("stop");
-    arguments.addAll(commonVersionSelectionArgs(configuration));
+  /** Stops serving a specific version or versions without blocking. */
+  public CompletableFuture<Void> stopAsync(VersionsSelectionConfiguration configuration) {
+    return stopAsync(configuration, null);
+  }
 
-    execute(arguments);
+  /**
+   * Stops serving a specific version or versions without blocking.
+   *
+   * @param outputListener if not null, receives the gcloud output
+   */
+  public CompletableFuture<Void> stopAsync(
+      VersionsSelectionConfiguration configuration,
+      @Nullable ProcessOutputLineListener outputListener) {
+    return executeAsync(
+        versionSelectionArgs("stop", configuration),
+        GcloudExecutor.Priority.NORMAL,
+        outputListener);
   }
 
   /**
@@ -92,17 +126,26 @@ public class Versions {
    * @throws CloudSdkOutOfDateException when the installed Cloud SDK is too old
    */
   public void delete(VersionsSelectionConfiguration configuration) throws AppEngineException {
-    Preconditions.checkNotNull(configuration);
-    Preconditions.checkNotNull(configuration.getVersions());
-    Preconditions.checkArgument(configuration.getVersions().size() > 0);
+    execute(versionSelectionArgs("delete", configuration));
+  }
 
-    List<String> arguments = new ArrayList<>();
-    arguments.add("app");
-    arguments.add("versions");
-    arguments.add("delete");
-    arguments.addAll(commonVersionSelectionArgs(configuration));
+  /** Deletes a specific version or versions without blocking. */
+  public CompletableFuture<Void> deleteAsync(VersionsSelectionConfiguration configuration) {
+    return deleteAsync(configuration, null);
+  }
 
-    execute(arguments);
+  /**
+   * Deletes a specific version or versions without blocking.
+   *
+   * @param outputListener if not null, receives the gcloud output
+   */
+  public CompletableFuture<Void> deleteAsync(
+      VersionsSelectionConfiguration configuration,
+      @Nullable ProcessOutputLineListener outputListener) {
+    return executeAsync(
+        versionSelectionArgs("delete", configuration),
+        GcloudExecutor.Priority.NORMAL,
+        outputListener);
   }
 
   /**
@@ -112,6 +155,25 @@ public class Versions {
    * @throws CloudSdkOutOfDateException when the installed Cloud SDK is too old
    */
   public void list(VersionsListConfiguration configuration) throws AppEngineException {
+    execute(listArgs(configuration));
+  }
+
+  /** Lists versions without blocking, see {@link #list(VersionsListConfiguration)}. */
+  public CompletableFuture<Void> listAsync(VersionsListConfiguration configuration) {
+    return listAsync(configuration, null);
+  }
+
+  /**
+   * Lists versions without blocking, see {@link #list(VersionsListConfiguration)}.
+   *
+   * @param outputListener if not null, receives the gcloud output, including the listing
+   */
+  public CompletableFuture<Void> listAsync(
+      VersionsListConfiguration configuration, @Nullable ProcessOutputLineListener outputListener) {
+    return executeAsync(listArgs(configuration), GcloudExecutor.Priority.HIGH, outputListener);
+  }
+
+  private static List<String> listArgs(VersionsListConfiguration configuration) {
     Preconditions.checkNotNull(configuration);
 
     List<String> arguments = new ArrayList<>();
@@ -121,8 +183,21 @@ public class Versions {
     arguments.addAll(GcloudArgs.get("service", configuration.getService()));
     arguments.addAll(GcloudArgs.get("hide-no-traffic", configuration.getHideNoTraffic()));
     arguments.addAll(GcloudArgs.get("project", configuration.getProjectId()));
+    return arguments;
+  }
 
-    execute(arguments);
+  private static List<String> versionSelectionArgs(
+      String command, VersionsSelectionConfiguration configuration) {
+    Preconditions.checkNotNull(configuration);
+    Preconditions.checkNotNull(configuration.getVersions());
+    Preconditions.checkArgument(configuration.getVersions().size() > 0);
+
+    List<String> arguments = new ArrayList<>();
+    arguments.add("app");
+    arguments.add("versions");
+    arguments.add(command);
+    arguments.addAll(commonVersionSelectionArgs(configuration));
+    return arguments;
   }
 
   private static List<String> commonVersionSelectionArgs(
@@ -0,0 +1,31 @@
+/*
+ * Copyright 2026 Google LLC.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.tools.appengine.operations.api;
+
+import java.io.IOException;
+
+/** Supplies OAuth 2.0 access tokens for the Google Cloud APIs. */
+public interface AccessTokenProvider {
+
+  /**
+   * Returns a valid access token with the {@code cloud-platform} scope. Called before every
+   * request, so implementations should cache tokens until they are about to expire.
+   *
+   * @throws IOException if no token can be obtained
+   */
+  String getAccessToken() throws IOException;
+}
@@ -0,0 +1,35 @@
+/*
+ * Copyright 2026 Google LLC.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.tools.appengine.operations.api;
+
+import com.google.cloud.tools.appengine.AppEngineException;
+
+/** A Google Cloud API request that failed with an HTTP error or a failed long running operation. */
+public class ApiException extends AppEngineException {
+
+  private final int statusCode;
+
+  public ApiException(int statusCode, String message) {
+    super(message);
+    this.statusCode = statusCode;
+  }
+
+  /** Returns the HTTP status code, or 0 if a long running operation failed. */
+  public int getStatusCode() {
+    return statusCode;
+  }
+}
@@ -0,0 +1,603 @@
+/*
+ * Copyright 2026 Google LLC.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.tools.appengine.operations.api;
+
+import com.google.cloud.tools.appengine.AppEngineException;
+import com.google.common.base.Preconditions;
+import com.google.common.collect.AbstractIterator;
+import com.google.common.io.ByteStreams;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UnsupportedEncodingException;
+import java.net.HttpURLConnection;
+import java.net.SocketTimeoutException;
+import java.net.URL;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+import javax.annotation.Nullable;
+
+/**
+ * A minimal client for the parts of the App Engine Admin API and the Cloud Storage JSON API that
+ * deployments and version management need. Requests are made with {@link HttpURLConnection}, both
+ * endpoints can be pointed at a local stand-in for testing. Connecting and reading time out, see
+ * {@link Builder#connectTimeoutMillis} and {@link Builder#readTimeoutMillis}: requests that are
+ * safe to repeat, and requests that timed out before being sent, are retried up to three times in
+ * total. Instances are thread safe.
+ */
+public class AppEngineAdminClient {
+
+  private static final Logger logger = Logger.getLogger(AppEngineAdminClient.class.getName());
+
+  public static final String DEFAULT_ADMIN_ENDPOINT = "https://appengine.googleapis.com/";
+  public static final String DEFAULT_STORAGE_ENDPOINT = "https://storage.googleapis.com/";
+
+  private static final String USER_AGENT = "google-cloud-tools-java";
+  private static final int MAX_UPLOAD_ATTEMPTS = 3;
+  private static final int MAX_REQUEST_ATTEMPTS = 3;
+  private static final int HTTP_RESUME_INCOMPLETE = 308;
+  private static final int PAGE_SIZE = 200;
+  private static final Pattern RANGE = Pattern.compile("bytes=0-(\\d+)");
+
+  private final AccessTokenProvider tokens;
+  private final String adminEndpoint;
+  private final String storageEndpoint;
+  private final long pollIntervalMillis;
+  private final long operationTimeoutMillis;
+  private final int connectTimeoutMillis;
+  private final int readTimeoutMillis;
+
+  private AppEngineAdminClient(
+      AccessTokenProvider tokens,
+      String adminEndpoint,
+      String storageEndpoint,
+      long pollIntervalMillis,
+      long operationTimeoutMillis,
+      int connectTimeoutMillis,
+      int readTimeoutMillis) {
+    this.tokens = tokens;
+    this.adminEndpoint = adminEndpoint;
+    this.storageEndpoint = storageEndpoint;
+    this.pollIntervalMillis = pollIntervalMillis;
+    this.operationTimeoutMillis = operationTimeoutMillis;
+    this.connectTimeoutMillis = connectTimeoutMillis;
+    this.readTimeoutMillis = readTimeoutMillis;
+  }
+
+  public static Builder builder(AccessTokenProvider tokens) {
+    return new Builder(Preconditions.checkNotNull(tokens));
+  }
+
+  /** Returns the Cloud Storage endpoint, ending with a {@code /}. */
+  public String getStorageEndpoint() {
+    return storageEndpoint;
+  }
+
+  /** Returns the staging bucket of the App Engine application of {@code projectId}. */
+  public String getCodeBucket(String projectId) throws AppEngineException {
+    JsonObject app = request("GET", adminEndpoint + "v1/apps/" + encode(projectId), null);
+    String bucket = getString(app, "codeBucket");
+    if (bucket == null) {
+      throw new AppEngineException("The App Engine application " + projectId + " has no bucket");
+    }
+    return bucket;
+  }
+
+  /** Returns the names of all objects in {@code bucket}. */
+  public Set<String> listObjectNames(String bucket) throws AppEngineException {
+    Set<String> names = new HashSet<>();
+    String pageToken = null;
+    do {
+      String url =
+          storageEndpoint
+              + "storage/v1/b/"
+              + encode(bucket)
+              + "/o?fields="
+              + encode("items(name),nextPageToken")
+              + (pageToken == null ? "" : "&pageToken=" + encode(pageToken));
+      JsonObject page = request("GET", url, null);
+      JsonArray items = page.getAsJsonArray("items");
+      if (items != null) {
+        for (JsonElement item : items) {
+          String name = getString(item.getAsJsonObject(), "name");
+          if (name != null) {
+            names.add(name);
+          }
+        }
+      }
+      pageToken = getString(page, "nextPageToken");
+    } while (pageToken != null);
+    return names;
+  }
+
+  /**
+   * Uploads {@code file} as {@code objectName} with a resumable upload. If the connection fails or
+   * times out part way, the upload continues from the last byte the server received, with up to
+   * three attempts in total.
+   */
+  public void upload(String bucket, String objectName, Path file) throws AppEngineException {
+    try {
+      long size = Files.size(file);
+      String session = null;
+      for (int attempt = 1; ; attempt++) {
+        try {
+          long offset = 0;
+          if (session == null) {
+            // starting a session sends no data, so it can be repeated
+            session = startResumableUpload(bucket, objectName, size);
+          } else {
+            offset = queryUploadOffset(session, size);
+            if (offset < 0) {
+              // the server received everything before the connection failed
+              return;
+            }
+          }
+          sendUploadData(session, file, offset, size);
+          return;
+        } catch (IOException ex) {
+          if (attempt >= MAX_UPLOAD_ATTEMPTS) {
+            throw ex;
+          }
+          logger.log(Level.FINE, "Upload of " + file + " interrupted, resuming", ex);
+        }
+      }
+    } catch (IOException ex) {
+      throw new AppEngineException("Failed to upload " + file, ex);
+    }
+  }
+
+  /**
+   * Starts creating {@code version} of {@code service}.
+   *
+   * @param version an App Engine Admin API {@code Version} resource
+   * @return the name of the long running operation
+   */
+  public String createVersion(String projectId, String service, JsonObject version)
+      throws AppEngineException {
+    return getOperationName(request("POST", serviceUrl(projectId, service) + "/versions", version));
+  }
+
+  /** Starts routing all traffic of {@code service} to {@code version}. */
+  public String setTraffic(String projectId, String service, String version)
+      throws AppEngineException {
+    String url = serviceUrl(projectId, service) + "?updateMask=split";
+    JsonObject allocations = new JsonObject();
+    allocations.addProperty(version, 1);
+    JsonObject split = new JsonObject();
+    split.add("allocations", allocations);
+    JsonObject body = new JsonObject();
+    body.add("split", split);
+    return getOperationName(request("PATCH", url, body));
+  }
+
+  /**
+   * Returns the {@code Service} resources of {@code projectId}. Pages are fetched as the stream is
+   * consumed, a failed request is thrown as an {@link UncheckedAppEngineException}.
+   */
+  public Stream<JsonObject> listServices(String projectId) {
+    return listPages(adminEndpoint + "v1/apps/" + encode(projectId) + "/services", "services");
+  }
+
+  /** Returns the {@code Service} resource {@code service} of {@code projectId}. */
+  public JsonObject getService(String projectId, String service) throws AppEngineException {
+    return request("GET", serviceUrl(projectId, service), null);
+  }
+
+  /**
+   * Returns the {@code Version} resources of {@code service}. Pages are fetched as the stream is
+   * consumed, a failed request is thrown as an {@link UncheckedAppEngineException}.
+   */
+  public Stream<JsonObject> listVersions(String projectId, String service) {
+    return listPages(serviceUrl(projectId, service) + "/versions", "versions");
+  }
+
+  /**
+   * Starts changing the serving status of {@code version}.
+   *
+   * @param servingStatus {@code SERVING} or {@code STOPPED}
+   * @return the name of the long running operation
+   */
+  public String setServingStatus(
+      String projectId, String service, String version, String servingStatus)
+      throws AppEngineException {
+    JsonObject body = new JsonObject();
+    body.addProperty("servingStatus", servingStatus);
+    return getOperationName(
+        request(
+            "PATCH", versionUrl(projectId, service, version) + "?updateMask=servingStatus", body));
+  }
+
+  /** Starts deleting {@code version}, returns the name of the long running operation. */
+  public String deleteVersion(String projectId, String service, String version)
+      throws AppEngineException {
+    return getOperationName(request("DELETE", versionUrl(projectId, service, version), null));
+  }
+
+  /**
+   * Polls a long running operation until it is done.
+   *
+   * @return the response of the operation, empty if it has none
+   * @throws ApiException if the operation failed
+   * @throws AppEngineException if the operation doesn't finish in time or the wait is interrupted
+   */
+  public JsonObject waitForOperation(String operationName) throws AppEngineException {
+    long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(operationTimeoutMillis);
+    while (true) {
+      JsonObject operation = request("GET", adminEndpoint + "v1/" + operationName, null);
+      JsonElement done = operation.get("done");
+      if (done != null && done.getAsBoolean()) {
+        JsonObject error = operation.getAsJsonObject("error");
+        if (error != null) {
+          String message = getString(error, "message");
+          throw new ApiException(
+              0, "Operation " + operationName + " failed: " + (message == null ? error : message));
+        }
+        JsonObject response = operation.getAsJsonObject("response");
+        return response == null ? new JsonObject() : response;
+      }
+      if (System.nanoTime() > deadline) {
+        throw new AppEngineException("Timed out waiting for operation " + operationName);
+      }
+      try {
+        Thread.sleep(pollIntervalMillis);
+      } catch (InterruptedException ex) {
+        Thread.currentThread().interrupt();
+        throw new AppEngineException("Interrupted waiting for operation " + operationName, ex);
+      }
+    }
+  }
+
+  private String serviceUrl(String projectId, String service) {
+    return adminEndpoint + "v1/apps/" + encode(projectId) + "/services/" + encode(service);
+  }
+
+  private String versionUrl(String projectId, String service, String version) {
+    return serviceUrl(projectId, service) + "/versions/" + encode(version);
+  }
+
+  /** Lazily follows {@code nextPageToken} and streams the elements of {@code itemsMember}. */
+  private Stream<JsonObject> listPages(String url, String itemsMember) {
+    Iterator<JsonObject> items =
+        new AbstractIterator<JsonObject>() {
+          private Iterator<JsonElement> page = Collections.emptyIterator();
+          @Nullable private String pageToken;
+          private boolean lastPage;
+
+          @Override
+          @Nullable
+          protected JsonObject computeNext() {
+            while (!page.hasNext()) {
+              if (lastPage) {
+                return endOfData();
+              }
+              String pageUrl =
+                  url
+                      + (url.contains("?") ? "&" : "?")
+                      + "pageSize="
+                      + PAGE_SIZE
+                      + (pageToken == null ? "" : "&pageToken=" + encode(pageToken));
+              JsonObject response;
+              try {
+                response = request("GET", pageUrl, null);
+              } catch (AppEngineException ex) {
+                throw new UncheckedAppEngineException(ex);
+              }
+              JsonArray elements = response.getAsJsonArray(itemsMember);
+              page = elements == null ? Collections.emptyIterator() : elements.iterator();
+              pageToken = getString(response, "nextPageToken");
+              lastPage = pageToken == null;
+            }
+            return page.next().getAsJsonObject();
+          }
+        };
+    return StreamSupport.stream(
+        Spliterators.spliteratorUnknownSize(items, Spliterator.ORDERED | Spliterator.NONNULL),
+        false);
+  }
+
+  private String startResumableUpload(String bucket, String objectName, long size)
+      throws IOException, AppEngineException {
+    String url =
+        storageEndpoint
+            + "upload/storage/v1/b/"
+            + encode(bucket)
+            + "/o?uploadType=resumable&name="
+            + encode(objectName);
+    HttpURLConnection connection = open("POST", url);
+    try {
+      connection.setRequestProperty("X-Upload-Content-Length", Long.toString(size));
+      connection.setFixedLengthStreamingMode(0);
+      connection.setDoOutput(true);
+      connection.getOutputStream().close();
+      int status = connection.getResponseCode();
+      if (status >= 400) {
+        throw newApiException("POST", url, connection, status);
+      }
+      String session = connection.getHeaderField("Location");
+      if (session == null) {
+        throw new IOException("No upload session returned for " + objectName);
+      }
+      return session;
+    } finally {
+      connection.disconnect();
+    }
+  }
+
+  private void sendUploadData(String session, Path file, long offset, long size)
+      throws IOException, AppEngineException {
+    HttpURLConnection connection = open("PUT", session);
+    try {
+      long length = size - offset;
+      if (size > 0) {
+        connection.setRequestProperty(
+            "Content-Range", "bytes " + offset + "-" + (size - 1) + "/" + size);
+      }
+      connection.setFixedLengthStreamingMode(length);
+      connection.setDoOutput(true);
+      try (InputStream in = Files.newInputStream(file);
+          OutputStream out = connection.getOutputStream()) {
+        ByteStreams.skipFully(in, offset);
+        ByteStreams.copy(in, out);
+      }
+      int status = connection.getResponseCode();
+      if (status >= 500 || status == HTTP_RESUME_INCOMPLETE) {
+        // retried by resuming
+        throw new IOException("Upload to " + session + " returned HTTP " + status);
+      }
+      if (status >= 400) {
+        throw newApiException("PUT", session, connection, status);
+      }
+    } finally {
+      connection.disconnect();
+    }
+  }
+
+  /** Returns the next byte the server expects, or -1 if the upload is complete. */
+  private long queryUploadOffset(String session, long size) throws IOException, AppEngineException {
+    HttpURLConnection connection = open("PUT", session);
+    try {
+      connection.setRequestProperty("Content-Range", "bytes */" + size);
+      connection.setFixedLengthStreamingMode(0);
+      connection.setDoOutput(true);
+      connection.getOutputStream().close();
+      int status = connection.getResponseCode();
+      if (status == HttpURLConnection.HTTP_OK || status == HttpURLConnection.HTTP_CREATED) {
+        return -1;
+      }
+      if (status != HTTP_RESUME_INCOMPLETE) {
+        throw newApiException("PUT", session, connection, status);
+      }
+      String range = connection.getHeaderField("Range");
+      if (range == null) {
+        return 0;
+      }
+      Matcher matcher = RANGE.matcher(range);
+      if (!matcher.matches()) {
+        throw new IOException("Unexpected upload range " + range);
+      }
+      return Long.parseLong(matcher.group(1)) + 1;
+    } finally {
+      connection.disconnect();
+    }
+  }
+
+  private JsonObject request(String method, String url, @Nullable JsonObject body)
+      throws AppEngineException {
+    for (int attempt = 1; ; attempt++) {
+      boolean connected = false;
+      try {
+        HttpURLConnection connection = open(method, url);
+        try {
+          byte[] bytes = null;
+          if (body != null) {
+            bytes = body.toString().getBytes(StandardCharsets.UTF_8);
+            connection.setRequestProperty("Content-Type", "application/json; charset=UTF-8");
+            connection.setFixedLengthStreamingMode(bytes.length);
+            connection.setDoOutput(true);
+          }
+          connection.connect();
+          connected = true;
+          return exchange(method, url, connection, bytes);
+        } finally {
+          connection.disconnect();
+        }
+      } catch (SocketTimeoutException ex) {
+        // a request that timed out while connecting was never sent, other requests are only
+        // repeated if repeating them is harmless
+        if (attempt >= MAX_REQUEST_ATTEMPTS || (connected && !"GET".equals(method))) {
+          throw new AppEngineException(method + " " + url + " timed out", ex);
+        }
+        logger.log(Level.FINE, method + " " + url + " timed out, retrying", ex);
+      } catch (IOException | JsonParseException | IllegalStateException ex) {
+        throw new AppEngineException(method + " " + url + " failed", ex);
+      }
+    }
+  }
+
+  private static JsonObject exchange(
+      String method, String url, HttpURLConnection connection, @Nullable byte[] body)
+      throws IOException, AppEngineException {
+    if (body != null) {
+      try (OutputStream out = connection.getOutputStream()) {
+        out.write(body);
+      }
+    }
+    int status = connection.getResponseCode();
+    if (status >= 400) {
+      throw newApiException(method, url, connection, status);
+    }
+    String response;
+    try (InputStream in = connection.getInputStream()) {
+      response = new String(ByteStreams.toByteArray(in), StandardCharsets.UTF_8);
+    }
+    if (response.trim().isEmpty()) {
+      return new JsonObject();
+    }
+    return JsonParser.parseString(response).getAsJsonObject();
+  }
+
+  private HttpURLConnection open(String method, String url) throws IOException {
+    HttpURLConnection connection = (HttpURLConnection) new URL(url).openConnection();
+    if ("PATCH".equals(method)) {
+      // HttpURLConnection doesn't support PATCH, Google APIs accept the override header
+      connection.setRequestMethod("POST");
+      connection.setRequestProperty("X-HTTP-Method-Override", "PATCH");
+    } else {
+      connection.setRequestMethod(method);
+    }
+    connection.setRequestProperty("Authorization", "Bearer " + tokens.getAccessToken());
+    connection.setRequestProperty("User-Agent", USER_AGENT);
+    connection.setConnectTimeout(connectTimeoutMillis);
+    connection.setReadTimeout(readTimeoutMillis);
+    return connection;
+  }
+
+  private static ApiException newApiException(
+      String method, String url, HttpURLConnection connection, int status) {
+    String message = null;
+    InputStream errorStream = connection.getErrorStream();
+    if (errorStream != null) {
+      try (InputStream in = errorStream) {
+        String error = new String(ByteStreams.toByteArray(in), StandardCharsets.UTF_8);
+        JsonObject errorObject =
+            JsonParser.parseString(error).getAsJsonObject().getAsJsonObject("error");
+        if (errorObject != null) {
+          message = getString(errorObject, "message");
+        }
+      } catch (IOException | JsonParseException | IllegalStateException ex) {
+        // not a Google API error response, report the status only
+      }
+    }
+    return new ApiException(
+        status,
+        method + " " + url + " returned HTTP " + status + (message == null ? "" : ": " + message));
+  }
+
+  private static String getOperationName(JsonObject operation) throws AppEngineException {
+    String name = getString(operation, "name");
+    if (name == null) {
+      throw new AppEngineException("Expected a long running operation, got " + operation);
+    }
+    return name;
+  }
+
+  @Nullable
+  private static String getString(JsonObject object, String member) {
+    JsonElement element = object.get(member);
+    return element == null || element.isJsonNull() ? null : element.getAsString();
+  }
+
+  private static String encode(String pathOrQueryValue) {
+    try {
+      return URLEncoder.encode(pathOrQueryValue, "UTF-8").replace("+", "%20");
+    } catch (UnsupportedEncodingException ex) {
+      throw new AssertionError("UTF-8 is always supported", ex);
+    }
+  }
+
+  public static final class Builder {
+    private final AccessTokenProvider tokens;
+    private String adminEndpoint = DEFAULT_ADMIN_ENDPOINT;
+    private String storageEndpoint = DEFAULT_STORAGE_ENDPOINT;
+    private long pollIntervalMillis = 1000;
+    private long operationTimeoutMillis = TimeUnit.MINUTES.toMillis(30);
+    private int connectTimeoutMillis = (int) TimeUnit.SECONDS.toMillis(20);
+    private int readTimeoutMillis = (int) TimeUnit.SECONDS.toMillis(60);
+
+    private Builder(AccessTokenProvider tokens) {
+      this.tokens = tokens;
+    }
+
+    public AppEngineAdminClient.Builder adminEndpoint(String adminEndpoint) {
+      this.adminEndpoint = withTrailingSlash(adminEndpoint);
+      return this;
+    }
+
+    public AppEngineAdminClient.Builder storageEndpoint(String storageEndpoint) {
+      this.storageEndpoint = withTrailingSlash(storageEndpoint);
+      return this;
+    }
+
+    /** How often long running operations are polled, one second by default. */
+    public AppEngineAdminClient.Builder pollIntervalMillis(long pollIntervalMillis) {
+      Preconditions.checkArgument(
+          pollIntervalMillis >= 0, "pollIntervalMillis must not be negative");
+      this.pollIntervalMillis = pollIntervalMillis;
+      return this;
+    }
+
+    /** How long to wait for a long running operation, 30 minutes by default. */
+    public AppEngineAdminClient.Builder operationTimeoutMillis(long operationTimeoutMillis) {
+      Preconditions.checkArgument(
+          operationTimeoutMillis > 0, "operationTimeoutMillis must be positive");
+      this.operationTimeoutMillis = operationTimeoutMillis;
+      return this;
+    }
+
+    /** How long to wait for a connection to be established, 20 seconds by default. */
+    public AppEngineAdminClient.Builder connectTimeoutMillis(int connectTimeoutMillis) {
+      Preconditions.checkArgument(
+          connectTimeoutMillis > 0, "connectTimeoutMillis must be positive");
+      this.connectTimeoutMillis = connectTimeoutMillis;
+      return this;
+    }
+
+    /** How long to wait for data from an established connection, 60 seconds by default. */
+    public AppEngineAdminClient.Builder readTimeoutMillis(int readTimeoutMillis) {
+      Preconditions.checkArgument(readTimeoutMillis > 0, "readTimeoutMillis must be positive");
+      this.readTimeoutMillis = readTimeoutMillis;
+      return this;
+    }
+
+    /** Build an {@link AppEngineAdminClient}. */
+    public AppEngineAdminClient build() {
+      return new AppEngineAdminClient(
+          tokens,
+          adminEndpoint,
+          storageEndpoint,
+          pollIntervalMillis,
+          operationTimeoutMillis,
+          connectTimeoutMillis,
+          readTimeoutMillis);
+    }
+
+    private static String withTrailingSlash(String endpoint) {
+      Preconditions.checkNotNull(endpoint);
+      return endpoint.endsWith("/") ? endpoint : endpoint + "/";
+    }
+  }
+}
@@ -0,0 +1,50 @@
+/*
+ * Copyright 2026 Google LLC.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.tools.appengine.operations.api;
+
+import com.google.cloud.tools.appengine.AppEngineException;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import java.util.List;
+import java.util.Map;
+
+/** The outcome of an operation applied to several versions, see {@link VersionsClient}. */
+public class BulkOperationResult {
+
+  private final List<VersionInfo> succeeded;
+  private final Map<VersionInfo, AppEngineException> failures;
+
+  BulkOperationResult(List<VersionInfo> succeeded, Map<VersionInfo, AppEngineException> failures) {
+    this.succeeded = ImmutableList.copyOf(succeeded);
+    this.failures = ImmutableMap.copyOf(failures);
+  }
+
+  /** Returns the versions the operation completed for, in request order. */
+  public List<VersionInfo> getSucceeded() {
+    return succeeded;
+  }
+
+  /** Returns the versions the operation failed for, with the failure, in request order. */
+  public Map<VersionInfo, AppEngineException> getFailures() {
+    return failures;
+  }
+
+  /** Returns true if the operation completed for every version. */
+  public boolean isSuccessful() {
+    return failures.isEmpty();
+  }
+}
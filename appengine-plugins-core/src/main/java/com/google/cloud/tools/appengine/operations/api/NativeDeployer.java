@@ -0,0 +1,327 @@
+/*
+ * Copyright 2026 Google LLC.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.tools.appengine.operations.api;
+
+import com.google.cloud.tools.appengine.AppEngineException;
+import com.google.cloud.tools.appengine.configuration.DeployConfiguration;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Preconditions;
+import com.google.common.io.BaseEncoding;
+import com.google.gson.JsonObject;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Logger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.yaml.snakeyaml.LoaderOptions;
+import org.yaml.snakeyaml.Yaml;
+import org.yaml.snakeyaml.constructor.SafeConstructor;
+import org.yaml.snakeyaml.error.YAMLException;
+
+/**
+ * Deploys a staging directory through the App Engine Admin API instead of {@code gcloud app
+ * deploy}. Files are hashed in parallel, only files missing from the staging bucket are uploaded,
+ * several at a time, then the version is created and, unless promote is disabled, receives all
+ * traffic.
+ *
+ * <p>Only a subset of deployments is supported, see {@link #supports}. Use it through {@link
+ * com.google.cloud.tools.appengine.operations.Gcloud.Builder#setNativeDeployer}, which falls back
+ * to gcloud for everything else.
+ */
+public class NativeDeployer {
+
+  private static final Logger logger = Logger.getLogger(NativeDeployer.class.getName());
+  private static final String GCLOUDIGNORE = ".gcloudignore";
+
+  /** The default number of files uploaded at the same time. */
+  public static final int DEFAULT_UPLOAD_CONCURRENCY = 8;
+
+  private static final DateTimeFormatter GENERATED_VERSION_FORMAT =
+      DateTimeFormatter.ofPattern("yyyyMMdd't'HHmmss", Locale.ROOT);
+
+  private final AppEngineAdminClient client;
+  private final int uploadConcurrency;
+  // like gcloud, versions are generated from the local time in the system's default zone
+  private final Clock clock;
+
+  public NativeDeployer(AppEngineAdminClient client) {
+    this(client, DEFAULT_UPLOAD_CONCURRENCY);
+  }
+
+  public NativeDeployer(AppEngineAdminClient client, int uploadConcurrency) {
+    this(client, uploadConcurrency, Clock.system(ZoneId.systemDefault()));
+  }
+
+  @VisibleForTesting
+  NativeDeployer(AppEngineAdminClient client, int uploadConcurrency, Clock clock) {
+    Preconditions.checkArgument(uploadConcurrency > 0, "uploadConcurrency must be positive");
+    this.client = Preconditions.checkNotNull(client);
+    this.uploadConcurrency = uploadConcurrency;
+    this.clock = Preconditions.checkNotNull(clock);
+  }
+
+  /**
+   * Returns true if {@code stagingDirectory} can be deployed with {@code config} without gcloud:
+   * the project ID is set, gcloud specific settings (gcloud mode, image URL, server) and stop
+   * previous version are not, the staging directory has no {@code .gcloudignore} and the staged
+   * {@code app.yaml} only uses supported settings. The reason a deployment isn't supported is
+   * logged.
+   */
+  public boolean supports(Path stagingDirectory, DeployConfiguration config) {
+    String reason = null;
+    if (config.getProjectId() == null) {
+      reason = "no project ID is configured";
+    } else if (config.getGcloudMode() != null
+        || config.getImageUrl() != null
+        || config.getServer() != null) {
+      reason = "gcloud mode, image URL and server require gcloud";
+    } else if (Boolean.TRUE.equals(config.getStopPreviousVersion())) {
+      reason = "stopping the previous version requires gcloud";
+    } else if (Files.exists(stagingDirectory.resolve(GCLOUDIGNORE))) {
+      reason = GCLOUDIGNORE + " is only applied by gcloud";
+    } else {
+      try {
+        VersionResource.fromAppYaml(readAppYaml(stagingDirectory));
+      } catch (AppEngineException ex) {
+        reason = ex.getMessage();
+      }
+    }
+    if (reason != null) {
+      logger.info("Deploying with gcloud: " + reason);
+      return false;
+    }
+    return true;
+  }
+
+  /**
+   * Deploys {@code stagingDirectory}.
+   *
+   * @return the id of the deployed version, generated if {@code config} doesn't set one
+   * @throws AppEngineException if the deployment fails or isn't {@link #supports supported}
+   */
+  public String deploy(Path stagingDirectory, DeployConfiguration config)
+      throws AppEngineException {
+    String projectId = Preconditions.checkNotNull(config.getProjectId(), "projectId");
+    Map<String, ?> appYaml = readAppYaml(stagingDirectory);
+    String service = VersionResource.getService(appYaml);
+    JsonObject version = VersionResource.fromAppYaml(appYaml);
+    String versionId = config.getVersion();
+    if (versionId == null) {
+      versionId = GENERATED_VERSION_FORMAT.format(LocalDateTime.now(clock));
+    }
+    version.addProperty("id", versionId);
+
+    List<StagedFile> files = hashFiles(stagingDirectory);
+    String bucket = getBucket(config, projectId);
+    uploadMissingFiles(bucket, files);
+
+    JsonObject manifest = new JsonObject();
+    for (StagedFile file : files) {
+      JsonObject info = new JsonObject();
+      info.addProperty("sourceUrl", client.getStorageEndpoint() + bucket + "/" + file.sha1);
+      info.addProperty("sha1Sum", file.sha1);
+      manifest.add(file.path, info);
+    }
+    JsonObject deployment = new JsonObject();
+    deployment.add("files", manifest);
+    version.add("deployment", deployment);
+
+    logger.info("Creating version " + versionId + " of service " + service);
+    client.waitForOperation(client.createVersion(projectId, service, version));
+    if (!Boolean.FALSE.equals(config.getPromote())) {
+      logger.info("Routing all traffic of service " + service + " to version " + versionId);
+      client.waitForOperation(client.setTraffic(projectId, service, versionId));
+    }
+    return versionId;
+  }
+
+  private String getBucket(DeployConfiguration config, String projectId) throws AppEngineException {
+    String bucket = config.getBucket();
+    if (bucket == null) {
+      return client.getCodeBucket(projectId);
+    }
+    // gcloud accepts gs://bucket and gs://bucket/
+    if (bucket.startsWith("gs://")) {
+      bucket = bucket.substring("gs://".length());
+    }
+    return bucket.endsWith("/") ? bucket.substring(0, bucket.length() - 1) : bucket;
+  }
+
+  private void uploadMissingFiles(String bucket, List<StagedFile> files) throws AppEngineException {
+    Set<String> existing = client.listObjectNames(bucket);
+    // identical files are stored once, under their hash
+    Map<String, Path> missing = new LinkedHashMap<>();
+    for (StagedFile file : files) {
+      if (!existing.contains(file.sha1)) {
+        missing.putIfAbsent(file.sha1, file.file);
+      }
+    }
+    logger.info(
+        "Uploading "
+            + missing.size()
+            + " of "
+            + files.size()
+            + " files to gs://"
+            + bucket
+            + ", the others are already there");
+    if (missing.isEmpty()) {
+      return;
+    }
+
+    AtomicInteger threadCount = new AtomicInteger();
+    ExecutorService uploads =
+        Executors.newFixedThreadPool(
+            Math.min(uploadConcurrency, missing.size()),
+            runnable -> {
+              Thread thread = new Thread(runnable, "upload-" + threadCount.incrementAndGet());
+              thread.setDaemon(true);
+              return thread;
+            });
+    try {
+      List<Future<Void>> futures = new ArrayList<>();
+      for (Map.Entry<String, Path> file : missing.entrySet()) {
+        futures.add(
+            uploads.submit(
+                () -> {
+                  client.upload(bucket, file.getKey(), file.getValue());
+                  return null;
+                }));
+      }
+      for (Future<Void> future : futures) {
+        future.get();
+      }
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+      throw new AppEngineException("Interrupted uploading files", ex);
+    } catch (ExecutionException ex) {
+      Throwable cause = ex.getCause();
+      if (cause instanceof AppEngineException) {
+        throw (AppEngineException) cause;
+      }
+      throw new AppEngineException("Failed to upload files", ex);
+    } finally {
+      // stops the remaining uploads after a failure
+      uploads.shutdownNow();
+    }
+  }
+
+  /**
+   * Hashes the files to upload. Like gcloud without a {@code .gcloudignore}, this leaves out git
+   * metadata: anything under a {@code .git} directory and {@code .gitignore} files.
+   */
+  @VisibleForTesting
+  static List<StagedFile> hashFiles(Path stagingDirectory) throws AppEngineException {
+    try (Stream<Path> walk = Files.walk(stagingDirectory)) {
+      List<Path> paths =
+          walk.filter(Files::isRegularFile)
+              .filter(file -> !isIgnoredByDefault(stagingDirectory.relativize(file)))
+              .sorted()
+              .collect(Collectors.toList());
+      return paths
+          .parallelStream()
+          .map(
+              file ->
+                  new StagedFile(
+                      // the manifest always uses '/'
+                      stagingDirectory.relativize(file).toString().replace('\\', '/'),
+                      file,
+                      sha1(file)))
+          .collect(Collectors.toList());
+    } catch (IOException | UncheckedIOException ex) {
+      throw new AppEngineException("Failed to read " + stagingDirectory, ex);
+    }
+  }
+
+  private static boolean isIgnoredByDefault(Path relativePath) {
+    for (Path element : relativePath) {
+      String name = element.toString();
+      if (name.equals(".git") || name.equals(".gitignore") || name.equals(GCLOUDIGNORE)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private static String sha1(Path file) {
+    try (InputStream in = Files.newInputStream(file)) {
+      // gcloud names objects in the staging bucket by their SHA-1, so this can't use SHA-256
+      MessageDigest digest = MessageDigest.getInstance("SHA-1");
+      byte[] buffer = new byte[64 * 1024];
+      int read;
+      while ((read = in.read(buffer)) != -1) {
+        digest.update(buffer, 0, read);
+      }
+      return BaseEncoding.base16().lowerCase().encode(digest.digest());
+    } catch (IOException ex) {
+      throw new UncheckedIOException(ex);
+    } catch (NoSuchAlgorithmException ex) {
+      throw new AssertionError("SHA-1 is always supported", ex);
+    }
+  }
+
+  private static Map<String, ?> readAppYaml(Path stagingDirectory) throws AppEngineException {
+    Path appYaml = stagingDirectory.resolve("app.yaml");
+    if (!Files.isRegularFile(appYaml)) {
+      throw new AppEngineException("no app.yaml in " + stagingDirectory);
+    }
+    try (InputStream in = Files.newInputStream(appYaml)) {
+      Object contents = new Yaml(new SafeConstructor(new LoaderOptions())).load(in);
+      if (!(contents instanceof Map)) {
+        throw new AppEngineException("Malformed 'app.yaml'.");
+      }
+      @SuppressWarnings("unchecked")
+      Map<String, ?> map = (Map<String, ?>) contents;
+      return map;
+    } catch (IOException | YAMLException ex) {
+      throw new AppEngineException("Failed to read " + appYaml, ex);
+    }
+  }
+
+  /** A file of the staging directory. */
+  @VisibleForTesting
+  static class StagedFile {
+    final String path;
+    final Path file;
+    final String sha1;
+
+    StagedFile(String path, Path file, String sha1) {
+      this.path = path;
+      this.file = file;
+      this.sha1 = sha1;
+    }
+  }
+}
@@ -0,0 +1,117 @@
+/*
+ * Copyright 2026 Google LLC.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.tools.appengine.operations.api;
+
+import com.google.common.base.Preconditions;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Decides which versions of a service are no longer needed: per service, the newest {@code
+ * keepNewest} versions that receive no traffic are kept, older ones are selected for deletion.
+ * Versions that receive traffic are always kept and don't count towards {@code keepNewest}, and so
+ * are versions without a create time.
+ */
+public class RetentionPolicy {
+
+  private final int keepNewest;
+  private final Duration minimumAge;
+
+  private RetentionPolicy(int keepNewest, Duration minimumAge) {
+    this.keepNewest = keepNewest;
+    this.minimumAge = minimumAge;
+  }
+
+  /**
+   * Creates a builder for a policy that keeps the newest {@code keepNewest} versions without
+   * traffic of every service.
+   */
+  public static Builder builder(int keepNewest) {
+    Preconditions.checkArgument(keepNewest >= 0, "keepNewest must not be negative");
+    return new Builder(keepNewest);
+  }
+
+  public int getKeepNewest() {
+    return keepNewest;
+  }
+
+  public Duration getMinimumAge() {
+    return minimumAge;
+  }
+
+  /**
+   * Selects the versions to delete.
+   *
+   * @param versions the versions of one or more services
+   * @param now the time against which {@link #getMinimumAge()} is checked
+   * @return the versions to delete, per service oldest first
+   */
+  public List<VersionInfo> selectForDeletion(Collection<VersionInfo> versions, Instant now) {
+    Map<String, List<VersionInfo>> candidatesByService = new LinkedHashMap<>();
+    for (VersionInfo version : versions) {
+      if (!version.hasTraffic() && version.getCreateTime() != null) {
+        candidatesByService
+            .computeIfAbsent(version.getService(), service -> new ArrayList<>())
+            .add(version);
+      }
+    }
+
+    Instant createdBefore = now.minus(minimumAge);
+    List<VersionInfo> selected = new ArrayList<>();
+    for (List<VersionInfo> candidates : candidatesByService.values()) {
+      // oldest first, ties broken by id so that the selection is stable
+      candidates.sort(
+          Comparator.comparing(
+                  (VersionInfo version) -> Preconditions.checkNotNull(version.getCreateTime()))
+              .thenComparing(VersionInfo::getId));
+      for (VersionInfo version :
+          candidates.subList(0, Math.max(0, candidates.size() - keepNewest))) {
+        if (Preconditions.checkNotNull(version.getCreateTime()).isBefore(createdBefore)) {
+          selected.add(version);
+        }
+      }
+    }
+    return selected;
+  }
+
+  public static final class Builder {
+    private final int keepNewest;
+    private Duration minimumAge = Duration.ZERO;
+
+    private Builder(int keepNewest) {
+      this.keepNewest = keepNewest;
+    }
+
+    /** Never select versions younger than {@code minimumAge}, none by default. */
+    public RetentionPolicy.Builder minimumAge(Duration minimumAge) {
+      Preconditions.checkArgument(!minimumAge.isNegative(), "minimumAge must not be negative");
+      this.minimumAge = minimumAge;
+      return this;
+    }
+
+    /** Build a {@link RetentionPolicy}. */
+    public RetentionPolicy build() {
+      return new RetentionPolicy(keepNewest, minimumAge);
+    }
+  }
+}
@@ -0,0 +1,36 @@
+/*
+ * Copyright 2026 Google LLC.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.tools.appengine.operations.api;
+
+import com.google.cloud.tools.appengine.AppEngineException;
+import com.google.common.base.Preconditions;
+
+/**
+ * Wraps an {@link AppEngineException} thrown while a lazily paged stream is consumed, where checked
+ * exceptions cannot be thrown.
+ */
+public class UncheckedAppEngineException extends RuntimeException {
+
+  public UncheckedAppEngineException(AppEngineException cause) {
+    super(Preconditions.checkNotNull(cause));
+  }
+
+  @Override
+  public synchronized AppEngineException getCause() {
+    return (AppEngineException) Preconditions.checkNotNull(super.getCause());
+  }
+}
@@ -0,0 +1,196 @@
+/*
+ * Copyright 2026 Google LLC.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.tools.appengine.operations.api;
+
+import com.google.common.base.Preconditions;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.Map;
+import java.util.Objects;
+import javax.annotation.Nullable;
+
+/**
+ * A version of an App Engine service, as returned by {@link VersionsClient#list}. Two instances are
+ * equal if they identify the same version of the same service.
+ */
+public class VersionInfo {
+
+  public static final String SERVING = "SERVING";
+  public static final String STOPPED = "STOPPED";
+
+  private final String service;
+  private final String id;
+  @Nullable private final String servingStatus;
+  @Nullable private final Instant createTime;
+  @Nullable private final String createdBy;
+  private final double trafficAllocation;
+
+  private VersionInfo(
+      String service,
+      String id,
+      @Nullable String servingStatus,
+      @Nullable Instant createTime,
+      @Nullable String createdBy,
+      double trafficAllocation) {
+    this.service = service;
+    this.id = id;
+    this.servingStatus = servingStatus;
+    this.createTime = createTime;
+    this.createdBy = createdBy;
+    this.trafficAllocation = trafficAllocation;
+  }
+
+  public static Builder builder(String service, String id) {
+    return new Builder(Preconditions.checkNotNull(service), Preconditions.checkNotNull(id));
+  }
+
+  /**
+   * Reads a {@code Version} resource.
+   *
+   * @param allocations the traffic split of the service, version id to fraction of traffic
+   */
+  static VersionInfo fromJson(String service, JsonObject version, Map<String, Double> allocations) {
+    String id = Preconditions.checkNotNull(getString(version, "id"), "version without id");
+    Double allocation = allocations.get(id);
+    return builder(service, id)
+        .servingStatus(getString(version, "servingStatus"))
+        .createTime(parseTime(getString(version, "createTime")))
+        .createdBy(getString(version, "createdBy"))
+        .trafficAllocation(allocation == null ? 0 : allocation)
+        .build();
+  }
+
+  public String getService() {
+    return service;
+  }
+
+  public String getId() {
+    return id;
+  }
+
+  /** Returns {@link #SERVING}, {@link #STOPPED}, or null if the API didn't report it. */
+  @Nullable
+  public String getServingStatus() {
+    return servingStatus;
+  }
+
+  @Nullable
+  public Instant getCreateTime() {
+    return createTime;
+  }
+
+  @Nullable
+  public String getCreatedBy() {
+    return createdBy;
+  }
+
+  /** Returns the fraction of the service's traffic routed to this version, between 0 and 1. */
+  public double getTrafficAllocation() {
+    return trafficAllocation;
+  }
+
+  /** Returns true if the version is running, whether or not it receives traffic. */
+  public boolean isServing() {
+    return SERVING.equals(servingStatus);
+  }
+
+  /** Returns true if the version receives any traffic. */
+  public boolean hasTraffic() {
+    return trafficAllocation > 0;
+  }
+
+  @Override
+  public boolean equals(@Nullable Object other) {
+    if (this == other) {
+      return true;
+    }
+    if (!(other instanceof VersionInfo)) {
+      return false;
+    }
+    VersionInfo that = (VersionInfo) other;
+    return service.equals(that.service) && id.equals(that.id);
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(service, id);
+  }
+
+  @Override
+  public String toString() {
+    return service + "/" + id;
+  }
+
+  @Nullable
+  private static String getString(JsonObject object, String member) {
+    JsonElement element = object.get(member);
+    return element == null || element.isJsonNull() ? null : element.getAsString();
+  }
+
+  @Nullable
+  private static Instant parseTime(@Nullable String time) {
+    if (time == null) {
+      return null;
+    }
+    try {
+      return Instant.parse(time);
+    } catch (DateTimeParseException ex) {
+      return null;
+    }
+  }
+
+  public static final class Builder {
+    private final String service;
+    private final String id;
+    @Nullable private String servingStatus;
+    @Nullable private Instant createTime;
+    @Nullable private String createdBy;
+    private double trafficAllocation;
+
+    private Builder(String service, String id) {
+      this.service = service;
+      this.id = id;
+    }
+
+    public VersionInfo.Builder servingStatus(@Nullable String servingStatus) {
+      this.servingStatus = servingStatus;
+      return this;
+    }
+
+    public VersionInfo.Builder createTime(@Nullable Instant createTime) {
+      this.createTime = createTime;
+      return this;
+    }
+
+    public VersionInfo.Builder createdBy(@Nullable String createdBy) {
+      this.createdBy = createdBy;
+      return this;
+    }
+
+    public VersionInfo.Builder trafficAllocation(double trafficAllocation) {
+      this.trafficAllocation = trafficAllocation;
+      return this;
+    }
+
+    /** Build a {@link VersionInfo}. */
+    public VersionInfo build() {
+      return new VersionInfo(service, id, servingStatus, createTime, createdBy, trafficAllocation);
+    }
+  }
+}
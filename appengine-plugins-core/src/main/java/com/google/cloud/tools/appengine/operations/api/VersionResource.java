@@ -0,0 +1,235 @@
+/*
+ * Copyright 2026 Google LLC.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.tools.appengine.operations.api;
+
+import com.google.cloud.tools.appengine.AppEngineException;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import javax.annotation.Nullable;
+
+/**
+ * Converts the settings of an {@code app.yaml} into an App Engine Admin API {@code Version}
+ * resource. Only the settings commonly used by second generation standard environment runtimes are
+ * supported; anything else fails the conversion so that the caller can deploy with gcloud instead.
+ */
+final class VersionResource {
+
+  private VersionResource() {}
+
+  /** Returns the service the {@code app.yaml} deploys to. */
+  static String getService(Map<String, ?> appYaml) {
+    Object service = appYaml.get("service");
+    if (service == null) {
+      service = appYaml.get("module");
+    }
+    return service == null ? "default" : service.toString();
+  }
+
+  /**
+   * Converts {@code appYaml}.
+   *
+   * @throws AppEngineException if the {@code app.yaml} uses a setting that isn't supported
+   */
+  static JsonObject fromAppYaml(Map<String, ?> appYaml) throws AppEngineException {
+    JsonObject version = new JsonObject();
+    for (Map.Entry<String, ?> entry : appYaml.entrySet()) {
+      String key = entry.getKey();
+      Object value = entry.getValue();
+      switch (key) {
+        case "service":
+        case "module":
+          break;
+        case "env":
+          if (!"standard".equals(value)) {
+            throw unsupported(key + ": " + value);
+          }
+          break;
+        case "runtime":
+          version.addProperty("runtime", requireString(key, value));
+          break;
+        case "entrypoint":
+          JsonObject entrypoint = new JsonObject();
+          entrypoint.addProperty("shell", requireString(key, value));
+          version.add("entrypoint", entrypoint);
+          break;
+        case "instance_class":
+          version.addProperty("instanceClass", requireString(key, value));
+          break;
+        case "service_account":
+          version.addProperty("serviceAccount", requireString(key, value));
+          break;
+        case "app_engine_apis":
+          version.addProperty("appEngineApis", Boolean.parseBoolean(String.valueOf(value)));
+          break;
+        case "env_variables":
+          JsonObject variables = new JsonObject();
+          for (Map.Entry<String, ?> variable : requireMap(key, value).entrySet()) {
+            variables.addProperty(variable.getKey(), String.valueOf(variable.getValue()));
+          }
+          version.add("envVariables", variables);
+          break;
+        case "inbound_services":
+          JsonArray inboundServices = new JsonArray();
+          for (Object inboundService : requireList(key, value)) {
+            inboundServices.add("INBOUND_SERVICE_" + toEnumName(String.valueOf(inboundService)));
+          }
+          version.add("inboundServices", inboundServices);
+          break;
+        case "automatic_scaling":
+          version.add("automaticScaling", convertAutomaticScaling(requireMap(key, value)));
+          break;
+        case "basic_scaling":
+          version.add(
+              "basicScaling",
+              convertSettings(key, requireMap(key, value), new String[] {"max_instances"}));
+          break;
+        case "manual_scaling":
+          version.add(
+              "manualScaling",
+              convertSettings(key, requireMap(key, value), new String[] {"instances"}));
+          break;
+        case "vpc_access_connector":
+          JsonObject connector = new JsonObject();
+          for (Map.Entry<String, ?> setting : requireMap(key, value).entrySet()) {
+            if (setting.getKey().equals("name")) {
+              connector.addProperty("name", String.valueOf(setting.getValue()));
+            } else if (setting.getKey().equals("egress_setting")) {
+              connector.addProperty(
+                  "egressSetting", toEnumName(String.valueOf(setting.getValue())));
+            } else {
+              throw unsupported(key + "." + setting.getKey());
+            }
+          }
+          version.add("vpcAccessConnector", connector);
+          break;
+        default:
+          throw unsupported(key);
+      }
+    }
+    if (!version.has("runtime")) {
+      throw new AppEngineException("app.yaml doesn't set a runtime");
+    }
+    return version;
+  }
+
+  private static JsonObject convertAutomaticScaling(Map<String, ?> settings)
+      throws AppEngineException {
+    JsonObject scaling = new JsonObject();
+    JsonObject scheduler = new JsonObject();
+    for (Map.Entry<String, ?> setting : settings.entrySet()) {
+      String key = "automatic_scaling." + setting.getKey();
+      switch (setting.getKey()) {
+        case "min_instances":
+        case "max_instances":
+        case "target_cpu_utilization":
+        case "target_throughput_utilization":
+          scheduler.addProperty(
+              toCamelCase(setting.getKey()), requireNumber(key, setting.getValue()));
+          break;
+        case "max_concurrent_requests":
+        case "min_idle_instances":
+        case "max_idle_instances":
+          scaling.addProperty(
+              toCamelCase(setting.getKey()), requireNumber(key, setting.getValue()));
+          break;
+        default:
+          throw unsupported(key);
+      }
+    }
+    if (scheduler.size() > 0) {
+      scaling.add("standardSchedulerSettings", scheduler);
+    }
+    return scaling;
+  }
+
+  private static JsonObject convertSettings(
+      String key, Map<String, ?> settings, String[] supportedSettings) throws AppEngineException {
+    JsonObject converted = new JsonObject();
+    for (Map.Entry<String, ?> setting : settings.entrySet()) {
+      boolean supported = false;
+      for (String supportedSetting : supportedSettings) {
+        supported |= supportedSetting.equals(setting.getKey());
+      }
+      if (!supported) {
+        throw unsupported(key + "." + setting.getKey());
+      }
+      converted.addProperty(
+          toCamelCase(setting.getKey()),
+          requireNumber(key + "." + setting.getKey(), setting.getValue()));
+    }
+    return converted;
+  }
+
+  private static String toCamelCase(String snakeCase) {
+    StringBuilder camelCase = new StringBuilder();
+    boolean upper = false;
+    for (int i = 0; i < snakeCase.length(); i++) {
+      char c = snakeCase.charAt(i);
+      if (c == '_') {
+        upper = true;
+      } else {
+        camelCase.append(upper ? Character.toUpperCase(c) : c);
+        upper = false;
+      }
+    }
+    return camelCase.toString();
+  }
+
+  private static String toEnumName(String value) {
+    return value.replace('-', '_').toUpperCase(Locale.ROOT);
+  }
+
+  private static String requireString(String key, @Nullable Object value)
+      throws AppEngineException {
+    if (!(value instanceof String)) {
+      throw new AppEngineException("app.yaml setting " + key + " must be a string");
+    }
+    return (String) value;
+  }
+
+  private static Number requireNumber(String key, @Nullable Object value)
+      throws AppEngineException {
+    if (!(value instanceof Number)) {
+      throw new AppEngineException("app.yaml setting " + key + " must be a number");
+    }
+    return (Number) value;
+  }
+
+  @SuppressWarnings("unchecked")
+  private static Map<String, ?> requireMap(String key, @Nullable Object value)
+      throws AppEngineException {
+    if (!(value instanceof Map)) {
+      throw new AppEngineException("app.yaml setting " + key + " must be a map");
+    }
+    return (Map<String, ?>) value;
+  }
+
+  private static List<?> requireList(String key, @Nullable Object value) throws AppEngineException {
+    if (!(value instanceof List)) {
+      throw new AppEngineException("app.yaml setting " + key + " must be a list");
+    }
+    return (List<?>) value;
+  }
+
+  private static AppEngineException unsupported(String setting) {
+    return new AppEngineException(
+        "app.yaml setting " + setting + " is not supported by the native deploy client");
+  }
+}
@@ -0,0 +1,315 @@
+/*
+ * Copyright 2026 Google LLC.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.tools.appengine.operations.api;
+
+import com.google.cloud.tools.appengine.AppEngineException;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Preconditions;
+import com.google.common.util.concurrent.RateLimiter;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Logger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import javax.annotation.Nullable;
+
+/**
+ * Lists, starts, stops and deletes App Engine versions through the Admin API, without gcloud.
+ * Operations on several versions run concurrently, bounded by a maximum number of versions in
+ * flight and a maximum request rate, and requests that are throttled or fail with a server error
+ * are retried. Instances are thread safe.
+ */
+public class VersionsClient {
+
+  private static final Logger logger = Logger.getLogger(VersionsClient.class.getName());
+
+  /** The default number of versions operated on at the same time. */
+  public static final int DEFAULT_MAX_CONCURRENT_OPERATIONS = 8;
+  /** The default number of mutating requests per second, below the Admin API's write quota. */
+  public static final double DEFAULT_MAX_REQUESTS_PER_SECOND = 5;
+
+  private static final int MAX_ATTEMPTS = 4;
+  private static final int HTTP_TOO_MANY_REQUESTS = 429;
+
+  private final AppEngineAdminClient client;
+  private final int maxConcurrentOperations;
+  private final RateLimiter rateLimiter;
+  private final long retryDelayMillis;
+  private final Clock clock;
+
+  private VersionsClient(
+      AppEngineAdminClient client,
+      int maxConcurrentOperations,
+      double maxRequestsPerSecond,
+      long retryDelayMillis,
+      Clock clock) {
+    this.client = client;
+    this.maxConcurrentOperations = maxConcurrentOperations;
+    this.rateLimiter = RateLimiter.create(maxRequestsPerSecond);
+    this.retryDelayMillis = retryDelayMillis;
+    this.clock = clock;
+  }
+
+  public static Builder builder(AppEngineAdminClient client) {
+    return new Builder(Preconditions.checkNotNull(client));
+  }
+
+  /**
+   * Lists versions together with the traffic they receive. Pages are fetched as the stream is
+   * consumed, so callers that stop early don't pay for the remaining pages. A failed request is
+   * thrown from the stream as an {@link UncheckedAppEngineException}.
+   *
+   * @param service the service to list, or null to list the versions of every service
+   */
+  public Stream<VersionInfo> list(String projectId, @Nullable String service)
+      throws AppEngineException {
+    Preconditions.checkNotNull(projectId);
+    Stream<JsonObject> services =
+        service == null
+            ? client.listServices(projectId)
+            : Stream.of(client.getService(projectId, service));
+    return services.flatMap(
+        serviceResource -> {
+          String serviceId = Preconditions.checkNotNull(serviceResource.get("id")).getAsString();
+          Map<String, Double> allocations = getAllocations(serviceResource);
+          return client
+              .listVersions(projectId, serviceId)
+              .map(version -> VersionInfo.fromJson(serviceId, version, allocations));
+        });
+  }
+
+  /** Like {@link #list}, but collects the stream and throws failures as checked exceptions. */
+  public List<VersionInfo> listAll(String projectId, @Nullable String service)
+      throws AppEngineException {
+    try (Stream<VersionInfo> versions = list(projectId, service)) {
+      return versions.collect(Collectors.toList());
+    } catch (UncheckedAppEngineException ex) {
+      throw ex.getCause();
+    }
+  }
+
+  /** Starts serving {@code versions} and waits until they are started. */
+  public BulkOperationResult start(String projectId, Collection<VersionInfo> versions)
+      throws AppEngineException {
+    return forEach(
+        "start",
+        versions,
+        version ->
+            client.setServingStatus(
+                projectId, version.getService(), version.getId(), VersionInfo.SERVING));
+  }
+
+  /** Stops serving {@code versions} and waits until they are stopped. */
+  public BulkOperationResult stop(String projectId, Collection<VersionInfo> versions)
+      throws AppEngineException {
+    return forEach(
+        "stop",
+        versions,
+        version ->
+            client.setServingStatus(
+                projectId, version.getService(), version.getId(), VersionInfo.STOPPED));
+  }
+
+  /**
+   * Deletes {@code versions} and waits until they are deleted. The Admin API refuses to delete a
+   * version that receives traffic, such versions are reported as failures.
+   */
+  public BulkOperationResult delete(String projectId, Collection<VersionInfo> versions)
+      throws AppEngineException {
+    return forEach(
+        "delete",
+        versions,
+        version -> client.deleteVersion(projectId, version.getService(), version.getId()));
+  }
+
+  /**
+   * Deletes the versions that {@code policy} selects.
+   *
+   * @param service the service to prune, or null to prune every service
+   */
+  public BulkOperationResult prune(
+      String projectId, @Nullable String service, RetentionPolicy policy)
+      throws AppEngineException {
+    Preconditions.checkNotNull(policy);
+    List<VersionInfo> selected =
+        policy.selectForDeletion(listAll(projectId, service), clock.instant());
+    logger.info("Deleting " + selected.size() + " versions: " + selected);
+    return delete(projectId, selected);
+  }
+
+  private BulkOperationResult forEach(
+      String operationName, Collection<VersionInfo> versions, VersionOperation operation)
+      throws AppEngineException {
+    Preconditions.checkNotNull(versions);
+    List<VersionInfo> succeeded = new ArrayList<>();
+    Map<VersionInfo, AppEngineException> failures = new LinkedHashMap<>();
+    if (versions.isEmpty()) {
+      return new BulkOperationResult(succeeded, failures);
+    }
+
+    AtomicInteger threadCount = new AtomicInteger();
+    ExecutorService workers =
+        Executors.newFixedThreadPool(
+            Math.min(maxConcurrentOperations, versions.size()),
+            runnable -> {
+              Thread thread =
+                  new Thread(
+                      runnable, "versions-" + operationName + "-" + threadCount.incrementAndGet());
+              thread.setDaemon(true);
+              return thread;
+            });
+    try {
+      Map<VersionInfo, Future<Void>> futures = new LinkedHashMap<>();
+      for (VersionInfo version : versions) {
+        futures.put(
+            version,
+            workers.submit(
+                () -> {
+                  client.waitForOperation(startWithRetries(version, operation));
+                  return null;
+                }));
+      }
+      for (Map.Entry<VersionInfo, Future<Void>> future : futures.entrySet()) {
+        try {
+          future.getValue().get();
+          succeeded.add(future.getKey());
+        } catch (ExecutionException ex) {
+          Throwable cause = ex.getCause();
+          failures.put(
+              future.getKey(),
+              cause instanceof AppEngineException
+                  ? (AppEngineException) cause
+                  : new AppEngineException(
+                      "Failed to " + operationName + " " + future.getKey(), ex));
+        }
+      }
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+      throw new AppEngineException(
+          "Interrupted while trying to " + operationName + " versions", ex);
+    } finally {
+      workers.shutdownNow();
+    }
+    if (!failures.isEmpty()) {
+      logger.warning(
+          "Failed to " + operationName + " " + failures.size() + " versions: " + failures.keySet());
+    }
+    return new BulkOperationResult(succeeded, failures);
+  }
+
+  /** Sends the request that starts {@code operation}, returns the long running operation name. */
+  private String startWithRetries(VersionInfo version, VersionOperation operation)
+      throws AppEngineException, InterruptedException {
+    long delayMillis = retryDelayMillis;
+    for (int attempt = 1; ; attempt++) {
+      rateLimiter.acquire();
+      try {
+        return operation.start(version);
+      } catch (ApiException ex) {
+        if (attempt >= MAX_ATTEMPTS || !isRetryable(ex.getStatusCode())) {
+          throw ex;
+        }
+        logger.fine("Retrying " + version + " after HTTP " + ex.getStatusCode());
+      }
+      Thread.sleep(delayMillis);
+      delayMillis *= 2;
+    }
+  }
+
+  @VisibleForTesting
+  static boolean isRetryable(int statusCode) {
+    return statusCode == HTTP_TOO_MANY_REQUESTS || statusCode >= 500;
+  }
+
+  private static Map<String, Double> getAllocations(JsonObject service) {
+    Map<String, Double> allocations = new HashMap<>();
+    JsonElement split = service.get("split");
+    if (split != null && split.isJsonObject()) {
+      JsonElement allocationsElement = split.getAsJsonObject().get("allocations");
+      if (allocationsElement != null && allocationsElement.isJsonObject()) {
+        for (Map.Entry<String, JsonElement> allocation :
+            allocationsElement.getAsJsonObject().entrySet()) {
+          allocations.put(allocation.getKey(), allocation.getValue().getAsDouble());
+        }
+      }
+    }
+    return allocations;
+  }
+
+  private interface VersionOperation {
+    String start(VersionInfo version) throws AppEngineException;
+  }
+
+  public static final class Builder {
+    private final AppEngineAdminClient client;
+    private int maxConcurrentOperations = DEFAULT_MAX_CONCURRENT_OPERATIONS;
+    private double maxRequestsPerSecond = DEFAULT_MAX_REQUESTS_PER_SECOND;
+    private long retryDelayMillis = 1000;
+    private Clock clock = Clock.systemUTC();
+
+    private Builder(AppEngineAdminClient client) {
+      this.client = client;
+    }
+
+    /** How many versions are operated on at the same time, 8 by default. */
+    public VersionsClient.Builder maxConcurrentOperations(int maxConcurrentOperations) {
+      Preconditions.checkArgument(
+          maxConcurrentOperations > 0, "maxConcurrentOperations must be positive");
+      this.maxConcurrentOperations = maxConcurrentOperations;
+      return this;
+    }
+
+    /** How many mutating requests are sent per second at most, 5 by default. */
+    public VersionsClient.Builder maxRequestsPerSecond(double maxRequestsPerSecond) {
+      Preconditions.checkArgument(
+          maxRequestsPerSecond > 0, "maxRequestsPerSecond must be positive");
+      this.maxRequestsPerSecond = maxRequestsPerSecond;
+      return this;
+    }
+
+    /** The delay before the first retry of a throttled request, doubled for every retry. */
+    public VersionsClient.Builder retryDelayMillis(long retryDelayMillis) {
+      Preconditions.checkArgument(retryDelayMillis >= 0, "retryDelayMillis must not be negative");
+      this.retryDelayMillis = retryDelayMillis;
+      return this;
+    }
+
+    @VisibleForTesting
+    VersionsClient.Builder clock(Clock clock) {
+      this.clock = clock;
+      return this;
+    }
+
+    /** Build a {@link VersionsClient}. */
+    public VersionsClient build() {
+      return new VersionsClient(
+          client, maxConcurrentOperations, maxRequestsPerSecond, retryDelayMillis, clock);
+    }
+  }
+}
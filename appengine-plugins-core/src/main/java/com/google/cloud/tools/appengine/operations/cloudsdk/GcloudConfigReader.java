@@ -0,0 +1,284 @@
+/*
+ * Copyright 2026 Google LLC.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.tools.appengine.operations.cloudsdk;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Strings;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Maps;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import javax.annotation.Nullable;
+
+/**
+ * Reads the properties of the active gcloud configuration directly from the configuration files,
+ * without starting gcloud. Properties are resolved the way gcloud resolves them, lowest precedence
+ * first:
+ *
+ * <ol>
+ *   <li>the installation properties file of the Cloud SDK
+ *   <li>the active named configuration, {@code configurations/config_<name>} in the gcloud
+ *       configuration directory ({@code CLOUDSDK_CONFIG}, {@code ~/.config/gcloud} or {@code
+ *       %APPDATA%\gcloud})
+ *   <li>{@code CLOUDSDK_<SECTION>_<PROPERTY>} environment variables
+ * </ol>
+ *
+ * <p>The active configuration is {@code CLOUDSDK_ACTIVE_CONFIG_NAME}, or the one named in the
+ * {@code active_config} file, or {@code default}. Files are only read again when their modification
+ * time or size changes, so repeated lookups cost a few file system stats.
+ */
+public class GcloudConfigReader {
+
+  private static final boolean IS_WINDOWS = System.getProperty("os.name").contains("Windows");
+  private static final String ENVIRONMENT_PREFIX = "CLOUDSDK_";
+  private static final String ACTIVE_CONFIG_NAME_ENVIRONMENT = "CLOUDSDK_ACTIVE_CONFIG_NAME";
+  private static final String DEFAULT_CONFIGURATION = "default";
+
+  @Nullable private final Path installationDirectory;
+  @Nullable private final Path configDirectory;
+  private final Map<String, String> environment;
+
+  // guarded by this
+  private final Map<Path, CachedFile> cache = new HashMap<>();
+
+  /**
+   * Creates a reader for the current user and environment.
+   *
+   * @param installationDirectory the Cloud SDK home, if known, to include its installation
+   *     properties
+   */
+  public GcloudConfigReader(@Nullable Path installationDirectory) {
+    this(
+        installationDirectory,
+        getConfigDirectory(System.getenv(), System.getProperty("user.home"), IS_WINDOWS),
+        System.getenv());
+  }
+
+  @VisibleForTesting
+  GcloudConfigReader(
+      @Nullable Path installationDirectory,
+      @Nullable Path configDirectory,
+      Map<String, String> environment) {
+    this.installationDirectory = installationDirectory;
+    this.configDirectory = configDirectory;
+    this.environment = ImmutableMap.copyOf(environment);
+  }
+
+  /** Returns the gcloud configuration directory, or {@code null} if it cannot be determined. */
+  @VisibleForTesting
+  @Nullable
+  static Path getConfigDirectory(
+      Map<String, String> environment, @Nullable String userHome, boolean windows) {
+    String cloudSdkConfig = environment.get("CLOUDSDK_CONFIG");
+    if (!Strings.isNullOrEmpty(cloudSdkConfig)) {
+      return Paths.get(cloudSdkConfig);
+    }
+    if (windows) {
+      String appData = environment.get("APPDATA");
+      return Strings.isNullOrEmpty(appData) ? null : Paths.get(appData, "gcloud");
+    }
+    return Strings.isNullOrEmpty(userHome) ? null : Paths.get(userHome, ".config", "gcloud");
+  }
+
+  /** Returns the gcloud configuration directory read, or {@code null} if it is unknown. */
+  @Nullable
+  public Path getConfigurationDirectory() {
+    return configDirectory;
+  }
+
+  /**
+   * Returns the {@code CLOUDSDK_} variables of the environment, they override or select the
+   * configuration read from files.
+   */
+  public Map<String, String> getCloudSdkEnvironment() {
+    return ImmutableMap.copyOf(
+        Maps.filterKeys(environment, variable -> variable.startsWith(ENVIRONMENT_PREFIX)));
+  }
+
+  /**
+   * Returns the name of the active configuration.
+   *
+   * @throws IOException if the configuration directory cannot be located or read
+   */
+  public synchronized String getActiveConfigurationName() throws IOException {
+    String fromEnvironment = environment.get(ACTIVE_CONFIG_NAME_ENVIRONMENT);
+    if (!Strings.isNullOrEmpty(fromEnvironment)) {
+      return fromEnvironment;
+    }
+    for (String line : read(getConfigDirectoryOrThrow().resolve("active_config"))) {
+      String name = line.trim();
+      if (!name.isEmpty()) {
+        return name;
+      }
+    }
+    return DEFAULT_CONFIGURATION;
+  }
+
+  /**
+   * Returns every property that is set, keyed by {@code section/name}, for example {@code
+   * core/project}.
+   *
+   * @throws IOException if the configuration directory cannot be located or read
+   */
+  public synchronized Map<String, String> getProperties() throws IOException {
+    Path configurations = getConfigDirectoryOrThrow().resolve("configurations");
+    Map<String, String> properties = new TreeMap<>();
+    if (installationDirectory != null) {
+      properties.putAll(parse(read(installationDirectory.resolve("properties"))));
+    }
+    properties.putAll(
+        parse(read(configurations.resolve("config_" + getActiveConfigurationName()))));
+    properties.putAll(parseEnvironment(environment));
+    return ImmutableMap.copyOf(properties);
+  }
+
+  /**
+   * Returns a single property, or {@code null} if it is not set.
+   *
+   * @throws IOException if the configuration directory cannot be located or read
+   */
+  @Nullable
+  public String getProperty(String section, String name) throws IOException {
+    return getProperties().get(section + "/" + name);
+  }
+
+  /**
+   * Returns {@code core/project}, or {@code null} if it is not set.
+   *
+   * @throws IOException if the configuration directory cannot be located or read
+   */
+  @Nullable
+  public String getProject() throws IOException {
+    return getProperty("core", "project");
+  }
+
+  private Path getConfigDirectoryOrThrow() throws IOException {
+    if (configDirectory == null) {
+      throw new IOException("Cannot determine the gcloud configuration directory");
+    }
+    return configDirectory;
+  }
+
+  /** Returns the lines of {@code file}, or no lines if it does not exist. */
+  private List<String> read(Path file) throws IOException {
+    BasicFileAttributes attributes;
+    try {
+      attributes = Files.readAttributes(file, BasicFileAttributes.class);
+    } catch (NoSuchFileException ex) {
+      cache.remove(file);
+      return ImmutableList.of();
+    }
+    CachedFile cached = cache.get(file);
+    if (cached == null
+        || !cached.lastModified.equals(attributes.lastModifiedTime())
+        || cached.size != attributes.size()) {
+      cached =
+          new CachedFile(
+              attributes.lastModifiedTime(),
+              attributes.size(),
+              ImmutableList.copyOf(Files.readAllLines(file, StandardCharsets.UTF_8)));
+      cache.put(file, cached);
+    }
+    return cached.lines;
+  }
+
+  /** Parses the INI format gcloud uses for properties files. */
+  @VisibleForTesting
+  static Map<String, String> parse(List<String> lines) {
+    Map<String, String> properties = new HashMap<>();
+    String section = null;
+    for (String rawLine : lines) {
+      String line = rawLine.trim();
+      if (line.isEmpty() || line.startsWith("#") || line.startsWith(";")) {
+        continue;
+      }
+      if (line.startsWith("[") && line.endsWith("]")) {
+        section = line.substring(1, line.length() - 1).trim();
+        continue;
+      }
+      int separator = indexOfSeparator(line);
+      if (section == null || separator < 0) {
+        continue;
+      }
+      String name = line.substring(0, separator).trim();
+      String value = line.substring(separator + 1).trim();
+      if (!name.isEmpty()) {
+        properties.put(section + "/" + name, value);
+      }
+    }
+    return properties;
+  }
+
+  /**
+   * Maps {@code CLOUDSDK_<SECTION>_<PROPERTY>} variables to properties. The section ends at the
+   * first underscore, so {@code CLOUDSDK_CORE_DISABLE_PROMPTS} is {@code core/disable_prompts}.
+   */
+  @VisibleForTesting
+  static Map<String, String> parseEnvironment(Map<String, String> environment) {
+    Map<String, String> properties = new HashMap<>();
+    for (Map.Entry<String, String> variable : environment.entrySet()) {
+      String key = variable.getKey();
+      if (!key.startsWith(ENVIRONMENT_PREFIX)
+          || key.equals(ACTIVE_CONFIG_NAME_ENVIRONMENT)
+          || Strings.isNullOrEmpty(variable.getValue())) {
+        continue;
+      }
+      String property = key.substring(ENVIRONMENT_PREFIX.length()).toLowerCase(Locale.ROOT);
+      int sectionEnd = property.indexOf('_');
+      if (sectionEnd <= 0 || sectionEnd == property.length() - 1) {
+        continue;
+      }
+      properties.put(
+          property.substring(0, sectionEnd) + "/" + property.substring(sectionEnd + 1),
+          variable.getValue());
+    }
+    return properties;
+  }
+
+  private static int indexOfSeparator(String line) {
+    int equals = line.indexOf('=');
+    int colon = line.indexOf(':');
+    if (equals < 0) {
+      return colon;
+    }
+    return colon < 0 ? equals : Math.min(equals, colon);
+  }
+
+  private static class CachedFile {
+    private final FileTime lastModified;
+    private final long size;
+    private final List<String> lines;
+
+    private CachedFile(FileTime lastModified, long size, List<String> lines) {
+      this.lastModified = lastModified;
+      this.size = size;
+      this.lines = lines;
+    }
+  }
+}
@@ -18,6 +18,7 @@ package com.google.cloud.tools.appengine.operations.cloudsdk;
 
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Splitter;
+import com.google.common.base.Strings;
 import java.io.File;
 import java.io.IOException;
 import java.nio.file.Files;
@@ -25,7 +26,10 @@ import java.nio.file.InvalidPathException;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import javax.annotation.Nullable;
@@ -36,6 +40,10 @@ public class PathResolver implements CloudSdkResolver {
   private static final Logger logger = Logger.getLogger(PathResolver.class.getName());
   private static final boolean IS_WINDOWS = System.getProperty("os.name").contains("Windows");
 
+  // a new PathResolver is created for every CloudSdk.Builder without an explicit path; remember
+  // what was found for the inputs of the search so PATH is only scanned once per JVM
+  private static final Map<List<String>, Path> resolvedPaths = new ConcurrentHashMap<>();
+
   /**
    * Attempts to find the path to Google Cloud SDK.
    *
@@ -44,6 +52,25 @@ public class PathResolver implements CloudSdkResolver {
   @Override
   @Nullable
   public Path getCloudSdkPath() {
+    List<String> searchInputs =
+        Arrays.asList(
+            Strings.nullToEmpty(System.getenv("PATH")),
+            Strings.nullToEmpty(System.getenv("GOOGLE_CLOUD_SDK_HOME")),
+            Strings.nullToEmpty(System.getenv("LOCALAPPDATA")),
+            Strings.nullToEmpty(System.getProperty("user.home")));
+    Path resolved = resolvedPaths.get(searchInputs);
+    if (resolved != null && Files.exists(resolved)) {
+      return resolved;
+    }
+    resolved = searchCloudSdkPath();
+    if (resolved != null) {
+      resolvedPaths.put(searchInputs, resolved);
+    }
+    return resolved;
+  }
+
+  @Nullable
+  private static Path searchCloudSdkPath() {
     // search system environment PATH
     List<String> possiblePaths = getLocationsFromPath(System.getenv("PATH"));
 
@@ -0,0 +1,262 @@
+/*
+ * Copyright 2026 Google LLC.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.tools.appengine.operations.cloudsdk.internal.process;
+
+import com.google.cloud.tools.appengine.operations.cloudsdk.process.ProcessMetrics;
+import com.google.cloud.tools.appengine.operations.cloudsdk.process.ProcessMetricsListener;
+import com.google.common.annotations.VisibleForTesting;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import javax.annotation.Nullable;
+
+/**
+ * A {@link Process} decorator that measures the process it wraps and reports a {@link
+ * ProcessMetrics} to a listener once the process has exited and every output stream that was handed
+ * out has been read to the end (or closed). Exit is observed through {@link #waitFor()}, {@link
+ * #waitFor(long, TimeUnit)} or a successful {@link #exitValue()}.
+ */
+public class MeteredProcess extends Process {
+
+  private static final Logger logger = Logger.getLogger(MeteredProcess.class.getName());
+
+  private final Process delegate;
+  private final String commandType;
+  private final List<String> command;
+  private final ProcessMetricsListener listener;
+  private final ProcessResourceSampler sampler;
+  private final long startNanos;
+
+  @Nullable private CountingInputStream stdOut;
+  @Nullable private CountingInputStream stdErr;
+  private long firstOutputNanos = -1;
+  private long exitNanos = -1;
+  private int exitCode;
+  private int openStreams;
+  private boolean reported;
+
+  @VisibleForTesting
+  MeteredProcess(
+      Process delegate,
+      String commandType,
+      List<String> command,
+      ProcessMetricsListener listener,
+      ProcessResourceSampler sampler,
+      long startNanos) {
+    this.delegate = delegate;
+    this.commandType = commandType;
+    this.command = command;
+    this.listener = listener;
+    this.sampler = sampler;
+    this.startNanos = startNanos;
+  }
+
+  /**
+   * Wraps a freshly started process.
+   *
+   * @param process the started process
+   * @param commandType the aggregation key, see {@link ProcessMetrics#commandType(String, List)}
+   * @param command the full command line
+   * @param listener receives the metrics once the process has finished
+   * @param startNanos {@link System#nanoTime()} taken just before the process was started
+   */
+  public static MeteredProcess wrap(
+      Process process,
+      String commandType,
+      List<String> command,
+      ProcessMetricsListener listener,
+      long startNanos) {
+    return new MeteredProcess(
+        process, commandType, command, listener, ProcessResourceSampler.start(process), startNanos);
+  }
+
+  /** Returns the wrapped process. */
+  Process getDelegate() {
+    return delegate;
+  }
+
+  @Override
+  public OutputStream getOutputStream() {
+    return delegate.getOutputStream();
+  }
+
+  @Override
+  public synchronized InputStream getInputStream() {
+    if (stdOut == null) {
+      stdOut = new CountingInputStream(delegate.getInputStream());
+      openStreams++;
+    }
+    return stdOut;
+  }
+
+  @Override
+  public synchronized InputStream getErrorStream() {
+    if (stdErr == null) {
+      stdErr = new CountingInputStream(delegate.getErrorStream());
+      openStreams++;
+    }
+    return stdErr;
+  }
+
+  @Override
+  public int waitFor() throws InterruptedException {
+    int code = delegate.waitFor();
+    onExit(code);
+    return code;
+  }
+
+  @Override
+  public boolean waitFor(long timeout, TimeUnit unit) throws InterruptedException {
+    boolean exited = delegate.waitFor(timeout, unit);
+    if (exited) {
+      onExit(delegate.exitValue());
+    }
+    return exited;
+  }
+
+  @Override
+  public int exitValue() {
+    int code = delegate.exitValue();
+    onExit(code);
+    return code;
+  }
+
+  @Override
+  public void destroy() {
+    delegate.destroy();
+  }
+
+  @Override
+  public Process destroyForcibly() {
+    delegate.destroyForcibly();
+    return this;
+  }
+
+  @Override
+  public boolean isAlive() {
+    return delegate.isAlive();
+  }
+
+  private synchronized void onExit(int code) {
+    if (exitNanos < 0) {
+      exitNanos = System.nanoTime();
+      exitCode = code;
+      sampler.stop();
+    }
+    maybeReport();
+  }
+
+  private synchronized void onFirstOutput() {
+    if (firstOutputNanos < 0) {
+      firstOutputNanos = System.nanoTime();
+    }
+  }
+
+  private synchronized void onStreamDone() {
+    openStreams--;
+    maybeReport();
+  }
+
+  private void maybeReport() {
+    if (reported || exitNanos < 0 || openStreams > 0) {
+      return;
+    }
+    reported = true;
+    ProcessMetrics metrics =
+        ProcessMetrics.builder(commandType, command)
+            .wallTimeMillis(TimeUnit.NANOSECONDS.toMillis(exitNanos - startNanos))
+            .timeToFirstOutputMillis(
+                firstOutputNanos < 0
+                    ? null
+                    : TimeUnit.NANOSECONDS.toMillis(firstOutputNanos - startNanos))
+            .cpuTimeMillis(sampler.getCpuTimeMillis())
+            .peakRssBytes(sampler.getPeakRssBytes())
+            .stdOutBytes(stdOut == null ? 0 : stdOut.count)
+            .stdErrBytes(stdErr == null ? 0 : stdErr.count)
+            .exitCode(exitCode)
+            .build();
+    try {
+      listener.onProcessMetrics(metrics);
+    } catch (RuntimeException ex) {
+      // instrumentation must never break the operation being measured
+      logger.log(Level.WARNING, "Process metrics listener failed", ex);
+    }
+  }
+
+  /** Counts bytes and marks the stream done on end of stream or close, whichever happens first. */
+  private class CountingInputStream extends FilterInputStream {
+    private long count;
+    private boolean done;
+
+    private CountingInputStream(InputStream in) {
+      super(in);
+    }
+
+    @Override
+    public int read() throws IOException {
+      int read = super.read();
+      record(read < 0 ? -1 : 1);
+      return read;
+    }
+
+    @Override
+    public int read(byte[] buffer, int offset, int length) throws IOException {
+      int read = super.read(buffer, offset, length);
+      record(read);
+      return read;
+    }
+
+    @Override
+    public long skip(long n) throws IOException {
+      long skipped = super.skip(n);
+      count += skipped;
+      return skipped;
+    }
+
+    @Override
+    public void close() throws IOException {
+      try {
+        super.close();
+      } finally {
+        markDone();
+      }
+    }
+
+    private void record(int read) {
+      if (read > 0) {
+        if (count == 0) {
+          onFirstOutput();
+        }
+        count += read;
+      } else if (read < 0) {
+        markDone();
+      }
+    }
+
+    private synchronized void markDone() {
+      if (!done) {
+        done = true;
+        onStreamDone();
+      }
+    }
+  }
+}
@@ -0,0 +1,180 @@
+/*
+ * Copyright 2026 Google LLC.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.tools.appengine.operations.cloudsdk.internal.process;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Splitter;
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.Nullable;
+
+/**
+ * Periodically samples CPU time and peak resident memory of a child process from {@code /proc}.
+ * Only Linux exposes this information without native code, on other platforms every value is {@code
+ * null}. Samples are taken every {@value #SAMPLE_INTERVAL_MILLIS}ms while the process runs, so CPU
+ * time consumed in the last interval before exit is not counted.
+ */
+class ProcessResourceSampler {
+
+  private static final long SAMPLE_INTERVAL_MILLIS = 100;
+  // USER_HZ is fixed at 100 on every mainstream Linux kernel configuration.
+  private static final long CLOCK_TICKS_PER_SECOND = 100;
+  private static final Path PROC = Paths.get("/proc");
+
+  private static final ScheduledExecutorService scheduler =
+      Executors.newSingleThreadScheduledExecutor(
+          runnable -> {
+            Thread thread = new Thread(runnable, "process-resource-sampler");
+            thread.setDaemon(true);
+            return thread;
+          });
+
+  @Nullable private final Path processDirectory;
+  @Nullable private ScheduledFuture<?> sampling;
+  @Nullable private Long cpuTimeMillis;
+  @Nullable private Long peakRssBytes;
+
+  private ProcessResourceSampler(@Nullable Path processDirectory) {
+    this.processDirectory = processDirectory;
+  }
+
+  /** Starts sampling {@code process}, or returns a sampler that reports nothing if unsupported. */
+  static ProcessResourceSampler start(Process process) {
+    Long pid = getPid(process);
+    if (pid == null || !Files.isDirectory(PROC.resolve("self"))) {
+      return new ProcessResourceSampler(null);
+    }
+    ProcessResourceSampler sampler = new ProcessResourceSampler(PROC.resolve(pid.toString()));
+    sampler.sample();
+    sampler.sampling =
+        scheduler.scheduleAtFixedRate(
+            sampler::sample, SAMPLE_INTERVAL_MILLIS, SAMPLE_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+    return sampler;
+  }
+
+  /** Stops sampling. Values read so far remain available. */
+  synchronized void stop() {
+    if (sampling != null) {
+      sampling.cancel(false);
+      sampling = null;
+    }
+  }
+
+  @Nullable
+  synchronized Long getCpuTimeMillis() {
+    return cpuTimeMillis;
+  }
+
+  @Nullable
+  synchronized Long getPeakRssBytes() {
+    return peakRssBytes;
+  }
+
+  @VisibleForTesting
+  synchronized void sample() {
+    if (processDirectory == null) {
+      return;
+    }
+    try {
+      Long cpu = parseCpuTimeMillis(readFirstLine(processDirectory.resolve("stat")));
+      if (cpu != null) {
+        cpuTimeMillis = cpu;
+      }
+      for (String line :
+          Files.readAllLines(processDirectory.resolve("status"), StandardCharsets.UTF_8)) {
+        Long rss = parsePeakRssBytes(line);
+        if (rss != null) {
+          peakRssBytes = peakRssBytes == null ? rss : Math.max(peakRssBytes, rss);
+        }
+      }
+    } catch (IOException | RuntimeException ex) {
+      // the process exited between samples, keep the last values
+    }
+  }
+
+  private static String readFirstLine(Path file) throws IOException {
+    List<String> lines = Files.readAllLines(file, StandardCharsets.UTF_8);
+    return lines.isEmpty() ? "" : lines.get(0);
+  }
+
+  /**
+   * Parses utime, stime, cutime and cstime out of a {@code /proc/[pid]/stat} line. The command name
+   * field may contain spaces, so fields are counted from its closing parenthesis.
+   */
+  @VisibleForTesting
+  @Nullable
+  static Long parseCpuTimeMillis(String statLine) {
+    int commandEnd = statLine.lastIndexOf(')');
+    if (commandEnd < 0) {
+      return null;
+    }
+    // fields after the command name start at "state", which is field 3 in proc(5)
+    List<String> fields =
+        Splitter.on(' ').omitEmptyStrings().splitToList(statLine.substring(commandEnd + 1));
+    if (fields.size() < 15) {
+      return null;
+    }
+    long ticks = 0;
+    for (int field = 14; field <= 17; field++) {
+      ticks += Long.parseLong(fields.get(field - 3));
+    }
+    return ticks * 1000 / CLOCK_TICKS_PER_SECOND;
+  }
+
+  /** Parses the {@code VmHWM} (peak resident set size) line of {@code /proc/[pid]/status}. */
+  @VisibleForTesting
+  @Nullable
+  static Long parsePeakRssBytes(String statusLine) {
+    if (!statusLine.startsWith("VmHWM:")) {
+      return null;
+    }
+    List<String> parts =
+        Splitter.on(' ').omitEmptyStrings().splitToList(statusLine.substring(6).trim());
+    if (parts.isEmpty()) {
+      return null;
+    }
+    return Long.parseLong(parts.get(0)) * 1024;
+  }
+
+  @Nullable
+  private static Long getPid(Process process) {
+    try {
+      // Java 9+
+      Method pid = Process.class.getMethod("pid");
+      return (Long) pid.invoke(process);
+    } catch (ReflectiveOperationException | RuntimeException ex) {
+      // fall through to the Java 8 implementation detail
+    }
+    try {
+      Field pid = process.getClass().getDeclaredField("pid");
+      pid.setAccessible(true);
+      return (long) pid.getInt(process);
+    } catch (ReflectiveOperationException | RuntimeException ex) {
+      return null;
+    }
+  }
+}
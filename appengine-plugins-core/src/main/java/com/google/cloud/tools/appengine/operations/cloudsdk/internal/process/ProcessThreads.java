@@ -0,0 +1,66 @@
+/*
+ * Copyright 2026 Google LLC.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.tools.appengine.operations.cloudsdk.internal.process;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Creates the threads that pump process output and wait for process exit. This is the Java 8
+ * implementation, it uses one platform thread per task. The multi-release jar contains a Java 21
+ * version of this class that uses virtual threads and {@code ProcessHandle.onExit()} instead, both
+ * versions must keep the same API.
+ */
+public final class ProcessThreads {
+
+  private ProcessThreads() {}
+
+  /** Starts a daemon thread that runs {@code task}, typically reading a process output stream. */
+  public static Thread startOutputThread(String name, Runnable task) {
+    Thread thread = new Thread(task, name);
+    thread.setDaemon(true);
+    thread.start();
+    return thread;
+  }
+
+  /** Returns an executor for consuming process output streams, it uses a platform thread. */
+  public static ExecutorService newOutputExecutor() {
+    return Executors.newSingleThreadExecutor();
+  }
+
+  /**
+   * Returns a future that is completed with the exit code of {@code process} once it has exited.
+   * Dependent actions may block, they don't run on a shared system thread.
+   *
+   * @param process the process to watch
+   * @param name the name of the thread that waits for the process, if one is needed
+   */
+  public static CompletableFuture<Integer> onExit(Process process, String name) {
+    CompletableFuture<Integer> exitCode = new CompletableFuture<>();
+    startOutputThread(
+        name,
+        () -> {
+          try {
+            exitCode.complete(process.waitFor());
+          } catch (InterruptedException | RuntimeException ex) {
+            exitCode.completeExceptionally(ex);
+          }
+        });
+    return exitCode;
+  }
+}
@@ -0,0 +1,112 @@
+/*
+ * Copyright 2026 Google LLC.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.tools.appengine.operations.cloudsdk.process;
+
+import com.google.common.base.Preconditions;
+import javax.annotation.Nullable;
+
+/** A typed event from the structured log output of a deployment. */
+public class DeployEvent {
+
+  /** The kind of event. */
+  public enum Type {
+    PHASE_STARTED,
+    PHASE_FINISHED,
+    FILE_UPLOAD_PROGRESS,
+    WARNING,
+    ERROR
+  }
+
+  private final Type type;
+  private final String message;
+  @Nullable private final DeployPhase phase;
+  @Nullable private final Long phaseDurationMillis;
+  private final int uploadedFiles;
+  private final int totalFiles;
+
+  private DeployEvent(
+      Type type,
+      String message,
+      @Nullable DeployPhase phase,
+      @Nullable Long phaseDurationMillis,
+      int uploadedFiles,
+      int totalFiles) {
+    this.type = Preconditions.checkNotNull(type);
+    this.message = Preconditions.checkNotNull(message);
+    this.phase = phase;
+    this.phaseDurationMillis = phaseDurationMillis;
+    this.uploadedFiles = uploadedFiles;
+    this.totalFiles = totalFiles;
+  }
+
+  static DeployEvent phaseStarted(DeployPhase phase, String message) {
+    return new DeployEvent(Type.PHASE_STARTED, message, phase, null, 0, 0);
+  }
+
+  static DeployEvent phaseFinished(DeployPhase phase, String message, long durationMillis) {
+    return new DeployEvent(Type.PHASE_FINISHED, message, phase, durationMillis, 0, 0);
+  }
+
+  static DeployEvent fileUploadProgress(String message, int uploadedFiles, int totalFiles) {
+    return new DeployEvent(
+        Type.FILE_UPLOAD_PROGRESS, message, DeployPhase.UPLOAD, null, uploadedFiles, totalFiles);
+  }
+
+  static DeployEvent warning(String message) {
+    return new DeployEvent(Type.WARNING, message, null, null, 0, 0);
+  }
+
+  static DeployEvent error(String message) {
+    return new DeployEvent(Type.ERROR, message, null, null, 0, 0);
+  }
+
+  public Type getType() {
+    return type;
+  }
+
+  /** Returns the log message the event was parsed from. */
+  public String getMessage() {
+    return message;
+  }
+
+  /** Returns the phase for phase and upload events, {@code null} otherwise. */
+  @Nullable
+  public DeployPhase getPhase() {
+    return phase;
+  }
+
+  /** Returns how long the phase took for {@link Type#PHASE_FINISHED}, {@code null} otherwise. */
+  @Nullable
+  public Long getPhaseDurationMillis() {
+    return phaseDurationMillis;
+  }
+
+  /** Returns the number of files uploaded so far for {@link Type#FILE_UPLOAD_PROGRESS}. */
+  public int getUploadedFiles() {
+    return uploadedFiles;
+  }
+
+  /** Returns the number of files to upload for {@link Type#FILE_UPLOAD_PROGRESS}. */
+  public int getTotalFiles() {
+    return totalFiles;
+  }
+
+  @Override
+  public String toString() {
+    return type + (phase == null ? "" : " " + phase) + ": " + message;
+  }
+}
@@ -0,0 +1,40 @@
+/*
+ * Copyright 2026 Google LLC.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.tools.appengine.operations.cloudsdk.process;
+
+/** The phases of {@code gcloud app deploy} that are timed by {@link StructuredLogLineListener}. */
+public enum DeployPhase {
+  /** Building (and pushing) the application image with Cloud Build. */
+  BUILD("build"),
+  /** Uploading application files to Google Cloud Storage. */
+  UPLOAD("upload"),
+  /** Creating the new version of the service. */
+  VERSION_CREATE("version create"),
+  /** Migrating traffic to the new version. */
+  TRAFFIC_PROMOTE("traffic promote");
+
+  private final String displayName;
+
+  DeployPhase(String displayName) {
+    this.displayName = displayName;
+  }
+
+  /** Returns a short lowercase name for logs, e.g. "version create". */
+  public String getDisplayName() {
+    return displayName;
+  }
+}
@@ -17,12 +17,15 @@
 package com.google.cloud.tools.appengine.operations.cloudsdk.process;
 
 import com.google.cloud.tools.appengine.AppEngineException;
+import com.google.cloud.tools.appengine.operations.cloudsdk.internal.process.ProcessThreads;
 import com.google.cloud.tools.appengine.operations.cloudsdk.internal.process.WaitingProcessOutputLineListener;
 import com.google.common.annotations.VisibleForTesting;
+import java.io.InputStream;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Scanner;
+import java.util.concurrent.CompletableFuture;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import javax.annotation.Nullable;
@@ -89,49 +92,42 @@ public class LegacyProcessHandler implements ProcessHandler {
   }
 
   private Thread handleStdOut(Process process) {
-    final Scanner stdOut = new Scanner(process.getInputStream(), StandardCharsets.UTF_8.name());
-    Thread stdOutThread =
-        new Thread("standard-out") {
-          @Override
-          public void run() {
-            while (stdOut.hasNextLine() && !Thread.interrupted()) {
-              String line = stdOut.nextLine();
-              for (ProcessOutputLineListener stdOutLineListener : stdOutLineListeners) {
-                stdOutLineListener.onOutputLine(line);
-              }
-            }
-            stdOut.close();
-          }
-        };
-    stdOutThread.setDaemon(true);
-    stdOutThread.start();
-    return stdOutThread;
+    return pumpLines("standard-out", process.getInputStream(), stdOutLineListeners);
   }
 
   private Thread handleErrOut(Process process) {
-    final Scanner stdErr = new Scanner(process.getErrorStream(), StandardCharsets.UTF_8.name());
-    Thread stdErrThread =
-        new Thread("standard-err") {
-          @Override
-          public void run() {
-            while (stdErr.hasNextLine() && !Thread.interrupted()) {
-              String line = stdErr.nextLine();
-              for (ProcessOutputLineListener stdErrLineListener : stdErrLineListeners) {
-                stdErrLineListener.onOutputLine(line);
-              }
+    return pumpLines("standard-err", process.getErrorStream(), stdErrLineListeners);
+  }
+
+  /**
+   * Reads {@code stream} line by line on its own thread, a virtual thread when running on Java 21
+   * or later.
+   */
+  private static Thread pumpLines(
+      String name, InputStream stream, List<ProcessOutputLineListener> lineListeners) {
+    final Scanner lines = new Scanner(stream, StandardCharsets.UTF_8.name());
+    return ProcessThreads.startOutputThread(
+        name,
+        () -> {
+          while (lines.hasNextLine() && !Thread.interrupted()) {
+            String line = lines.nextLine();
+            for (ProcessOutputLineListener lineListener : lineListeners) {
+              lineListener.onOutputLine(line);
             }
-            stdErr.close();
           }
-        };
-    stdErrThread.setDaemon(true);
-    stdErrThread.start();
-    return stdErrThread;
+          lines.close();
+        });
   }
 
   private void syncRun(
       Process process, @Nullable Thread stdOutThread, @Nullable Thread stdErrThread)
       throws InterruptedException, AppEngineException {
-    int exitCode = process.waitFor();
+    onProcessExit(process.waitFor(), stdOutThread, stdErrThread);
+  }
+
+  private void onProcessExit(
+      int exitCode, @Nullable Thread stdOutThread, @Nullable Thread stdErrThread)
+      throws InterruptedException, AppEngineException {
     // https://github.com/GoogleCloudPlatform/appengine-plugins-core/issues/269
     if (stdOutThread != null) {
       stdOutThread.join();
@@ -155,20 +151,31 @@ public class LegacyProcessHandler implements ProcessHandler {
     if (!exitListeners.isEmpty()
         || !stdOutLineListeners.isEmpty()
         || !stdErrLineListeners.isEmpty()) {
-      Thread exitThread =
-          new Thread("wait-for-process-exit-and-output-handlers") {
-            @Override
-            public void run() {
-              try {
-                syncRun(process, stdOutHandler, stdErrHandler);
-              } catch (InterruptedException | AppEngineException ex) {
-                logger.log(
-                    Level.INFO, "wait-for-process-exit-and-output-handlers exited early", ex);
-              }
-            }
-          };
-      exitThread.setDaemon(true);
-      exitThread.start();
+      // on Java 21+ exit is observed without parking a platform thread per process
+      // every failure is logged by the callback, nothing is left to read from its future
+      CompletableFuture<Integer> unused =
+          ProcessThreads.onExit(process, "wait-for-process-exit-and-output-handlers")
+              .whenComplete(
+                  (exitCode, exitFailure) -> {
+                    try {
+                      if (exitFailure != null) {
+                        logger.log(
+                            exitFailure instanceof InterruptedException
+                                ? Level.INFO
+                                : Level.WARNING,
+                            "Failed to wait for the process to exit",
+                            exitFailure);
+                        return;
+                      }
+                      onProcessExit(exitCode, stdOutHandler, stdErrHandler);
+                    } catch (InterruptedException | AppEngineException ex) {
+                      logger.log(
+                          Level.INFO, "wait-for-process-exit-and-output-handlers exited early", ex);
+                    } catch (RuntimeException ex) {
+                      logger.log(
+                          Level.WARNING, "wait-for-process-exit-and-output-handlers failed", ex);
+                    }
+                  });
       if (waitingProcessOutputLineListener != null) {
         waitingProcessOutputLineListener.await();
       }
@@ -241,6 +248,12 @@ public class LegacyProcessHandler implements ProcessHandler {
       return this;
     }
 
+    /** Adds an exit listener, listeners are called in the order they were added. */
+    public Builder addExitListener(ProcessExitListener listener) {
+      exitListeners.add(listener);
+      return this;
+    }
+
     /** Set/override start listener configuration. */
     public Builder setStartListener(ProcessStartListener listener) {
       startListeners.clear();
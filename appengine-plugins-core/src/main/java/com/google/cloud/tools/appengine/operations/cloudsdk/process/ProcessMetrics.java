@@ -0,0 +1,209 @@
+/*
+ * Copyright 2026 Google LLC.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.tools.appengine.operations.cloudsdk.process;
+
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableList;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+import javax.annotation.Nullable;
+
+/**
+ * Resource usage of a single external process invocation, as reported to a {@link
+ * ProcessMetricsListener}. CPU time and peak resident memory are only available on platforms that
+ * expose them for child processes and are {@code null} otherwise.
+ */
+public class ProcessMetrics {
+
+  private static final ImmutableList<String> RELEASE_TRACKS = ImmutableList.of("alpha", "beta");
+  private static final Pattern SUBCOMMAND = Pattern.compile("[a-z][a-z0-9_-]*");
+  private static final int MAX_SUBCOMMANDS = 3;
+
+  private final String commandType;
+  private final List<String> command;
+  private final long wallTimeMillis;
+  @Nullable private final Long timeToFirstOutputMillis;
+  @Nullable private final Long cpuTimeMillis;
+  @Nullable private final Long peakRssBytes;
+  private final long stdOutBytes;
+  private final long stdErrBytes;
+  private final int exitCode;
+
+  /** Use {@link #builder(String, List)} to construct. */
+  private ProcessMetrics(
+      String commandType,
+      List<String> command,
+      long wallTimeMillis,
+      @Nullable Long timeToFirstOutputMillis,
+      @Nullable Long cpuTimeMillis,
+      @Nullable Long peakRssBytes,
+      long stdOutBytes,
+      long stdErrBytes,
+      int exitCode) {
+    this.commandType = commandType;
+    this.command = command;
+    this.wallTimeMillis = wallTimeMillis;
+    this.timeToFirstOutputMillis = timeToFirstOutputMillis;
+    this.cpuTimeMillis = cpuTimeMillis;
+    this.peakRssBytes = peakRssBytes;
+    this.stdOutBytes = stdOutBytes;
+    this.stdErrBytes = stdErrBytes;
+    this.exitCode = exitCode;
+  }
+
+  /** Returns the aggregation key of the command, for example {@code gcloud app deploy}. */
+  public String getCommandType() {
+    return commandType;
+  }
+
+  /** Returns the full command line that was executed. */
+  public List<String> getCommand() {
+    return command;
+  }
+
+  /** Returns the time between process start and process exit. */
+  public long getWallTimeMillis() {
+    return wallTimeMillis;
+  }
+
+  /** Returns the time between process start and the first byte on stdout or stderr. */
+  @Nullable
+  public Long getTimeToFirstOutputMillis() {
+    return timeToFirstOutputMillis;
+  }
+
+  /** Returns user plus system CPU time of the process, if the platform exposes it. */
+  @Nullable
+  public Long getCpuTimeMillis() {
+    return cpuTimeMillis;
+  }
+
+  /** Returns the peak resident set size of the process, if the platform exposes it. */
+  @Nullable
+  public Long getPeakRssBytes() {
+    return peakRssBytes;
+  }
+
+  public long getStdOutBytes() {
+    return stdOutBytes;
+  }
+
+  public long getStdErrBytes() {
+    return stdErrBytes;
+  }
+
+  public int getExitCode() {
+    return exitCode;
+  }
+
+  /**
+   * Derives an aggregation key from a command line: the tool name followed by the leading
+   * subcommands, stopping at the first flag or positional argument. For example {@code gcloud beta
+   * app deploy /path/app.yaml --promote} becomes {@code gcloud beta app deploy}.
+   *
+   * @param tool the short name of the executable, e.g. "gcloud"
+   * @param args the arguments passed to the tool (not including the executable)
+   */
+  public static String commandType(String tool, List<String> args) {
+    List<String> parts = new ArrayList<>();
+    parts.add(tool);
+    int subcommands = 0;
+    for (String arg : args) {
+      if (parts.size() == 1 && RELEASE_TRACKS.contains(arg)) {
+        parts.add(arg);
+        continue;
+      }
+      if (subcommands == MAX_SUBCOMMANDS || !SUBCOMMAND.matcher(arg).matches()) {
+        break;
+      }
+      parts.add(arg);
+      subcommands++;
+    }
+    return String.join(" ", parts);
+  }
+
+  public static Builder builder(String commandType, List<String> command) {
+    return new Builder(commandType, command);
+  }
+
+  public static final class Builder {
+    private final String commandType;
+    private final List<String> command;
+    private long wallTimeMillis;
+    @Nullable private Long timeToFirstOutputMillis;
+    @Nullable private Long cpuTimeMillis;
+    @Nullable private Long peakRssBytes;
+    private long stdOutBytes;
+    private long stdErrBytes;
+    private int exitCode;
+
+    private Builder(String commandType, List<String> command) {
+      this.commandType = Preconditions.checkNotNull(commandType);
+      this.command = ImmutableList.copyOf(command);
+    }
+
+    public Builder wallTimeMillis(long wallTimeMillis) {
+      this.wallTimeMillis = wallTimeMillis;
+      return this;
+    }
+
+    public Builder timeToFirstOutputMillis(@Nullable Long timeToFirstOutputMillis) {
+      this.timeToFirstOutputMillis = timeToFirstOutputMillis;
+      return this;
+    }
+
+    public Builder cpuTimeMillis(@Nullable Long cpuTimeMillis) {
+      this.cpuTimeMillis = cpuTimeMillis;
+      return this;
+    }
+
+    public Builder peakRssBytes(@Nullable Long peakRssBytes) {
+      this.peakRssBytes = peakRssBytes;
+      return this;
+    }
+
+    public Builder stdOutBytes(long stdOutBytes) {
+      this.stdOutBytes = stdOutBytes;
+      return this;
+    }
+
+    public Builder stdErrBytes(long stdErrBytes) {
+      this.stdErrBytes = stdErrBytes;
+      return this;
+    }
+
+    public Builder exitCode(int exitCode) {
+      this.exitCode = exitCode;
+      return this;
+    }
+
+    /** Build an immutable ProcessMetrics instance. */
+    public ProcessMetrics build() {
+      return new ProcessMetrics(
+          commandType,
+          command,
+          wallTimeMillis,
+          timeToFirstOutputMillis,
+          cpuTimeMillis,
+          peakRssBytes,
+          stdOutBytes,
+          stdErrBytes,
+          exitCode);
+    }
+  }
+}
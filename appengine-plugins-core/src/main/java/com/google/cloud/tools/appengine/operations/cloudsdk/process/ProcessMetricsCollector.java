@@ -0,0 +1,190 @@
+/*
+ * Copyright 2026 Google LLC.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.tools.appengine.operations.cloudsdk.process;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import javax.annotation.Nullable;
+
+/**
+ * A thread safe {@link ProcessMetricsListener} that keeps every reported invocation and aggregates
+ * them per command type. Intended to be shared by all operations of a build and summarized at the
+ * end of it.
+ */
+public class ProcessMetricsCollector implements ProcessMetricsListener {
+
+  private final List<ProcessMetrics> invocations = new ArrayList<>();
+
+  @Override
+  public synchronized void onProcessMetrics(ProcessMetrics metrics) {
+    invocations.add(metrics);
+  }
+
+  /** Returns all recorded invocations in the order they finished. */
+  public synchronized List<ProcessMetrics> getInvocations() {
+    return ImmutableList.copyOf(invocations);
+  }
+
+  /** Returns the recorded invocations aggregated by command type, slowest total wall time first. */
+  public synchronized Map<String, Summary> getSummaries() {
+    Map<String, Summary> summaries = new LinkedHashMap<>();
+    for (ProcessMetrics metrics : invocations) {
+      summaries.computeIfAbsent(metrics.getCommandType(), Summary::new).add(metrics);
+    }
+    List<Summary> sorted = new ArrayList<>(summaries.values());
+    sorted.sort(Comparator.comparingLong(Summary::getTotalWallTimeMillis).reversed());
+
+    ImmutableMap.Builder<String, Summary> result = ImmutableMap.builder();
+    for (Summary summary : sorted) {
+      result.put(summary.getCommandType(), summary);
+    }
+    return result.build();
+  }
+
+  /** Discards all recorded invocations. */
+  public synchronized void clear() {
+    invocations.clear();
+  }
+
+  /**
+   * Formats the per command type summaries as human readable lines, one per command type, slowest
+   * first. Returns an empty list if nothing was recorded.
+   */
+  public List<String> formatSummary() {
+    List<String> lines = new ArrayList<>();
+    for (Summary summary : getSummaries().values()) {
+      lines.add(summary.toString());
+    }
+    return lines;
+  }
+
+  /** Aggregated resource usage of all invocations of a single command type. */
+  public static class Summary {
+    private final String commandType;
+    private int count;
+    private int failures;
+    private long totalWallTimeMillis;
+    private long maxWallTimeMillis;
+    @Nullable private Long totalCpuTimeMillis;
+    @Nullable private Long maxPeakRssBytes;
+    private long totalStdOutBytes;
+    private long totalStdErrBytes;
+
+    private Summary(String commandType) {
+      this.commandType = commandType;
+    }
+
+    private void add(ProcessMetrics metrics) {
+      count++;
+      if (metrics.getExitCode() != 0) {
+        failures++;
+      }
+      totalWallTimeMillis += metrics.getWallTimeMillis();
+      maxWallTimeMillis = Math.max(maxWallTimeMillis, metrics.getWallTimeMillis());
+      if (metrics.getCpuTimeMillis() != null) {
+        long previous = totalCpuTimeMillis == null ? 0 : totalCpuTimeMillis;
+        totalCpuTimeMillis = previous + metrics.getCpuTimeMillis();
+      }
+      if (metrics.getPeakRssBytes() != null) {
+        long previous = maxPeakRssBytes == null ? 0 : maxPeakRssBytes;
+        maxPeakRssBytes = Math.max(previous, metrics.getPeakRssBytes());
+      }
+      totalStdOutBytes += metrics.getStdOutBytes();
+      totalStdErrBytes += metrics.getStdErrBytes();
+    }
+
+    public String getCommandType() {
+      return commandType;
+    }
+
+    public int getCount() {
+      return count;
+    }
+
+    /** Returns the number of invocations that exited with a non-zero code. */
+    public int getFailures() {
+      return failures;
+    }
+
+    public long getTotalWallTimeMillis() {
+      return totalWallTimeMillis;
+    }
+
+    public long getMaxWallTimeMillis() {
+      return maxWallTimeMillis;
+    }
+
+    /** Returns total CPU time, or {@code null} if the platform did not report it. */
+    @Nullable
+    public Long getTotalCpuTimeMillis() {
+      return totalCpuTimeMillis;
+    }
+
+    /** Returns the largest peak RSS seen, or {@code null} if the platform did not report it. */
+    @Nullable
+    public Long getMaxPeakRssBytes() {
+      return maxPeakRssBytes;
+    }
+
+    public long getTotalStdOutBytes() {
+      return totalStdOutBytes;
+    }
+
+    public long getTotalStdErrBytes() {
+      return totalStdErrBytes;
+    }
+
+    @Override
+    public String toString() {
+      StringBuilder builder = new StringBuilder();
+      builder
+          .append(commandType)
+          .append(": ")
+          .append(count)
+          .append(count == 1 ? " run" : " runs")
+          .append(failures > 0 ? " (" + failures + " failed)" : "")
+          .append(", wall ")
+          .append(formatMillis(totalWallTimeMillis))
+          .append(" (max ")
+          .append(formatMillis(maxWallTimeMillis))
+          .append(")");
+      if (totalCpuTimeMillis != null) {
+        builder.append(", cpu ").append(formatMillis(totalCpuTimeMillis));
+      }
+      if (maxPeakRssBytes != null) {
+        builder.append(", peak rss ").append(maxPeakRssBytes / (1024 * 1024)).append(" MiB");
+      }
+      builder
+          .append(", output ")
+          .append(totalStdOutBytes)
+          .append("/")
+          .append(totalStdErrBytes)
+          .append(" bytes (stdout/stderr)");
+      return builder.toString();
+    }
+
+    private static String formatMillis(long millis) {
+      return String.format(Locale.ROOT, "%.1fs", millis / 1000.0);
+    }
+  }
+}
@@ -0,0 +1,33 @@
+/*
+ * Copyright 2026 Google LLC.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.tools.appengine.operations.cloudsdk.process;
+
+/**
+ * Process listener that receives the resource usage of every process spawned by the gcloud, AppCfg
+ * and dev_appserver runners. Warning: implementations must be thread safe, processes may finish
+ * concurrently and metrics are reported from the thread that observed the process exit.
+ */
+public interface ProcessMetricsListener {
+
+  /**
+   * This hook will be called once per process, after it has exited and its output streams have been
+   * fully consumed.
+   *
+   * @param metrics the resource usage of the process
+   */
+  void onProcessMetrics(ProcessMetrics metrics);
+}
@@ -0,0 +1,212 @@
+/*
+ * Copyright 2026 Google LLC.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.tools.appengine.operations.cloudsdk.process;
+
+import com.google.cloud.tools.appengine.operations.cloudsdk.JsonParseException;
+import com.google.cloud.tools.appengine.operations.cloudsdk.serialization.GcloudStructuredLog;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Preconditions;
+import com.google.common.base.Ticker;
+import com.google.common.collect.ImmutableMap;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import javax.annotation.Nullable;
+
+/**
+ * Turns the stderr of {@code gcloud app deploy}, run with {@code
+ * CLOUDSDK_CORE_SHOW_STRUCTURED_LOGS=always}, into typed {@link DeployEvent}s and a per {@link
+ * DeployPhase} timing breakdown. Lines are parsed as they arrive; lines that are not structured
+ * logs are passed through unchanged.
+ *
+ * <p>Register it as a stderr line listener and, so that the last phase is closed when gcloud exits,
+ * as an exit listener before any listener that throws on a non-zero exit code.
+ */
+public class StructuredLogLineListener implements ProcessOutputLineListener, ProcessExitListener {
+
+  private static final Pattern BUILD_STARTED =
+      Pattern.compile("^(Building and pushing image for service|Started cloud build)");
+  private static final Pattern UPLOAD_STARTED =
+      Pattern.compile("Uploading (\\d+) files? to Google Cloud Storage");
+  private static final Pattern UPLOAD_FINISHED = Pattern.compile("^File upload done\\.");
+  private static final Pattern VERSION_CREATE = Pattern.compile("^Updating service \\[");
+  private static final Pattern TRAFFIC_PROMOTE =
+      Pattern.compile("^Setting traffic split for service \\[");
+  private static final Pattern DEPLOYED = Pattern.compile("^Deployed service \\[");
+  private static final String DONE_SUFFIX = "done.";
+
+  private final DeployEventListener eventListener;
+  @Nullable private final ProcessOutputLineListener messageListener;
+  private final Ticker ticker;
+
+  // guarded by this
+  private final Map<DeployPhase, Long> phaseNanos = new EnumMap<>(DeployPhase.class);
+  @Nullable private DeployPhase currentPhase;
+  private long currentPhaseStartNanos;
+  private int totalFiles;
+
+  /**
+   * Creates a listener.
+   *
+   * @param eventListener receives the parsed events
+   * @param messageListener if not null, receives a human readable line for every line of output:
+   *     the message of structured log lines and other lines unchanged
+   */
+  public StructuredLogLineListener(
+      DeployEventListener eventListener, @Nullable ProcessOutputLineListener messageListener) {
+    this(eventListener, messageListener, Ticker.systemTicker());
+  }
+
+  @VisibleForTesting
+  StructuredLogLineListener(
+      DeployEventListener eventListener,
+      @Nullable ProcessOutputLineListener messageListener,
+      Ticker ticker) {
+    this.eventListener = Preconditions.checkNotNull(eventListener);
+    this.messageListener = messageListener;
+    this.ticker = ticker;
+  }
+
+  @Override
+  public synchronized void onOutputLine(String line) {
+    GcloudStructuredLog log = parse(line);
+    if (log == null) {
+      forward(line);
+      return;
+    }
+
+    String message = log.getMessage();
+    String logVerbosity = log.getVerbosity();
+    String verbosity = logVerbosity == null ? "" : logVerbosity.toUpperCase(Locale.ROOT);
+    if (log.getError() != null || verbosity.equals("ERROR") || verbosity.equals("CRITICAL")) {
+      forward("ERROR: " + message);
+      eventListener.onDeployEvent(DeployEvent.error(message));
+    } else if (verbosity.startsWith("WARN")) {
+      forward("WARNING: " + message);
+      eventListener.onDeployEvent(DeployEvent.warning(message));
+    } else {
+      forward(message);
+      trackPhase(message);
+    }
+  }
+
+  /** Closes the phase that was running when gcloud exited. */
+  @Override
+  public synchronized void onExit(int exitCode) {
+    finishPhase("gcloud exited with code " + exitCode);
+  }
+
+  /** Returns the time spent in each phase seen so far, in deployment order. */
+  public synchronized Map<DeployPhase, Long> getPhaseTimingsMillis() {
+    ImmutableMap.Builder<DeployPhase, Long> timings = ImmutableMap.builder();
+    for (Map.Entry<DeployPhase, Long> phase : phaseNanos.entrySet()) {
+      timings.put(phase.getKey(), TimeUnit.NANOSECONDS.toMillis(phase.getValue()));
+    }
+    return timings.build();
+  }
+
+  /**
+   * Formats the phase timings as a single line, for example {@code upload 12.3s, version create
+   * 61.0s}. Returns an empty string if no phase was seen.
+   */
+  public String formatPhaseTimings() {
+    List<String> parts = new ArrayList<>();
+    for (Map.Entry<DeployPhase, Long> phase : getPhaseTimingsMillis().entrySet()) {
+      parts.add(
+          String.format(
+              Locale.ROOT, "%s %.1fs", phase.getKey().getDisplayName(), phase.getValue() / 1000.0));
+    }
+    return String.join(", ", parts);
+  }
+
+  @Nullable
+  private static GcloudStructuredLog parse(String line) {
+    // cheap check first, most output of a non structured run is plain text
+    if (!line.startsWith("{")) {
+      return null;
+    }
+    try {
+      return GcloudStructuredLog.parse(line);
+    } catch (JsonParseException ex) {
+      return null;
+    }
+  }
+
+  private void forward(String line) {
+    if (messageListener != null) {
+      messageListener.onOutputLine(line);
+    }
+  }
+
+  private void trackPhase(String message) {
+    Matcher uploadStarted = UPLOAD_STARTED.matcher(message);
+    if (uploadStarted.find()) {
+      startPhase(DeployPhase.UPLOAD, message);
+      totalFiles = Integer.parseInt(uploadStarted.group(1));
+      eventListener.onDeployEvent(DeployEvent.fileUploadProgress(message, 0, totalFiles));
+    } else if (UPLOAD_FINISHED.matcher(message).find()) {
+      if (currentPhase == DeployPhase.UPLOAD) {
+        eventListener.onDeployEvent(
+            DeployEvent.fileUploadProgress(message, totalFiles, totalFiles));
+        finishPhase(message);
+      }
+    } else if (BUILD_STARTED.matcher(message).find()) {
+      startPhase(DeployPhase.BUILD, message);
+    } else if (VERSION_CREATE.matcher(message).find()) {
+      startOrFinishPhase(DeployPhase.VERSION_CREATE, message);
+    } else if (TRAFFIC_PROMOTE.matcher(message).find()) {
+      startOrFinishPhase(DeployPhase.TRAFFIC_PROMOTE, message);
+    } else if (DEPLOYED.matcher(message).find()) {
+      finishPhase(message);
+    }
+  }
+
+  /** Progress tracker messages are logged as "Doing X..." and later "Doing X...done.". */
+  private void startOrFinishPhase(DeployPhase phase, String message) {
+    startPhase(phase, message);
+    if (message.endsWith(DONE_SUFFIX)) {
+      finishPhase(message);
+    }
+  }
+
+  private void startPhase(DeployPhase phase, String message) {
+    if (phase == currentPhase) {
+      return;
+    }
+    finishPhase(message);
+    currentPhase = phase;
+    currentPhaseStartNanos = ticker.read();
+    eventListener.onDeployEvent(DeployEvent.phaseStarted(phase, message));
+  }
+
+  private void finishPhase(String message) {
+    DeployPhase phase = currentPhase;
+    if (phase == null) {
+      return;
+    }
+    currentPhase = null;
+    long elapsedNanos = ticker.read() - currentPhaseStartNanos;
+    phaseNanos.merge(phase, elapsedNanos, Long::sum);
+    eventListener.onDeployEvent(
+        DeployEvent.phaseFinished(phase, message, TimeUnit.NANOSECONDS.toMillis(elapsedNanos)));
+  }
+}
@@ -18,6 +18,7 @@ package com.google.cloud.tools.appengine.operations.cloudsdk.serialization;
 
 import com.google.gson.Gson;
 import com.google.gson.JsonSyntaxException;
+import java.util.Map;
 import javax.annotation.Nullable;
 
 /** Representation of gcloud state. Used for JSON serialization/deserialization. */
@@ -37,6 +38,17 @@ public class CloudSdkConfig {
     return gson.fromJson(json, CloudSdkConfig.class);
   }
 
+  /**
+   * Creates a configuration from gcloud properties keyed by {@code section/name}, as returned by
+   * {@link com.google.cloud.tools.appengine.operations.cloudsdk.GcloudConfigReader}.
+   */
+  public static CloudSdkConfig fromProperties(Map<String, String> properties) {
+    CloudSdkConfig config = new CloudSdkConfig();
+    config.core = new Core();
+    config.core.project = properties.get("core/project");
+    return config;
+  }
+
   /** Returns "project" from gcloud configuration and {@code null} if not configured. */
   @Nullable
   public String getProject() {
@@ -0,0 +1,280 @@
+/*
+ * Copyright 2026 Google LLC.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.tools.appengine.operations.coordination;
+
+import com.google.cloud.tools.appengine.AppEngineException;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Preconditions;
+import java.lang.management.ManagementFactory;
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import javax.annotation.Nullable;
+
+/**
+ * Serializes deployments to the same App Engine application across threads, processes and machines.
+ * App Engine accepts only one deployment per application at a time and fails the others with a
+ * conflict, so deployments queue for a lock kept by a {@link DeployLockBackend} instead and run in
+ * arrival order. While a deployment runs its lease is renewed in the background.
+ *
+ * <p>With coalescing enabled, a deployment that is still queued is dropped when a newer deployment
+ * of the same service joins the queue, since the newer one would replace it anyway.
+ */
+public class DeployCoordinator {
+
+  private static final Logger logger = Logger.getLogger(DeployCoordinator.class.getName());
+
+  private static final ScheduledExecutorService renewals =
+      Executors.newSingleThreadScheduledExecutor(
+          runnable -> {
+            Thread thread = new Thread(runnable, "deploy-lease-renewal");
+            thread.setDaemon(true);
+            return thread;
+          });
+
+  /** What happened to a coordinated deployment. */
+  public enum Outcome {
+    /** The deployment ran while holding the lock. */
+    COMPLETED,
+    /** A newer deployment of the same service was queued, this one didn't run. */
+    SUPERSEDED
+  }
+
+  /** The work done while holding the lock. */
+  public interface Action {
+    void run() throws AppEngineException;
+  }
+
+  private final DeployLockBackend backend;
+  private final String owner;
+  private final long pollIntervalMillis;
+  private final long acquireTimeoutMillis;
+  private final boolean coalesce;
+
+  private DeployCoordinator(
+      DeployLockBackend backend,
+      String owner,
+      long pollIntervalMillis,
+      long acquireTimeoutMillis,
+      boolean coalesce) {
+    this.backend = backend;
+    this.owner = owner;
+    this.pollIntervalMillis = pollIntervalMillis;
+    this.acquireTimeoutMillis = acquireTimeoutMillis;
+    this.coalesce = coalesce;
+  }
+
+  public static Builder builder(DeployLockBackend backend) {
+    return new Builder(Preconditions.checkNotNull(backend));
+  }
+
+  public String getOwner() {
+    return owner;
+  }
+
+  public boolean isCoalesce() {
+    return coalesce;
+  }
+
+  /**
+   * Waits for the lock of {@code lockName}, then runs {@code action} and releases the lock.
+   *
+   * @param lockName the resource deployments are serialized on, typically the project ID
+   * @param service the deployed service, used to coalesce queued deployments, or null if unknown
+   * @return {@link Outcome#SUPERSEDED} if coalescing is enabled and a newer deployment of {@code
+   *     service} was queued before the lock was granted, {@link Outcome#COMPLETED} otherwise
+   * @throws LeaseLostException if {@code action} completed, but the lock expired while it ran so
+   *     another deployment may have overlapped it
+   * @throws AppEngineException if {@code action} fails, or the lock isn't granted in time or can't
+   *     be obtained
+   */
+  public Outcome run(String lockName, @Nullable String service, Action action)
+      throws AppEngineException {
+    Preconditions.checkNotNull(lockName);
+    Preconditions.checkNotNull(action);
+    String coalesceKey = coalesce ? service : null;
+    DeployTicket ticket = backend.enqueue(lockName, owner, coalesceKey);
+    try {
+      if (!awaitGrant(lockName, ticket)) {
+        logger.info(
+            "Not deploying "
+                + service
+                + ", a newer deployment of it is queued for the lock of "
+                + lockName);
+        return Outcome.SUPERSEDED;
+      }
+      runWithRenewal(ticket, action);
+      return Outcome.COMPLETED;
+    } finally {
+      try {
+        ticket.release();
+      } catch (AppEngineException ex) {
+        // the lease expires on its own
+        logger.log(Level.WARNING, "Failed to release the deploy lock of " + lockName, ex);
+      }
+    }
+  }
+
+  /** Returns true once the ticket is granted, false if it was superseded. */
+  private boolean awaitGrant(String lockName, DeployTicket ticket) throws AppEngineException {
+    long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(acquireTimeoutMillis);
+    long interval = getPollIntervalMillis();
+    boolean logged = false;
+    while (true) {
+      TicketState state = ticket.poll();
+      if (state == TicketState.GRANTED) {
+        return true;
+      }
+      if (state == TicketState.SUPERSEDED) {
+        return false;
+      }
+      if (!logged) {
+        logger.info("Waiting for other deployments to " + lockName + " to finish");
+        logged = true;
+      }
+      if (System.nanoTime() > deadline) {
+        throw new AppEngineException(
+            "Timed out after "
+                + TimeUnit.MILLISECONDS.toSeconds(acquireTimeoutMillis)
+                + "s waiting for other deployments to "
+                + lockName
+                + " to finish");
+      }
+      try {
+        Thread.sleep(interval);
+      } catch (InterruptedException ex) {
+        Thread.currentThread().interrupt();
+        throw new AppEngineException("Interrupted waiting for the deploy lock of " + lockName, ex);
+      }
+    }
+  }
+
+  private void runWithRenewal(DeployTicket ticket, Action action) throws AppEngineException {
+    AtomicBoolean renewalFailed = new AtomicBoolean();
+    AtomicReference<LeaseLostException> leaseLost = new AtomicReference<>();
+    long interval = getRenewIntervalMillis();
+    ScheduledFuture<?> renewal =
+        renewals.scheduleWithFixedDelay(
+            () -> {
+              try {
+                ticket.renew();
+              } catch (LeaseLostException ex) {
+                leaseLost.compareAndSet(null, ex);
+              } catch (AppEngineException ex) {
+                // keep trying, a transient failure doesn't lose the lease until it expires
+                if (!renewalFailed.getAndSet(true)) {
+                  logger.log(Level.WARNING, "Failed to renew the deploy lock", ex);
+                }
+              }
+            },
+            interval,
+            interval,
+            TimeUnit.MILLISECONDS);
+    try {
+      action.run();
+    } finally {
+      renewal.cancel(false);
+    }
+    LeaseLostException lost = leaseLost.get();
+    if (lost != null) {
+      // the action itself succeeded, but another deployment may have run at the same time
+      throw new LeaseLostException(
+          "The deploy lock expired while deploying, another deployment may have overlapped", lost);
+    }
+  }
+
+  @VisibleForTesting
+  long getPollIntervalMillis() {
+    // poll often enough to keep a waiting ticket alive
+    return Math.max(1, Math.min(pollIntervalMillis, backend.getLeaseMillis() / 3));
+  }
+
+  @VisibleForTesting
+  long getRenewIntervalMillis() {
+    return Math.max(1, backend.getLeaseMillis() / 3);
+  }
+
+  private static String getDefaultOwner() {
+    String host;
+    try {
+      host = InetAddress.getLocalHost().getHostName();
+    } catch (UnknownHostException ex) {
+      host = "unknown-host";
+    }
+    // the runtime name is pid@host on common JVMs
+    return host + " (" + ManagementFactory.getRuntimeMXBean().getName() + ")";
+  }
+
+  public static final class Builder {
+    private final DeployLockBackend backend;
+    @Nullable private String owner;
+    private long pollIntervalMillis = TimeUnit.SECONDS.toMillis(5);
+    private long acquireTimeoutMillis = TimeUnit.HOURS.toMillis(1);
+    private boolean coalesce;
+
+    private Builder(DeployLockBackend backend) {
+      this.backend = backend;
+    }
+
+    /** Identifies this deployer in the queue, the host name and process by default. */
+    public DeployCoordinator.Builder owner(String owner) {
+      this.owner = Preconditions.checkNotNull(owner);
+      return this;
+    }
+
+    /** How often a queued deployment checks whether it holds the lock, 5 seconds by default. */
+    public DeployCoordinator.Builder pollIntervalMillis(long pollIntervalMillis) {
+      Preconditions.checkArgument(pollIntervalMillis > 0, "pollIntervalMillis must be positive");
+      this.pollIntervalMillis = pollIntervalMillis;
+      return this;
+    }
+
+    /** How long a deployment waits for the lock before failing, one hour by default. */
+    public DeployCoordinator.Builder acquireTimeoutMillis(long acquireTimeoutMillis) {
+      Preconditions.checkArgument(
+          acquireTimeoutMillis >= 0, "acquireTimeoutMillis must not be negative");
+      this.acquireTimeoutMillis = acquireTimeoutMillis;
+      return this;
+    }
+
+    /**
+     * Drop queued deployments of a service when a newer deployment of the same service is queued,
+     * off by default.
+     */
+    public DeployCoordinator.Builder coalesce(boolean coalesce) {
+      this.coalesce = coalesce;
+      return this;
+    }
+
+    /** Build a {@link DeployCoordinator}. */
+    public DeployCoordinator build() {
+      return new DeployCoordinator(
+          backend,
+          owner != null ? owner : getDefaultOwner(),
+          pollIntervalMillis,
+          acquireTimeoutMillis,
+          coalesce);
+    }
+  }
+}
@@ -0,0 +1,46 @@
+/*
+ * Copyright 2026 Google LLC.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.tools.appengine.operations.coordination;
+
+import com.google.cloud.tools.appengine.AppEngineException;
+import javax.annotation.Nullable;
+
+/**
+ * Storage for the deploy queues used by {@link DeployCoordinator}. A backend keeps a first-in,
+ * first-out queue of tickets per lock name; the oldest ticket whose lease hasn't expired holds the
+ * lock. Implementations must be safe to use from several threads and, depending on where the queue
+ * is kept, from several processes or machines.
+ */
+public interface DeployLockBackend {
+
+  /**
+   * Adds a ticket to the end of the queue of {@code lockName}.
+   *
+   * @param lockName the resource deployments are serialized on, typically the project ID
+   * @param owner identifies the deployment in logs and error messages
+   * @param coalesceKey if not null, the ticket is {@link TicketState#SUPERSEDED} when a newer
+   *     ticket with the same key is queued before this one is granted
+   */
+  DeployTicket enqueue(String lockName, String owner, @Nullable String coalesceKey)
+      throws AppEngineException;
+
+  /**
+   * Returns how long a ticket stays valid without {@link DeployTicket#poll()} or {@link
+   * DeployTicket#renew()}, after which it is removed from the queue.
+   */
+  long getLeaseMillis();
+}
@@ -0,0 +1,30 @@
+/*
+ * Copyright 2026 Google LLC.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.tools.appengine.operations.coordination;
+
+import com.google.cloud.tools.appengine.AppEngineException;
+
+/**
+ * A deployment was dropped without running because a newer deployment of the same service was
+ * queued behind it, see {@link DeployCoordinator.Builder#coalesce}.
+ */
+public class DeploySupersededException extends AppEngineException {
+
+  public DeploySupersededException(String message) {
+    super(message);
+  }
+}
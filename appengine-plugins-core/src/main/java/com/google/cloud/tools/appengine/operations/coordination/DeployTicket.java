@@ -0,0 +1,40 @@
+/*
+ * Copyright 2026 Google LLC.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.tools.appengine.operations.coordination;
+
+import com.google.cloud.tools.appengine.AppEngineException;
+
+/** A place in a deploy queue, see {@link DeployLockBackend}. */
+public interface DeployTicket {
+
+  /**
+   * Returns the current state of the ticket and extends its lease.
+   *
+   * @throws LeaseLostException if the ticket expired and was removed from the queue
+   */
+  TicketState poll() throws AppEngineException;
+
+  /**
+   * Extends the lease of a granted ticket.
+   *
+   * @throws LeaseLostException if the ticket expired and was removed from the queue
+   */
+  void renew() throws AppEngineException;
+
+  /** Removes the ticket from the queue, releasing the lock if it was granted. */
+  void release() throws AppEngineException;
+}
@@ -0,0 +1,311 @@
+/*
+ * Copyright 2026 Google LLC.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.tools.appengine.operations.coordination;
+
+import com.google.cloud.tools.appengine.AppEngineException;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Preconditions;
+import com.google.common.util.concurrent.Uninterruptibles;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Properties;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import javax.annotation.Nullable;
+
+/**
+ * Keeps deploy queues as files in a directory, either on a local disk to coordinate processes on
+ * one machine or on a shared file system (for example NFS) to coordinate several machines.
+ *
+ * <p>Every ticket is a file named with a sequence number. A new ticket takes the next number after
+ * the highest one in the queue, created with an exclusive create so that two processes can never
+ * take the same number, so tickets are granted strictly in arrival order. The lease of a ticket is
+ * its modification time: polling and renewing touch the file, and tickets not touched for the lease
+ * duration are deleted by whoever finds them. An expired ticket is first moved aside and checked
+ * again, so a ticket renewed at the same time is put back rather than lost. Machines sharing a
+ * queue need roughly synchronized clocks.
+ */
+public class FileDeployLockBackend implements DeployLockBackend {
+
+  private static final Logger logger = Logger.getLogger(FileDeployLockBackend.class.getName());
+
+  /** The default lease duration, two minutes. */
+  public static final long DEFAULT_LEASE_MILLIS = TimeUnit.MINUTES.toMillis(2);
+
+  private static final Pattern TICKET_NAME = Pattern.compile("\\d{19}");
+  /** Tickets and tickets being expired, the first group is the ticket number. */
+  private static final Pattern QUEUE_ENTRY_NAME = Pattern.compile("(\\d{19})(\\.expiring-.+)?");
+
+  private static final String EXPIRING_INFIX = ".expiring-";
+  private static final int MAX_EXPIRING_WAITS = 50;
+  private static final long EXPIRING_WAIT_MILLIS = 20;
+  private static final Pattern UNSAFE_CHARACTERS = Pattern.compile("[^A-Za-z0-9._-]");
+
+  private final Path directory;
+  private final long leaseMillis;
+  private final Clock clock;
+
+  public FileDeployLockBackend(Path directory) {
+    this(directory, DEFAULT_LEASE_MILLIS);
+  }
+
+  public FileDeployLockBackend(Path directory, long leaseMillis) {
+    this(directory, leaseMillis, Clock.systemUTC());
+  }
+
+  @VisibleForTesting
+  FileDeployLockBackend(Path directory, long leaseMillis, Clock clock) {
+    Preconditions.checkArgument(leaseMillis > 0, "leaseMillis must be positive");
+    this.directory = Preconditions.checkNotNull(directory);
+    this.leaseMillis = leaseMillis;
+    this.clock = clock;
+  }
+
+  @Override
+  public long getLeaseMillis() {
+    return leaseMillis;
+  }
+
+  @Override
+  public DeployTicket enqueue(String lockName, String owner, @Nullable String coalesceKey)
+      throws AppEngineException {
+    Path queue = directory.resolve(UNSAFE_CHARACTERS.matcher(lockName).replaceAll("_"));
+    Properties content = new Properties();
+    content.setProperty("owner", owner);
+    if (coalesceKey != null) {
+      content.setProperty("coalesceKey", coalesceKey);
+    }
+    try {
+      Files.createDirectories(queue);
+      ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+      content.store(bytes, null);
+      while (true) {
+        long number = getLastTicketNumber(queue) + 1;
+        Path ticket = queue.resolve(String.format(Locale.ROOT, "%019d", number));
+        try {
+          Files.write(ticket, bytes.toByteArray(), StandardOpenOption.CREATE_NEW);
+        } catch (FileAlreadyExistsException ex) {
+          // another process took the number, try the next one
+          continue;
+        }
+        Files.setLastModifiedTime(ticket, FileTime.fromMillis(clock.millis()));
+        return new FileTicket(queue, ticket, coalesceKey);
+      }
+    } catch (IOException ex) {
+      throw new AppEngineException("Failed to queue for the deploy lock in " + queue, ex);
+    }
+  }
+
+  private static long getLastTicketNumber(Path queue) throws IOException {
+    // tickets being expired count too, they are put back under their number if renewed
+    long last = 0;
+    try (DirectoryStream<Path> files = Files.newDirectoryStream(queue)) {
+      for (Path file : files) {
+        Matcher matcher = QUEUE_ENTRY_NAME.matcher(String.valueOf(file.getFileName()));
+        if (matcher.matches()) {
+          last = Math.max(last, Long.parseLong(matcher.group(1)));
+        }
+      }
+    }
+    return last;
+  }
+
+  /** Returns the tickets of {@code queue}, oldest first. */
+  private static List<Path> listTickets(Path queue) throws IOException {
+    List<Path> tickets = new ArrayList<>();
+    try (DirectoryStream<Path> files = Files.newDirectoryStream(queue)) {
+      for (Path file : files) {
+        if (TICKET_NAME.matcher(String.valueOf(file.getFileName())).matches()) {
+          tickets.add(file);
+        }
+      }
+    }
+    // fixed width names sort numerically
+    Collections.sort(tickets);
+    return tickets;
+  }
+
+  private boolean isExpired(Path ticket) throws IOException {
+    return clock.millis() - Files.getLastModifiedTime(ticket).toMillis() > leaseMillis;
+  }
+
+  /**
+   * Removes an expired ticket. The ticket is moved aside before it is checked again, so that its
+   * owner can't renew it between the check and the removal. If it was renewed, it is put back.
+   *
+   * @return false if the ticket was put back
+   */
+  private boolean expire(Path ticket) throws IOException {
+    Path expiring =
+        ticket.resolveSibling(ticket.getFileName() + EXPIRING_INFIX + UUID.randomUUID());
+    try {
+      Files.move(ticket, expiring, StandardCopyOption.ATOMIC_MOVE);
+    } catch (NoSuchFileException ex) {
+      // released or expired by someone else meanwhile
+      return true;
+    }
+    if (isExpired(expiring)) {
+      logger.warning("Removing expired deploy ticket " + ticket + " of " + readOwner(expiring));
+      Files.delete(expiring);
+      return true;
+    }
+    // no new ticket takes the number of a ticket being expired, so nothing is replaced
+    Files.move(expiring, ticket, StandardCopyOption.ATOMIC_MOVE);
+    return false;
+  }
+
+  @Nullable
+  private static String readOwner(Path ticket) {
+    return readProperty(ticket, "owner");
+  }
+
+  @Nullable
+  private static String readCoalesceKey(Path ticket) {
+    return readProperty(ticket, "coalesceKey");
+  }
+
+  /** Returns a property of a ticket, or null if it is gone or still being written. */
+  @Nullable
+  private static String readProperty(Path ticket, String name) {
+    Properties properties = new Properties();
+    try (InputStream in = Files.newInputStream(ticket)) {
+      properties.load(in);
+    } catch (IOException ex) {
+      logger.log(Level.FINE, "Failed to read deploy ticket " + ticket, ex);
+      return null;
+    }
+    return properties.getProperty(name);
+  }
+
+  private interface TicketOperation {
+    void run() throws IOException;
+  }
+
+  private class FileTicket implements DeployTicket {
+    private final Path queue;
+    private final Path ticket;
+    @Nullable private final String coalesceKey;
+
+    private FileTicket(Path queue, Path ticket, @Nullable String coalesceKey) {
+      this.queue = queue;
+      this.ticket = ticket;
+      this.coalesceKey = coalesceKey;
+    }
+
+    @Override
+    public TicketState poll() throws AppEngineException {
+      renew();
+      try {
+        boolean waiting = false;
+        boolean superseded = false;
+        for (Path other : listTickets(queue)) {
+          int order = other.compareTo(ticket);
+          if (order == 0) {
+            continue;
+          }
+          boolean removed;
+          try {
+            removed = isExpired(other) && expire(other);
+          } catch (NoSuchFileException ex) {
+            // released meanwhile
+            continue;
+          }
+          if (removed) {
+            continue;
+          }
+          if (order < 0) {
+            waiting = true;
+          } else if (coalesceKey != null && coalesceKey.equals(readCoalesceKey(other))) {
+            superseded = true;
+          }
+        }
+        if (!waiting) {
+          return TicketState.GRANTED;
+        }
+        return superseded ? TicketState.SUPERSEDED : TicketState.WAITING;
+      } catch (IOException ex) {
+        throw new AppEngineException("Failed to read the deploy queue in " + queue, ex);
+      }
+    }
+
+    @Override
+    public void renew() throws AppEngineException {
+      try {
+        withTicket(() -> Files.setLastModifiedTime(ticket, FileTime.fromMillis(clock.millis())));
+      } catch (NoSuchFileException ex) {
+        throw new LeaseLostException(
+            "The deploy ticket " + ticket + " expired and was removed from the queue");
+      } catch (IOException ex) {
+        throw new AppEngineException("Failed to renew the deploy ticket " + ticket, ex);
+      }
+    }
+
+    @Override
+    public void release() throws AppEngineException {
+      try {
+        withTicket(() -> Files.delete(ticket));
+      } catch (NoSuchFileException ex) {
+        // already released or expired
+      } catch (IOException ex) {
+        throw new AppEngineException("Failed to release the deploy ticket " + ticket, ex);
+      }
+    }
+
+    /**
+     * Runs {@code operation} on the ticket file. While another process has moved the file aside to
+     * check whether it expired, waits for it to be put back or removed.
+     */
+    private void withTicket(TicketOperation operation) throws IOException {
+      for (int attempt = 1; ; attempt++) {
+        try {
+          operation.run();
+          return;
+        } catch (NoSuchFileException ex) {
+          if (attempt >= MAX_EXPIRING_WAITS || !isBeingExpired()) {
+            throw ex;
+          }
+          Uninterruptibles.sleepUninterruptibly(EXPIRING_WAIT_MILLIS, TimeUnit.MILLISECONDS);
+        }
+      }
+    }
+
+    private boolean isBeingExpired() throws IOException {
+      try (DirectoryStream<Path> files =
+          Files.newDirectoryStream(queue, ticket.getFileName() + EXPIRING_INFIX + "*")) {
+        return files.iterator().hasNext();
+      }
+    }
+  }
+}
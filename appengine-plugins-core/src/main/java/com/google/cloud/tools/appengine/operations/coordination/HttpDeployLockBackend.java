@@ -0,0 +1,196 @@
+/*
+ * Copyright 2026 Google LLC.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.tools.appengine.operations.coordination;
+
+import com.google.cloud.tools.appengine.AppEngineException;
+import com.google.cloud.tools.appengine.operations.api.AccessTokenProvider;
+import com.google.common.base.Preconditions;
+import com.google.common.io.ByteStreams;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UnsupportedEncodingException;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.Nullable;
+
+/**
+ * Keeps deploy queues in a lease service reached over HTTP, for machines that share no file system.
+ * The service owns the queues, grants tickets in arrival order, supersedes coalesced tickets and
+ * expires tickets whose lease isn't extended. It implements these JSON requests, relative to the
+ * endpoint:
+ *
+ * <ul>
+ *   <li>{@code POST v1/locks/{lock}/tickets} with {@code owner}, {@code leaseMillis} and an
+ *       optional {@code coalesceKey}, responding with the new ticket's {@code id};
+ *   <li>{@code POST v1/locks/{lock}/tickets/{id}:heartbeat} to extend the lease, responding with
+ *       the ticket's {@code state}: {@code WAITING}, {@code GRANTED} or {@code SUPERSEDED}, or with
+ *       HTTP 404 if the ticket has expired;
+ *   <li>{@code DELETE v1/locks/{lock}/tickets/{id}} to release the ticket.
+ * </ul>
+ */
+public class HttpDeployLockBackend implements DeployLockBackend {
+
+  private static final String USER_AGENT = "google-cloud-tools-java";
+
+  private final String endpoint;
+  @Nullable private final AccessTokenProvider tokens;
+  private final long leaseMillis;
+
+  /**
+   * Creates a backend.
+   *
+   * @param endpoint the base URL of the lease service
+   * @param tokens if not null, supplies bearer tokens sent with every request
+   * @param leaseMillis how long the service keeps a ticket without a heartbeat
+   */
+  public HttpDeployLockBackend(
+      String endpoint, @Nullable AccessTokenProvider tokens, long leaseMillis) {
+    Preconditions.checkNotNull(endpoint);
+    Preconditions.checkArgument(leaseMillis > 0, "leaseMillis must be positive");
+    this.endpoint = endpoint.endsWith("/") ? endpoint : endpoint + "/";
+    this.tokens = tokens;
+    this.leaseMillis = leaseMillis;
+  }
+
+  /** Creates a backend with the default lease of {@link FileDeployLockBackend}. */
+  public HttpDeployLockBackend(String endpoint, @Nullable AccessTokenProvider tokens) {
+    this(endpoint, tokens, FileDeployLockBackend.DEFAULT_LEASE_MILLIS);
+  }
+
+  @Override
+  public long getLeaseMillis() {
+    return leaseMillis;
+  }
+
+  @Override
+  public DeployTicket enqueue(String lockName, String owner, @Nullable String coalesceKey)
+      throws AppEngineException {
+    String ticketsUrl = endpoint + "v1/locks/" + encode(lockName) + "/tickets";
+    JsonObject request = new JsonObject();
+    request.addProperty("owner", owner);
+    request.addProperty("leaseMillis", leaseMillis);
+    if (coalesceKey != null) {
+      request.addProperty("coalesceKey", coalesceKey);
+    }
+    JsonObject response = send("POST", ticketsUrl, request, false);
+    JsonElement id = response.get("id");
+    if (id == null || id.isJsonNull()) {
+      throw new AppEngineException("The lease service returned no ticket id: " + response);
+    }
+    return new HttpTicket(ticketsUrl + "/" + encode(id.getAsString()));
+  }
+
+  private class HttpTicket implements DeployTicket {
+    private final String ticketUrl;
+
+    private HttpTicket(String ticketUrl) {
+      this.ticketUrl = ticketUrl;
+    }
+
+    @Override
+    public TicketState poll() throws AppEngineException {
+      JsonObject response = send("POST", ticketUrl + ":heartbeat", new JsonObject(), true);
+      JsonElement state = response.get("state");
+      try {
+        return TicketState.valueOf(
+            Preconditions.checkNotNull(state).getAsString().toUpperCase(Locale.ROOT));
+      } catch (RuntimeException ex) {
+        throw new AppEngineException("Unexpected ticket state from the lease service: " + response);
+      }
+    }
+
+    @Override
+    public void renew() throws AppEngineException {
+      poll();
+    }
+
+    @Override
+    public void release() throws AppEngineException {
+      try {
+        send("DELETE", ticketUrl, null, true);
+      } catch (LeaseLostException ex) {
+        // already gone
+      }
+    }
+  }
+
+  /**
+   * Sends a request to the lease service. An HTTP 404 of a request to a ticket means the ticket
+   * expired and is reported as a {@link LeaseLostException}, any other error status as an {@link
+   * AppEngineException}.
+   */
+  private JsonObject send(
+      String method, String url, @Nullable JsonObject body, boolean ticketRequest)
+      throws AppEngineException {
+    try {
+      HttpURLConnection connection = (HttpURLConnection) new URL(url).openConnection();
+      try {
+        connection.setRequestMethod(method);
+        connection.setConnectTimeout((int) TimeUnit.SECONDS.toMillis(30));
+        connection.setReadTimeout((int) TimeUnit.SECONDS.toMillis(30));
+        connection.setRequestProperty("User-Agent", USER_AGENT);
+        if (tokens != null) {
+          connection.setRequestProperty("Authorization", "Bearer " + tokens.getAccessToken());
+        }
+        if (body != null) {
+          byte[] bytes = body.toString().getBytes(StandardCharsets.UTF_8);
+          connection.setRequestProperty("Content-Type", "application/json; charset=UTF-8");
+          connection.setFixedLengthStreamingMode(bytes.length);
+          connection.setDoOutput(true);
+          try (OutputStream out = connection.getOutputStream()) {
+            out.write(bytes);
+          }
+        }
+        int status = connection.getResponseCode();
+        if (ticketRequest && status == HttpURLConnection.HTTP_NOT_FOUND) {
+          throw new LeaseLostException(url + " expired and was removed from the queue");
+        }
+        if (status >= 400) {
+          throw new AppEngineException(method + " " + url + " returned HTTP " + status);
+        }
+        String response;
+        try (InputStream in = connection.getInputStream()) {
+          response = new String(ByteStreams.toByteArray(in), StandardCharsets.UTF_8);
+        }
+        return response.trim().isEmpty()
+            ? new JsonObject()
+            : JsonParser.parseString(response).getAsJsonObject();
+      } finally {
+        connection.disconnect();
+      }
+    } catch (IOException | JsonParseException | IllegalStateException ex) {
+      throw new AppEngineException(method + " " + url + " failed", ex);
+    }
+  }
+
+  private static String encode(String pathSegment) {
+    try {
+      return URLEncoder.encode(pathSegment, "UTF-8").replace("+", "%20");
+    } catch (UnsupportedEncodingException ex) {
+      throw new AssertionError("UTF-8 is always supported", ex);
+    }
+  }
+}
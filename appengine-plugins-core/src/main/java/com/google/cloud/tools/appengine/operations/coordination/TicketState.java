@@ -0,0 +1,27 @@
+/*
+ * Copyright 2026 Google LLC.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.tools.appengine.operations.coordination;
+
+/** The state of a {@link DeployTicket}. */
+public enum TicketState {
+  /** Tickets ahead of this one hold or wait for the lock. */
+  WAITING,
+  /** This ticket holds the lock. */
+  GRANTED,
+  /** A newer ticket with the same coalesce key was queued, this one will never be granted. */
+  SUPERSEDED
+}
@@ -0,0 +1,404 @@
+/*
+ * Copyright 2026 Google LLC.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.tools.io;
+
+import com.google.common.annotations.Beta;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableList;
+import com.google.common.io.MoreFiles;
+import java.io.IOException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import javax.annotation.Nullable;
+
+/**
+ * Makes a target directory contain exactly a planned set of files, copying only what changed.
+ *
+ * <p>Files and directories are added to the plan first, then {@link #sync()} compares every planned
+ * file with the one in the target directory and copies it only if the target is missing, or differs
+ * in size or last modified time. Copies keep the last modified time of their source, so an
+ * unchanged file is recognized on the next sync. With {@link Builder#compareContent(boolean)} files
+ * of the same size are compared byte by byte instead, for sources whose timestamps change without
+ * their content. Files and directories in the target that are not part of the plan are deleted.
+ * Changed files are replaced, never written in place, so a target may be a link to its source, see
+ * {@link Builder#linkFiles(boolean)}. Changed files may be copied in parallel, see {@link
+ * Builder#parallelCopy(ParallelDirectoryCopy)}.
+ *
+ * <p>The result is the same as copying every planned file into an empty target directory. Sources
+ * may be on another file system than the target, for example a zip file system.
+ */
+@Beta
+public class DirectorySync {
+
+  private final Path target;
+  private final boolean compareContent;
+  @Nullable private final FileLinker linker;
+  // links the files that are always linked
+  private final FileLinker fileLinker;
+  @Nullable private final ParallelDirectoryCopy parallelCopy;
+  // relative target path to source, in the order they were added
+  private final Map<Path, Path> files = new LinkedHashMap<>();
+  private final Set<Path> directories = new HashSet<>();
+  // relative target paths that are always linked
+  private final Set<Path> linked = new HashSet<>();
+
+  private DirectorySync(
+      Path target,
+      boolean compareContent,
+      @Nullable FileLinker linker,
+      FileLinker fileLinker,
+      @Nullable ParallelDirectoryCopy parallelCopy) {
+    this.target = target;
+    this.compareContent = compareContent;
+    this.linker = linker;
+    this.fileLinker = fileLinker;
+    this.parallelCopy = parallelCopy;
+  }
+
+  /**
+   * Adds every file and directory below {@code source} to the plan, at the same relative path below
+   * {@code destination}. Like {@link FileUtil#copyDirectory(Path, Path, List)}, files are not
+   * overwritten.
+   *
+   * @param source an existing source directory
+   * @param destination the target directory, or a directory below it
+   * @param excludes paths in {@code source} to leave out
+   * @throws FileAlreadyExistsException if a file of the plan would be overwritten
+   */
+  public DirectorySync addDirectory(Path source, Path destination, List<Path> excludes)
+      throws IOException {
+    return addDirectory(
+        source, destination, PathFilter.builder().excludePaths(source, excludes).build());
+  }
+
+  /**
+   * Adds the files and directories below {@code source} that {@code filter} accepts to the plan, at
+   * the same relative path below {@code destination}. Directories the filter rejects are not
+   * walked.
+   *
+   * @param source an existing source directory
+   * @param destination the target directory, or a directory below it
+   * @param filter applied to paths relative to {@code source}
+   * @throws FileAlreadyExistsException if a file of the plan would be overwritten
+   */
+  public DirectorySync addDirectory(Path source, Path destination, PathFilter filter)
+      throws IOException {
+    Preconditions.checkArgument(Files.isDirectory(source), "Source is not a directory");
+    Path relativeDestination = relativize(destination);
+    Files.walkFileTree(
+        source,
+        new SimpleFileVisitor<Path>() {
+          @Override
+          public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) {
+            Path relativeDir = source.relativize(dir);
+            if (!dir.equals(source) && !filter.acceptsDirectory(relativeDir)) {
+              return FileVisitResult.SKIP_SUBTREE;
+            }
+            addDirectories(FileUtil.resolve(relativeDestination, relativeDir));
+            return FileVisitResult.CONTINUE;
+          }
+
+          @Override
+          public FileVisitResult visitFile(Path file, BasicFileAttributes attrs)
+              throws IOException {
+            Path relativeFile = source.relativize(file);
+            if (!filter.acceptsFile(relativeFile)) {
+              return FileVisitResult.CONTINUE;
+            }
+            Path relative = FileUtil.resolve(relativeDestination, relativeFile);
+            if (files.containsKey(relative)) {
+              throw new FileAlreadyExistsException(target.resolve(relative).toString());
+            }
+            plan(file, relative);
+            return FileVisitResult.CONTINUE;
+          }
+        });
+    return this;
+  }
+
+  /** Same as {@link #addDirectory(Path, Path, List)} without excludes. */
+  public DirectorySync addDirectory(Path source, Path destination) throws IOException {
+    return addDirectory(source, destination, PathFilter.acceptAll());
+  }
+
+  /**
+   * Adds a single file to the plan, replacing any file planned for the same destination.
+   *
+   * @param source an existing file
+   * @param destination the path of the copy, in the target directory
+   */
+  public DirectorySync addFile(Path source, Path destination) {
+    Preconditions.checkArgument(Files.isRegularFile(source), source + " is not a file");
+    Path relative = relativize(destination);
+    Preconditions.checkArgument(relative.getNameCount() > 0, "Destination is the target");
+    plan(source, relative);
+    linked.remove(relative);
+    return this;
+  }
+
+  /**
+   * Same as {@link #addFile(Path, Path)}, but the file is put in place with {@link FileLinker} even
+   * if {@link Builder#linkFiles(boolean)} is not set, for example for a jar of a {@link JarStore}.
+   */
+  public DirectorySync linkFile(Path source, Path destination) {
+    addFile(source, destination);
+    linked.add(relativize(destination));
+    return this;
+  }
+
+  /**
+   * Brings the target directory in line with the plan.
+   *
+   * @return what was copied, left alone and deleted
+   */
+  public Result sync() throws IOException {
+    Files.createDirectories(target);
+    List<Path> deleted = deleteUnplanned();
+
+    List<Path> copied = new ArrayList<>();
+    List<Path> unchanged = new ArrayList<>();
+    // target path to source, the files left for the parallel copy
+    Map<Path, Path> toCopy = new LinkedHashMap<>();
+    for (Path directory : directories) {
+      Files.createDirectories(target.resolve(directory));
+    }
+    for (Map.Entry<Path, Path> file : files.entrySet()) {
+      Path source = file.getValue();
+      Path destination = target.resolve(file.getKey());
+      if (isUpToDate(source, destination)) {
+        unchanged.add(file.getKey());
+      } else if (linker != null || linked.contains(file.getKey())) {
+        (linker == null ? fileLinker : linker).link(source, destination);
+        copied.add(file.getKey());
+      } else if (parallelCopy != null) {
+        // replaced rather than overwritten, like the sequential copy
+        Files.deleteIfExists(destination);
+        toCopy.put(destination, source);
+        copied.add(file.getKey());
+      } else {
+        Files.copy(
+            source,
+            destination,
+            StandardCopyOption.REPLACE_EXISTING,
+            StandardCopyOption.COPY_ATTRIBUTES);
+        copied.add(file.getKey());
+      }
+    }
+    if (parallelCopy != null) {
+      parallelCopy.copyFiles(toCopy);
+    }
+    return new Result(copied, unchanged, deleted);
+  }
+
+  private void plan(Path source, Path relative) {
+    files.put(relative, source);
+    Path parent = relative.getParent();
+    if (parent != null) {
+      addDirectories(parent);
+    }
+  }
+
+  private void addDirectories(Path relative) {
+    for (Path directory = relative;
+        directory != null && directory.getNameCount() > 0 && !directory.toString().isEmpty();
+        directory = directory.getParent()) {
+      if (!directories.add(directory)) {
+        // its parents are already planned
+        return;
+      }
+    }
+  }
+
+  private Path relativize(Path destination) {
+    Path absoluteTarget = target.toAbsolutePath().normalize();
+    Path absoluteDestination = destination.toAbsolutePath().normalize();
+    Preconditions.checkArgument(
+        absoluteDestination.startsWith(absoluteTarget),
+        destination + " is not in the target directory " + target);
+    return absoluteTarget.relativize(absoluteDestination);
+  }
+
+  private boolean isUpToDate(Path source, Path destination) throws IOException {
+    if (!Files.isRegularFile(destination, LinkOption.NOFOLLOW_LINKS)) {
+      return false;
+    }
+    BasicFileAttributes sourceAttributes = Files.readAttributes(source, BasicFileAttributes.class);
+    BasicFileAttributes destinationAttributes =
+        Files.readAttributes(destination, BasicFileAttributes.class, LinkOption.NOFOLLOW_LINKS);
+    if (sourceAttributes.size() != destinationAttributes.size()) {
+      return false;
+    }
+    if (compareContent) {
+      return MoreFiles.asByteSource(source).contentEquals(MoreFiles.asByteSource(destination));
+    }
+    // some file systems store timestamps with less than millisecond precision
+    return sourceAttributes.lastModifiedTime().toMillis()
+        == destinationAttributes.lastModifiedTime().toMillis();
+  }
+
+  /** Deletes everything in the target that is not planned, or planned as another kind of file. */
+  private List<Path> deleteUnplanned() throws IOException {
+    List<Path> deleted = new ArrayList<>();
+    Files.walkFileTree(
+        target,
+        new SimpleFileVisitor<Path>() {
+          @Override
+          public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs)
+              throws IOException {
+            Path relative = target.relativize(dir);
+            if (dir.equals(target) || directories.contains(relative)) {
+              return FileVisitResult.CONTINUE;
+            }
+            deleteRecursively(dir);
+            deleted.add(relative);
+            return FileVisitResult.SKIP_SUBTREE;
+          }
+
+          @Override
+          public FileVisitResult visitFile(Path file, BasicFileAttributes attrs)
+              throws IOException {
+            Path relative = target.relativize(file);
+            if (!attrs.isRegularFile() || !files.containsKey(relative)) {
+              Files.delete(file);
+              deleted.add(relative);
+            }
+            return FileVisitResult.CONTINUE;
+          }
+        });
+    return deleted;
+  }
+
+  private static void deleteRecursively(Path directory) throws IOException {
+    Files.walkFileTree(
+        directory,
+        new SimpleFileVisitor<Path>() {
+          @Override
+          public FileVisitResult visitFile(Path file, BasicFileAttributes attrs)
+              throws IOException {
+            Files.delete(file);
+            return FileVisitResult.CONTINUE;
+          }
+
+          @Override
+          public FileVisitResult postVisitDirectory(Path dir, IOException ex) throws IOException {
+            if (ex != null) {
+              throw ex;
+            }
+            Files.delete(dir);
+            return FileVisitResult.CONTINUE;
+          }
+        });
+  }
+
+  public static Builder builder(Path target) {
+    return new Builder(target);
+  }
+
+  public static final class Builder {
+    private final Path target;
+    private boolean compareContent;
+    private boolean linkFiles;
+    private FileLinker fileLinker = FileLinker.getDefault();
+    @Nullable private ParallelDirectoryCopy parallelCopy;
+
+    private Builder(Path target) {
+      this.target = Preconditions.checkNotNull(target);
+    }
+
+    /**
+     * If true, files of the same size are compared by content rather than last modified time.
+     * Slower, but doesn't copy files that were rewritten with the same content. False by default.
+     */
+    public DirectorySync.Builder compareContent(boolean compareContent) {
+      this.compareContent = compareContent;
+      return this;
+    }
+
+    /**
+     * If true, changed files are put in place with {@link FileLinker} instead of being copied.
+     * False by default.
+     */
+    public DirectorySync.Builder linkFiles(boolean linkFiles) {
+      this.linkFiles = linkFiles;
+      return this;
+    }
+
+    /**
+     * If set, changed files that aren't linked are copied in parallel with {@code parallelCopy}.
+     * Null by default, files are then copied one after the other.
+     */
+    public DirectorySync.Builder parallelCopy(@Nullable ParallelDirectoryCopy parallelCopy) {
+      this.parallelCopy = parallelCopy;
+      return this;
+    }
+
+    @VisibleForTesting
+    DirectorySync.Builder fileLinker(FileLinker fileLinker) {
+      this.fileLinker = Preconditions.checkNotNull(fileLinker);
+      return this;
+    }
+
+    /** Build a {@link DirectorySync}. */
+    public DirectorySync build() {
+      return new DirectorySync(
+          target, compareContent, linkFiles ? fileLinker : null, fileLinker, parallelCopy);
+    }
+  }
+
+  /** What a {@link #sync()} did, as paths relative to the target directory. */
+  public static class Result {
+    private final List<Path> copied;
+    private final List<Path> unchanged;
+    private final List<Path> deleted;
+
+    private Result(List<Path> copied, List<Path> unchanged, List<Path> deleted) {
+      this.copied = ImmutableList.copyOf(copied);
+      this.unchanged = ImmutableList.copyOf(unchanged);
+      this.deleted = ImmutableList.copyOf(deleted);
+    }
+
+    /** Files that were missing or changed, and were copied. */
+    public List<Path> getCopied() {
+      return copied;
+    }
+
+    /** Files that were already up to date. */
+    public List<Path> getUnchanged() {
+      return unchanged;
+    }
+
+    /**
+     * Files and directories that were deleted, a deleted directory is listed without its content.
+     */
+    public List<Path> getDeleted() {
+      return deleted;
+    }
+  }
+}
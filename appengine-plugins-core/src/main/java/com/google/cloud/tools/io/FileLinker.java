@@ -0,0 +1,189 @@
+/*
+ * Copyright 2026 Google LLC.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.tools.io;
+
+import com.google.common.annotations.Beta;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Preconditions;
+import com.google.common.io.ByteStreams;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.FileStore;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Collections;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Puts a file in place without copying its bytes where the file system allows it. For each file the
+ * first strategy that works is used:
+ *
+ * <ol>
+ *   <li>{@link Strategy#REFLINK}: a copy-on-write clone, on file systems that support it (Btrfs,
+ *       XFS, ...). Shares no state with the source once created.
+ *   <li>{@link Strategy#HARD_LINK}: a second name for the source, if both are on the same file
+ *       system.
+ *   <li>{@link Strategy#COPY}: a normal copy.
+ * </ol>
+ *
+ * <p>A hard link shares its content with the source, so an existing target is always deleted before
+ * a new one is put in place, never written to. Callers must not modify linked files in place
+ * either, only replace them. Strategies that a file system doesn't support are remembered per file
+ * store, so they are only tried once per JVM.
+ */
+@Beta
+public class FileLinker {
+
+  private static final Logger logger = Logger.getLogger(FileLinker.class.getName());
+
+  private static final FileLinker DEFAULT =
+      new FileLinker(new CpReflinker(), CpReflinker.MIN_SIZE_BYTES);
+
+  /** How a file was put in place. */
+  public enum Strategy {
+    REFLINK,
+    HARD_LINK,
+    COPY
+  }
+
+  /** Creates copy-on-write clones, returns false if the file system doesn't support them. */
+  @VisibleForTesting
+  interface Reflinker {
+    boolean reflink(Path source, Path target) throws IOException;
+  }
+
+  private final Reflinker reflinker;
+  private final long minReflinkSizeBytes;
+  private final Map<FileStore, Set<Strategy>> unsupported = new ConcurrentHashMap<>();
+
+  @VisibleForTesting
+  FileLinker(Reflinker reflinker) {
+    this(reflinker, 0);
+  }
+
+  /** Creates a linker that doesn't reflink files smaller than {@code minReflinkSizeBytes}. */
+  @VisibleForTesting
+  FileLinker(Reflinker reflinker, long minReflinkSizeBytes) {
+    this.reflinker = reflinker;
+    this.minReflinkSizeBytes = minReflinkSizeBytes;
+  }
+
+  /** Returns the instance shared by staging. */
+  public static FileLinker getDefault() {
+    return DEFAULT;
+  }
+
+  /**
+   * Replaces {@code target} with a reflink, a hard link or a copy of {@code source}, creating
+   * missing parent directories. A copy keeps the attributes of the source.
+   *
+   * @return the strategy that was used
+   */
+  public Strategy link(Path source, Path target) throws IOException {
+    Preconditions.checkArgument(Files.isRegularFile(source), source + " is not a file");
+    Path parent = target.toAbsolutePath().getParent();
+    Preconditions.checkArgument(parent != null, "No parent directory: " + target);
+    Files.createDirectories(parent);
+    // never write through an existing link, it may share its content with another file
+    Files.deleteIfExists(target);
+
+    FileStore store = Files.getFileStore(parent);
+    if (store.equals(Files.getFileStore(source))) {
+      if (isSupported(store, Strategy.REFLINK) && Files.size(source) >= minReflinkSizeBytes) {
+        if (reflinker.reflink(source, target)) {
+          return Strategy.REFLINK;
+        }
+        markUnsupported(store, Strategy.REFLINK);
+      }
+      if (isSupported(store, Strategy.HARD_LINK)) {
+        try {
+          Files.createLink(target, source);
+          return Strategy.HARD_LINK;
+        } catch (UnsupportedOperationException ex) {
+          markUnsupported(store, Strategy.HARD_LINK);
+        } catch (IOException ex) {
+          // e.g. the source is owned by another user and protected_hardlinks is set
+          logger.log(Level.FINE, "Failed to hard link " + source + ", copying it", ex);
+        }
+      }
+    }
+    Files.copy(source, target, StandardCopyOption.COPY_ATTRIBUTES);
+    return Strategy.COPY;
+  }
+
+  private boolean isSupported(FileStore store, Strategy strategy) {
+    return !unsupported.getOrDefault(store, Collections.emptySet()).contains(strategy);
+  }
+
+  private void markUnsupported(FileStore store, Strategy strategy) {
+    unsupported.computeIfAbsent(store, key -> ConcurrentHashMap.newKeySet()).add(strategy);
+  }
+
+  /**
+   * Clones with {@code cp --reflink=always}, Java has no API for it. Only GNU coreutils on Linux
+   * supports the option, on other platforms reflinks are never used.
+   *
+   * <p>Every clone starts a {@code cp} process, which takes about a millisecond, longer than
+   * copying a small file. Files below {@link #MIN_SIZE_BYTES} are therefore hard linked or copied
+   * instead. Staging thousands of large files still starts one process per file.
+   */
+  private static class CpReflinker implements Reflinker {
+    private static final long MIN_SIZE_BYTES = 64 * 1024;
+    private static final boolean LINUX =
+        System.getProperty("os.name", "").toLowerCase(Locale.ROOT).startsWith("linux");
+
+    @Override
+    public boolean reflink(Path source, Path target) throws IOException {
+      if (!LINUX) {
+        return false;
+      }
+      Process process;
+      try {
+        process =
+            new ProcessBuilder(
+                    "cp",
+                    "--reflink=always",
+                    "--preserve=mode,timestamps",
+                    source.toString(),
+                    target.toString())
+                .redirectErrorStream(true)
+                .start();
+      } catch (IOException ex) {
+        // no cp on the path
+        return false;
+      }
+      try (InputStream output = process.getInputStream()) {
+        ByteStreams.exhaust(output);
+        if (process.waitFor() == 0) {
+          return true;
+        }
+      } catch (InterruptedException ex) {
+        Thread.currentThread().interrupt();
+        process.destroy();
+        throw new IOException("Interrupted while cloning " + source, ex);
+      }
+      Files.deleteIfExists(target);
+      return false;
+    }
+  }
+}
@@ -22,11 +22,11 @@ import java.io.IOException;
 import java.nio.file.CopyOption;
 import java.nio.file.FileVisitResult;
 import java.nio.file.Files;
+import java.nio.file.LinkOption;
 import java.nio.file.Path;
 import java.nio.file.SimpleFileVisitor;
 import java.nio.file.StandardCopyOption;
 import java.nio.file.attribute.BasicFileAttributes;
-import java.util.Collections;
 import java.util.List;
 
 /** File utilities. */
@@ -42,7 +42,7 @@ public class FileUtil {
    *     source or destination is not a directory, or destination is inside source
    */
   public static void copyDirectory(final Path source, final Path destination) throws IOException {
-    copyDirectory(source, destination, Collections.emptyList());
+    copyDirectory(source, destination, PathFilter.acceptAll());
   }
 
   /**
@@ -57,14 +57,22 @@ public class FileUtil {
   public static void copyDirectory(final Path source, final Path destination, List<Path> excludes)
       throws IOException {
     Preconditions.checkNotNull(source);
-    Preconditions.checkNotNull(destination);
-    Preconditions.checkArgument(Files.isDirectory(source), "Source is not a directory");
-    Preconditions.checkArgument(Files.isDirectory(destination), "Destination is not a directory");
-    Preconditions.checkArgument(
-        !Files.isSameFile(source, destination), "Source and destination are the same");
-    Preconditions.checkArgument(
-        !destination.toAbsolutePath().startsWith(source.toAbsolutePath()),
-        "destination is child of source");
+    copyDirectory(source, destination, PathFilter.builder().excludePaths(source, excludes).build());
+  }
+
+  /**
+   * Implementation of recursive directory copy, does NOT overwrite. Copies only what {@code filter}
+   * accepts, and doesn't walk the directories it rejects.
+   *
+   * @param source an existing source directory to copy from
+   * @param destination an existing destination directory to copy to
+   * @param filter include and exclude patterns, applied to paths relative to "source"
+   * @throws IllegalArgumentException if source directory is same destination directory, either
+   *     source or destination is not a directory, or destination is inside source
+   */
+  public static void copyDirectory(final Path source, final Path destination, PathFilter filter)
+      throws IOException {
+    checkCopyDirectories(source, destination);
 
     Files.walkFileTree(
         source,
@@ -74,30 +82,140 @@ public class FileUtil {
           @Override
           public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs)
               throws IOException {
-
             if (dir.equals(source)) {
               return FileVisitResult.CONTINUE;
             }
-
-            if (excludes.contains(dir)) {
+            Path relative = source.relativize(dir);
+            if (!filter.acceptsDirectory(relative)) {
               return FileVisitResult.SKIP_SUBTREE;
             }
-
-            Files.copy(dir, destination.resolve(source.relativize(dir)), copyOptions);
+            Files.copy(dir, resolve(destination, relative), copyOptions);
             return FileVisitResult.CONTINUE;
           }
 
           @Override
           public FileVisitResult visitFile(Path file, BasicFileAttributes attrs)
               throws IOException {
-
-            if (excludes.contains(file)) {
-              return FileVisitResult.CONTINUE;
+            Path relative = source.relativize(file);
+            if (filter.acceptsFile(relative)) {
+              Files.copy(file, resolve(destination, relative), copyOptions);
             }
-
-            Files.copy(file, destination.resolve(source.relativize(file)), copyOptions);
             return FileVisitResult.CONTINUE;
           }
         });
   }
+
+  /**
+   * Like {@link #copyDirectory(Path, Path, PathFilter)}, but copies the files with {@code copier}
+   * instead of one after the other. Whether that is faster depends on the storage: it helps on SSDs
+   * and network file systems, and can be slower on a single local disk.
+   *
+   * @param source an existing source directory to copy from
+   * @param destination an existing destination directory to copy to
+   * @param filter include and exclude patterns, applied to paths relative to "source"
+   * @param copier the parallel copy to use, for example {@link ParallelDirectoryCopy#getDefault()}
+   * @throws IllegalArgumentException if source directory is same destination directory, either
+   *     source or destination is not a directory, or destination is inside source
+   */
+  public static void copyDirectory(
+      final Path source, final Path destination, PathFilter filter, ParallelDirectoryCopy copier)
+      throws IOException {
+    Preconditions.checkNotNull(copier);
+    checkCopyDirectories(source, destination);
+
+    copier.copy(source, destination, filter);
+  }
+
+  private static void checkCopyDirectories(Path source, Path destination) throws IOException {
+    Preconditions.checkNotNull(source);
+    Preconditions.checkNotNull(destination);
+    Preconditions.checkArgument(Files.isDirectory(source), "Source is not a directory");
+    Preconditions.checkArgument(Files.isDirectory(destination), "Destination is not a directory");
+    Preconditions.checkArgument(
+        !Files.isSameFile(source, destination), "Source and destination are the same");
+    Preconditions.checkArgument(
+        !isInside(destination.toAbsolutePath(), source.toAbsolutePath()),
+        "destination is child of source");
+  }
+
+  /**
+   * Makes {@code destination} a copy of {@code source}: copies only the files that are missing or
+   * changed, and deletes what no longer exists in {@code source}. See {@link DirectorySync}.
+   *
+   * @param source an existing source directory to copy from
+   * @param destination the destination directory, created if it doesn't exist
+   * @param excludes a list of paths in "source" to exclude
+   * @return what was copied, left alone and deleted
+   * @throws IllegalArgumentException if source is not a directory, or source and destination
+   *     overlap
+   */
+  public static DirectorySync.Result syncDirectory(
+      final Path source, final Path destination, List<Path> excludes) throws IOException {
+    Preconditions.checkNotNull(source);
+    Preconditions.checkNotNull(destination);
+    Preconditions.checkArgument(Files.isDirectory(source), "Source is not a directory");
+    Path absoluteSource = source.toAbsolutePath().normalize();
+    Path absoluteDestination = destination.toAbsolutePath().normalize();
+    Preconditions.checkArgument(
+        !isInside(absoluteDestination, absoluteSource), "destination is child of source");
+    Preconditions.checkArgument(
+        !isInside(absoluteSource, absoluteDestination), "source is child of destination");
+
+    return DirectorySync.builder(destination)
+        .build()
+        .addDirectory(source, destination, excludes)
+        .sync();
+  }
+
+  /**
+   * Resolves {@code relative} against {@code directory} like {@link Path#resolve(Path)}, but also
+   * if the two paths belong to different file systems, for example when staging from the default
+   * file system into a zip file system. The name elements of {@code relative} are then resolved one
+   * by one, so that the separator of one file system never ends up in a name of the other.
+   *
+   * @param directory the path to resolve against
+   * @param relative a relative path, on any file system
+   */
+  public static Path resolve(Path directory, Path relative) {
+    if (directory.getFileSystem().equals(relative.getFileSystem())) {
+      return directory.resolve(relative);
+    }
+    Preconditions.checkArgument(!relative.isAbsolute(), relative + " is not relative");
+    Path resolved = directory;
+    for (Path name : relative) {
+      resolved = resolved.resolve(name.toString());
+    }
+    return resolved;
+  }
+
+  /**
+   * The {@link Path} equivalent of {@link java.io.File#getCanonicalPath()}, for any file system:
+   * returns {@code path} made absolute, with the symbolic links of its longest existing prefix
+   * resolved and the rest normalized.
+   */
+  public static Path canonicalize(Path path) throws IOException {
+    Path absolute = path.toAbsolutePath();
+    Path existing = absolute;
+    while (existing != null && !Files.exists(existing, LinkOption.NOFOLLOW_LINKS)) {
+      existing = existing.getParent();
+    }
+    if (existing == null) {
+      return absolute.normalize();
+    }
+    Path real = existing.toRealPath();
+    if (existing.getNameCount() == absolute.getNameCount()) {
+      return real;
+    }
+    // nothing below the existing prefix can be a link, so ".." can be resolved syntactically
+    return real.resolve(absolute.subpath(existing.getNameCount(), absolute.getNameCount()))
+        .normalize();
+  }
+
+  /**
+   * Returns true if {@code path} starts with {@code directory}. Paths of different file systems are
+   * never inside each other, unlike {@link Path#startsWith(Path)} this never throws for them.
+   */
+  private static boolean isInside(Path path, Path directory) {
+    return path.getFileSystem().equals(directory.getFileSystem()) && path.startsWith(directory);
+  }
 }
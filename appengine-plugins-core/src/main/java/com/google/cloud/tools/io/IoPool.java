@@ -0,0 +1,35 @@
+/*
+ * Copyright 2026 Google LLC.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.tools.io;
+
+import java.util.concurrent.ForkJoinPool;
+
+/** The fork/join pool shared by the parallel file operations of this package. */
+final class IoPool {
+
+  /**
+   * The default number of files handled at the same time. File operations are I/O bound, more
+   * threads than processors keep the disk busy.
+   */
+  static final int DEFAULT_PARALLELISM =
+      Math.max(4, Math.min(16, 2 * Runtime.getRuntime().availableProcessors()));
+
+  /** Runs on daemon threads and is never shut down. */
+  static final ForkJoinPool SHARED = new ForkJoinPool(DEFAULT_PARALLELISM);
+
+  private IoPool() {}
+}
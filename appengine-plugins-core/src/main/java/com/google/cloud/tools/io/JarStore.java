@@ -0,0 +1,323 @@
+/*
+ * Copyright 2026 Google LLC.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.tools.io;
+
+import com.google.common.annotations.Beta;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Preconditions;
+import com.google.common.hash.Hashing;
+import com.google.common.io.MoreFiles;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+
+/**
+ * A content-addressed store of jars, shared by every build on the host. A jar is stored once under
+ * the SHA-256 of its content, and staged from the store with {@link FileLinker}, so staging the
+ * same dependency for many services links it rather than copying its bytes each time.
+ *
+ * <p>Stored jars are never modified, not even their timestamps: they are written to a temporary
+ * file and moved in place, so concurrent builds may add the same jar at the same time, and a staged
+ * copy or reflink keeps matching the stored jar's size and last modified time. Staged jars may be
+ * links to the stored ones, so they must be replaced rather than written to, like every file staged
+ * by {@link FileLinker}.
+ *
+ * <p>The store doesn't limit its own size, jars are only deleted by {@link #prune(long)}. When a
+ * jar was last used is recorded in the last modified time of an empty {@code .used} file next to
+ * it. Deleting stored jars, or the whole store directory, never affects staged jars, which are
+ * links or copies: a deleted jar is simply stored again the next time it is staged.
+ */
+@Beta
+public class JarStore {
+
+  // digests of jars on disk, per JVM, so that every build of a reactor hashes a jar once
+  private static final Map<Path, Digest> digests = new ConcurrentHashMap<>();
+
+  /** Size the store is pruned to after staging. */
+  public static final long DEFAULT_MAX_BYTES = 2L * 1024 * 1024 * 1024;
+
+  private final Path directory;
+  private final FileLinker linker;
+
+  /** Creates a store in {@code directory}, created when the first jar is added. */
+  public JarStore(Path directory) {
+    this(directory, FileLinker.getDefault());
+  }
+
+  @VisibleForTesting
+  JarStore(Path directory, FileLinker linker) {
+    this.directory = Preconditions.checkNotNull(directory);
+    this.linker = Preconditions.checkNotNull(linker);
+  }
+
+  /** Returns the default store directory in the user cache directory. */
+  public static Path getDefaultDirectory() {
+    return Paths.get(System.getProperty("user.home"))
+        .resolve(".cache")
+        .resolve("google-cloud-tools-java")
+        .resolve("jar-store");
+  }
+
+  public Path getDirectory() {
+    return directory;
+  }
+
+  /**
+   * Adds {@code jar} to the store, unless a jar with the same content is already stored.
+   *
+   * @return the stored jar
+   */
+  public Path put(Path jar) throws IOException {
+    Preconditions.checkArgument(Files.isRegularFile(jar), jar + " is not a file");
+    String sha256 = sha256(jar);
+    Path stored = directory.resolve(sha256.substring(0, 2)).resolve(sha256 + ".jar");
+    if (Files.isRegularFile(stored) && Files.size(stored) == Files.size(jar)) {
+      markUsed(stored);
+      return stored;
+    }
+
+    Path parent = Preconditions.checkNotNull(stored.getParent());
+    Files.createDirectories(parent);
+    Path temporary = Files.createTempFile(parent, sha256, ".tmp");
+    try {
+      Files.copy(
+          jar, temporary, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.COPY_ATTRIBUTES);
+      // another build may have stored the same content in the meantime, replacing it is harmless
+      Files.move(
+          temporary, stored, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    } finally {
+      Files.deleteIfExists(temporary);
+    }
+    markUsed(stored);
+    return stored;
+  }
+
+  /** Records that {@code stored} was used, {@link #prune(long)} deletes the least recent first. */
+  private static void markUsed(Path stored) {
+    Path marker = getUsedMarker(stored);
+    try {
+      if (!Files.exists(marker)) {
+        Files.createFile(marker);
+      }
+      Files.setLastModifiedTime(marker, FileTime.fromMillis(System.currentTimeMillis()));
+    } catch (FileAlreadyExistsException ex) {
+      // marked by another build at the same time
+    } catch (IOException ex) {
+      // a jar stored by another user can't be marked, it is then pruned earlier than necessary
+    }
+  }
+
+  /** Returns the file whose last modified time is when {@code stored} was last used. */
+  @VisibleForTesting
+  static Path getUsedMarker(Path stored) {
+    return stored.resolveSibling(stored.getFileName() + ".used");
+  }
+
+  /**
+   * Returns true if jars staged to {@code target} can be linked to the stored ones, that is if the
+   * store and {@code target} are on the same file store. The store directory is created if needed.
+   */
+  public boolean canLink(Path target) throws IOException {
+    Path existing = target.toAbsolutePath();
+    while (!Files.exists(existing)) {
+      existing = Preconditions.checkNotNull(existing.getParent(), "No existing parent: " + target);
+    }
+    Files.createDirectories(directory);
+    return Files.getFileStore(existing).equals(Files.getFileStore(directory));
+  }
+
+  /**
+   * Adds {@code jars} to the store in parallel.
+   *
+   * @return the stored jar of each jar, in the iteration order of {@code jars}
+   */
+  public Map<Path, Path> putAll(Collection<Path> jars) throws IOException {
+    List<Callable<Path>> tasks = new ArrayList<>();
+    for (Path jar : jars) {
+      tasks.add(() -> put(jar));
+    }
+    List<Path> stored = invokeAll(tasks);
+    Map<Path, Path> result = new LinkedHashMap<>();
+    int index = 0;
+    for (Path jar : jars) {
+      result.put(jar, stored.get(index++));
+    }
+    return result;
+  }
+
+  /**
+   * Replaces {@code target} with a link to the stored copy of {@code jar}, adding it to the store
+   * first. If the store is on another file system than {@code target}, nothing could be linked, so
+   * the jar is staged directly and not stored.
+   *
+   * @return how the jar was put in place
+   */
+  public FileLinker.Strategy stage(Path jar, Path target) throws IOException {
+    if (!canLink(target)) {
+      return linker.link(jar, target);
+    }
+    try {
+      return linker.link(put(jar), target);
+    } catch (NoSuchFileException ex) {
+      // pruned by another build between being stored and linked
+      return linker.link(put(jar), target);
+    }
+  }
+
+  /**
+   * Stages jars in parallel, see {@link #stage(Path, Path)}.
+   *
+   * @param jars the jar to stage for each target path
+   */
+  public void stageAll(Map<Path, Path> jars) throws IOException {
+    List<Callable<FileLinker.Strategy>> tasks = new ArrayList<>();
+    for (Map.Entry<Path, Path> jar : jars.entrySet()) {
+      tasks.add(() -> stage(jar.getValue(), jar.getKey()));
+    }
+    invokeAll(tasks);
+  }
+
+  /**
+   * Deletes the least recently stored or staged jars until the store holds at most {@code
+   * maxBytes}. Safe to run while other builds use the store.
+   *
+   * @return the number of deleted jars
+   */
+  public int prune(long maxBytes) throws IOException {
+    Preconditions.checkArgument(maxBytes >= 0, "maxBytes must not be negative");
+    if (!Files.isDirectory(directory)) {
+      return 0;
+    }
+    List<StoredJar> jars = new ArrayList<>();
+    long total = 0;
+    try (Stream<Path> files = Files.walk(directory, 2)) {
+      for (Path file : (Iterable<Path>) files::iterator) {
+        if (!file.toString().endsWith(".jar")) {
+          continue;
+        }
+        try {
+          BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+          if (attributes.isRegularFile()) {
+            jars.add(new StoredJar(file, attributes, getLastUsed(file, attributes)));
+            total += attributes.size();
+          }
+        } catch (NoSuchFileException ex) {
+          // pruned by another build
+        }
+      }
+    } catch (UncheckedIOException ex) {
+      throw ex.getCause();
+    }
+
+    jars.sort(Comparator.comparing(jar -> jar.lastUsed));
+    int deleted = 0;
+    for (StoredJar jar : jars) {
+      if (total <= maxBytes) {
+        break;
+      }
+      if (Files.deleteIfExists(jar.path)) {
+        deleted++;
+      }
+      Files.deleteIfExists(getUsedMarker(jar.path));
+      total -= jar.size;
+    }
+    return deleted;
+  }
+
+  /** Returns when {@code stored} was last used, its own time if it was never marked. */
+  private static FileTime getLastUsed(Path stored, BasicFileAttributes attributes) {
+    try {
+      return Files.getLastModifiedTime(getUsedMarker(stored));
+    } catch (IOException ex) {
+      return attributes.lastModifiedTime();
+    }
+  }
+
+  private static <T> List<T> invokeAll(List<Callable<T>> tasks) throws IOException {
+    List<T> results = new ArrayList<>(tasks.size());
+    for (Future<T> future : IoPool.SHARED.invokeAll(tasks)) {
+      try {
+        results.add(future.get());
+      } catch (ExecutionException ex) {
+        if (ex.getCause() instanceof IOException) {
+          throw (IOException) ex.getCause();
+        }
+        throw new IOException(ex.getCause());
+      } catch (InterruptedException ex) {
+        Thread.currentThread().interrupt();
+        throw new IOException("Interrupted while staging jars", ex);
+      }
+    }
+    return results;
+  }
+
+  /** Returns the digest of {@code jar}, reusing the last one while its size and time match. */
+  private static String sha256(Path jar) throws IOException {
+    Path key = jar.toRealPath();
+    BasicFileAttributes attributes = Files.readAttributes(key, BasicFileAttributes.class);
+    long lastModified = attributes.lastModifiedTime().toMillis();
+    Digest digest = digests.get(key);
+    if (digest == null || digest.size != attributes.size() || digest.lastModified != lastModified) {
+      String sha256 = MoreFiles.asByteSource(key).hash(Hashing.sha256()).toString();
+      digest = new Digest(attributes.size(), lastModified, sha256);
+      digests.put(key, digest);
+    }
+    return digest.sha256;
+  }
+
+  private static class StoredJar {
+    private final Path path;
+    private final long size;
+    private final FileTime lastUsed;
+
+    private StoredJar(Path path, BasicFileAttributes attributes, FileTime lastUsed) {
+      this.path = path;
+      this.size = attributes.size();
+      this.lastUsed = lastUsed;
+    }
+  }
+
+  private static class Digest {
+    private final long size;
+    private final long lastModified;
+    private final String sha256;
+
+    private Digest(long size, long lastModified, String sha256) {
+      this.size = size;
+      this.lastModified = lastModified;
+      this.sha256 = sha256;
+    }
+  }
+}
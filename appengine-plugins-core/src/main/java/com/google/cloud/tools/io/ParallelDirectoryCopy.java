@@ -0,0 +1,368 @@
+/*
+ * Copyright 2026 Google LLC.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.tools.io;
+
+import com.google.common.annotations.Beta;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Preconditions;
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.CopyOption;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributeView;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.PosixFileAttributeView;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Copies a directory tree with a fork/join pool, so that copying many files keeps more than one I/O
+ * request in flight. Directories are created while the source is walked, then the files are copied
+ * in parallel: small files in batches, so that scheduling overhead doesn't dominate, and large
+ * files one per task with {@link FileChannel#transferTo}. Like {@link FileUtil#copyDirectory(Path,
+ * Path, List)}, nothing is overwritten and attributes are kept. The source and destination may be
+ * on different file systems.
+ *
+ * <p>{@link FileUtil#copyDirectory(Path, Path, PathFilter)} copies sequentially. Pass an instance
+ * to {@link FileUtil#copyDirectory(Path, Path, PathFilter, ParallelDirectoryCopy)} or {@link
+ * DirectorySync.Builder#parallelCopy(ParallelDirectoryCopy)} to opt in. Instances share one pool
+ * unless {@link Builder#parallelism(int)} is set, in which case they own a pool that {@link
+ * #close()} shuts down.
+ */
+@Beta
+public class ParallelDirectoryCopy implements Closeable {
+
+  /** Files of at least this size are copied with {@link FileChannel#transferTo}. */
+  public static final long DEFAULT_LARGE_FILE_THRESHOLD = 1024 * 1024;
+
+  // a batch of small files is closed when it reaches either limit
+  private static final int BATCH_FILES = 64;
+  private static final long BATCH_BYTES = 1024 * 1024;
+
+  private static final ParallelDirectoryCopy DEFAULT = builder().build();
+
+  private final ForkJoinPool pool;
+  private final boolean ownsPool;
+  private final long largeFileThreshold;
+
+  private ParallelDirectoryCopy(ForkJoinPool pool, boolean ownsPool, long largeFileThreshold) {
+    this.pool = pool;
+    this.ownsPool = ownsPool;
+    this.largeFileThreshold = largeFileThreshold;
+  }
+
+  /** Returns a shared instance with the default settings. */
+  public static ParallelDirectoryCopy getDefault() {
+    return DEFAULT;
+  }
+
+  /**
+   * Copies everything below {@code source} into {@code destination}. The caller checks that the
+   * directories are valid, see {@link FileUtil#copyDirectory(Path, Path, List)}.
+   *
+   * @param source an existing source directory to copy from
+   * @param destination an existing destination directory to copy to
+   * @param excludes a list of paths in "source" to exclude
+   * @throws java.nio.file.FileAlreadyExistsException if a file to copy already exists
+   */
+  public void copy(Path source, Path destination, List<Path> excludes) throws IOException {
+    copy(source, destination, PathFilter.builder().excludePaths(source, excludes).build());
+  }
+
+  /**
+   * Copies what {@code filter} accepts below {@code source} into {@code destination}. Directories
+   * the filter rejects are not walked.
+   *
+   * @param source an existing source directory to copy from
+   * @param destination an existing destination directory to copy to
+   * @param filter applied to paths relative to {@code source}
+   * @throws java.nio.file.FileAlreadyExistsException if a file to copy already exists
+   */
+  public void copy(Path source, Path destination, PathFilter filter) throws IOException {
+    invoke(createDirectories(source, destination, filter));
+  }
+
+  /**
+   * Copies files in parallel, keeping their attributes.
+   *
+   * @param files the source file of each target path, the targets must not exist and their parent
+   *     directories must
+   * @throws java.nio.file.FileAlreadyExistsException if a target already exists
+   */
+  public void copyFiles(Map<Path, Path> files) throws IOException {
+    Batcher batcher = new Batcher();
+    for (Map.Entry<Path, Path> file : files.entrySet()) {
+      batcher.add(file.getValue(), file.getKey(), Files.size(file.getValue()));
+    }
+    invoke(batcher.finish());
+  }
+
+  private void invoke(List<CopyTask> tasks) throws IOException {
+    if (tasks.isEmpty()) {
+      return;
+    }
+    try {
+      pool.invoke(new CopyAction(tasks, 0, tasks.size()));
+    } catch (RuntimeException ex) {
+      // fork/join may rethrow a copy of the exception thrown by a worker, with it as the cause
+      for (Throwable cause = ex; cause != null; cause = cause.getCause()) {
+        if (cause instanceof UncheckedIOException) {
+          throw ((UncheckedIOException) cause).getCause();
+        }
+      }
+      throw ex;
+    }
+  }
+
+  /** Walks the source, creating every directory and collecting the files to copy in batches. */
+  private List<CopyTask> createDirectories(Path source, Path destination, PathFilter filter)
+      throws IOException {
+    Batcher batcher = new Batcher();
+    Files.walkFileTree(
+        source,
+        new SimpleFileVisitor<Path>() {
+          final CopyOption[] copyOptions = new CopyOption[] {StandardCopyOption.COPY_ATTRIBUTES};
+
+          @Override
+          public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs)
+              throws IOException {
+            if (dir.equals(source)) {
+              return FileVisitResult.CONTINUE;
+            }
+            Path relative = source.relativize(dir);
+            if (!filter.acceptsDirectory(relative)) {
+              return FileVisitResult.SKIP_SUBTREE;
+            }
+            Files.copy(dir, FileUtil.resolve(destination, relative), copyOptions);
+            return FileVisitResult.CONTINUE;
+          }
+
+          @Override
+          public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+            Path relative = source.relativize(file);
+            if (filter.acceptsFile(relative)) {
+              batcher.add(file, FileUtil.resolve(destination, relative), attrs.size());
+            }
+            return FileVisitResult.CONTINUE;
+          }
+        });
+    return batcher.finish();
+  }
+
+  /** Groups files into copy tasks: small files in batches, large files one per task. */
+  private class Batcher {
+    private final List<CopyTask> tasks = new ArrayList<>();
+    private List<Path> files = new ArrayList<>();
+    private List<Path> targets = new ArrayList<>();
+    private long batchBytes;
+
+    private void add(Path file, Path target, long size) {
+      if (size >= largeFileThreshold) {
+        tasks.add(
+            new CopyTask(Collections.singletonList(file), Collections.singletonList(target), true));
+        return;
+      }
+      files.add(file);
+      targets.add(target);
+      batchBytes += size;
+      if (files.size() >= BATCH_FILES || batchBytes >= BATCH_BYTES) {
+        flush();
+      }
+    }
+
+    private void flush() {
+      if (!files.isEmpty()) {
+        tasks.add(new CopyTask(files, targets, false));
+        files = new ArrayList<>();
+        targets = new ArrayList<>();
+        batchBytes = 0;
+      }
+    }
+
+    private List<CopyTask> finish() {
+      flush();
+      return tasks;
+    }
+  }
+
+  /** A large file or a batch of small files. */
+  private static class CopyTask {
+    private final List<Path> files;
+    private final List<Path> targets;
+    private final boolean large;
+
+    private CopyTask(List<Path> files, List<Path> targets, boolean large) {
+      this.files = files;
+      this.targets = targets;
+      this.large = large;
+    }
+
+    private void run() throws IOException {
+      for (int i = 0; i < files.size(); i++) {
+        if (large) {
+          transfer(files.get(i), targets.get(i));
+        } else {
+          Files.copy(files.get(i), targets.get(i), StandardCopyOption.COPY_ATTRIBUTES);
+        }
+      }
+    }
+  }
+
+  /** Copies a large file with {@link FileChannel#transferTo}, then its attributes. */
+  @VisibleForTesting
+  static void transfer(Path file, Path target) throws IOException {
+    try (FileChannel in = FileChannel.open(file, StandardOpenOption.READ);
+        FileChannel out =
+            FileChannel.open(target, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+      try {
+        transferFully(file, in, in.size(), out);
+      } catch (IOException ex) {
+        // don't leave a partial copy behind
+        out.close();
+        Files.deleteIfExists(target);
+        throw ex;
+      }
+    }
+
+    try {
+      PosixFileAttributeView sourcePosix =
+          Files.getFileAttributeView(file, PosixFileAttributeView.class);
+      PosixFileAttributeView targetPosix =
+          Files.getFileAttributeView(target, PosixFileAttributeView.class);
+      if (sourcePosix != null && targetPosix != null) {
+        targetPosix.setPermissions(sourcePosix.readAttributes().permissions());
+      }
+      BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+      Files.getFileAttributeView(target, BasicFileAttributeView.class)
+          .setTimes(
+              attributes.lastModifiedTime(),
+              attributes.lastAccessTime(),
+              attributes.creationTime());
+    } catch (IOException ex) {
+      // like Files.copy, don't leave a copy behind without its attributes
+      Files.deleteIfExists(target);
+      throw ex;
+    }
+  }
+
+  /**
+   * Transfers the first {@code size} bytes of {@code in} to {@code out}.
+   *
+   * @throws EOFException if {@code in} ends before {@code size} bytes, for example because the file
+   *     was truncated while it was copied
+   */
+  @VisibleForTesting
+  static void transferFully(Path file, FileChannel in, long size, FileChannel out)
+      throws IOException {
+    long position = 0;
+    while (position < size) {
+      long transferred = in.transferTo(position, size - position, out);
+      if (transferred == 0) {
+        throw new EOFException(
+            "Short copy of " + file + ": got " + position + " of " + size + " bytes");
+      }
+      position += transferred;
+    }
+  }
+
+  /** Shuts down the pool of this instance if it owns one, a shared pool is left running. */
+  @Override
+  public void close() {
+    if (ownsPool) {
+      pool.shutdown();
+    }
+  }
+
+  /** Splits the tasks in halves until a single task is left. */
+  private static class CopyAction extends RecursiveAction {
+    private static final long serialVersionUID = 1L;
+
+    private final transient List<CopyTask> tasks;
+    private final int from;
+    private final int to;
+
+    private CopyAction(List<CopyTask> tasks, int from, int to) {
+      this.tasks = tasks;
+      this.from = from;
+      this.to = to;
+    }
+
+    @Override
+    protected void compute() {
+      if (to - from == 1) {
+        try {
+          tasks.get(from).run();
+        } catch (IOException ex) {
+          throw new UncheckedIOException(ex);
+        }
+        return;
+      }
+      int middle = (from + to) >>> 1;
+      invokeAll(new CopyAction(tasks, from, middle), new CopyAction(tasks, middle, to));
+    }
+  }
+
+  public static Builder builder() {
+    return new Builder();
+  }
+
+  public static final class Builder {
+    // 0 for the shared pool
+    private int parallelism;
+    private long largeFileThreshold = DEFAULT_LARGE_FILE_THRESHOLD;
+
+    private Builder() {}
+
+    /**
+     * The number of files copied at the same time. The copy then owns a pool, shut it down with
+     * {@link ParallelDirectoryCopy#close()}.
+     */
+    public ParallelDirectoryCopy.Builder parallelism(int parallelism) {
+      Preconditions.checkArgument(parallelism > 0, "parallelism must be positive");
+      this.parallelism = parallelism;
+      return this;
+    }
+
+    /** Files of at least this many bytes are copied one per task with a file channel transfer. */
+    public ParallelDirectoryCopy.Builder largeFileThreshold(long largeFileThreshold) {
+      Preconditions.checkArgument(
+          largeFileThreshold >= 0, "largeFileThreshold must not be negative");
+      this.largeFileThreshold = largeFileThreshold;
+      return this;
+    }
+
+    /** Build a {@link ParallelDirectoryCopy}. */
+    public ParallelDirectoryCopy build() {
+      if (parallelism == 0) {
+        return new ParallelDirectoryCopy(IoPool.SHARED, false, largeFileThreshold);
+      }
+      return new ParallelDirectoryCopy(new ForkJoinPool(parallelism), true, largeFileThreshold);
+    }
+  }
+}
@@ -0,0 +1,320 @@
+/*
+ * Copyright 2026 Google LLC.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.tools.io;
+
+import com.google.common.annotations.Beta;
+import com.google.common.base.Joiner;
+import com.google.common.base.Preconditions;
+import com.google.common.base.Splitter;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Include and exclude glob patterns, compiled once and then evaluated against paths relative to the
+ * root of a directory walk. Patterns use the {@link java.nio.file.FileSystem#getPathMatcher glob}
+ * syntax with {@code /} as separator and follow {@code .gitignore} conventions:
+ *
+ * <ul>
+ *   <li>a pattern without {@code /}, like {@code node_modules} or {@code *.log}, matches a file or
+ *       directory name at any depth
+ *   <li>a pattern with {@code /}, like {@code build/tmp} or <code>static/**&#47;*.map</code>, is
+ *       anchored at the root, a leading <code>**&#47;</code> matches at any depth
+ *   <li>a pattern that matches a directory matches everything below it
+ * </ul>
+ *
+ * <p>A path is accepted if it is not excluded and, when there are include patterns, included.
+ * Literal pattern prefixes are kept in a trie, so a walk can skip a directory as soon as no pattern
+ * can accept anything below it rather than testing every file in it: see {@link
+ * #acceptsDirectory(Path)}.
+ */
+@Beta
+public class PathFilter {
+
+  private static final PathFilter ACCEPT_ALL = builder().build();
+
+  private final Patterns includes;
+  private final Patterns excludes;
+
+  private PathFilter(Patterns includes, Patterns excludes) {
+    this.includes = includes;
+    this.excludes = excludes;
+  }
+
+  /** Returns a filter that accepts every path. */
+  public static PathFilter acceptAll() {
+    return ACCEPT_ALL;
+  }
+
+  public static Builder builder() {
+    return new Builder();
+  }
+
+  /**
+   * Returns true if the walk should descend into {@code directory}, i.e. it is not excluded and
+   * something below it could be included.
+   *
+   * @param directory a directory path relative to the root of the walk
+   */
+  public boolean acceptsDirectory(Path directory) {
+    List<String> segments = segments(directory);
+    if (excludes.matches(segments)) {
+      return false;
+    }
+    return includes.isEmpty() || includes.matches(segments) || includes.mayMatchBelow(segments);
+  }
+
+  /**
+   * Returns true if {@code file} is not excluded and, when there are include patterns, included.
+   *
+   * @param file a file path relative to the root of the walk
+   */
+  public boolean acceptsFile(Path file) {
+    List<String> segments = segments(file);
+    if (excludes.matches(segments)) {
+      return false;
+    }
+    return includes.isEmpty() || includes.matches(segments);
+  }
+
+  private static List<String> segments(Path relative) {
+    Preconditions.checkArgument(!relative.isAbsolute(), "Path must be relative: %s", relative);
+    List<String> segments = new ArrayList<>(relative.getNameCount());
+    for (Path name : relative) {
+      String segment = name.toString();
+      if (!segment.isEmpty()) {
+        segments.add(segment);
+      }
+    }
+    return segments;
+  }
+
+  public static final class Builder {
+    private final Patterns includes = new Patterns();
+    private final Patterns excludes = new Patterns();
+
+    private Builder() {}
+
+    /** Adds glob patterns of paths to include. Without include patterns everything is included. */
+    public PathFilter.Builder include(Collection<String> patterns) {
+      for (String pattern : patterns) {
+        includes.add(pattern);
+      }
+      return this;
+    }
+
+    public PathFilter.Builder include(String... patterns) {
+      return include(Arrays.asList(patterns));
+    }
+
+    /** Adds glob patterns of paths to exclude. Excludes take precedence over includes. */
+    public PathFilter.Builder exclude(Collection<String> patterns) {
+      for (String pattern : patterns) {
+        excludes.add(pattern);
+      }
+      return this;
+    }
+
+    public PathFilter.Builder exclude(String... patterns) {
+      return exclude(Arrays.asList(patterns));
+    }
+
+    /**
+     * Excludes exact paths below {@code root}, as used by {@link FileUtil#copyDirectory(Path, Path,
+     * List)}. Paths outside of {@code root} and {@code root} itself are ignored.
+     */
+    public PathFilter.Builder excludePaths(Path root, Collection<Path> paths) {
+      for (Path path : paths) {
+        if (path.startsWith(root) && !path.equals(root)) {
+          excludes.addLiteral(segments(root.relativize(path)));
+        }
+      }
+      return this;
+    }
+
+    /** Build a {@link PathFilter}. */
+    public PathFilter build() {
+      return new PathFilter(includes.copy(), excludes.copy());
+    }
+  }
+
+  /** A compiled set of patterns. */
+  private static class Patterns {
+    private static final Splitter SEGMENTS = Splitter.on('/').omitEmptyStrings();
+    private static final Joiner JOINER = Joiner.on('/');
+
+    // unanchored patterns, matched against every name of a path
+    private final Set<String> names = new HashSet<>();
+    private final List<PathMatcher> nameGlobs = new ArrayList<>();
+    // anchored patterns, literal leading segments in the trie and the rest as a glob
+    private final Node root = new Node();
+
+    private boolean isEmpty() {
+      return names.isEmpty() && nameGlobs.isEmpty() && root.isEmpty();
+    }
+
+    private void add(String pattern) {
+      String normalized = pattern.trim().replace('\\', '/');
+      while (normalized.endsWith("/")) {
+        normalized = normalized.substring(0, normalized.length() - 1);
+      }
+      Preconditions.checkArgument(!normalized.isEmpty(), "Empty pattern: '%s'", pattern);
+
+      boolean anchored = normalized.startsWith("/");
+      List<String> segments = SEGMENTS.splitToList(normalized);
+      if (!anchored && segments.size() > 1 && segments.get(0).equals("**")) {
+        // "**/x" matches x at any depth, including the root
+        add(JOINER.join(segments.subList(1, segments.size())));
+        if (segments.size() == 2) {
+          return;
+        }
+      }
+      if (!anchored && segments.size() == 1) {
+        String name = segments.get(0);
+        if (isLiteral(name)) {
+          names.add(name);
+        } else {
+          nameGlobs.add(glob(name));
+        }
+        return;
+      }
+
+      Node node = root;
+      int literals = 0;
+      while (literals < segments.size() && isLiteral(segments.get(literals))) {
+        node = node.child(segments.get(literals++));
+      }
+      if (literals == segments.size()) {
+        node.terminal = true;
+        return;
+      }
+      List<String> rest = segments.subList(literals, segments.size());
+      node.globs.add(glob(JOINER.join(rest)));
+      if (rest.size() > 1 && rest.get(0).equals("**")) {
+        // "a/**/b" matches a/b too
+        node.globs.add(glob(JOINER.join(rest.subList(1, rest.size()))));
+      }
+    }
+
+    private void addLiteral(List<String> segments) {
+      Node node = root;
+      for (String segment : segments) {
+        node = node.child(segment);
+      }
+      node.terminal = true;
+    }
+
+    /** Returns true if a pattern matches {@code segments} or one of its parent directories. */
+    private boolean matches(List<String> segments) {
+      for (String name : segments) {
+        if (names.contains(name)) {
+          return true;
+        }
+        for (PathMatcher glob : nameGlobs) {
+          if (glob.matches(Paths.get(name))) {
+            return true;
+          }
+        }
+      }
+
+      Node node = root;
+      for (int depth = 0; node != null; depth++) {
+        if (node.terminal && depth > 0) {
+          return true;
+        }
+        for (PathMatcher glob : node.globs) {
+          for (int end = depth + 1; end <= segments.size(); end++) {
+            if (glob.matches(Paths.get(JOINER.join(segments.subList(depth, end))))) {
+              return true;
+            }
+          }
+        }
+        if (depth == segments.size()) {
+          return false;
+        }
+        node = node.children.get(segments.get(depth));
+      }
+      return false;
+    }
+
+    /** Returns true if a pattern could match something below the directory {@code segments}. */
+    private boolean mayMatchBelow(List<String> segments) {
+      if (!names.isEmpty() || !nameGlobs.isEmpty()) {
+        return true;
+      }
+      Node node = root;
+      for (String segment : segments) {
+        if (!node.globs.isEmpty()) {
+          // a glob can match at any depth, e.g. **
+          return true;
+        }
+        node = node.children.get(segment);
+        if (node == null) {
+          return false;
+        }
+      }
+      return true;
+    }
+
+    private Patterns copy() {
+      Patterns copy = new Patterns();
+      copy.names.addAll(names);
+      copy.nameGlobs.addAll(nameGlobs);
+      copy.root.merge(root);
+      return copy;
+    }
+
+    private static boolean isLiteral(String segment) {
+      return segment.chars().noneMatch(c -> "*?[]{}\\".indexOf(c) >= 0);
+    }
+
+    private static PathMatcher glob(String pattern) {
+      return FileSystems.getDefault().getPathMatcher("glob:" + pattern);
+    }
+  }
+
+  private static class Node {
+    private final Map<String, Node> children = new HashMap<>();
+    private final List<PathMatcher> globs = new ArrayList<>();
+    private boolean terminal;
+
+    private Node child(String segment) {
+      return children.computeIfAbsent(segment, ignored -> new Node());
+    }
+
+    private boolean isEmpty() {
+      return children.isEmpty() && globs.isEmpty() && !terminal;
+    }
+
+    private void merge(Node other) {
+      terminal |= other.terminal;
+      globs.addAll(other.globs);
+      for (Map.Entry<String, Node> child : other.children.entrySet()) {
+        child(child.getKey()).merge(child.getValue());
+      }
+    }
+  }
+}
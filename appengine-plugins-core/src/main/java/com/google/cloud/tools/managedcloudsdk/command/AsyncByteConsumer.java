@@ -16,6 +16,7 @@
 
 package com.google.cloud.tools.managedcloudsdk.command;
 
+import com.google.cloud.tools.appengine.operations.cloudsdk.internal.process.ProcessThreads;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Preconditions;
 import com.google.common.util.concurrent.ListenableFuture;
@@ -24,7 +25,6 @@ import com.google.common.util.concurrent.MoreExecutors;
 import com.google.common.util.concurrent.SettableFuture;
 import java.io.IOException;
 import java.io.InputStream;
-import java.util.concurrent.Executors;
 
 /**
  * AsyncWrapper to handle stream consumption on a separate thread. Do not re-use this on streams -
@@ -41,7 +41,7 @@ class AsyncByteConsumer implements AsyncStreamSaver {
   AsyncByteConsumer(ByteHandler byteHandler) {
     this(
         Preconditions.checkNotNull(byteHandler),
-        MoreExecutors.listeningDecorator(Executors.newSingleThreadExecutor()),
+        MoreExecutors.listeningDecorator(ProcessThreads.newOutputExecutor()),
         SettableFuture.<String>create());
   }
 
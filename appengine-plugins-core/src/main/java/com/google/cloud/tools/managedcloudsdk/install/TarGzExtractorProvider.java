@@ -16,9 +16,9 @@
 
 package com.google.cloud.tools.managedcloudsdk.install;
 
+import com.google.cloud.tools.io.FileUtil;
 import com.google.cloud.tools.managedcloudsdk.ProgressListener;
 import java.io.BufferedOutputStream;
-import java.io.File;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.nio.file.Files;
@@ -50,7 +50,7 @@ final class TarGzExtractorProvider implements ExtractorProvider {
     progressListener.start(
         "Extracting archive: " + archive.getFileName(), ProgressListener.UNKNOWN);
 
-    String canonicalDestination = destination.toFile().getCanonicalPath();
+    Path canonicalDestination = FileUtil.canonicalize(destination);
 
     GzipCompressorInputStream gzipIn = new GzipCompressorInputStream(Files.newInputStream(archive));
     try (TarArchiveInputStream in = new TarArchiveInputStream(gzipIn)) {
@@ -58,8 +58,9 @@ final class TarGzExtractorProvider implements ExtractorProvider {
       while ((entry = in.getNextTarEntry()) != null) {
         Path entryTarget = destination.resolve(entry.getName());
 
-        String canonicalTarget = entryTarget.toFile().getCanonicalPath();
-        if (!canonicalTarget.startsWith(canonicalDestination + File.separator)) {
+        Path canonicalTarget = FileUtil.canonicalize(entryTarget);
+        if (!canonicalTarget.startsWith(canonicalDestination)
+            || canonicalTarget.equals(canonicalDestination)) {
           throw new IOException("Blocked unzipping files outside destination: " + entry.getName());
         }
 
@@ -16,10 +16,10 @@
 
 package com.google.cloud.tools.managedcloudsdk.install;
 
+import com.google.cloud.tools.io.FileUtil;
 import com.google.cloud.tools.managedcloudsdk.ProgressListener;
 import com.google.common.annotations.VisibleForTesting;
 import java.io.BufferedOutputStream;
-import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
@@ -53,20 +53,22 @@ final class ZipExtractorProvider implements ExtractorProvider {
     progressListener.start(
         "Extracting archive: " + archive.getFileName(), ProgressListener.UNKNOWN);
 
-    String canonicalDestination = destination.toFile().getCanonicalPath();
+    Path canonicalDestination = FileUtil.canonicalize(destination);
 
     // Use ZipFile instead of ZipArchiveInputStream so that we can obtain file permissions
     // on unix-like systems via getUnixMode(). ZipArchiveInputStream doesn't have access to
     // all the zip file data and will return "0" for any call to getUnixMode().
-    try (ZipFile zipFile = new ZipFile(archive.toFile())) {
+    try (ZipFile zipFile =
+        ZipFile.builder().setSeekableByteChannel(Files.newByteChannel(archive)).get()) {
       // TextProgressBar progressBar = textBarFactory.newProgressBar(messageListener, count);
       Enumeration<ZipArchiveEntry> zipEntries = zipFile.getEntries();
       while (zipEntries.hasMoreElements()) {
         ZipArchiveEntry entry = zipEntries.nextElement();
         Path entryTarget = destination.resolve(entry.getName());
 
-        String canonicalTarget = entryTarget.toFile().getCanonicalPath();
-        if (!canonicalTarget.startsWith(canonicalDestination + File.separator)) {
+        Path canonicalTarget = FileUtil.canonicalize(entryTarget);
+        if (!canonicalTarget.startsWith(canonicalDestination)
+            || canonicalTarget.equals(canonicalDestination)) {
           throw new IOException("Blocked unzipping files outside destination: " + entry.getName());
         }
 
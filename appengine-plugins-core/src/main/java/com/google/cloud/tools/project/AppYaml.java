@@ -17,16 +17,38 @@
 package com.google.cloud.tools.project;
 
 import com.google.cloud.tools.appengine.AppEngineException;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.io.CharStreams;
+import java.io.IOException;
 import java.io.InputStream;
+import java.io.StringReader;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.Map;
+import java.util.Set;
 import javax.annotation.Nullable;
 import org.yaml.snakeyaml.LoaderOptions;
 import org.yaml.snakeyaml.Yaml;
 import org.yaml.snakeyaml.constructor.SafeConstructor;
 import org.yaml.snakeyaml.error.YAMLException;
+import org.yaml.snakeyaml.events.CollectionStartEvent;
+import org.yaml.snakeyaml.events.Event;
+import org.yaml.snakeyaml.events.ScalarEvent;
+import org.yaml.snakeyaml.nodes.NodeId;
+import org.yaml.snakeyaml.nodes.Tag;
+import org.yaml.snakeyaml.reader.UnicodeReader;
+import org.yaml.snakeyaml.resolver.Resolver;
 
-/** Tools for reading {@code app.yaml}. */
+/**
+ * Tools for reading {@code app.yaml}. Parsed instances are immutable.
+ *
+ * <p>Parsing only collects the top-level scalar values, from the YAML event stream, without
+ * constructing the (possibly large) rest of the document such as {@code handlers}. The full
+ * document is loaded when nested data like {@code env_variables} is first requested, or up front if
+ * the document uses features the scan doesn't model (aliases, merge keys, explicit tags).
+ */
 public class AppYaml {
 
   private static final String ENVIRONMENT_TYPE_KEY = "env";
@@ -39,7 +61,18 @@ public class AppYaml {
   private static final String MODULE_KEY = "module";
   private static final String ENVIRONMENT_VARIABLES_KEY = "env_variables";
 
-  private final Map<String, ?> yamlMap;
+  private static final String MERGE_KEY = "<<";
+  private static final Set<String> SCANNABLE_TAGS = ImmutableSet.of("!", Tag.STR.getValue());
+
+  // Yaml instances are not thread safe, but cheap to reuse on one thread
+  private static final ThreadLocal<Yaml> yaml =
+      ThreadLocal.withInitial(() -> new Yaml(new SafeConstructor(new LoaderOptions())));
+  // only read after construction
+  private static final Resolver resolver = new Resolver();
+
+  @Nullable private final Map<String, String> topLevelStrings;
+  @Nullable private final String contents;
+  @Nullable private volatile Map<String, ?> yamlMap;
 
   /**
    * Parse an app.yaml file to an AppYaml object.
@@ -48,22 +81,34 @@ public class AppYaml {
    * @throws AppEngineException if reading app.yaml fails while scanning such as due to malformed
    *     YAML
    */
-  @SuppressWarnings("unchecked")
   public static AppYaml parse(InputStream input) throws AppEngineException {
+    String contents;
+    try {
+      contents = CharStreams.toString(new UnicodeReader(input));
+    } catch (IOException ex) {
+      throw new AppEngineException("Failed to read 'app.yaml'.", ex);
+    }
     try {
-      // our needs are simple so just load using primitive objects
-      Yaml yaml = new Yaml(new SafeConstructor(new LoaderOptions()));
-      Map<String, ?> contents = (Map<String, ?>) yaml.load(input);
-      return new AppYaml(contents);
+      Map<String, String> topLevelStrings = scanTopLevelStrings(contents);
+      if (topLevelStrings == null) {
+        return new AppYaml(load(contents));
+      }
+      return new AppYaml(topLevelStrings, contents);
     } catch (YAMLException ex) {
       throw new AppEngineException("Malformed 'app.yaml'.", ex);
     }
   }
 
   private AppYaml(@Nullable Map<String, ?> yamlMap) {
-    this.yamlMap = yamlMap == null ? Collections.emptyMap() : yamlMap;
+    this.topLevelStrings = null;
+    this.contents = null;
+    this.yamlMap = unmodifiable(yamlMap);
   }
 
+  private AppYaml(Map<String, String> topLevelStrings, String contents) {
+    this.topLevelStrings = Collections.unmodifiableMap(topLevelStrings);
+    this.contents = contents;
+  }
   /**
    * Return the content of the {@code environment} field, which defines this app's required App
    * Engine environment.
@@ -125,16 +170,138 @@ public class AppYaml {
     return getStringMap(ENVIRONMENT_VARIABLES_KEY);
   }
 
+  /** Returns true if the top-level values were read without loading the full document. */
+  @VisibleForTesting
+  boolean isScanned() {
+    return topLevelStrings != null;
+  }
+
   @Nullable
   private String getString(String key) {
-    Object value = yamlMap.get(key);
+    if (topLevelStrings != null) {
+      return topLevelStrings.get(key);
+    }
+    Object value = getYamlMap().get(key);
     return value instanceof String ? (String) value : null;
   }
 
   @Nullable
   @SuppressWarnings("unchecked")
   private Map<String, ?> getStringMap(String key) {
-    Object value = yamlMap.get(key);
-    return value instanceof Map<?, ?> ? (Map<String, ?>) value : null;
+    Object value = getYamlMap().get(key);
+    return value instanceof Map<?, ?> ? Collections.unmodifiableMap((Map<String, ?>) value) : null;
+  }
+
+  private Map<String, ?> getYamlMap() {
+    Map<String, ?> map = yamlMap;
+    if (map == null) {
+      synchronized (this) {
+        map = yamlMap;
+        if (map == null) {
+          try {
+            map = unmodifiable(load(Preconditions.checkNotNull(contents)));
+          } catch (YAMLException ex) {
+            // the event scan accepted the document, so this is not expected
+            throw new IllegalStateException("Malformed 'app.yaml'.", ex);
+          }
+          yamlMap = map;
+        }
+      }
+    }
+    return map;
+  }
+
+  @Nullable
+  @SuppressWarnings("unchecked")
+  private static Map<String, ?> load(String contents) {
+    // our needs are simple so just load using primitive objects
+    return (Map<String, ?>) yaml.get().load(contents);
+  }
+
+  private static Map<String, ?> unmodifiable(@Nullable Map<String, ?> map) {
+    return map == null ? Collections.emptyMap() : Collections.unmodifiableMap(map);
+  }
+
+  /**
+   * Collects the top-level keys with a string value from the YAML events of {@code contents}, the
+   * way {@link SafeConstructor} would resolve them. Returns null if the document needs to be loaded
+   * fully to get the same result: if the root is not a mapping, or the document has more than one
+   * root, merge keys, aliases or explicit tags other than {@code !!str}.
+   */
+  @Nullable
+  private static Map<String, String> scanTopLevelStrings(String contents) {
+    Map<String, String> strings = new HashMap<>();
+    int documents = 0;
+    int depth = 0;
+    boolean keyExpected = false;
+    @Nullable String key = null;
+    for (Event event : yaml.get().parse(new StringReader(contents))) {
+      switch (event.getEventId()) {
+        case Alias:
+          return null;
+        case DocumentStart:
+          if (++documents > 1) {
+            return null;
+          }
+          break;
+        case MappingStart:
+        case SequenceStart:
+          if (!SCANNABLE_TAGS.contains(tagOrDefault(((CollectionStartEvent) event).getTag()))
+              || (depth == 0 && event.getEventId() == Event.ID.SequenceStart)
+              || (depth == 1 && keyExpected)) {
+            // a sequence root, or a complex key
+            return null;
+          }
+          if (depth == 1 && key != null) {
+            strings.remove(key);
+          }
+          depth++;
+          keyExpected = depth == 1;
+          break;
+        case MappingEnd:
+        case SequenceEnd:
+          depth--;
+          keyExpected = depth == 1;
+          break;
+        case Scalar:
+          ScalarEvent scalar = (ScalarEvent) event;
+          if (!SCANNABLE_TAGS.contains(tagOrDefault(scalar.getTag()))
+              || MERGE_KEY.equals(scalar.getValue())
+              || depth == 0) {
+            return null;
+          }
+          if (depth == 1) {
+            if (keyExpected) {
+              key = isString(scalar) ? scalar.getValue() : null;
+            } else if (key != null) {
+              if (isString(scalar)) {
+                strings.put(key, scalar.getValue());
+              } else {
+                // a later duplicate key replaces the earlier value
+                strings.remove(key);
+              }
+            }
+            keyExpected = !keyExpected;
+          }
+          break;
+        default:
+          break;
+      }
+    }
+    return strings;
+  }
+
+  private static String tagOrDefault(@Nullable String tag) {
+    return tag == null ? "!" : tag;
+  }
+
+  private static boolean isString(ScalarEvent scalar) {
+    String tag = scalar.getTag();
+    if (tag == null || tag.equals("!")) {
+      return resolver
+          .resolve(NodeId.scalar, scalar.getValue(), scalar.getImplicit().canOmitTagInPlainScalar())
+          .equals(Tag.STR);
+    }
+    return tag.equals(Tag.STR.getValue());
   }
 }
@@ -0,0 +1,59 @@
+/*
+ * Copyright 2026 Google LLC.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.tools.appengine.operations.cloudsdk.internal.process;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Java 21 implementation of the process threads, packaged in the multi-release jar. Output is
+ * pumped on virtual threads and process exit is observed through {@link Process#onExit()}, so no
+ * platform thread is parked per running process. See the Java 8 version for the API contract.
+ */
+public final class ProcessThreads {
+
+  private static final ExecutorService VIRTUAL_THREADS =
+      Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("process-exit-", 0).factory());
+
+  private ProcessThreads() {}
+
+  /** Starts a virtual thread that runs {@code task}, typically reading a process output stream. */
+  public static Thread startOutputThread(String name, Runnable task) {
+    return Thread.ofVirtual().name(name).start(task);
+  }
+
+  /** Returns an executor for stream consumers, it runs each submitted task on a virtual thread. */
+  public static ExecutorService newOutputExecutor() {
+    return Executors.newVirtualThreadPerTaskExecutor();
+  }
+
+  /**
+   * Returns a future that is completed with the exit code of {@code process} once it has exited.
+   * Dependent actions run on a virtual thread, never on the JDK process reaper thread.
+   *
+   * @param process the process to watch
+   * @param name unused, exit is observed without a dedicated thread
+   */
+  public static CompletableFuture<Integer> onExit(Process process, String name) {
+    // wrappers only see the exit through their own methods, wait on the real process and then
+    // let the wrapper observe the exit code
+    Process watched =
+        process instanceof MeteredProcess metered ? metered.getDelegate() : process;
+    return watched.onExit().thenApplyAsync(exited -> process.exitValue(), VIRTUAL_THREADS);
+  }
+}
@@ -0,0 +1,33 @@
+/*
+ * Copyright 2026 Google LLC.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.appengine.tools.info;
+
+import java.io.File;
+
+/** Stands in for the SdkInfo of the App Engine SDK in InProcessAppCfgTest. */
+public class SdkInfo {
+
+  private static File sdkRoot;
+
+  public static void setSdkRoot(File root) {
+    sdkRoot = root;
+  }
+
+  public static File getSdkRoot() {
+    return sdkRoot;
+  }
+}
@@ -28,6 +28,7 @@ import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.nio.charset.StandardCharsets;
+import java.util.EnumSet;
 import java.util.Map;
 import javax.xml.parsers.DocumentBuilderFactory;
 import javax.xml.parsers.ParserConfigurationException;
@@ -226,6 +227,79 @@ public class AppEngineDescriptorTest {
     assertFalse(descriptor.isJava8());
   }
 
+  @Test
+  public void testIsVm() throws AppEngineException, IOException, SAXException {
+    assertTrue(parse(ROOT_START_TAG + "<vm>true</vm>" + ROOT_END_TAG).isVm());
+    assertFalse(parse(ROOT_START_TAG + "<vm>false</vm>" + ROOT_END_TAG).isVm());
+    assertFalse(parse(ROOT_START_TAG + ROOT_END_TAG).isVm());
+  }
+
+  @Test
+  public void testIsVm_noNamespace() throws AppEngineException, IOException, SAXException {
+    assertTrue(parse("<appengine-web-app><vm>true</vm></appengine-web-app>").isVm());
+    assertFalse(parse("<appengine-web-app><vm>TRUE</vm></appengine-web-app>").isVm());
+    assertFalse(parse(ROOT_START_TAG_WITH_INVALID_NS + "<vm>true</vm>" + ROOT_END_TAG).isVm());
+  }
+
+  @Test
+  public void testParse_requestedFields() throws AppEngineException, IOException, SAXException {
+    // reading stops before the unterminated element
+    String xml = ROOT_START_TAG + RUNTIME + SERVICE + "<vm>true";
+    AppEngineDescriptor descriptor =
+        AppEngineDescriptor.parse(
+            new ByteArrayInputStream(xml.getBytes(StandardCharsets.UTF_8)),
+            EnumSet.of(AppEngineDescriptor.Field.RUNTIME, AppEngineDescriptor.Field.SERVICE));
+
+    assertEquals(RUNTIME_ID, descriptor.getRuntime());
+    assertEquals(TEST_ID, descriptor.getServiceId());
+    try {
+      descriptor.getProjectId();
+      Assert.fail();
+    } catch (IllegalStateException ex) {
+      assertEquals("APPLICATION was not parsed", ex.getMessage());
+    }
+  }
+
+  @Test
+  public void testParse_malformed() throws IOException {
+    try {
+      parse(ROOT_START_TAG + "<runtime>java8</version>" + ROOT_END_TAG);
+      Assert.fail();
+    } catch (SAXException ex) {
+      assertTrue(ex instanceof SAXParseException);
+    }
+  }
+
+  @Test
+  public void testParse_textContent() throws AppEngineException, IOException, SAXException {
+    AppEngineDescriptor descriptor =
+        parse(
+            ROOT_START_TAG
+                + "<application><![CDATA[foo]]><b>Id</b></application>"
+                + "<service>first</service><service>second</service>"
+                + ROOT_END_TAG);
+
+    assertEquals(TEST_ID, descriptor.getProjectId());
+    assertEquals("first", descriptor.getServiceId());
+  }
+
+  @Test
+  public void testParse_fromDocument()
+      throws AppEngineException, IOException, SAXException, ParserConfigurationException {
+    String xml = ROOT_START_TAG + PROJECT_ID + SERVICE + ENVIRONMENT + ROOT_END_TAG;
+    DocumentBuilderFactory documentBuilderFactory = DocumentBuilderFactory.newInstance();
+    documentBuilderFactory.setNamespaceAware(true);
+    AppEngineDescriptor descriptor =
+        new AppEngineDescriptor(
+            documentBuilderFactory
+                .newDocumentBuilder()
+                .parse(new ByteArrayInputStream(xml.getBytes(StandardCharsets.UTF_8))));
+
+    assertEquals(TEST_ID, descriptor.getProjectId());
+    assertEquals(TEST_ID, descriptor.getServiceId());
+    assertEquals(parse(xml).getEnvironment(), descriptor.getEnvironment());
+  }
+
   @Test
   public void testParseAttributeMapValues() throws AppEngineException, IOException, SAXException {
     Map<String, String> environment =
@@ -0,0 +1,118 @@
+/*
+ * Copyright 2026 Google LLC.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.tools.appengine;
+
+import com.google.cloud.tools.project.AppYaml;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.xml.sax.SAXException;
+
+public class DescriptorCacheTest {
+
+  @Rule public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+  private final DescriptorCache cache = new DescriptorCache();
+  private Path appYaml;
+  private Path appEngineWebXml;
+
+  @Before
+  public void setUp() throws IOException {
+    appYaml = temporaryFolder.getRoot().toPath().resolve("app.yaml");
+    appEngineWebXml = temporaryFolder.getRoot().toPath().resolve("appengine-web.xml");
+  }
+
+  @Test
+  public void testGetAppYaml_parsedOnce() throws IOException, AppEngineException {
+    write(appYaml, "runtime: java11\n", 1000);
+
+    AppYaml parsed = cache.getAppYaml(appYaml);
+    Assert.assertEquals("java11", parsed.getRuntime());
+    Assert.assertSame(parsed, cache.getAppYaml(appYaml));
+    Assert.assertSame(
+        parsed, cache.getAppYaml(temporaryFolder.getRoot().toPath().resolve("./app.yaml")));
+  }
+
+  @Test
+  public void testGetAppYaml_reparsedWhenModified() throws IOException, AppEngineException {
+    write(appYaml, "runtime: java11\n", 1000);
+    AppYaml parsed = cache.getAppYaml(appYaml);
+
+    // same size, different modification time
+    write(appYaml, "runtime: java17\n", 2000);
+    AppYaml reparsed = cache.getAppYaml(appYaml);
+    Assert.assertNotSame(parsed, reparsed);
+    Assert.assertEquals("java17", reparsed.getRuntime());
+
+    // same modification time, different size
+    write(appYaml, "runtime: java8\n", 2000);
+    Assert.assertEquals("java8", cache.getAppYaml(appYaml).getRuntime());
+  }
+
+  @Test
+  public void testGetAppYaml_failureNotCached() throws IOException, AppEngineException {
+    write(appYaml, "runtime: [java11\n", 1000);
+    try {
+      cache.getAppYaml(appYaml);
+      Assert.fail();
+    } catch (AppEngineException ex) {
+      Assert.assertEquals("Malformed 'app.yaml'.", ex.getMessage());
+    }
+
+    write(appYaml, "runtime: java11\n", 2000);
+    Assert.assertEquals("java11", cache.getAppYaml(appYaml).getRuntime());
+  }
+
+  @Test
+  public void testGetAppEngineDescriptor_parsedOnce()
+      throws IOException, SAXException, AppEngineException {
+    write(
+        appEngineWebXml,
+        "<appengine-web-app xmlns='http://appengine.google.com/ns/1.0'>"
+            + "<runtime>java8</runtime></appengine-web-app>",
+        1000);
+
+    AppEngineDescriptor parsed = cache.getAppEngineDescriptor(appEngineWebXml);
+    Assert.assertEquals("java8", parsed.getRuntime());
+    Assert.assertSame(parsed, cache.getAppEngineDescriptor(appEngineWebXml));
+
+    cache.clear();
+    Assert.assertNotSame(parsed, cache.getAppEngineDescriptor(appEngineWebXml));
+  }
+
+  @Test
+  public void testGetAppEngineDescriptor_missingFile() throws SAXException {
+    try {
+      cache.getAppEngineDescriptor(appEngineWebXml);
+      Assert.fail();
+    } catch (IOException ex) {
+      Assert.assertEquals(appEngineWebXml.toString(), ex.getMessage());
+    }
+  }
+
+  private static void write(Path file, String content, long modifiedMillis) throws IOException {
+    Files.write(file, content.getBytes(StandardCharsets.UTF_8));
+    Files.setLastModifiedTime(file, FileTime.fromMillis(modifiedMillis));
+  }
+}
@@ -17,6 +17,7 @@
 package com.google.cloud.tools.appengine.operations;
 
 import com.google.cloud.tools.appengine.operations.cloudsdk.process.ProcessHandler;
+import com.google.cloud.tools.appengine.operations.cloudsdk.process.ProcessMetricsListener;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.Mock;
@@ -29,10 +30,31 @@ public class AppCfgTest {
   @Mock private AppCfgRunner.Factory appCfgRunnerFactory;
   @Mock private CloudSdk sdk;
   @Mock private ProcessHandler processHandler;
+  @Mock private ProcessMetricsListener processMetricsListener;
 
   @Test
   public void testGetRunner_parametersPassedToFactory() {
     new AppCfg.Builder(sdk, appCfgRunnerFactory).build().getRunner(processHandler);
-    Mockito.verify(appCfgRunnerFactory).newRunner(sdk, processHandler);
+    Mockito.verify(appCfgRunnerFactory).newRunner(sdk, processHandler, null);
+  }
+
+  @Test
+  public void testGetRunner_metricsListenerPassedToFactory() {
+    new AppCfg.Builder(sdk, appCfgRunnerFactory)
+        .setProcessMetricsListener(processMetricsListener)
+        .build()
+        .getRunner(processHandler);
+    Mockito.verify(appCfgRunnerFactory).newRunner(sdk, processHandler, processMetricsListener);
+  }
+
+  @Test
+  public void testGetRunner_inProcess() {
+    new AppCfg.Builder(sdk, appCfgRunnerFactory)
+        .setProcessMetricsListener(processMetricsListener)
+        .setInProcess(true)
+        .build()
+        .getRunner(processHandler);
+    Mockito.verify(appCfgRunnerFactory)
+        .newInProcessRunner(sdk, processHandler, processMetricsListener);
   }
 }
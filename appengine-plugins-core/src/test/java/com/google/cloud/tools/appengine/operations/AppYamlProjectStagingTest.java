@@ -21,6 +21,8 @@ import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doCallRealMethod;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
@@ -29,17 +31,32 @@ import static org.mockito.Mockito.verifyNoMoreInteractions;
 
 import com.google.cloud.tools.appengine.AppEngineException;
 import com.google.cloud.tools.appengine.configuration.AppYamlProjectStageConfiguration;
+import com.google.cloud.tools.io.FileUtil;
+import com.google.cloud.tools.io.PathFilter;
 import com.google.cloud.tools.test.utils.LogStoringHandler;
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
 import java.io.IOException;
+import java.net.URI;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystem;
+import java.nio.file.FileSystems;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
 import java.util.List;
+import java.util.Map;
+import java.util.jar.Attributes;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+import java.util.jar.Manifest;
 import java.util.logging.Level;
 import java.util.logging.LogRecord;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import javax.annotation.Nullable;
 import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Rule;
@@ -330,7 +347,8 @@ public class AppYamlProjectStagingTest {
 
     List<LogRecord> logs = handler.getLogs();
     assertEquals(0, logs.size());
-    verify(copyService).copyDirectory(dockerDirectory, stagingDirectory);
+    verify(copyService)
+        .copyDirectory(eq(dockerDirectory), eq(stagingDirectory), any(PathFilter.class));
   }
 
   @Test
@@ -360,7 +378,8 @@ public class AppYamlProjectStagingTest {
     List<LogRecord> logs = handler.getLogs();
     assertEquals(0, logs.size());
 
-    verify(copyService).copyDirectory(dockerDirectory, stagingDirectory);
+    verify(copyService)
+        .copyDirectory(eq(dockerDirectory), eq(stagingDirectory), any(PathFilter.class));
   }
 
   @Test
@@ -426,8 +445,12 @@ public class AppYamlProjectStagingTest {
   @Test
   public void testCopyExtraFiles_doCopy() throws IOException, AppEngineException {
     AppYamlProjectStaging.copyExtraFiles(config, copyService);
-    verify(copyService).copyDirectory(extraFilesDirectories.get(0), stagingDirectory);
-    verify(copyService).copyDirectory(extraFilesDirectories.get(1), stagingDirectory);
+    verify(copyService)
+        .copyDirectory(
+            eq(extraFilesDirectories.get(0)), eq(stagingDirectory), any(PathFilter.class));
+    verify(copyService)
+        .copyDirectory(
+            eq(extraFilesDirectories.get(1)), eq(stagingDirectory), any(PathFilter.class));
     verifyNoMoreInteractions(copyService);
   }
 
@@ -611,6 +634,90 @@ public class AppYamlProjectStagingTest {
         logs.get(0).getMessage());
   }
 
+  @Test
+  public void testResolveJarClasspath_nestedEntries() throws IOException {
+    Path build = temporaryFolder.newFolder("build").toPath();
+    Path artifact = writeJar(build.resolve("app.jar"), "lib/a.jar lib/b.jar");
+    writeJar(build.resolve("lib/a.jar"), "c.jar ../lib/b.jar");
+    writeJar(build.resolve("lib/b.jar"), null);
+    // references the artifact's first dependency again
+    writeJar(build.resolve("lib/c.jar"), "a.jar");
+
+    Map<Path, Path> jars = AppYamlProjectStaging.resolveJarClasspath(artifact);
+
+    assertEquals(
+        ImmutableList.of(Paths.get("lib/a.jar"), Paths.get("lib/b.jar"), Paths.get("lib/c.jar")),
+        ImmutableList.copyOf(jars.keySet()));
+    assertEquals(build.resolve("lib").resolve("c.jar"), jars.get(Paths.get("lib/c.jar")));
+  }
+
+  @Test
+  public void testResolveJarClasspath_nestedEntriesMissingOrOutside() throws IOException {
+    Path build = temporaryFolder.newFolder("build").toPath();
+    Path artifact = writeJar(build.resolve("app.jar"), "lib/a.jar");
+    Path a = writeJar(build.resolve("lib/a.jar"), "missing.jar ../../outside.jar");
+    writeJar(temporaryFolder.getRoot().toPath().resolve("outside.jar"), null);
+
+    Map<Path, Path> jars = AppYamlProjectStaging.resolveJarClasspath(artifact);
+
+    assertEquals(ImmutableList.of(Paths.get("lib/a.jar")), ImmutableList.copyOf(jars.keySet()));
+    List<LogRecord> logs = handler.getLogs();
+    assertEquals(2, logs.size());
+    assertEquals(Level.FINE, logs.get(0).getLevel());
+    assertEquals(
+        "Could not copy 'Class-Path' jar: "
+            + build.resolve("lib").resolve("missing.jar")
+            + " referenced in MANIFEST.MF",
+        logs.get(0).getMessage());
+    assertEquals(Level.WARNING, logs.get(1).getLevel());
+    assertEquals(
+        "Not copying 'Class-Path' jar: "
+            + build.resolve("lib").resolve("../../outside.jar")
+            + " referenced in MANIFEST.MF of "
+            + a
+            + ", it is outside of "
+            + build,
+        logs.get(1).getMessage());
+  }
+
+  @Test
+  public void testStageArchive_jarStore() throws IOException, AppEngineException {
+    Files.write(
+        appEngineDirectory.resolve("app.yaml"),
+        "runtime: java17\n".getBytes(StandardCharsets.UTF_8),
+        StandardOpenOption.CREATE_NEW);
+    Path build = temporaryFolder.newFolder("build").toPath();
+    Path jar = writeJar(build.resolve("app.jar"), "lib/a.jar");
+    writeJar(build.resolve("lib/a.jar"), "b.jar");
+    writeJar(build.resolve("lib/b.jar"), null);
+    Path jarStore = temporaryFolder.getRoot().toPath().resolve("jar-store");
+    Path otherStaging = temporaryFolder.newFolder("other-staging").toPath();
+
+    for (boolean sync : new boolean[] {false, true}) {
+      new AppYamlProjectStaging()
+          .stageArchive(
+              AppYamlProjectStageConfiguration.builder()
+                  .appEngineDirectory(appEngineDirectory)
+                  .artifact(jar)
+                  .stagingDirectory(sync ? otherStaging : stagingDirectory)
+                  .jarStoreDirectory(jarStore)
+                  .sync(sync)
+                  .build());
+    }
+
+    for (Path staging : ImmutableList.of(stagingDirectory, otherStaging)) {
+      assertEquals(
+          ImmutableList.of("", "app.jar", "app.yaml", "lib", "lib/a.jar", "lib/b.jar"),
+          listFiles(staging));
+      assertArrayEquals(
+          Files.readAllBytes(build.resolve("lib/b.jar")),
+          Files.readAllBytes(staging.resolve("lib/b.jar")));
+    }
+    try (Stream<Path> stored = Files.walk(jarStore)) {
+      assertEquals(2, stored.filter(file -> file.toString().endsWith(".jar")).count());
+    }
+  }
+
   @Test
   public void testCopyService_copiesToExistingFile() throws IOException {
     AppYamlProjectStaging.CopyService copier = new AppYamlProjectStaging.CopyService();
@@ -656,4 +763,246 @@ public class AppYamlProjectStagingTest {
 
     assertArrayEquals(Files.readAllBytes(srcFile), Files.readAllBytes(destFile));
   }
+
+  @Test
+  public void testStageArchive_syncRemovesStaleFilesAndKeepsUnchanged()
+      throws IOException, AppEngineException {
+    Files.write(
+        appEngineDirectory.resolve("app.yaml"),
+        "runtime: java17\n".getBytes(StandardCharsets.UTF_8),
+        StandardOpenOption.CREATE_NEW);
+    Files.write(
+        extraFilesDirectories.get(0).resolve("extra.txt"),
+        "extra".getBytes(StandardCharsets.UTF_8));
+    AppYamlProjectStageConfiguration syncConfig =
+        AppYamlProjectStageConfiguration.builder()
+            .appEngineDirectory(appEngineDirectory)
+            .artifact(Paths.get("src/test/resources/jars/complexLib.jar"))
+            .stagingDirectory(stagingDirectory)
+            .extraFilesDirectories(extraFilesDirectories)
+            .sync(true)
+            .build();
+    AppYamlProjectStaging staging = new AppYamlProjectStaging();
+    staging.stageArchive(syncConfig);
+
+    // a staged file with the size and time of its source is not copied again
+    Path stagedAppYaml = stagingDirectory.resolve("app.yaml");
+    FileTime stagedTime = Files.getLastModifiedTime(stagedAppYaml);
+    Files.write(stagedAppYaml, "runtime: java99\n".getBytes(StandardCharsets.UTF_8));
+    Files.setLastModifiedTime(stagedAppYaml, stagedTime);
+    Files.delete(extraFilesDirectories.get(0).resolve("extra.txt"));
+    Files.createFile(stagingDirectory.resolve("stale.txt"));
+    staging.stageArchive(syncConfig);
+
+    assertEquals(
+        "runtime: java99\n", new String(Files.readAllBytes(stagedAppYaml), StandardCharsets.UTF_8));
+    assertTrue(Files.isRegularFile(stagingDirectory.resolve("complexLib.jar")));
+    assertTrue(Files.isRegularFile(stagingDirectory.resolve("libs/simpleLib.jar")));
+    assertFalse(Files.exists(stagingDirectory.resolve("extra.txt")));
+    assertFalse(Files.exists(stagingDirectory.resolve("stale.txt")));
+  }
+
+  @Test
+  public void testSyncCopyService_producesSameResultAsCopy()
+      throws IOException, AppEngineException {
+    Files.write(
+        appEngineDirectory.resolve("app.yaml"),
+        "runtime: java17\n".getBytes(StandardCharsets.UTF_8),
+        StandardOpenOption.CREATE_NEW);
+    Files.createDirectories(extraFilesDirectories.get(0).resolve("static/css"));
+    Files.write(
+        extraFilesDirectories.get(0).resolve("static/css/site.css"),
+        "body {}".getBytes(StandardCharsets.UTF_8));
+    Path copyDirectory = temporaryFolder.newFolder("copy").toPath();
+    AppYamlProjectStageConfiguration.Builder builder =
+        AppYamlProjectStageConfiguration.builder()
+            .appEngineDirectory(appEngineDirectory)
+            .artifact(Paths.get("src/test/resources/jars/complexLib.jar"))
+            .extraFilesDirectories(extraFilesDirectories);
+
+    new AppYamlProjectStaging()
+        .stageArchive(builder.stagingDirectory(copyDirectory).sync(false).build());
+    new AppYamlProjectStaging()
+        .stageArchive(builder.stagingDirectory(stagingDirectory).sync(true).build());
+
+    assertEquals(listFiles(copyDirectory), listFiles(stagingDirectory));
+  }
+
+  @Test
+  public void testStageArchive_parallelCopy() throws IOException, AppEngineException {
+    Files.write(
+        appEngineDirectory.resolve("app.yaml"),
+        "runtime: java17\n".getBytes(StandardCharsets.UTF_8),
+        StandardOpenOption.CREATE_NEW);
+    for (int i = 0; i < 100; i++) {
+      Path file = extraFilesDirectories.get(0).resolve("static/dir" + (i % 10) + "/" + i + ".txt");
+      Files.createDirectories(file.getParent());
+      Files.write(file, ("file " + i).getBytes(StandardCharsets.UTF_8));
+    }
+    Files.createFile(extraFilesDirectories.get(0).resolve("static/app.log"));
+    Path copyDirectory = temporaryFolder.newFolder("copy").toPath();
+    AppYamlProjectStageConfiguration.Builder builder =
+        AppYamlProjectStageConfiguration.builder()
+            .appEngineDirectory(appEngineDirectory)
+            .artifact(Paths.get("src/test/resources/jars/complexLib.jar"))
+            .extraFilesDirectories(extraFilesDirectories)
+            .extraFilesExcludes(ImmutableList.of("*.log"));
+
+    new AppYamlProjectStaging().stageArchive(builder.stagingDirectory(copyDirectory).build());
+    new AppYamlProjectStaging()
+        .stageArchive(builder.stagingDirectory(stagingDirectory).parallelCopy(true).build());
+
+    assertEquals(listFiles(copyDirectory), listFiles(stagingDirectory));
+    assertFalse(Files.exists(stagingDirectory.resolve("static/app.log")));
+    assertEquals(
+        "file 42",
+        new String(
+            Files.readAllBytes(stagingDirectory.resolve("static/dir2/42.txt")),
+            StandardCharsets.UTF_8));
+  }
+
+  @Test
+  public void testStageArchive_extraFilesPatterns() throws IOException, AppEngineException {
+    Files.write(
+        appEngineDirectory.resolve("app.yaml"),
+        "runtime: java17\nentrypoint: java -jar app.jar\n".getBytes(StandardCharsets.UTF_8),
+        StandardOpenOption.CREATE_NEW);
+    Path extraFiles = temporaryFolder.newFolder("extra").toPath();
+    Files.createDirectories(extraFiles.resolve("static/node_modules/lib"));
+    Files.createFile(extraFiles.resolve("static/index.html"));
+    Files.createFile(extraFiles.resolve("static/node_modules/lib/index.js"));
+    Files.createFile(extraFiles.resolve("static/debug.log"));
+    Files.createFile(extraFiles.resolve("README.md"));
+    Path binary = temporaryFolder.newFile("app.bin").toPath();
+
+    new AppYamlProjectStaging()
+        .stageArchive(
+            AppYamlProjectStageConfiguration.builder()
+                .appEngineDirectory(appEngineDirectory)
+                .artifact(binary)
+                .stagingDirectory(stagingDirectory)
+                .extraFilesDirectories(ImmutableList.of(extraFiles))
+                .extraFilesIncludes(ImmutableList.of("static"))
+                .extraFilesExcludes(ImmutableList.of("node_modules", "*.log"))
+                .build());
+
+    assertEquals(
+        ImmutableList.of("", "app.bin", "app.yaml", "static", "static/index.html"),
+        listFiles(stagingDirectory));
+  }
+
+  @Test
+  public void testStageArchive_linkFiles() throws IOException, AppEngineException {
+    Files.write(
+        appEngineDirectory.resolve("app.yaml"),
+        "runtime: java17\n".getBytes(StandardCharsets.UTF_8),
+        StandardOpenOption.CREATE_NEW);
+    Path jar = temporaryFolder.newFolder("build").toPath().resolve("app.jar");
+    Files.copy(Paths.get("src/test/resources/jars/complexLib.jar"), jar);
+    Files.createDirectories(jar.resolveSibling("libs"));
+    Files.copy(
+        Paths.get("src/test/resources/jars/libs/simpleLib.jar"),
+        jar.resolveSibling("libs/simpleLib.jar"));
+    Path staged = stagingDirectory.resolve("app.jar");
+    Files.write(staged, "previous".getBytes(StandardCharsets.UTF_8));
+
+    new AppYamlProjectStaging()
+        .stageArchive(
+            AppYamlProjectStageConfiguration.builder()
+                .appEngineDirectory(appEngineDirectory)
+                .artifact(jar)
+                .stagingDirectory(stagingDirectory)
+                .linkFiles(true)
+                .build());
+
+    assertArrayEquals(Files.readAllBytes(jar), Files.readAllBytes(staged));
+    assertArrayEquals(
+        Files.readAllBytes(jar.resolveSibling("libs/simpleLib.jar")),
+        Files.readAllBytes(stagingDirectory.resolve("libs/simpleLib.jar")));
+    assertTrue(Files.isRegularFile(stagingDirectory.resolve("app.yaml")));
+  }
+
+  @Test
+  public void testStageArchive_intoZipFileSystem() throws IOException, AppEngineException {
+    Files.write(
+        appEngineDirectory.resolve("app.yaml"),
+        "runtime: java17\n".getBytes(StandardCharsets.UTF_8),
+        StandardOpenOption.CREATE_NEW);
+    Files.write(
+        extraFilesDirectories.get(0).resolve("extra.txt"),
+        "extra".getBytes(StandardCharsets.UTF_8));
+    Path build = temporaryFolder.newFolder("build").toPath();
+    Path jar = writeJar(build.resolve("app.jar"), "lib/a.jar");
+    writeJar(build.resolve("lib/a.jar"), null);
+    Path zip = temporaryFolder.getRoot().toPath().resolve("staged.zip");
+
+    for (boolean sync : new boolean[] {false, true}) {
+      try (FileSystem zipFileSystem =
+          FileSystems.newFileSystem(
+              URI.create("jar:" + zip.toUri()), ImmutableMap.of("create", "true"))) {
+        Path staging = zipFileSystem.getPath(sync ? "/sync" : "/copy");
+        Files.createDirectories(staging);
+        new AppYamlProjectStaging()
+            .stageArchive(
+                AppYamlProjectStageConfiguration.builder()
+                    .appEngineDirectory(appEngineDirectory)
+                    .artifact(jar)
+                    .stagingDirectory(staging)
+                    .extraFilesDirectories(extraFilesDirectories)
+                    .sync(sync)
+                    .build());
+
+        assertEquals(
+            ImmutableList.of("", "app.jar", "app.yaml", "extra.txt", "lib", "lib/a.jar"),
+            listFiles(staging));
+        assertArrayEquals(
+            Files.readAllBytes(build.resolve("lib/a.jar")),
+            Files.readAllBytes(staging.resolve("lib/a.jar")));
+      }
+    }
+  }
+
+  @Test
+  public void testResolveJarClasspath_zipFileSystem() throws IOException {
+    Path build = temporaryFolder.newFolder("build").toPath();
+    writeJar(build.resolve("app.jar"), "lib/a.jar");
+    writeJar(build.resolve("lib/a.jar"), null);
+    Path zip = temporaryFolder.getRoot().toPath().resolve("build.zip");
+    try (FileSystem zipFileSystem =
+        FileSystems.newFileSystem(
+            URI.create("jar:" + zip.toUri()), ImmutableMap.of("create", "true"))) {
+      Path zipBuild = zipFileSystem.getPath("/build");
+      FileUtil.copyDirectory(build, Files.createDirectories(zipBuild));
+
+      Map<Path, Path> jars = AppYamlProjectStaging.resolveJarClasspath(zipBuild.resolve("app.jar"));
+
+      assertEquals(
+          ImmutableList.of(zipFileSystem.getPath("lib/a.jar")),
+          ImmutableList.copyOf(jars.keySet()));
+      assertEquals(zipBuild.resolve("lib/a.jar"), jars.get(zipFileSystem.getPath("lib/a.jar")));
+    }
+  }
+
+  private static Path writeJar(Path jar, @Nullable String classPath) throws IOException {
+    Manifest manifest = new Manifest();
+    manifest.getMainAttributes().put(Attributes.Name.MANIFEST_VERSION, "1.0");
+    if (classPath != null) {
+      manifest.getMainAttributes().put(Attributes.Name.CLASS_PATH, classPath);
+    }
+    Files.createDirectories(jar.getParent());
+    try (JarOutputStream out = new JarOutputStream(Files.newOutputStream(jar), manifest)) {
+      out.putNextEntry(new JarEntry(jar.getFileName() + ".txt"));
+      out.write(jar.getFileName().toString().getBytes(StandardCharsets.UTF_8));
+    }
+    return jar;
+  }
+
+  private static List<String> listFiles(Path directory) throws IOException {
+    try (Stream<Path> files = Files.walk(directory)) {
+      return files
+          .map(file -> directory.relativize(file).toString())
+          .sorted()
+          .collect(Collectors.toList());
+    }
+  }
 }
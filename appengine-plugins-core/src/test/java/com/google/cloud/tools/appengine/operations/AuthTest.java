@@ -20,6 +20,7 @@ import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.ArgumentMatchers.isNull;
 
 import com.google.cloud.tools.appengine.AppEngineException;
+import com.google.cloud.tools.appengine.operations.cloudsdk.process.ProcessHandler;
 import com.google.cloud.tools.appengine.operations.cloudsdk.process.ProcessHandlerException;
 import java.io.IOException;
 import java.nio.file.Path;
@@ -57,6 +58,17 @@ public class AuthTest {
     Mockito.verify(gcloudRunner).run(eq(Arrays.asList("auth", "login", testUsername)), isNull());
   }
 
+  @Test
+  public void testLoginAsync_withUser() throws Exception {
+    String testUsername = "potato@potato.com";
+    new Auth(gcloudRunner, new GcloudExecutor(1, Runnable::run)).loginAsync(testUsername).get();
+    Mockito.verify(gcloudRunner)
+        .run(
+            eq(Arrays.asList("auth", "login", testUsername)),
+            isNull(),
+            Mockito.any(ProcessHandler.class));
+  }
+
   @Test
   public void testLogin_withBadUser() {
     String testUsername = "potato@pota@to.com";
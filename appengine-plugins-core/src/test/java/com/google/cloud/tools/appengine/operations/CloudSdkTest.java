@@ -122,6 +122,40 @@ public class CloudSdkTest {
     sdk.validateCloudSdk();
   }
 
+  @Test
+  public void testValidateCloudSdk_revalidatesChangedInstallation() throws Exception {
+    writeVersionFile("300.0.0");
+    root.resolve("bin").toFile().mkdir();
+    root.resolve("bin/gcloud").toFile().createNewFile();
+    root.resolve("bin/gcloud.cmd").toFile().createNewFile(); // for Windows
+    root.resolve("bin/dev_appserver.py").toFile().createNewFile();
+    sdk.validateCloudSdk();
+    sdk.validateCloudSdk();
+
+    assertTrue(root.resolve("bin/dev_appserver.py").toFile().delete());
+    assertTrue(root.resolve("bin").toFile().setLastModified(0));
+    try {
+      sdk.validateCloudSdk();
+      fail();
+    } catch (CloudSdkNotFoundException ex) {
+      assertEquals(
+          "Validation Error: dev_appserver.py location '"
+              + root.resolve("bin/dev_appserver.py")
+              + "' is not a file.",
+          ex.getMessage());
+    }
+  }
+
+  @Test
+  public void testGetVersion_versionFileUpdated() throws Exception {
+    writeVersionFile("300.0.0");
+    root.resolve("bin").toFile().mkdir();
+    assertEquals("300.0.0", sdk.getVersion().toString());
+
+    writeVersionFile("301.0.10");
+    assertEquals("301.0.10", sdk.getVersion().toString());
+  }
+
   @Test
   public void testGetVersion_fileContentValid() throws IOException, CloudSdkVersionFileException {
     String version = "136.0.0";
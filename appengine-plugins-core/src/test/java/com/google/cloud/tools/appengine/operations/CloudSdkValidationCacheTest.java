@@ -0,0 +1,110 @@
+/*
+ * Copyright 2026 Google LLC.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.tools.appengine.operations;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import com.google.cloud.tools.appengine.operations.cloudsdk.serialization.CloudSdkVersion;
+import com.google.common.base.Preconditions;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class CloudSdkValidationCacheTest {
+
+  @Rule public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+  private final CloudSdkValidationCache cache = new CloudSdkValidationCache();
+  private Path sdkPath;
+
+  @Before
+  public void setUp() throws IOException {
+    sdkPath = temporaryFolder.newFolder("google-cloud-sdk").toPath();
+    Files.createDirectory(sdkPath.resolve("bin"));
+    writeVersion("300.0.0");
+  }
+
+  @Test
+  public void testStamp_incompleteInstallation() throws IOException {
+    Files.delete(sdkPath.resolve("VERSION"));
+    assertNull(cache.stamp(sdkPath));
+  }
+
+  @Test
+  public void testGetVersion() {
+    CloudSdkValidationCache.Stamp stamp = stamp();
+    assertNull(cache.getVersion(sdkPath, stamp));
+
+    CloudSdkVersion version = new CloudSdkVersion("300.0.0");
+    cache.putVersion(sdkPath, stamp, version);
+
+    assertEquals(version, cache.getVersion(sdkPath, stamp()));
+    assertFalse(cache.isValidated(sdkPath, stamp()));
+  }
+
+  @Test
+  public void testIsValidated() {
+    cache.putVersion(sdkPath, stamp(), new CloudSdkVersion("300.0.0"));
+    cache.putValidated(sdkPath, stamp());
+
+    assertTrue(cache.isValidated(sdkPath, stamp()));
+    assertNotNull(cache.getVersion(sdkPath, stamp()));
+
+    cache.clear();
+    assertFalse(cache.isValidated(sdkPath, stamp()));
+  }
+
+  @Test
+  public void testVersionFileChanged() throws IOException {
+    CloudSdkValidationCache.Stamp before = stamp();
+    cache.putValidated(sdkPath, before);
+
+    writeVersion("301.0.0");
+    Files.setLastModifiedTime(sdkPath.resolve("VERSION"), FileTime.fromMillis(0));
+
+    assertNotEquals(before, stamp());
+    assertFalse(cache.isValidated(sdkPath, stamp()));
+  }
+
+  @Test
+  public void testBinDirectoryChanged() throws IOException {
+    cache.putValidated(sdkPath, stamp());
+
+    Files.setLastModifiedTime(sdkPath.resolve("bin"), FileTime.fromMillis(0));
+
+    assertFalse(cache.isValidated(sdkPath, stamp()));
+  }
+
+  private CloudSdkValidationCache.Stamp stamp() {
+    return Preconditions.checkNotNull(cache.stamp(sdkPath));
+  }
+
+  private void writeVersion(String version) throws IOException {
+    Files.write(sdkPath.resolve("VERSION"), version.getBytes(StandardCharsets.UTF_8));
+  }
+}
@@ -0,0 +1,104 @@
+/*
+ * Copyright 2026 Google LLC.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.tools.appengine.operations;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+
+import com.google.cloud.tools.appengine.configuration.DeployConfiguration;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class DeployFingerprintTest {
+
+  @Rule public TemporaryFolder tmpDir = new TemporaryFolder();
+
+  private Path staging;
+
+  @Before
+  public void setUp() throws IOException {
+    staging = tmpDir.newFolder("staging").toPath();
+    write(staging.resolve("app.yaml"), "runtime: java17");
+    Files.createDirectories(staging.resolve("lib"));
+    write(staging.resolve("lib").resolve("a.jar"), "a");
+    write(staging.resolve("lib").resolve("b.jar"), "b");
+  }
+
+  @Test
+  public void testHashContent_sameContentSameHash() throws IOException {
+    Path copy = tmpDir.newFolder("copy").toPath();
+    // created in a different order
+    Files.createDirectories(copy.resolve("lib"));
+    write(copy.resolve("lib").resolve("b.jar"), "b");
+    write(copy.resolve("lib").resolve("a.jar"), "a");
+    write(copy.resolve("app.yaml"), "runtime: java17");
+
+    assertEquals(DeployFingerprint.hashContent(staging), DeployFingerprint.hashContent(copy));
+  }
+
+  @Test
+  public void testHashContent_changedFile() throws IOException {
+    String before = DeployFingerprint.hashContent(staging);
+    write(staging.resolve("lib").resolve("b.jar"), "b2");
+    assertNotEquals(before, DeployFingerprint.hashContent(staging));
+  }
+
+  @Test
+  public void testHashContent_renamedFile() throws IOException {
+    String before = DeployFingerprint.hashContent(staging);
+    Files.move(staging.resolve("lib").resolve("b.jar"), staging.resolve("lib").resolve("c.jar"));
+    assertNotEquals(before, DeployFingerprint.hashContent(staging));
+  }
+
+  @Test
+  public void testHashContent_addedEmptyFile() throws IOException {
+    String before = DeployFingerprint.hashContent(staging);
+    write(staging.resolve("empty.txt"), "");
+    assertNotEquals(before, DeployFingerprint.hashContent(staging));
+  }
+
+  @Test
+  public void testCompute_configuration() throws IOException {
+    DeployConfiguration.Builder builder =
+        DeployConfiguration.builder(Collections.singletonList(staging)).projectId("project");
+    String fingerprint = DeployFingerprint.compute(staging, builder.build());
+
+    // settings that don't change what is deployed
+    assertEquals(
+        fingerprint,
+        DeployFingerprint.compute(
+            staging, builder.version("v2").promote(false).stopPreviousVersion(true).build()));
+
+    assertNotEquals(
+        fingerprint, DeployFingerprint.compute(staging, builder.projectId("other").build()));
+    assertNotEquals(
+        fingerprint,
+        DeployFingerprint.compute(
+            staging, builder.projectId("project").bucket("gs://bucket").build()));
+  }
+
+  private static void write(Path file, String content) throws IOException {
+    Files.write(file, content.getBytes(StandardCharsets.UTF_8));
+  }
+}
@@ -0,0 +1,80 @@
+/*
+ * Copyright 2026 Google LLC.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.tools.appengine.operations;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import com.google.cloud.tools.appengine.configuration.ConfigType;
+import com.google.common.collect.ImmutableMap;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.Stream;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class DeployedConfigRecordTest {
+
+  @Rule public TemporaryFolder tmpDir = new TemporaryFolder();
+
+  @Test
+  public void testGetFileName() {
+    assertEquals("my-project.properties", DeployedConfigRecord.getFileName("my-project", null));
+    assertEquals(
+        "example.com_my-project.properties",
+        DeployedConfigRecord.getFileName("example.com:my-project", null));
+    assertTrue(
+        DeployedConfigRecord.getFileName("my-project", "appengine.google.com")
+            .startsWith("my-project-"));
+  }
+
+  @Test
+  public void testHash() throws IOException {
+    Path file = tmpDir.newFile("cron.yaml").toPath();
+    Files.write(file, "cron:".getBytes(StandardCharsets.UTF_8));
+    String hash = DeployedConfigRecord.hash(file);
+    assertEquals(64, hash.length());
+
+    Files.write(file, "cron: []".getBytes(StandardCharsets.UTF_8));
+    assertFalse(hash.equals(DeployedConfigRecord.hash(file)));
+  }
+
+  @Test
+  public void testUpdate_persisted() throws IOException {
+    Path directory = tmpDir.getRoot().toPath().resolve("records");
+    DeployedConfigRecord record = DeployedConfigRecord.load(directory, "project", null);
+    assertFalse(record.isDeployed(ConfigType.CRON, "abc"));
+
+    record.update(ImmutableMap.of(ConfigType.CRON, "abc"));
+    record.update(ImmutableMap.of(ConfigType.QUEUE, "def"));
+
+    DeployedConfigRecord loaded = DeployedConfigRecord.load(directory, "project", null);
+    assertTrue(loaded.isDeployed(ConfigType.CRON, "abc"));
+    assertTrue(loaded.isDeployed(ConfigType.QUEUE, "def"));
+    assertFalse(loaded.isDeployed(ConfigType.CRON, "def"));
+    assertFalse(
+        DeployedConfigRecord.load(directory, "other-project", null)
+            .isDeployed(ConfigType.CRON, "abc"));
+    try (Stream<Path> files = Files.list(directory)) {
+      assertEquals(1, files.count());
+    }
+  }
+}
@@ -18,33 +18,65 @@ package com.google.cloud.tools.appengine.operations;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 
 import com.google.cloud.tools.appengine.AppEngineException;
+import com.google.cloud.tools.appengine.configuration.ConfigType;
 import com.google.cloud.tools.appengine.configuration.DeployConfiguration;
 import com.google.cloud.tools.appengine.configuration.DeployProjectConfigurationConfiguration;
+import com.google.cloud.tools.appengine.configuration.MultiServiceDeployConfiguration;
+import com.google.cloud.tools.appengine.operations.api.NativeDeployer;
+import com.google.cloud.tools.appengine.operations.cloudsdk.process.ProcessHandler;
 import com.google.cloud.tools.appengine.operations.cloudsdk.process.ProcessHandlerException;
+import com.google.cloud.tools.appengine.operations.cloudsdk.serialization.AppEngineDeployResult;
+import com.google.cloud.tools.appengine.operations.coordination.DeployCoordinator;
+import com.google.cloud.tools.appengine.operations.coordination.DeploySupersededException;
+import com.google.cloud.tools.appengine.operations.coordination.DeployTicket;
+import com.google.cloud.tools.appengine.operations.coordination.FileDeployLockBackend;
+import com.google.cloud.tools.appengine.operations.coordination.TicketState;
 import com.google.cloud.tools.test.utils.SpyVerifier;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import javax.annotation.Nullable;
 import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.TemporaryFolder;
 import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
 import org.mockito.Mock;
 import org.mockito.Mockito;
+import org.mockito.invocation.InvocationOnMock;
 import org.mockito.junit.MockitoJUnitRunner;
 
 /** Unit tests for {@link Deployment}. */
@@ -95,6 +127,8 @@ public class DeploymentTest {
                 .server("appengine.google.com")
                 .stopPreviousVersion(true)
                 .version("v1")
+                .skipUnchanged(true)
+                .deployRecordDirectory(tmpDir.getRoot().toPath())
                 .build());
 
     SpyVerifier.newVerifier(configuration).verifyAllValuesNotNull();
@@ -122,8 +156,9 @@ public class DeploymentTest {
 
     verify(gcloudRunner, times(1)).run(eq(expectedCommand), isNull());
 
+    // no-op detection only applies to a staging directory
     SpyVerifier.newVerifier(configuration)
-        .verifyDeclaredGetters(ImmutableMap.of("getDeployables", 5));
+        .verifyDeclaredGetters(ImmutableMap.of("getDeployables", 5, "getDeployRecordDirectory", 0));
   }
 
   @Test
@@ -185,6 +220,94 @@ public class DeploymentTest {
     verify(gcloudRunner, times(1)).run(eq(expectedCommand), isNull());
   }
 
+  @Test
+  public void testDeployAsync_dir() throws Exception {
+    Deployment asyncDeployment = new Deployment(gcloudRunner, new GcloudExecutor(1, Runnable::run));
+    DeployConfiguration configuration =
+        DeployConfiguration.builder(Collections.singletonList(stagingDirectory)).build();
+
+    asyncDeployment.deployAsync(configuration).get();
+
+    verify(gcloudRunner)
+        .run(
+            eq(ImmutableList.of("app", "deploy")),
+            eq(stagingDirectory),
+            Mockito.any(ProcessHandler.class));
+  }
+
+  @Test
+  public void testDeployAsync_processHandlerPerInvocation() throws Exception {
+    Deployment asyncDeployment = new Deployment(gcloudRunner, new GcloudExecutor(2, Runnable::run));
+    DeployConfiguration configuration =
+        DeployConfiguration.builder(Collections.singletonList(stagingDirectory)).build();
+
+    asyncDeployment.deployAsync(configuration).get();
+    asyncDeployment.deployAsync(configuration).get();
+
+    ArgumentCaptor<ProcessHandler> handlers = ArgumentCaptor.forClass(ProcessHandler.class);
+    verify(gcloudRunner, times(2)).run(Mockito.anyList(), Mockito.any(), handlers.capture());
+    assertNotSame(handlers.getAllValues().get(0), handlers.getAllValues().get(1));
+  }
+
+  @Test
+  public void testDeployAsync_outputAndExitCode() throws Exception {
+    Deployment asyncDeployment = new Deployment(gcloudRunner, new GcloudExecutor(1, Runnable::run));
+    DeployConfiguration configuration =
+        DeployConfiguration.builder(Collections.singletonList(stagingDirectory)).build();
+    Mockito.doAnswer(
+            invocation -> runProcess(invocation, "deploying\n", "ERROR: quota exceeded\n", 1))
+        .when(gcloudRunner)
+        .run(Mockito.anyList(), Mockito.any(), Mockito.any(ProcessHandler.class));
+    List<String> output = new ArrayList<>();
+
+    try {
+      asyncDeployment.deployAsync(configuration, output::add).get();
+      fail();
+    } catch (ExecutionException ex) {
+      assertTrue(ex.getCause() instanceof AppEngineException);
+      assertEquals(
+          "gcloud app deploy exited with code 1: ERROR: quota exceeded",
+          ex.getCause().getMessage());
+    }
+    assertEquals(2, output.size());
+    assertTrue(output.contains("deploying"));
+    assertTrue(output.contains("ERROR: quota exceeded"));
+    verify(gcloudRunner, never()).run(Mockito.anyList(), Mockito.any());
+  }
+
+  @Test
+  public void testDeployAsync_failure() throws Exception {
+    Deployment asyncDeployment = new Deployment(gcloudRunner, new GcloudExecutor(1, Runnable::run));
+    DeployConfiguration configuration =
+        DeployConfiguration.builder(Collections.singletonList(stagingDirectory)).build();
+    ProcessHandlerException processFailure = new ProcessHandlerException("failed");
+    Mockito.doThrow(processFailure)
+        .when(gcloudRunner)
+        .run(Mockito.anyList(), Mockito.any(), Mockito.any(ProcessHandler.class));
+
+    try {
+      asyncDeployment.deployAsync(configuration).get();
+      fail();
+    } catch (ExecutionException ex) {
+      assertTrue(ex.getCause() instanceof AppEngineException);
+      assertSame(processFailure, ex.getCause().getCause());
+    }
+  }
+
+  @Test
+  public void testDeployAsync_missingDeployableFailsImmediately() throws AppEngineException {
+    DeployConfiguration configuration =
+        DeployConfiguration.builder(
+                Collections.singletonList(tmpDir.getRoot().toPath().resolve("missing.yaml")))
+            .build();
+    try {
+      deployment.deployAsync(configuration);
+      fail();
+    } catch (IllegalArgumentException expected) {
+      // pass
+    }
+  }
+
   @Test
   public void testDeployCron() throws Exception {
     Mockito.doCallRealMethod()
@@ -296,4 +419,739 @@ public class DeploymentTest {
       }
     }
   }
+
+  @Test
+  public void testDeploy_nativeDeployer() throws Exception {
+    NativeDeployer nativeDeployer = Mockito.mock(NativeDeployer.class);
+    DeployConfiguration configuration =
+        DeployConfiguration.builder(Collections.singletonList(stagingDirectory))
+            .projectId("project")
+            .build();
+    Mockito.when(nativeDeployer.supports(stagingDirectory, configuration)).thenReturn(true);
+
+    new Deployment(gcloudRunner, GcloudExecutor.getDefault(), nativeDeployer).deploy(configuration);
+
+    verify(nativeDeployer).deploy(stagingDirectory, configuration);
+    verifyNoInteractions(gcloudRunner);
+  }
+
+  @Test
+  public void testDeploy_nativeDeployerUnsupported() throws Exception {
+    NativeDeployer nativeDeployer = Mockito.mock(NativeDeployer.class);
+    DeployConfiguration configuration =
+        DeployConfiguration.builder(Collections.singletonList(stagingDirectory)).build();
+
+    new Deployment(gcloudRunner, GcloudExecutor.getDefault(), nativeDeployer).deploy(configuration);
+
+    verify(nativeDeployer, Mockito.never()).deploy(Mockito.any(), Mockito.any());
+    verify(gcloudRunner).run(Mockito.anyList(), eq(stagingDirectory));
+  }
+
+  @Test
+  public void testDeploy_nativeDeployerNotUsedForYamlFiles() throws Exception {
+    NativeDeployer nativeDeployer = Mockito.mock(NativeDeployer.class);
+    DeployConfiguration configuration =
+        DeployConfiguration.builder(Collections.singletonList(appYaml1)).build();
+
+    new Deployment(gcloudRunner, GcloudExecutor.getDefault(), nativeDeployer).deploy(configuration);
+
+    verifyNoInteractions(nativeDeployer);
+    verify(gcloudRunner).run(Mockito.anyList(), isNull());
+  }
+
+  @Test
+  public void testDeploy_coordinated() throws Exception {
+    Path locks = tmpDir.newFolder("locks").toPath();
+    DeployCoordinator coordinator =
+        DeployCoordinator.builder(new FileDeployLockBackend(locks)).owner("test").build();
+    DeployConfiguration configuration =
+        DeployConfiguration.builder(Collections.singletonList(stagingDirectory))
+            .projectId("project")
+            .build();
+
+    new Deployment(gcloudRunner, GcloudExecutor.getDefault(), null, coordinator)
+        .deploy(configuration);
+
+    verify(gcloudRunner).run(Mockito.anyList(), eq(stagingDirectory));
+    assertEquals(0, countFiles(locks.resolve("project")));
+  }
+
+  private static long countFiles(Path directory) throws IOException {
+    try (Stream<Path> files = Files.list(directory)) {
+      return files.count();
+    }
+  }
+
+  @Test
+  public void testDeploy_coordinatedAndSuperseded() throws Exception {
+    Files.write(
+        stagingDirectory.resolve("app.yaml"),
+        "runtime: java17\nservice: backend\n".getBytes(StandardCharsets.UTF_8));
+    Path locks = tmpDir.newFolder("locks").toPath();
+    FileDeployLockBackend backend = new FileDeployLockBackend(locks);
+    DeployTicket holder = backend.enqueue("project", "other-node", null);
+    DeployCoordinator coordinator =
+        DeployCoordinator.builder(backend)
+            .owner("test")
+            .pollIntervalMillis(5)
+            .coalesce(true)
+            .build();
+    DeployConfiguration configuration =
+        DeployConfiguration.builder(Collections.singletonList(stagingDirectory))
+            .projectId("project")
+            .build();
+
+    CompletableFuture<Void> deployed =
+        CompletableFuture.runAsync(
+            () -> {
+              try {
+                new Deployment(gcloudRunner, GcloudExecutor.getDefault(), null, coordinator)
+                    .deploy(configuration);
+              } catch (AppEngineException ex) {
+                throw new CompletionException(ex);
+              }
+            });
+    while (countFiles(locks.resolve("project")) < 2) {
+      Thread.sleep(1);
+    }
+    // a newer deployment of the same service joins the queue
+    DeployTicket newer = backend.enqueue("project", "newer-node", "backend");
+    try {
+      deployed.get(10, TimeUnit.SECONDS);
+      fail();
+    } catch (ExecutionException ex) {
+      assertTrue(ex.getCause() instanceof DeploySupersededException);
+      assertEquals(
+          "Service backend was not deployed, a newer deployment of it is queued for project",
+          ex.getCause().getMessage());
+    }
+
+    verifyNoInteractions(gcloudRunner);
+    holder.release();
+    assertEquals(TicketState.GRANTED, newer.poll());
+  }
+
+  @Test
+  public void testDeploy_skipUnchanged() throws Exception {
+    DeployConfiguration configuration = skipUnchangedConfiguration().promote(false).build();
+    deployment.deploy(configuration);
+    deployment.deploy(configuration);
+
+    verify(gcloudRunner, times(1)).run(Mockito.anyList(), eq(stagingDirectory));
+    Mockito.verifyNoMoreInteractions(gcloudRunner);
+  }
+
+  @Test
+  public void testDeploy_unchangedOnlyPromoted() throws Exception {
+    deployment.deploy(skipUnchangedConfiguration().promote(false).build());
+    deployment.deploy(skipUnchangedConfiguration().build());
+
+    verify(gcloudRunner, times(1)).run(Mockito.anyList(), eq(stagingDirectory));
+    List<String> expectedCommand =
+        ImmutableList.of(
+            "app",
+            "services",
+            "set-traffic",
+            "my-service",
+            "--splits",
+            "v1=1",
+            "--project",
+            "project");
+    verify(gcloudRunner).run(eq(expectedCommand), isNull());
+  }
+
+  @Test
+  public void testDeploy_changedContentIsDeployed() throws Exception {
+    DeployConfiguration configuration = skipUnchangedConfiguration().promote(false).build();
+    deployment.deploy(configuration);
+    Files.write(stagingDirectory.resolve("index.html"), "changed".getBytes(StandardCharsets.UTF_8));
+    deployment.deploy(configuration);
+
+    verify(gcloudRunner, times(2)).run(Mockito.anyList(), eq(stagingDirectory));
+  }
+
+  @Test
+  public void testDeploy_otherVersionIsDeployed() throws Exception {
+    deployment.deploy(skipUnchangedConfiguration().promote(false).build());
+    deployment.deploy(skipUnchangedConfiguration().promote(false).version("v2").build());
+
+    verify(gcloudRunner, times(2)).run(Mockito.anyList(), eq(stagingDirectory));
+  }
+
+  @Test
+  public void testDeploy_stopPreviousVersionIsDeployed() throws Exception {
+    DeployConfiguration configuration =
+        skipUnchangedConfiguration().stopPreviousVersion(true).build();
+    deployment.deploy(configuration);
+    deployment.deploy(configuration);
+
+    verify(gcloudRunner, times(2)).run(Mockito.anyList(), eq(stagingDirectory));
+  }
+
+  @Test
+  public void testDeploy_failedDeploymentIsNotRecorded() throws Exception {
+    DeployConfiguration configuration = skipUnchangedConfiguration().promote(false).build();
+    Mockito.doThrow(new ProcessHandlerException("failed"))
+        .doNothing()
+        .when(gcloudRunner)
+        .run(Mockito.anyList(), eq(stagingDirectory));
+    try {
+      deployment.deploy(configuration);
+      fail();
+    } catch (AppEngineException expected) {
+      // pass
+    }
+    deployment.deploy(configuration);
+
+    verify(gcloudRunner, times(2)).run(Mockito.anyList(), eq(stagingDirectory));
+  }
+
+  @Test
+  public void testDeploy_withoutVersionIsNotSkipped() throws Exception {
+    DeployConfiguration configuration =
+        skipUnchangedConfiguration().promote(false).version(null).build();
+    deployment.deploy(configuration);
+    deployment.deploy(configuration);
+
+    verify(gcloudRunner, times(2)).run(Mockito.anyList(), eq(stagingDirectory));
+  }
+
+  private DeployConfiguration.Builder skipUnchangedConfiguration() throws IOException {
+    Files.write(
+        stagingDirectory.resolve("app.yaml"),
+        "runtime: java17\nservice: my-service\n".getBytes(StandardCharsets.UTF_8));
+    Path records = tmpDir.getRoot().toPath().resolve("records");
+    return DeployConfiguration.builder(Collections.singletonList(stagingDirectory))
+        .projectId("project")
+        .version("v1")
+        .skipUnchanged(true)
+        .deployRecordDirectory(records);
+  }
+
+  @Test
+  public void testDeployAll_runsEveryStep() throws Exception {
+    DeployConfiguration configuration = deployAllConfiguration().build();
+    List<Path> configFiles = createConfigFiles();
+    Path journal = tmpDir.getRoot().toPath().resolve("journal.properties");
+
+    deployment.deployAll(configuration, configFiles, journal);
+
+    InOrder inOrder = Mockito.inOrder(gcloudRunner);
+    inOrder.verify(gcloudRunner).run(eq(deployAllServiceCommand("v1", "--no-promote")), isNull());
+    inOrder.verify(gcloudRunner).run(eq(deployAllConfigsCommand(configFiles)), isNull());
+    inOrder.verify(gcloudRunner).run(eq(deployAllPromoteCommand("v1")), isNull());
+    Mockito.verifyNoMoreInteractions(gcloudRunner);
+    assertFalse(Files.exists(journal));
+  }
+
+  @Test
+  public void testDeployAll_resumesAtFailedStep() throws Exception {
+    DeployConfiguration configuration = deployAllConfiguration().build();
+    List<Path> configFiles = createConfigFiles();
+    Path journal = tmpDir.getRoot().toPath().resolve("journal.properties");
+    Mockito.doThrow(new ProcessHandlerException("failed"))
+        .doNothing()
+        .when(gcloudRunner)
+        .run(eq(deployAllConfigsCommand(configFiles)), isNull());
+
+    try {
+      deployment.deployAll(configuration, configFiles, journal);
+      fail();
+    } catch (AppEngineException expected) {
+      // pass
+    }
+    assertTrue(Files.exists(journal));
+    deployment.deployAll(configuration, configFiles, journal);
+
+    verify(gcloudRunner).run(eq(deployAllServiceCommand("v1", "--no-promote")), isNull());
+    verify(gcloudRunner, times(2)).run(eq(deployAllConfigsCommand(configFiles)), isNull());
+    verify(gcloudRunner).run(eq(deployAllPromoteCommand("v1")), isNull());
+    Mockito.verifyNoMoreInteractions(gcloudRunner);
+    assertFalse(Files.exists(journal));
+  }
+
+  @Test
+  public void testDeployAll_redeploysChangedConfigFilesOnly() throws Exception {
+    DeployConfiguration configuration = deployAllConfiguration().build();
+    List<Path> configFiles = createConfigFiles();
+    Path journal = tmpDir.getRoot().toPath().resolve("journal.properties");
+    Mockito.doThrow(new ProcessHandlerException("failed"))
+        .doNothing()
+        .when(gcloudRunner)
+        .run(eq(deployAllPromoteCommand("v1")), isNull());
+
+    try {
+      deployment.deployAll(configuration, configFiles, journal);
+      fail();
+    } catch (AppEngineException expected) {
+      // pass
+    }
+    Files.write(configFiles.get(0), "cron: []".getBytes(StandardCharsets.UTF_8));
+    deployment.deployAll(configuration, configFiles, journal);
+
+    verify(gcloudRunner).run(eq(deployAllServiceCommand("v1", "--no-promote")), isNull());
+    verify(gcloudRunner).run(eq(deployAllConfigsCommand(configFiles)), isNull());
+    verify(gcloudRunner).run(eq(deployAllConfigsCommand(configFiles.subList(0, 1))), isNull());
+    verify(gcloudRunner, times(2)).run(eq(deployAllPromoteCommand("v1")), isNull());
+    Mockito.verifyNoMoreInteractions(gcloudRunner);
+  }
+
+  @Test
+  public void testDeployAll_changedStagingStartsOver() throws Exception {
+    DeployConfiguration configuration = deployAllConfiguration().build();
+    List<Path> configFiles = createConfigFiles();
+    Path journal = tmpDir.getRoot().toPath().resolve("journal.properties");
+    Mockito.doThrow(new ProcessHandlerException("failed"))
+        .doNothing()
+        .when(gcloudRunner)
+        .run(eq(deployAllConfigsCommand(configFiles)), isNull());
+
+    try {
+      deployment.deployAll(configuration, configFiles, journal);
+      fail();
+    } catch (AppEngineException expected) {
+      // pass
+    }
+    Files.write(stagingDirectory.resolve("index.html"), "changed".getBytes(StandardCharsets.UTF_8));
+    deployment.deployAll(configuration, configFiles, journal);
+
+    verify(gcloudRunner, times(2)).run(eq(deployAllServiceCommand("v1", "--no-promote")), isNull());
+  }
+
+  @Test
+  public void testDeployAll_reusesGeneratedVersion() throws Exception {
+    Clock clock = Clock.fixed(Instant.parse("2026-01-02T03:04:05Z"), ZoneOffset.UTC);
+    deployment = new Deployment(gcloudRunner, GcloudExecutor.getDefault(), null, null, clock);
+    DeployConfiguration configuration = deployAllConfiguration().version(null).build();
+    Path journal = tmpDir.getRoot().toPath().resolve("journal.properties");
+    List<List<String>> commands = new ArrayList<>();
+    Mockito.doAnswer(
+            invocation -> {
+              List<String> command = invocation.getArgument(0);
+              commands.add(command);
+              if (command.contains("set-traffic") && commands.size() == 2) {
+                throw new ProcessHandlerException("failed");
+              }
+              return null;
+            })
+        .when(gcloudRunner)
+        .run(Mockito.anyList(), isNull());
+
+    try {
+      deployment.deployAll(configuration, Collections.emptyList(), journal);
+      fail();
+    } catch (AppEngineException expected) {
+      // pass
+    }
+    deployment.deployAll(configuration, Collections.emptyList(), journal);
+
+    assertEquals(3, commands.size());
+    String version = "20260102t030405";
+    assertEquals(deployAllServiceCommand(version, "--no-promote"), commands.get(0));
+    assertEquals(deployAllPromoteCommand(version), commands.get(1));
+    assertEquals(deployAllPromoteCommand(version), commands.get(2));
+  }
+
+  @Test
+  public void testDeployAll_stopPreviousVersionPromotesOnDeploy() throws Exception {
+    DeployConfiguration configuration = deployAllConfiguration().stopPreviousVersion(true).build();
+    Path journal = tmpDir.getRoot().toPath().resolve("journal.properties");
+
+    deployment.deployAll(configuration, Collections.emptyList(), journal);
+
+    List<String> expectedCommand =
+        ImmutableList.of(
+            "app",
+            "deploy",
+            stagingDirectory.resolve("app.yaml").toString(),
+            "--stop-previous-version",
+            "--version",
+            "v1",
+            "--project",
+            "project");
+    verify(gcloudRunner).run(eq(expectedCommand), isNull());
+    Mockito.verifyNoMoreInteractions(gcloudRunner);
+  }
+
+  @Test
+  public void testDeployAll_skipUnchanged() throws Exception {
+    DeployConfiguration configuration = skipUnchangedConfiguration().build();
+    Path journal = tmpDir.getRoot().toPath().resolve("journal.properties");
+
+    deployment.deployAll(configuration, Collections.emptyList(), journal);
+    deployment.deployAll(configuration, Collections.emptyList(), journal);
+
+    verify(gcloudRunner, times(1)).run(Mockito.anyList(), eq(stagingDirectory));
+    verify(gcloudRunner, times(2)).run(eq(deployAllPromoteCommand("v1")), isNull());
+    Mockito.verifyNoMoreInteractions(gcloudRunner);
+  }
+
+  private DeployConfiguration.Builder deployAllConfiguration() throws IOException {
+    Path appYaml =
+        Files.write(
+            stagingDirectory.resolve("app.yaml"),
+            "runtime: java17\nservice: my-service\n".getBytes(StandardCharsets.UTF_8));
+    return DeployConfiguration.builder(Collections.singletonList(appYaml))
+        .projectId("project")
+        .version("v1");
+  }
+
+  private List<Path> createConfigFiles() throws IOException {
+    Path appEngineDirectory = tmpDir.newFolder("appengine").toPath();
+    return ImmutableList.of(
+        Files.write(
+            appEngineDirectory.resolve("cron.yaml"), "cron:".getBytes(StandardCharsets.UTF_8)),
+        Files.write(
+            appEngineDirectory.resolve("dispatch.yaml"),
+            "dispatch:".getBytes(StandardCharsets.UTF_8)));
+  }
+
+  private List<String> deployAllServiceCommand(String version, String promoteFlag) {
+    return ImmutableList.of(
+        "app",
+        "deploy",
+        stagingDirectory.resolve("app.yaml").toString(),
+        promoteFlag,
+        "--version",
+        version,
+        "--project",
+        "project");
+  }
+
+  private static List<String> deployAllConfigsCommand(List<Path> configFiles) {
+    List<String> command = new ArrayList<>(Arrays.asList("app", "deploy"));
+    for (Path configFile : configFiles) {
+      command.add(configFile.toAbsolutePath().toString());
+    }
+    command.addAll(Arrays.asList("--project", "project"));
+    return command;
+  }
+
+  private static List<String> deployAllPromoteCommand(String version) {
+    return ImmutableList.of(
+        "app",
+        "services",
+        "set-traffic",
+        "my-service",
+        "--splits",
+        version + "=1",
+        "--project",
+        "project");
+  }
+
+  @Test
+  public void testDeployConfigs_singleInvocation() throws Exception {
+    Path cron =
+        Files.write(
+            tmpDir.getRoot().toPath().resolve("cron.yaml"),
+            "cron:".getBytes(StandardCharsets.UTF_8));
+    Path queue =
+        Files.write(
+            tmpDir.getRoot().toPath().resolve("queue.yaml"),
+            "queue:".getBytes(StandardCharsets.UTF_8));
+    DeployProjectConfigurationConfiguration configuration =
+        DeployProjectConfigurationConfiguration.builder(tmpDir.getRoot().toPath())
+            .projectId("project")
+            .deployRecordDirectory(tmpDir.newFolder("records").toPath())
+            .build();
+
+    Set<ConfigType> deployed =
+        deployment.deployConfigs(EnumSet.of(ConfigType.QUEUE, ConfigType.CRON), configuration);
+
+    assertEquals(EnumSet.of(ConfigType.CRON, ConfigType.QUEUE), deployed);
+    List<String> expectedCommand =
+        ImmutableList.of(
+            "app", "deploy", cron.toString(), queue.toString(), "--project", "project");
+    verify(gcloudRunner, times(1)).run(eq(expectedCommand), isNull());
+  }
+
+  @Test
+  public void testDeployConfigs_skipsUnchanged() throws Exception {
+    Files.write(
+        tmpDir.getRoot().toPath().resolve("cron.yaml"), "cron:".getBytes(StandardCharsets.UTF_8));
+    Path queue =
+        Files.write(
+            tmpDir.getRoot().toPath().resolve("queue.yaml"),
+            "queue:".getBytes(StandardCharsets.UTF_8));
+    DeployProjectConfigurationConfiguration configuration =
+        DeployProjectConfigurationConfiguration.builder(tmpDir.getRoot().toPath())
+            .projectId("project")
+            .skipUnchanged(true)
+            .deployRecordDirectory(tmpDir.newFolder("records").toPath())
+            .build();
+    Set<ConfigType> types = EnumSet.of(ConfigType.CRON, ConfigType.QUEUE);
+    deployment.deployConfigs(types, configuration);
+
+    assertEquals(Collections.emptySet(), deployment.deployConfigs(types, configuration));
+    verify(gcloudRunner, times(1)).run(Mockito.anyList(), isNull());
+
+    Files.write(queue, "queue: []".getBytes(StandardCharsets.UTF_8));
+    assertEquals(EnumSet.of(ConfigType.QUEUE), deployment.deployConfigs(types, configuration));
+    verify(gcloudRunner)
+        .run(
+            eq(ImmutableList.of("app", "deploy", queue.toString(), "--project", "project")),
+            isNull());
+    verify(gcloudRunner, times(2)).run(Mockito.anyList(), isNull());
+  }
+
+  @Test
+  public void testDeployConfigs_failureIsNotRecorded() throws Exception {
+    Files.write(
+        tmpDir.getRoot().toPath().resolve("cron.yaml"), "cron:".getBytes(StandardCharsets.UTF_8));
+    DeployProjectConfigurationConfiguration configuration =
+        DeployProjectConfigurationConfiguration.builder(tmpDir.getRoot().toPath())
+            .projectId("project")
+            .skipUnchanged(true)
+            .deployRecordDirectory(tmpDir.newFolder("records").toPath())
+            .build();
+    Mockito.doThrow(new ProcessHandlerException("failed"))
+        .doNothing()
+        .when(gcloudRunner)
+        .run(Mockito.anyList(), isNull());
+
+    try {
+      deployment.deployConfigs(EnumSet.of(ConfigType.CRON), configuration);
+      fail();
+    } catch (AppEngineException expected) {
+      // pass
+    }
+    assertEquals(
+        EnumSet.of(ConfigType.CRON),
+        deployment.deployConfigs(EnumSet.of(ConfigType.CRON), configuration));
+  }
+
+  @Test
+  public void testDeployConfigs_withoutProjectIdAlwaysDeploys() throws Exception {
+    Files.write(
+        tmpDir.getRoot().toPath().resolve("cron.yaml"), "cron:".getBytes(StandardCharsets.UTF_8));
+    Path records = tmpDir.newFolder("records").toPath();
+    DeployProjectConfigurationConfiguration configuration =
+        DeployProjectConfigurationConfiguration.builder(tmpDir.getRoot().toPath())
+            .skipUnchanged(true)
+            .deployRecordDirectory(records)
+            .build();
+
+    deployment.deployConfigs(EnumSet.of(ConfigType.CRON), configuration);
+    deployment.deployConfigs(EnumSet.of(ConfigType.CRON), configuration);
+
+    verify(gcloudRunner, times(2)).run(Mockito.anyList(), isNull());
+    try (Stream<Path> recorded = Files.list(records)) {
+      assertEquals(0, recorded.count());
+    }
+  }
+
+  @Test
+  public void testDeployConfigs_skipUnchangedOffByDefault() throws Exception {
+    Files.write(
+        tmpDir.getRoot().toPath().resolve("cron.yaml"), "cron:".getBytes(StandardCharsets.UTF_8));
+    DeployProjectConfigurationConfiguration configuration =
+        DeployProjectConfigurationConfiguration.builder(tmpDir.getRoot().toPath())
+            .projectId("project")
+            .deployRecordDirectory(tmpDir.newFolder("records").toPath())
+            .build();
+
+    deployment.deployConfigs(EnumSet.of(ConfigType.CRON), configuration);
+    deployment.deployConfigs(EnumSet.of(ConfigType.CRON), configuration);
+
+    verify(gcloudRunner, times(2)).run(Mockito.anyList(), isNull());
+  }
+
+  @Test
+  public void testDeployConfigs_doesNotExist() throws AppEngineException {
+    DeployProjectConfigurationConfiguration configuration =
+        DeployProjectConfigurationConfiguration.builder(tmpDir.getRoot().toPath()).build();
+    try {
+      deployment.deployConfigs(EnumSet.of(ConfigType.DISPATCH), configuration);
+      fail();
+    } catch (IllegalArgumentException ex) {
+      assertEquals(
+          tmpDir.getRoot().toPath().resolve("dispatch.yaml") + " does not exist.", ex.getMessage());
+    }
+    verifyNoInteractions(gcloudRunner);
+  }
+
+  @Test
+  public void testDeployServices_sharedVersion() throws Exception {
+    Path service1 = tmpDir.newFolder("service1").toPath();
+    Path service2 = tmpDir.newFolder("service2").toPath();
+    Path dispatch = tmpDir.newFile("dispatch.yaml").toPath();
+    Mockito.doAnswer(
+            invocation -> {
+              Path workingDirectory = invocation.getArgument(1);
+              String service =
+                  workingDirectory == null ? "" : workingDirectory.getFileName().toString();
+              return runProcess(
+                  invocation,
+                  deployResultJson(service, "v1"),
+                  "Updating service [" + service + "]",
+                  0);
+            })
+        .when(gcloudRunner)
+        .run(Mockito.anyList(), Mockito.any(), Mockito.any());
+    List<String> output = Collections.synchronizedList(new ArrayList<>());
+
+    MultiServiceDeployResult result =
+        new Deployment(gcloudRunner, new GcloudExecutor(2, Runnable::run))
+            .deployServices(
+                MultiServiceDeployConfiguration.builder(Arrays.asList(service1, service2))
+                    .configFiles(Collections.singletonList(dispatch))
+                    .projectId("project")
+                    .version("v1")
+                    .build(),
+                output::add);
+
+    assertTrue(result.isSuccessful());
+    assertEquals("v1", result.getVersion());
+    assertEquals(2, result.getServices().size());
+    AppEngineDeployResult deployResult = result.getServices().get(1).getDeployResult();
+    Assert.assertNotNull(deployResult);
+    assertEquals("service2", deployResult.getService(0));
+    assertEquals(DeployableResult.Status.SUCCEEDED, result.getConfigFiles().get(0).getStatus());
+    verify(gcloudRunner)
+        .run(
+            eq(
+                ImmutableList.of(
+                    "app",
+                    "deploy",
+                    "--version",
+                    "v1",
+                    "--project",
+                    "project",
+                    "--format",
+                    "json")),
+            eq(service1),
+            Mockito.any());
+    verify(gcloudRunner)
+        .run(
+            eq(
+                ImmutableList.of(
+                    "app", "deploy", dispatch.toAbsolutePath().toString(), "--project", "project")),
+            isNull(),
+            Mockito.any());
+    assertTrue(output.contains("[service1] Updating service [service1]"));
+  }
+
+  @Test
+  public void testDeployServices_generatedVersion() throws Exception {
+    Path service1 = tmpDir.newFolder("service1").toPath();
+    Path service2 = tmpDir.newFolder("service2").toPath();
+    Mockito.doAnswer(invocation -> runProcess(invocation, "", "", 0))
+        .when(gcloudRunner)
+        .run(Mockito.anyList(), Mockito.any(), Mockito.any());
+
+    Clock clock = Clock.fixed(Instant.parse("2026-01-02T03:04:05Z"), ZoneOffset.UTC);
+
+    MultiServiceDeployResult result =
+        new Deployment(gcloudRunner, new GcloudExecutor(2, Runnable::run), null, null, clock)
+            .deployServices(
+                MultiServiceDeployConfiguration.builder(Arrays.asList(service1, service2)).build(),
+                null);
+
+    assertEquals("20260102t030405", result.getVersion());
+    List<String> expected =
+        ImmutableList.of("app", "deploy", "--version", result.getVersion(), "--format", "json");
+    verify(gcloudRunner).run(eq(expected), eq(service1), Mockito.any());
+    verify(gcloudRunner).run(eq(expected), eq(service2), Mockito.any());
+    // no JSON on stdout, the deployment still succeeded
+    assertTrue(result.isSuccessful());
+    Assert.assertNull(result.getServices().get(0).getDeployResult());
+  }
+
+  @Test
+  public void testDeployServices_failFast() throws Exception {
+    Path service1 = tmpDir.newFolder("service1").toPath();
+    Path service2 = tmpDir.newFolder("service2").toPath();
+    Path dispatch = tmpDir.newFile("dispatch.yaml").toPath();
+    Mockito.doAnswer(invocation -> runProcess(invocation, "", "ERROR: quota exceeded", 1))
+        .when(gcloudRunner)
+        .run(Mockito.anyList(), Mockito.any(), Mockito.any());
+
+    MultiServiceDeployResult result =
+        new Deployment(gcloudRunner, new GcloudExecutor(2, Runnable::run))
+            .deployServices(
+                MultiServiceDeployConfiguration.builder(Arrays.asList(service1, service2))
+                    .configFiles(Collections.singletonList(dispatch))
+                    .version("v1")
+                    .maxParallelDeployments(1)
+                    .build(),
+                null);
+
+    Assert.assertFalse(result.isSuccessful());
+    DeployableResult failed = result.getServices().get(0);
+    assertEquals(DeployableResult.Status.FAILED, failed.getStatus());
+    AppEngineException failure = failed.getFailure();
+    Assert.assertNotNull(failure);
+    assertEquals(
+        "Deploying " + service1 + " failed, gcloud exited with code 1: ERROR: quota exceeded",
+        failure.getMessage());
+    assertEquals(DeployableResult.Status.SKIPPED, result.getServices().get(1).getStatus());
+    assertEquals(DeployableResult.Status.SKIPPED, result.getConfigFiles().get(0).getStatus());
+    verify(gcloudRunner, times(1)).run(Mockito.anyList(), Mockito.any(), Mockito.any());
+  }
+
+  @Test
+  public void testDeployServices_bestEffort() throws Exception {
+    Path service1 = tmpDir.newFolder("service1").toPath();
+    Path service2 = tmpDir.newFolder("service2").toPath();
+    Path dispatch = tmpDir.newFile("dispatch.yaml").toPath();
+    Mockito.doAnswer(
+            invocation ->
+                service1.equals(invocation.getArgument(1))
+                    ? runProcess(invocation, "", "ERROR: quota exceeded", 1)
+                    : runProcess(invocation, deployResultJson("service2", "v1"), "", 0))
+        .when(gcloudRunner)
+        .run(Mockito.anyList(), Mockito.any(), Mockito.any());
+
+    MultiServiceDeployResult result =
+        new Deployment(gcloudRunner, new GcloudExecutor(2, Runnable::run))
+            .deployServices(
+                MultiServiceDeployConfiguration.builder(Arrays.asList(service1, service2))
+                    .configFiles(Collections.singletonList(dispatch))
+                    .version("v1")
+                    .maxParallelDeployments(1)
+                    .failFast(false)
+                    .build(),
+                null);
+
+    assertEquals(DeployableResult.Status.FAILED, result.getServices().get(0).getStatus());
+    assertEquals(DeployableResult.Status.SUCCEEDED, result.getServices().get(1).getStatus());
+    assertEquals(DeployableResult.Status.SKIPPED, result.getConfigFiles().get(0).getStatus());
+  }
+
+  @Test
+  public void testDeployServices_missingDeployableFailsImmediately() {
+    try {
+      deployment.deployServicesAsync(
+          MultiServiceDeployConfiguration.builder(
+                  Collections.singletonList(tmpDir.getRoot().toPath().resolve("missing.yaml")))
+              .build(),
+          null);
+      fail();
+    } catch (IllegalArgumentException | AppEngineException expected) {
+      // pass
+    }
+  }
+
+  /** Lets the process handler passed to the runner handle a fake gcloud process. */
+  @Nullable
+  private static Void runProcess(
+      InvocationOnMock invocation, String stdOut, String stdErr, int exitCode) throws Exception {
+    Process process = Mockito.mock(Process.class);
+    Mockito.when(process.getInputStream())
+        .thenReturn(new ByteArrayInputStream(stdOut.getBytes(StandardCharsets.UTF_8)));
+    Mockito.when(process.getErrorStream())
+        .thenReturn(new ByteArrayInputStream(stdErr.getBytes(StandardCharsets.UTF_8)));
+    Mockito.when(process.waitFor()).thenReturn(exitCode);
+    ProcessHandler processHandler = invocation.getArgument(2);
+    processHandler.handleProcess(process);
+    return null;
+  }
+
+  private static String deployResultJson(String service, String version) {
+    return "{\"versions\":[{\"id\":\""
+        + version
+        + "\",\"service\":\""
+        + service
+        + "\",\"project\":\"project\"}]}";
+  }
 }
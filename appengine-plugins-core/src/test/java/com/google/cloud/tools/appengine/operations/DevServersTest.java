@@ -33,6 +33,6 @@ public class DevServersTest {
   @Test
   public void testGetRunner_parametersPassedToFactory() {
     new DevServers.Builder(sdk, devAppServerRunnerFactory).build().getRunner(processHandler);
-    Mockito.verify(devAppServerRunnerFactory).newRunner(sdk, processHandler);
+    Mockito.verify(devAppServerRunnerFactory).newRunner(sdk, processHandler, null);
   }
 }
@@ -0,0 +1,78 @@
+/*
+ * Copyright 2026 Google LLC.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.tools.appengine.operations;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.google.cloud.tools.appengine.operations.cloudsdk.process.ProcessHandlerException;
+import com.google.common.base.Ticker;
+import com.google.common.collect.ImmutableList;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+@RunWith(MockitoJUnitRunner.class)
+public class GcloudAccessTokenProviderTest {
+
+  private static final List<String> PRINT_ACCESS_TOKEN =
+      ImmutableList.of("auth", "print-access-token");
+
+  @Mock private Gcloud gcloud;
+
+  private final AtomicLong nanos = new AtomicLong();
+  private final Ticker ticker =
+      new Ticker() {
+        @Override
+        public long read() {
+          return nanos.get();
+        }
+      };
+
+  @Test
+  public void testGetAccessToken_reusedForAMinute() throws Exception {
+    when(gcloud.runCommand(PRINT_ACCESS_TOKEN)).thenReturn("token-1\n", "token-2\n");
+    GcloudAccessTokenProvider provider = new GcloudAccessTokenProvider(gcloud, ticker);
+
+    assertEquals("token-1", provider.getAccessToken());
+    nanos.addAndGet(TimeUnit.SECONDS.toNanos(59));
+    assertEquals("token-1", provider.getAccessToken());
+    nanos.addAndGet(TimeUnit.SECONDS.toNanos(1));
+    assertEquals("token-2", provider.getAccessToken());
+    verify(gcloud, times(2)).runCommand(PRINT_ACCESS_TOKEN);
+  }
+
+  @Test
+  public void testGetAccessToken_gcloudFails() throws Exception {
+    ProcessHandlerException failure = new ProcessHandlerException("not logged in");
+    when(gcloud.runCommand(PRINT_ACCESS_TOKEN)).thenThrow(failure);
+    try {
+      new GcloudAccessTokenProvider(gcloud, ticker).getAccessToken();
+      fail();
+    } catch (IOException ex) {
+      assertEquals(failure, ex.getCause());
+    }
+  }
+}
@@ -0,0 +1,266 @@
+/*
+ * Copyright 2026 Google LLC.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.tools.appengine.operations;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import com.google.cloud.tools.appengine.operations.GcloudExecutor.Priority;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/** Unit tests for {@link GcloudExecutor}. */
+public class GcloudExecutorTest {
+
+  @Rule public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+  private ExecutorService workers;
+
+  @Before
+  public void setUp() {
+    workers = Executors.newCachedThreadPool();
+  }
+
+  @After
+  public void tearDown() {
+    workers.shutdownNow();
+  }
+
+  @Test
+  public void testConstructor_rejectsNonPositiveLimit() {
+    try {
+      new GcloudExecutor(0);
+      fail();
+    } catch (IllegalArgumentException expected) {
+      assertEquals("maxConcurrentProcesses must be positive", expected.getMessage());
+    }
+  }
+
+  @Test
+  public void testSubmit_result() throws Exception {
+    GcloudExecutor executor = new GcloudExecutor(1, workers);
+    assertEquals("out", executor.submit(Priority.NORMAL, () -> "out").get(5, TimeUnit.SECONDS));
+  }
+
+  @Test
+  public void testSubmit_exception() throws Exception {
+    GcloudExecutor executor = new GcloudExecutor(1, workers);
+    IllegalStateException failure = new IllegalStateException("failed");
+    CompletableFuture<String> future =
+        executor.submit(
+            Priority.NORMAL,
+            () -> {
+              throw failure;
+            });
+    try {
+      future.get(5, TimeUnit.SECONDS);
+      fail();
+    } catch (ExecutionException ex) {
+      assertSame(failure, ex.getCause());
+    }
+  }
+
+  @Test
+  public void testSubmit_boundsConcurrency() throws Exception {
+    GcloudExecutor executor = new GcloudExecutor(2, workers);
+    AtomicInteger running = new AtomicInteger();
+    AtomicInteger maxRunning = new AtomicInteger();
+    CountDownLatch release = new CountDownLatch(1);
+
+    List<CompletableFuture<Void>> futures = new ArrayList<>();
+    for (int i = 0; i < 6; i++) {
+      futures.add(
+          executor.submit(
+              Priority.NORMAL,
+              () -> {
+                maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                release.await();
+                running.decrementAndGet();
+                return null;
+              }));
+    }
+    Thread.sleep(100);
+    release.countDown();
+    CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0])).get(5, TimeUnit.SECONDS);
+
+    assertEquals(2, maxRunning.get());
+  }
+
+  @Test
+  public void testSubmit_boundsConcurrencyAcrossExecutorsOfAHost() throws Exception {
+    // two executors with their own limits stand for two JVMs of one host
+    Path slots = temporaryFolder.getRoot().toPath();
+    GcloudExecutor first = new GcloudExecutor(2, workers, new HostProcessLimit(slots, 1));
+    GcloudExecutor second = new GcloudExecutor(2, workers, new HostProcessLimit(slots, 1));
+    AtomicInteger running = new AtomicInteger();
+    AtomicInteger maxRunning = new AtomicInteger();
+    Callable<Void> task =
+        () -> {
+          maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+          Thread.sleep(20);
+          running.decrementAndGet();
+          return null;
+        };
+
+    List<CompletableFuture<Void>> futures = new ArrayList<>();
+    for (int i = 0; i < 3; i++) {
+      futures.add(first.submit(Priority.NORMAL, task));
+      futures.add(second.submit(Priority.NORMAL, task));
+    }
+    CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0])).get(10, TimeUnit.SECONDS);
+
+    assertEquals(1, maxRunning.get());
+  }
+
+  @Test
+  public void testSubmit_queuedByPriorityThenOrder() throws Exception {
+    GcloudExecutor executor = new GcloudExecutor(1, workers);
+    CountDownLatch release = new CountDownLatch(1);
+    List<String> order = Collections.synchronizedList(new ArrayList<>());
+
+    CompletableFuture<Void> blocker =
+        executor.submit(
+            Priority.LOW,
+            () -> {
+              release.await();
+              return null;
+            });
+    CompletableFuture<Boolean> deploy = executor.submit(Priority.LOW, () -> order.add("deploy"));
+    CompletableFuture<Boolean> stop = executor.submit(Priority.NORMAL, () -> order.add("stop"));
+    CompletableFuture<Boolean> list1 = executor.submit(Priority.HIGH, () -> order.add("list1"));
+    CompletableFuture<Boolean> list2 = executor.submit(Priority.HIGH, () -> order.add("list2"));
+    release.countDown();
+    CompletableFuture.allOf(blocker, deploy, stop, list1, list2).get(5, TimeUnit.SECONDS);
+
+    assertEquals(Arrays.asList("list1", "list2", "stop", "deploy"), order);
+  }
+
+  @Test
+  public void testSubmit_cancelledWhileQueued() throws Exception {
+    GcloudExecutor executor = new GcloudExecutor(1, workers);
+    CountDownLatch release = new CountDownLatch(1);
+    AtomicInteger runs = new AtomicInteger();
+
+    CompletableFuture<Void> blocker =
+        executor.submit(
+            Priority.NORMAL,
+            () -> {
+              release.await();
+              return null;
+            });
+    CompletableFuture<Integer> cancelled = executor.submit(Priority.NORMAL, runs::incrementAndGet);
+    assertTrue(cancelled.cancel(false));
+    release.countDown();
+    blocker.get(5, TimeUnit.SECONDS);
+    executor.submit(Priority.NORMAL, () -> null).get(5, TimeUnit.SECONDS);
+
+    assertEquals(0, runs.get());
+  }
+
+  @Test
+  public void testSubmitShared_singleFlight() throws Exception {
+    GcloudExecutor executor = new GcloudExecutor(4, workers);
+    CountDownLatch release = new CountDownLatch(1);
+    AtomicInteger runs = new AtomicInteger();
+
+    List<CompletableFuture<Integer>> futures = new ArrayList<>();
+    for (int i = 0; i < 5; i++) {
+      futures.add(
+          executor.submitShared(
+              "config list",
+              Priority.HIGH,
+              () -> {
+                release.await();
+                return runs.incrementAndGet();
+              }));
+    }
+    release.countDown();
+    for (CompletableFuture<Integer> future : futures) {
+      assertEquals(Integer.valueOf(1), future.get(5, TimeUnit.SECONDS));
+    }
+    assertEquals(1, runs.get());
+
+    // completed invocations are not cached
+    assertEquals(
+        Integer.valueOf(2),
+        executor
+            .submitShared("config list", Priority.HIGH, runs::incrementAndGet)
+            .get(5, TimeUnit.SECONDS));
+  }
+
+  @Test
+  public void testSubmitShared_completedInvocationNotJoined() throws Exception {
+    GcloudExecutor executor = new GcloudExecutor(1, workers);
+    CountDownLatch release = new CountDownLatch(1);
+    AtomicInteger runs = new AtomicInteger();
+
+    CompletableFuture<Integer> first =
+        executor.submitShared(
+            "config list",
+            Priority.HIGH,
+            () -> {
+              release.await();
+              return runs.incrementAndGet();
+            });
+    // may run before the completed invocation is removed from the in-flight ones
+    CompletableFuture<CompletableFuture<Integer>> second =
+        first.thenApply(
+            result -> executor.submitShared("config list", Priority.HIGH, runs::incrementAndGet));
+    release.countDown();
+
+    assertEquals(Integer.valueOf(2), second.get(5, TimeUnit.SECONDS).get(5, TimeUnit.SECONDS));
+  }
+
+  @Test
+  public void testSubmitShared_cancelDoesNotAffectOtherCallers() throws Exception {
+    GcloudExecutor executor = new GcloudExecutor(1, workers);
+    CountDownLatch release = new CountDownLatch(1);
+    Callable<String> task =
+        () -> {
+          release.await();
+          return "config";
+        };
+
+    CompletableFuture<String> first = executor.submitShared("key", Priority.HIGH, task);
+    CompletableFuture<String> second = executor.submitShared("key", Priority.HIGH, task);
+    first.cancel(false);
+    release.countDown();
+
+    assertEquals("config", second.get(5, TimeUnit.SECONDS));
+    assertTrue(first.isCancelled());
+    assertFalse(second.isCompletedExceptionally());
+  }
+}
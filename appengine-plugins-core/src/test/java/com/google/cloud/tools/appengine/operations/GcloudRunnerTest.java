@@ -118,6 +118,29 @@ public class GcloudRunnerTest {
     Mockito.verify(processHandler).handleProcess(process);
   }
 
+  @Test
+  public void testRun_formatArgumentReplacesOutputFormat()
+      throws CloudSdkOutOfDateException, CloudSdkNotFoundException, ProcessHandlerException,
+          CloudSdkVersionFileException, IOException {
+    GcloudRunner gcloudRunner =
+        new GcloudRunner.Factory(processBuilderFactory)
+            .newRunner(
+                sdk,
+                null, // metrics env
+                null, // metrics env version
+                null, // credential file
+                null, // gcloud flags file(s)
+                "some-format", // output format
+                null, // show structured logs
+                null, // verbosity
+                processHandler);
+
+    gcloudRunner.run(ImmutableList.of("app", "deploy", "--format", "json"), null);
+
+    Mockito.verify(processBuilder)
+        .command(ImmutableList.of(gcloudPath.toString(), "app", "deploy", "--format", "json"));
+  }
+
   @Test
   public void testGcloudCommandEnvironment() {
     GcloudRunner gcloudRunner =
@@ -16,12 +16,23 @@
 
 package com.google.cloud.tools.appengine.operations;
 
+import com.google.cloud.tools.appengine.operations.api.AccessTokenProvider;
+import com.google.cloud.tools.appengine.operations.api.ServiceAccountCredentials;
+import com.google.cloud.tools.appengine.operations.cloudsdk.GcloudConfigReader;
 import com.google.cloud.tools.appengine.operations.cloudsdk.process.ProcessHandler;
+import com.google.cloud.tools.appengine.operations.cloudsdk.serialization.CloudSdkConfig;
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.List;
+import javax.annotation.Nullable;
+import org.junit.Assert;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 import org.junit.runner.RunWith;
 import org.mockito.Mock;
 import org.mockito.Mockito;
@@ -34,6 +45,81 @@ public class GcloudTest {
   @Mock private CloudSdk sdk;
   @Mock private ProcessHandler processHandler;
   @Mock private Path credentialFile;
+  @Mock private GcloudConfigReader configReader;
+
+  @Rule public TemporaryFolder tmpDir = new TemporaryFolder();
+
+  @Test
+  public void testGetConfig_readsConfigurationFiles() throws Exception {
+    Mockito.when(configReader.getProperties())
+        .thenReturn(ImmutableMap.of("core/project", "my-project"));
+
+    CloudSdkConfig config =
+        new Gcloud.Builder(sdk, gcloudRunnerFactory)
+            .setConfigReader(configReader)
+            .build()
+            .getConfig();
+
+    Assert.assertEquals("my-project", config.getProject());
+    Mockito.verify(sdk).validateCloudSdk();
+  }
+
+  @Test
+  public void testSharedCommandKey_credentialsAndEnvironment() {
+    Mockito.when(sdk.getPath()).thenReturn(Paths.get("google-cloud-sdk"));
+    Mockito.when(configReader.getCloudSdkEnvironment())
+        .thenReturn(ImmutableMap.of("CLOUDSDK_CORE_PROJECT", "a"));
+    GcloudConfigReader otherConfigReader = Mockito.mock(GcloudConfigReader.class);
+    Mockito.when(otherConfigReader.getCloudSdkEnvironment())
+        .thenReturn(ImmutableMap.of("CLOUDSDK_CORE_PROJECT", "b"));
+
+    List<Object> key = newGcloud(null, configReader).sharedCommandKey("config", "list");
+
+    Assert.assertEquals(key, newGcloud(null, configReader).sharedCommandKey("config", "list"));
+    Assert.assertNotEquals(
+        key, newGcloud(null, configReader).sharedCommandKey("components", "list"));
+    Assert.assertNotEquals(
+        key, newGcloud(credentialFile, configReader).sharedCommandKey("config", "list"));
+    Assert.assertNotEquals(
+        key, newGcloud(null, otherConfigReader).sharedCommandKey("config", "list"));
+  }
+
+  private Gcloud newGcloud(@Nullable Path credentialFile, GcloudConfigReader configReader) {
+    Gcloud.Builder builder = new Gcloud.Builder(sdk, gcloudRunnerFactory);
+    if (credentialFile != null) {
+      builder.setCredentialFile(credentialFile);
+    }
+    return builder.setConfigReader(configReader).build();
+  }
+
+  @Test
+  public void testNewAccessTokenProvider_serviceAccountKey() throws Exception {
+    Path keyFile = tmpDir.newFile("key.json").toPath();
+    Files.write(keyFile, "{\"type\": \"service_account\"}".getBytes(StandardCharsets.UTF_8));
+
+    AccessTokenProvider tokens =
+        new Gcloud.Builder(sdk, gcloudRunnerFactory)
+            .setCredentialFile(keyFile)
+            .build()
+            .newAccessTokenProvider();
+
+    Assert.assertSame(ServiceAccountCredentials.forKeyFile(keyFile), tokens);
+  }
+
+  @Test
+  public void testNewAccessTokenProvider_userCredentials() throws Exception {
+    Path userCredentials = tmpDir.newFile("user.json").toPath();
+    Files.write(
+        userCredentials, "{\"type\": \"authorized_user\"}".getBytes(StandardCharsets.UTF_8));
+
+    AccessTokenProvider tokens =
+        new Gcloud.Builder(sdk, gcloudRunnerFactory)
+            .setCredentialFile(userCredentials)
+            .build()
+            .newAccessTokenProvider();
+
+    Assert.assertTrue(tokens instanceof GcloudAccessTokenProvider);
+  }
 
   @Test
   public void testGetRunner_parametersPassedToFactory() {
@@ -63,6 +149,7 @@ public class GcloudTest {
             outputFormat,
             showStructuredLogs,
             verbosity,
-            processHandler);
+            processHandler,
+            null);
   }
 }
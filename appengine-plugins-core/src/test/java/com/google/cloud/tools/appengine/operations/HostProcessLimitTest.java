@@ -0,0 +1,84 @@
+/*
+ * Copyright 2026 Google LLC.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.tools.appengine.operations;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/** Unit tests for {@link HostProcessLimit}. */
+public class HostProcessLimitTest {
+
+  @Rule public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+  @Test
+  public void testAcquire_waitsForSlotOfOtherInstance() throws Exception {
+    Path directory = temporaryFolder.getRoot().toPath().resolve("slots");
+    HostProcessLimit holder = new HostProcessLimit(directory, 1);
+    HostProcessLimit waiter = new HostProcessLimit(directory, 1);
+    HostProcessLimit.Slot held = holder.acquire();
+    CountDownLatch acquired = new CountDownLatch(1);
+
+    Thread thread =
+        new Thread(
+            () -> {
+              try {
+                waiter.acquire().release();
+                acquired.countDown();
+              } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+              }
+            });
+    thread.start();
+
+    assertFalse(acquired.await(200, TimeUnit.MILLISECONDS));
+    held.release();
+    assertTrue(acquired.await(5, TimeUnit.SECONDS));
+    assertTrue(Files.isRegularFile(directory.resolve("slot-0.lock")));
+  }
+
+  @Test
+  public void testAcquire_freeSlotsDoNotWait() throws InterruptedException {
+    HostProcessLimit limit = new HostProcessLimit(temporaryFolder.getRoot().toPath(), 2);
+
+    HostProcessLimit.Slot first = limit.acquire();
+    HostProcessLimit.Slot second = limit.acquire();
+
+    first.release();
+    second.release();
+  }
+
+  @Test
+  public void testAcquire_unusableDirectoryIsUnlimited() throws IOException, InterruptedException {
+    Path file = temporaryFolder.newFile("not-a-directory").toPath();
+    HostProcessLimit limit = new HostProcessLimit(file, 1);
+
+    HostProcessLimit.Slot first = limit.acquire();
+    HostProcessLimit.Slot second = limit.acquire();
+
+    first.release();
+    second.release();
+  }
+}
@@ -0,0 +1,185 @@
+/*
+ * Copyright 2026 Google LLC.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.tools.appengine.operations;
+
+import com.google.appengine.tools.info.SdkInfo;
+import com.google.common.io.CharStreams;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.PrintStream;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Collections;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class InProcessAppCfgTest {
+
+  @Rule public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+  private ClassLoader classLoader;
+  private Path sdkRoot;
+
+  @Before
+  public void setUp() throws IOException {
+    // load the fake from the test classes, isolated like the real tools jar
+    URL testClasses = InProcessAppCfgTest.class.getProtectionDomain().getCodeSource().getLocation();
+    classLoader =
+        new URLClassLoader(new URL[] {testClasses}, ClassLoader.getSystemClassLoader().getParent());
+    sdkRoot = temporaryFolder.newFolder("sdk").toPath();
+  }
+
+  @Test
+  public void testStart_capturesOutput() throws IOException, InterruptedException {
+    String previousSdkRoot = System.getProperty("appengine.sdk.root");
+
+    InProcessAppCfg process =
+        InProcessAppCfg.start(
+            classLoader, FakeAppCfg.class.getName(), sdkRoot, Arrays.asList("stage", "a", "b"));
+
+    Assert.assertEquals(
+        "args: stage a b\nsdk root: " + sdkRoot + "\n", read(process.getInputStream()));
+    Assert.assertEquals("isolated: true\n", read(process.getErrorStream()));
+    Assert.assertEquals(0, process.waitFor());
+    Assert.assertFalse(process.isAlive());
+    Assert.assertEquals(previousSdkRoot, System.getProperty("appengine.sdk.root"));
+  }
+
+  @Test
+  public void testStart_threadsOutlivingRunNotCaptured() throws Exception {
+    PrintStream originalOut = System.out;
+    ByteArrayOutputStream hostOut = new ByteArrayOutputStream();
+    System.setOut(new PrintStream(hostOut, true, "UTF-8"));
+    try {
+      InProcessAppCfg process =
+          InProcessAppCfg.start(
+              classLoader, FakeAppCfg.class.getName(), sdkRoot, Collections.singletonList("late"));
+
+      Assert.assertEquals(
+          "args: late\nsdk root: " + sdkRoot + "\n", read(process.getInputStream()));
+      Assert.assertEquals(0, process.waitFor());
+      for (Thread thread : Thread.getAllStackTraces().keySet()) {
+        if (thread.getName().equals("appcfg-late")) {
+          thread.join();
+        }
+      }
+    } finally {
+      System.setOut(originalOut);
+    }
+    Assert.assertEquals("late\n", hostOut.toString("UTF-8").replace(System.lineSeparator(), "\n"));
+  }
+
+  @Test
+  public void testStart_withoutSdkInfo() throws IOException, InterruptedException {
+    String previousSdkRoot = System.getProperty("appengine.sdk.root");
+    ClassLoader jdkOnly = ClassLoader.getSystemClassLoader().getParent();
+
+    InProcessAppCfg process =
+        InProcessAppCfg.start(
+            jdkOnly, FakeAppCfg.class.getName(), sdkRoot, Collections.singletonList("stage"));
+
+    Assert.assertEquals("", read(process.getInputStream()));
+    Assert.assertTrue(read(process.getErrorStream()).contains("ClassNotFoundException"));
+    Assert.assertEquals(1, process.waitFor());
+    Assert.assertEquals(previousSdkRoot, System.getProperty("appengine.sdk.root"));
+  }
+
+  @Test
+  public void testIsSupported() {
+    Assert.assertTrue(InProcessAppCfg.isSupported(classLoader));
+    Assert.assertFalse(InProcessAppCfg.isSupported(ClassLoader.getSystemClassLoader().getParent()));
+  }
+
+  @Test
+  public void testStart_failure() throws IOException, InterruptedException {
+    InProcessAppCfg process =
+        InProcessAppCfg.start(
+            classLoader, FakeAppCfg.class.getName(), sdkRoot, Collections.singletonList("fail"));
+
+    read(process.getInputStream());
+    Assert.assertTrue(read(process.getErrorStream()).contains("IllegalStateException: failed"));
+    Assert.assertEquals(1, process.waitFor());
+    Assert.assertEquals(1, process.exitValue());
+  }
+
+  @Test
+  public void testStart_doesNotCaptureOtherThreads() throws IOException, InterruptedException {
+    InProcessAppCfg process =
+        InProcessAppCfg.start(
+            classLoader, FakeAppCfg.class.getName(), sdkRoot, Collections.singletonList("wait"));
+    System.out.println("not captured");
+
+    Assert.assertEquals("args: wait\nsdk root: " + sdkRoot + "\n", read(process.getInputStream()));
+    Assert.assertEquals(0, process.waitFor());
+  }
+
+  @Test
+  public void testGetClassLoader_cachedPerJar() {
+    Path toolsJar = Paths.get("tools", "appengine-tools-api.jar");
+    ClassLoader classLoader = InProcessAppCfg.getClassLoader(toolsJar);
+
+    Assert.assertSame(classLoader, InProcessAppCfg.getClassLoader(toolsJar.toAbsolutePath()));
+    Assert.assertNotSame(
+        classLoader, InProcessAppCfg.getClassLoader(Paths.get("other", "appengine-tools-api.jar")));
+    Assert.assertSame(ClassLoader.getSystemClassLoader().getParent(), classLoader.getParent());
+  }
+
+  private static String read(InputStream stream) throws IOException {
+    try (InputStreamReader reader = new InputStreamReader(stream, StandardCharsets.UTF_8)) {
+      return CharStreams.toString(reader).replace(System.lineSeparator(), "\n");
+    }
+  }
+
+  /** Stands in for AppCfg, must only depend on the JDK. */
+  public static class FakeAppCfg {
+    public FakeAppCfg(String[] args) throws InterruptedException {
+      if (args[0].equals("wait")) {
+        Thread.sleep(200);
+      }
+      System.out.println("args: " + String.join(" ", args));
+      System.out.println("sdk root: " + SdkInfo.getSdkRoot());
+      System.err.println(
+          "isolated: " + (FakeAppCfg.class.getClassLoader() != ClassLoader.getSystemClassLoader()));
+      if (args[0].equals("late")) {
+        Thread late =
+            new Thread(
+                () -> {
+                  try {
+                    Thread.sleep(200);
+                  } catch (InterruptedException ex) {
+                    return;
+                  }
+                  System.out.println("late");
+                },
+                "appcfg-late");
+        late.start();
+      }
+      if (args[0].equals("fail")) {
+        throw new IllegalStateException("failed");
+      }
+    }
+  }
+}
@@ -16,6 +16,7 @@
 
 package com.google.cloud.tools.appengine.operations;
 
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.times;
@@ -24,6 +25,7 @@ import static org.mockito.Mockito.verify;
 import com.google.cloud.tools.appengine.AppEngineException;
 import com.google.cloud.tools.appengine.configuration.VersionsListConfiguration;
 import com.google.cloud.tools.appengine.configuration.VersionsSelectionConfiguration;
+import com.google.cloud.tools.appengine.operations.cloudsdk.process.ProcessHandler;
 import com.google.cloud.tools.appengine.operations.cloudsdk.process.ProcessHandlerException;
 import java.io.IOException;
 import java.util.Arrays;
@@ -145,6 +147,45 @@ public class VersionsTest {
     verify(gcloudRunner, times(1)).run(eq(args), isNull());
   }
 
+  @Test
+  public void stopAsyncTest() throws Exception {
+    Versions appEngineVersion = new Versions(gcloudRunner, new GcloudExecutor(1, Runnable::run));
+    appEngineVersion.stopAsync(getVersionConfig()).get();
+
+    List<String> args =
+        Arrays.asList(
+            "app",
+            "versions",
+            "stop",
+            "v1",
+            "v2",
+            "--service",
+            "myService",
+            "--project",
+            "myProject");
+
+    verify(gcloudRunner, times(1)).run(eq(args), isNull(), any(ProcessHandler.class));
+  }
+
+  @Test
+  public void listAsyncTest() throws Exception {
+    Versions appEngineVersion = new Versions(gcloudRunner, new GcloudExecutor(1, Runnable::run));
+    appEngineVersion.listAsync(getListConfig(true)).get();
+
+    List<String> args =
+        Arrays.asList(
+            "app",
+            "versions",
+            "list",
+            "--service",
+            "myService",
+            "--hide-no-traffic",
+            "--project",
+            "myProject");
+
+    verify(gcloudRunner, times(1)).run(eq(args), isNull(), any(ProcessHandler.class));
+  }
+
   private static VersionsSelectionConfiguration getVersionConfig() {
     return VersionsSelectionConfiguration.builder(Arrays.asList("v1", "v2"))
         .service("myService")
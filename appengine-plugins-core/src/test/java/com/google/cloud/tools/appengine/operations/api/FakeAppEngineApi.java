@@ -0,0 +1,430 @@
+/*
+ * Copyright 2026 Google LLC.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.tools.appengine.operations.api;
+
+import com.google.common.base.Preconditions;
+import com.google.common.base.Splitter;
+import com.google.common.io.ByteStreams;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import javax.annotation.Nullable;
+
+/**
+ * A local stand-in for the App Engine Admin API and the Cloud Storage JSON API, implementing just
+ * enough for {@link AppEngineAdminClient}. Lists are paged two items at a time.
+ */
+class FakeAppEngineApi implements AutoCloseable {
+
+  static final String BUCKET = "staging.project.appspot.com";
+  static final String TOKEN = "test-token";
+
+  /** How long a stalled request waits before it is answered. */
+  static final int STALL_MILLIS = 2000;
+
+  private static final Pattern CONTENT_RANGE = Pattern.compile("bytes (\\d+)-(\\d+)/(\\d+)");
+
+  private final HttpServer server;
+  private final ExecutorService executor = Executors.newCachedThreadPool();
+
+  final Map<String, byte[]> objects = new ConcurrentHashMap<>();
+  final List<JsonObject> createdVersions = Collections.synchronizedList(new ArrayList<>());
+  final List<JsonObject> trafficSplits = Collections.synchronizedList(new ArrayList<>());
+  final AtomicInteger uploadSessions = new AtomicInteger();
+  final AtomicInteger unauthorizedRequests = new AtomicInteger();
+
+  /** Number of uploads that fail after receiving half of their data. */
+  final AtomicInteger uploadFailures = new AtomicInteger();
+  /** Number of GET requests that are answered only after {@link #STALL_MILLIS}. */
+  final AtomicInteger stalledRequests = new AtomicInteger();
+  /** Error message of the next version create operation, or null to succeed. */
+  @Nullable volatile String versionCreateError;
+
+  /** Deployed versions by service and version id, served by the services and versions lists. */
+  final Map<String, Map<String, JsonObject>> versions = new ConcurrentHashMap<>();
+  /** Traffic allocations by service and version id. */
+  final Map<String, Map<String, Double>> allocations = new ConcurrentHashMap<>();
+  /** Number of version changes that are rejected with HTTP 429 before being accepted. */
+  final AtomicInteger throttledRequests = new AtomicInteger();
+
+  final AtomicInteger versionChangeRequests = new AtomicInteger();
+  final AtomicInteger versionListRequests = new AtomicInteger();
+
+  private final Map<String, UploadSession> sessions = new ConcurrentHashMap<>();
+  private final Map<String, String> operationErrors = new ConcurrentHashMap<>();
+  private final Map<String, AtomicInteger> operationPolls = new ConcurrentHashMap<>();
+  private final AtomicInteger operationCount = new AtomicInteger();
+
+  FakeAppEngineApi() throws IOException {
+    server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+    server.createContext("/", this::handle);
+    // stalled requests must not hold up the ones that follow
+    server.setExecutor(executor);
+    server.start();
+  }
+
+  String getEndpoint() {
+    return "http://127.0.0.1:" + server.getAddress().getPort() + "/";
+  }
+
+  /** Adds a version of {@code service}, {@code allocation} is its share of the traffic. */
+  void addVersion(
+      String service, String id, String servingStatus, String createTime, double allocation) {
+    JsonObject version = new JsonObject();
+    version.addProperty("name", "apps/project/services/" + service + "/versions/" + id);
+    version.addProperty("id", id);
+    version.addProperty("servingStatus", servingStatus);
+    version.addProperty("createTime", createTime);
+    versions.computeIfAbsent(service, key -> new ConcurrentHashMap<>()).put(id, version);
+    if (allocation > 0) {
+      allocations.computeIfAbsent(service, key -> new ConcurrentHashMap<>()).put(id, allocation);
+    }
+  }
+
+  AppEngineAdminClient newClient() {
+    return newClientBuilder().build();
+  }
+
+  AppEngineAdminClient.Builder newClientBuilder() {
+    return AppEngineAdminClient.builder(() -> TOKEN)
+        .adminEndpoint(getEndpoint())
+        .storageEndpoint(getEndpoint())
+        .pollIntervalMillis(1);
+  }
+
+  @Override
+  public void close() {
+    server.stop(0);
+    executor.shutdownNow();
+  }
+
+  private void handle(HttpExchange exchange) throws IOException {
+    try {
+      if (exchange.getRequestMethod().equals("GET")
+          && stalledRequests.getAndUpdate(count -> Math.max(0, count - 1)) > 0) {
+        Thread.sleep(STALL_MILLIS);
+      }
+      if (!("Bearer " + TOKEN).equals(exchange.getRequestHeaders().getFirst("Authorization"))) {
+        unauthorizedRequests.incrementAndGet();
+        respond(exchange, 401, error("Request had invalid authentication credentials."));
+        return;
+      }
+      route(exchange);
+    } catch (InterruptedException ex) {
+      // closed while stalling
+      Thread.currentThread().interrupt();
+    } catch (RuntimeException ex) {
+      respond(exchange, 500, error(ex.toString()));
+    } finally {
+      exchange.close();
+    }
+  }
+
+  private void route(HttpExchange exchange) throws IOException {
+    String method = exchange.getRequestMethod();
+    String override = exchange.getRequestHeaders().getFirst("X-HTTP-Method-Override");
+    if (override != null) {
+      method = override;
+    }
+    String path = exchange.getRequestURI().getRawPath();
+    Map<String, String> query = parseQuery(exchange.getRequestURI().getRawQuery());
+    List<String> segments = Splitter.on('/').splitToList(path.substring(1));
+
+    if (method.equals("GET") && path.equals("/v1/apps/project")) {
+      JsonObject app = new JsonObject();
+      app.addProperty("codeBucket", BUCKET);
+      respond(exchange, 200, app);
+    } else if (method.equals("GET") && path.equals("/storage/v1/b/" + BUCKET + "/o")) {
+      listObjects(exchange, query.get("pageToken"));
+    } else if (method.equals("POST") && path.equals("/upload/storage/v1/b/" + BUCKET + "/o")) {
+      String session = "session-" + uploadSessions.incrementAndGet();
+      long size = Long.parseLong(exchange.getRequestHeaders().getFirst("X-Upload-Content-Length"));
+      sessions.put(session, new UploadSession(getRequired(query, "name"), size));
+      exchange.getResponseHeaders().add("Location", getEndpoint() + "upload-session/" + session);
+      respond(exchange, 200, null);
+    } else if (method.equals("PUT") && segments.get(0).equals("upload-session")) {
+      upload(exchange, getRequired(sessions, segments.get(1)));
+    } else if (method.equals("POST")
+        && segments.size() == 6
+        && path.startsWith("/v1/apps/project/services/")
+        && segments.get(5).equals("versions")) {
+      JsonObject version = readJson(exchange);
+      version.addProperty("service", segments.get(4));
+      createdVersions.add(version);
+      respond(exchange, 200, newOperation(versionCreateError));
+    } else if (method.equals("PATCH")
+        && segments.size() == 5
+        && path.startsWith("/v1/apps/project/services/")) {
+      JsonObject service = readJson(exchange);
+      service.addProperty("service", segments.get(4));
+      service.addProperty("updateMask", query.get("updateMask"));
+      trafficSplits.add(service);
+      respond(exchange, 200, newOperation(null));
+    } else if (method.equals("GET") && path.equals("/v1/apps/project/services")) {
+      List<JsonObject> services = new ArrayList<>();
+      for (String service : new TreeMap<>(versions).keySet()) {
+        services.add(getServiceResource(service));
+      }
+      respond(exchange, 200, page(services, "services", query.get("pageToken")));
+    } else if (method.equals("GET")
+        && segments.size() == 5
+        && path.startsWith("/v1/apps/project/services/")) {
+      if (versions.containsKey(segments.get(4))) {
+        respond(exchange, 200, getServiceResource(segments.get(4)));
+      } else {
+        respond(exchange, 404, error("Service not found: " + segments.get(4)));
+      }
+    } else if (method.equals("GET")
+        && segments.size() == 6
+        && path.startsWith("/v1/apps/project/services/")
+        && segments.get(5).equals("versions")) {
+      versionListRequests.incrementAndGet();
+      List<JsonObject> serviceVersions =
+          new ArrayList<>(new TreeMap<>(getRequired(versions, segments.get(4))).values());
+      respond(exchange, 200, page(serviceVersions, "versions", query.get("pageToken")));
+    } else if ((method.equals("PATCH") || method.equals("DELETE"))
+        && segments.size() == 7
+        && path.startsWith("/v1/apps/project/services/")) {
+      changeVersion(exchange, method, segments.get(4), segments.get(6), query);
+    } else if (method.equals("GET") && path.startsWith("/v1/apps/project/operations/")) {
+      respond(exchange, 200, getOperation(path.substring("/v1/".length())));
+    } else {
+      respond(exchange, 404, error("Not found: " + method + " " + path));
+    }
+  }
+
+  private void listObjects(HttpExchange exchange, @Nullable String pageToken) throws IOException {
+    List<JsonObject> items = new ArrayList<>();
+    for (String name : new TreeMap<>(objects).keySet()) {
+      JsonObject item = new JsonObject();
+      item.addProperty("name", name);
+      items.add(item);
+    }
+    respond(exchange, 200, page(items, "items", pageToken));
+  }
+
+  private void changeVersion(
+      HttpExchange exchange, String method, String service, String id, Map<String, String> query)
+      throws IOException {
+    versionChangeRequests.incrementAndGet();
+    if (throttledRequests.getAndUpdate(count -> Math.max(0, count - 1)) > 0) {
+      respond(exchange, 429, error("Quota exceeded"));
+      return;
+    }
+    Map<String, JsonObject> serviceVersions = getRequired(versions, service);
+    JsonObject version = serviceVersions.get(id);
+    if (version == null) {
+      respond(exchange, 404, error("Version not found: " + id));
+      return;
+    }
+    if (method.equals("DELETE")) {
+      Map<String, Double> split = allocations.get(service);
+      if (split != null && split.containsKey(id)) {
+        respond(exchange, 400, error("Cannot delete a version with a non-zero traffic allocation"));
+        return;
+      }
+      serviceVersions.remove(id);
+    } else {
+      if (!"servingStatus".equals(query.get("updateMask"))) {
+        respond(exchange, 400, error("Unsupported updateMask " + query.get("updateMask")));
+        return;
+      }
+      version.addProperty("servingStatus", readJson(exchange).get("servingStatus").getAsString());
+    }
+    respond(exchange, 200, newOperation(null));
+  }
+
+  private JsonObject getServiceResource(String service) {
+    JsonObject resource = new JsonObject();
+    resource.addProperty("name", "apps/project/services/" + service);
+    resource.addProperty("id", service);
+    JsonObject split = new JsonObject();
+    JsonObject serviceAllocations = new JsonObject();
+    Map<String, Double> serviceSplit = allocations.get(service);
+    if (serviceSplit != null) {
+      for (Map.Entry<String, Double> allocation : serviceSplit.entrySet()) {
+        serviceAllocations.addProperty(allocation.getKey(), allocation.getValue());
+      }
+    }
+    split.add("allocations", serviceAllocations);
+    resource.add("split", split);
+    return resource;
+  }
+
+  /** Returns a page of at most two {@code items}, starting at the offset in {@code pageToken}. */
+  private static JsonObject page(
+      List<JsonObject> items, String member, @Nullable String pageToken) {
+    int start = pageToken == null ? 0 : Integer.parseInt(pageToken);
+    int end = Math.min(start + 2, items.size());
+    JsonObject page = new JsonObject();
+    JsonArray pageItems = new JsonArray();
+    for (JsonObject item : items.subList(start, end)) {
+      pageItems.add(item);
+    }
+    page.add(member, pageItems);
+    if (end < items.size()) {
+      page.addProperty("nextPageToken", Integer.toString(end));
+    }
+    return page;
+  }
+
+  private void upload(HttpExchange exchange, UploadSession session) throws IOException {
+    ByteArrayOutputStream received = session.received;
+    long size = session.size;
+    String contentRange = exchange.getRequestHeaders().getFirst("Content-Range");
+    byte[] data = ByteStreams.toByteArray(exchange.getRequestBody());
+
+    if (contentRange != null && contentRange.startsWith("bytes */")) {
+      // status query
+      if (received.size() == size) {
+        respond(exchange, 200, null);
+      } else {
+        if (received.size() > 0) {
+          exchange.getResponseHeaders().add("Range", "bytes=0-" + (received.size() - 1));
+        }
+        respond(exchange, 308, null);
+      }
+      return;
+    }
+
+    if (contentRange != null) {
+      Matcher matcher = CONTENT_RANGE.matcher(contentRange);
+      if (!matcher.matches() || Long.parseLong(matcher.group(1)) != received.size()) {
+        respond(exchange, 400, error("Bad Content-Range " + contentRange));
+        return;
+      }
+    }
+    if (uploadFailures.getAndUpdate(count -> Math.max(0, count - 1)) > 0) {
+      received.write(data, 0, data.length / 2);
+      respond(exchange, 503, error("Backend error"));
+      return;
+    }
+    received.write(data);
+    objects.put(session.name, received.toByteArray());
+    respond(exchange, 200, new JsonObject());
+  }
+
+  private JsonObject newOperation(@Nullable String error) {
+    String name = "apps/project/operations/op-" + operationCount.incrementAndGet();
+    if (error != null) {
+      operationErrors.put(name, error);
+    }
+    operationPolls.put(name, new AtomicInteger());
+    JsonObject operation = new JsonObject();
+    operation.addProperty("name", name);
+    return operation;
+  }
+
+  private JsonObject getOperation(String name) {
+    JsonObject operation = new JsonObject();
+    operation.addProperty("name", name);
+    // done on the second poll
+    if (getRequired(operationPolls, name).incrementAndGet() < 2) {
+      operation.addProperty("done", false);
+      return operation;
+    }
+    operation.addProperty("done", true);
+    String error = operationErrors.get(name);
+    if (error != null) {
+      JsonObject status = new JsonObject();
+      status.addProperty("code", 3);
+      status.addProperty("message", error);
+      operation.add("error", status);
+    } else {
+      operation.add("response", new JsonObject());
+    }
+    return operation;
+  }
+
+  private static <T> T getRequired(Map<String, T> map, String key) {
+    return Preconditions.checkNotNull(map.get(key), key);
+  }
+
+  private static JsonObject readJson(HttpExchange exchange) throws IOException {
+    try (InputStream in = exchange.getRequestBody()) {
+      return JsonParser.parseString(new String(ByteStreams.toByteArray(in), StandardCharsets.UTF_8))
+          .getAsJsonObject();
+    }
+  }
+
+  private static JsonObject error(String message) {
+    JsonObject error = new JsonObject();
+    error.addProperty("message", message);
+    JsonObject response = new JsonObject();
+    response.add("error", error);
+    return response;
+  }
+
+  private static void respond(HttpExchange exchange, int status, @Nullable JsonObject body)
+      throws IOException {
+    byte[] bytes = body == null ? new byte[0] : body.toString().getBytes(StandardCharsets.UTF_8);
+    // idle connections reused by the client are sometimes reset by the server, which uses up
+    // the attempts of the client and makes the retry tests flaky
+    exchange.getResponseHeaders().set("Connection", "close");
+    exchange.sendResponseHeaders(status, bytes.length == 0 ? -1 : bytes.length);
+    if (bytes.length > 0) {
+      try (OutputStream out = exchange.getResponseBody()) {
+        out.write(bytes);
+      }
+    }
+  }
+
+  private static Map<String, String> parseQuery(@Nullable String query) throws IOException {
+    Map<String, String> parameters = new TreeMap<>();
+    if (query != null) {
+      for (String parameter : Splitter.on('&').split(query)) {
+        int equals = parameter.indexOf('=');
+        parameters.put(
+            parameter.substring(0, equals),
+            URLDecoder.decode(parameter.substring(equals + 1), "UTF-8"));
+      }
+    }
+    return parameters;
+  }
+
+  private static class UploadSession {
+    private final String name;
+    private final long size;
+    private final ByteArrayOutputStream received = new ByteArrayOutputStream();
+
+    private UploadSession(String name, long size) {
+      this.name = name;
+      this.size = size;
+    }
+  }
+}
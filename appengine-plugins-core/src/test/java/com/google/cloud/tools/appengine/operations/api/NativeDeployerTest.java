@@ -0,0 +1,293 @@
+/*
+ * Copyright 2026 Google LLC.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.tools.appengine.operations.api;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import com.google.cloud.tools.appengine.AppEngineException;
+import com.google.cloud.tools.appengine.configuration.DeployConfiguration;
+import com.google.gson.JsonObject;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Collections;
+import java.util.List;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class NativeDeployerTest {
+
+  // SHA-1 of "a", "b" and "c"
+  private static final String SHA1_A = "86f7e437faa5a7fce15d1ddcb9eaeaea377667b8";
+  private static final String SHA1_B = "e9d71f5ee7c92d6dc9e92ffdad17b8bd49418f98";
+  private static final String SHA1_C = "84a516841ba77a5b4648de2cd0dfcb30ea46dbb4";
+
+  @Rule public TemporaryFolder tmpDir = new TemporaryFolder();
+
+  private FakeAppEngineApi api;
+  private NativeDeployer deployer;
+  private Path staging;
+
+  @Before
+  public void setUp() throws IOException {
+    api = new FakeAppEngineApi();
+    deployer = new NativeDeployer(api.newClient(), 2);
+    staging = tmpDir.newFolder("staging").toPath();
+    write(staging.resolve("app.yaml"), "runtime: java17\nservice: backend\ninstance_class: F2\n");
+    Files.createDirectories(staging.resolve("lib"));
+    write(staging.resolve("lib").resolve("a.jar"), "a");
+    write(staging.resolve("lib").resolve("b.jar"), "b");
+    write(staging.resolve("lib").resolve("c.jar"), "c");
+    write(staging.resolve("lib").resolve("copy-of-c.jar"), "c");
+  }
+
+  @After
+  public void tearDown() {
+    api.close();
+  }
+
+  @Test
+  public void testHashFiles() throws Exception {
+    List<NativeDeployer.StagedFile> files = NativeDeployer.hashFiles(staging);
+
+    assertEquals(5, files.size());
+    assertEquals("app.yaml", files.get(0).path);
+    assertEquals("lib/a.jar", files.get(1).path);
+    assertEquals(SHA1_A, files.get(1).sha1);
+    assertEquals("lib/copy-of-c.jar", files.get(4).path);
+    assertEquals(SHA1_C, files.get(4).sha1);
+  }
+
+  @Test
+  public void testHashFiles_skipsGitMetadata() throws Exception {
+    Files.createDirectories(staging.resolve(".git").resolve("objects"));
+    write(staging.resolve(".git").resolve("objects").resolve("ab"), "git");
+    write(staging.resolve("lib").resolve(".gitignore"), "*.class\n");
+
+    List<NativeDeployer.StagedFile> files = NativeDeployer.hashFiles(staging);
+
+    assertEquals(5, files.size());
+    assertEquals("app.yaml", files.get(0).path);
+  }
+
+  @Test
+  public void testDeploy() throws Exception {
+    // already uploaded by an earlier deployment
+    api.objects.put(SHA1_A, "a".getBytes(StandardCharsets.UTF_8));
+
+    String version =
+        deployer.deploy(
+            staging,
+            DeployConfiguration.builder(Collections.singletonList(staging))
+                .projectId("project")
+                .version("v1")
+                .build());
+
+    assertEquals("v1", version);
+    // app.yaml, b and c, the copy of c is not uploaded again
+    assertEquals(3, api.uploadSessions.get());
+    assertArrayEquals("b".getBytes(StandardCharsets.UTF_8), api.objects.get(SHA1_B));
+    assertArrayEquals("c".getBytes(StandardCharsets.UTF_8), api.objects.get(SHA1_C));
+
+    assertEquals(1, api.createdVersions.size());
+    JsonObject created = api.createdVersions.get(0);
+    assertEquals("backend", created.get("service").getAsString());
+    assertEquals("v1", created.get("id").getAsString());
+    assertEquals("java17", created.get("runtime").getAsString());
+    assertEquals("F2", created.get("instanceClass").getAsString());
+    JsonObject manifest = created.getAsJsonObject("deployment").getAsJsonObject("files");
+    assertEquals(5, manifest.size());
+    JsonObject copyOfC = manifest.getAsJsonObject("lib/copy-of-c.jar");
+    assertEquals(SHA1_C, copyOfC.get("sha1Sum").getAsString());
+    assertEquals(
+        api.getEndpoint() + FakeAppEngineApi.BUCKET + "/" + SHA1_C,
+        copyOfC.get("sourceUrl").getAsString());
+
+    assertEquals(1, api.trafficSplits.size());
+    JsonObject split = api.trafficSplits.get(0);
+    assertEquals("backend", split.get("service").getAsString());
+    assertEquals("split", split.get("updateMask").getAsString());
+    assertEquals(
+        1, split.getAsJsonObject("split").getAsJsonObject("allocations").get("v1").getAsInt());
+  }
+
+  @Test
+  public void testDeploy_noPromote() throws Exception {
+    Clock clock = Clock.fixed(Instant.parse("2026-01-02T03:04:05Z"), ZoneOffset.UTC);
+    deployer = new NativeDeployer(api.newClient(), 2, clock);
+    deployer.deploy(
+        staging,
+        DeployConfiguration.builder(Collections.singletonList(staging))
+            .projectId("project")
+            .promote(false)
+            .bucket("gs://" + FakeAppEngineApi.BUCKET + "/")
+            .build());
+
+    assertEquals(1, api.createdVersions.size());
+    assertEquals("20260102t030405", api.createdVersions.get(0).get("id").getAsString());
+    assertEquals(0, api.trafficSplits.size());
+  }
+
+  @Test
+  public void testDeploy_resumesInterruptedUploads() throws Exception {
+    write(
+        staging.resolve("lib").resolve("large.jar"),
+        String.join("", Collections.nCopies(1000, "x")));
+    api.uploadFailures.set(2);
+
+    deployer.deploy(
+        staging,
+        DeployConfiguration.builder(Collections.singletonList(staging))
+            .projectId("project")
+            .build());
+
+    Path large = staging.resolve("lib").resolve("large.jar");
+    String largeSha1 =
+        NativeDeployer.hashFiles(staging).stream()
+            .filter(file -> file.file.equals(large))
+            .findFirst()
+            .get()
+            .sha1;
+    assertArrayEquals(Files.readAllBytes(large), api.objects.get(largeSha1));
+    assertEquals(5, api.objects.size());
+  }
+
+  @Test
+  public void testDeploy_retriesTimedOutRequests() throws Exception {
+    deployer = new NativeDeployer(api.newClientBuilder().readTimeoutMillis(500).build(), 2);
+    api.stalledRequests.set(2);
+
+    deployer.deploy(
+        staging,
+        DeployConfiguration.builder(Collections.singletonList(staging))
+            .projectId("project")
+            .version("v1")
+            .build());
+
+    assertEquals(4, api.objects.size());
+    assertEquals(1, api.createdVersions.size());
+  }
+
+  @Test
+  public void testDeploy_requestsTimeOut() throws Exception {
+    deployer = new NativeDeployer(api.newClientBuilder().readTimeoutMillis(500).build(), 2);
+    api.stalledRequests.set(3);
+
+    try {
+      deployer.deploy(
+          staging,
+          DeployConfiguration.builder(Collections.singletonList(staging))
+              .projectId("project")
+              .build());
+      fail();
+    } catch (AppEngineException ex) {
+      assertEquals("GET " + api.getEndpoint() + "v1/apps/project timed out", ex.getMessage());
+    }
+    assertTrue(api.createdVersions.isEmpty());
+  }
+
+  @Test
+  public void testDeploy_operationFailure() throws Exception {
+    api.versionCreateError = "Invalid runtime";
+    try {
+      deployer.deploy(
+          staging,
+          DeployConfiguration.builder(Collections.singletonList(staging))
+              .projectId("project")
+              .build());
+      fail();
+    } catch (ApiException ex) {
+      assertEquals(0, ex.getStatusCode());
+      assertEquals(
+          "Operation apps/project/operations/op-1 failed: Invalid runtime", ex.getMessage());
+    }
+    assertEquals(0, api.trafficSplits.size());
+  }
+
+  @Test
+  public void testDeploy_httpError() throws Exception {
+    NativeDeployer unauthorized =
+        new NativeDeployer(
+            AppEngineAdminClient.builder(() -> "expired")
+                .adminEndpoint(api.getEndpoint())
+                .storageEndpoint(api.getEndpoint())
+                .build());
+    try {
+      unauthorized.deploy(
+          staging,
+          DeployConfiguration.builder(Collections.singletonList(staging))
+              .projectId("project")
+              .build());
+      fail();
+    } catch (ApiException ex) {
+      assertEquals(401, ex.getStatusCode());
+      assertEquals(
+          "GET "
+              + api.getEndpoint()
+              + "v1/apps/project returned HTTP 401: Request had invalid authentication"
+              + " credentials.",
+          ex.getMessage());
+    }
+  }
+
+  @Test
+  public void testSupports() throws IOException {
+    DeployConfiguration.Builder config =
+        DeployConfiguration.builder(Collections.singletonList(staging)).projectId("project");
+    assertTrue(deployer.supports(staging, config.build()));
+
+    assertFalse(deployer.supports(staging, config.stopPreviousVersion(true).build()));
+    assertFalse(
+        deployer.supports(staging, config.stopPreviousVersion(null).gcloudMode("beta").build()));
+    assertFalse(
+        deployer.supports(
+            staging, DeployConfiguration.builder(Collections.singletonList(staging)).build()));
+
+    write(staging.resolve("app.yaml"), "runtime: java17\nhandlers:\n- url: /.*\n  script: auto\n");
+    assertFalse(deployer.supports(staging, config.gcloudMode(null).build()));
+
+    Files.delete(staging.resolve("app.yaml"));
+    assertFalse(deployer.supports(staging, config.build()));
+  }
+
+  @Test
+  public void testSupports_gcloudignore() throws IOException {
+    write(staging.resolve(".gcloudignore"), "lib/b.jar\n");
+
+    assertFalse(
+        deployer.supports(
+            staging,
+            DeployConfiguration.builder(Collections.singletonList(staging))
+                .projectId("project")
+                .build()));
+  }
+
+  private static void write(Path file, String content) throws IOException {
+    Files.write(file, content.getBytes(StandardCharsets.UTF_8));
+  }
+}
@@ -0,0 +1,82 @@
+/*
+ * Copyright 2026 Google LLC.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.tools.appengine.operations.api;
+
+import static org.junit.Assert.assertEquals;
+
+import com.google.common.collect.ImmutableList;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import org.junit.Test;
+
+public class RetentionPolicyTest {
+
+  private static final Instant NOW = Instant.parse("2026-03-01T00:00:00Z");
+
+  private static VersionInfo version(String service, String id, String createTime, double traffic) {
+    return VersionInfo.builder(service, id)
+        .servingStatus(VersionInfo.SERVING)
+        .createTime(Instant.parse(createTime))
+        .trafficAllocation(traffic)
+        .build();
+  }
+
+  private final VersionInfo a1 = version("a", "1", "2026-01-01T00:00:00Z", 0);
+  private final VersionInfo a2 = version("a", "2", "2026-01-02T00:00:00Z", 1);
+  private final VersionInfo a3 = version("a", "3", "2026-01-03T00:00:00Z", 0);
+  private final VersionInfo a4 = version("a", "4", "2026-02-28T00:00:00Z", 0);
+  private final VersionInfo b1 = version("b", "1", "2026-01-01T00:00:00Z", 0);
+  private final VersionInfo b2 = version("b", "2", "2026-01-01T00:00:00Z", 0);
+  private final VersionInfo noCreateTime = VersionInfo.builder("b", "0").build();
+  private final List<VersionInfo> versions = ImmutableList.of(a4, a3, a2, a1, b2, noCreateTime, b1);
+
+  @Test
+  public void testSelectForDeletion_keepsNewestWithoutTraffic() {
+    assertEquals(
+        ImmutableList.of(a1, a3, b1),
+        RetentionPolicy.builder(1).build().selectForDeletion(versions, NOW));
+  }
+
+  @Test
+  public void testSelectForDeletion_keepNone() {
+    assertEquals(
+        ImmutableList.of(a1, a3, a4, b1, b2),
+        RetentionPolicy.builder(0).build().selectForDeletion(versions, NOW));
+  }
+
+  @Test
+  public void testSelectForDeletion_keepMoreThanExist() {
+    assertEquals(
+        ImmutableList.of(), RetentionPolicy.builder(5).build().selectForDeletion(versions, NOW));
+  }
+
+  @Test
+  public void testSelectForDeletion_minimumAge() {
+    assertEquals(
+        ImmutableList.of(a1, a3, b1, b2),
+        RetentionPolicy.builder(0)
+            .minimumAge(Duration.ofDays(2))
+            .build()
+            .selectForDeletion(versions, NOW));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testBuilder_negativeKeepNewest() {
+    RetentionPolicy.builder(-1);
+  }
+}
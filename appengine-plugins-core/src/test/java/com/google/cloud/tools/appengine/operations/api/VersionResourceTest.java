@@ -0,0 +1,127 @@
+/*
+ * Copyright 2026 Google LLC.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.tools.appengine.operations.api;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import com.google.cloud.tools.appengine.AppEngineException;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import java.util.Map;
+import org.junit.Test;
+import org.yaml.snakeyaml.Yaml;
+
+public class VersionResourceTest {
+
+  @Test
+  public void testFromAppYaml() throws AppEngineException {
+    JsonObject version =
+        VersionResource.fromAppYaml(
+            parse(
+                "runtime: java21\n"
+                    + "env: standard\n"
+                    + "entrypoint: java -jar app.jar\n"
+                    + "instance_class: F4\n"
+                    + "service_account: app@project.iam.gserviceaccount.com\n"
+                    + "app_engine_apis: true\n"
+                    + "env_variables:\n"
+                    + "  MODE: prod\n"
+                    + "  WORKERS: 4\n"
+                    + "inbound_services:\n"
+                    + "- warmup\n"
+                    + "automatic_scaling:\n"
+                    + "  min_instances: 1\n"
+                    + "  max_instances: 10\n"
+                    + "  target_cpu_utilization: 0.65\n"
+                    + "  max_concurrent_requests: 50\n"
+                    + "vpc_access_connector:\n"
+                    + "  name: projects/project/locations/us-central1/connectors/c\n"
+                    + "  egress_setting: all-traffic\n"));
+
+    JsonObject expected =
+        JsonParser.parseString(
+                "{\"runtime\":\"java21\","
+                    + "\"entrypoint\":{\"shell\":\"java -jar app.jar\"},"
+                    + "\"instanceClass\":\"F4\","
+                    + "\"serviceAccount\":\"app@project.iam.gserviceaccount.com\","
+                    + "\"appEngineApis\":true,"
+                    + "\"envVariables\":{\"MODE\":\"prod\",\"WORKERS\":\"4\"},"
+                    + "\"inboundServices\":[\"INBOUND_SERVICE_WARMUP\"],"
+                    + "\"automaticScaling\":{\"maxConcurrentRequests\":50,"
+                    + "\"standardSchedulerSettings\":{\"minInstances\":1,\"maxInstances\":10,"
+                    + "\"targetCpuUtilization\":0.65}},"
+                    + "\"vpcAccessConnector\":{"
+                    + "\"name\":\"projects/project/locations/us-central1/connectors/c\","
+                    + "\"egressSetting\":\"ALL_TRAFFIC\"}}")
+            .getAsJsonObject();
+    assertEquals(expected, version);
+  }
+
+  @Test
+  public void testFromAppYaml_scaling() throws AppEngineException {
+    assertEquals(
+        JsonParser.parseString("{\"runtime\":\"java17\",\"basicScaling\":{\"maxInstances\":3}}"),
+        VersionResource.fromAppYaml(parse("runtime: java17\nbasic_scaling:\n  max_instances: 3")));
+    assertEquals(
+        JsonParser.parseString("{\"runtime\":\"java17\",\"manualScaling\":{\"instances\":2}}"),
+        VersionResource.fromAppYaml(parse("runtime: java17\nmanual_scaling:\n  instances: 2")));
+  }
+
+  @Test
+  public void testFromAppYaml_unsupported() {
+    assertUnsupported("runtime: java17\nhandlers: []", "handlers");
+    assertUnsupported("runtime: java\nenv: flex", "env: flex");
+    assertUnsupported(
+        "runtime: java17\nautomatic_scaling:\n  min_pending_latency: 30ms",
+        "automatic_scaling.min_pending_latency");
+    assertUnsupported(
+        "runtime: java17\nbasic_scaling:\n  idle_timeout: 10m", "basic_scaling.idle_timeout");
+  }
+
+  @Test
+  public void testFromAppYaml_noRuntime() {
+    try {
+      VersionResource.fromAppYaml(parse("service: backend"));
+      fail();
+    } catch (AppEngineException ex) {
+      assertEquals("app.yaml doesn't set a runtime", ex.getMessage());
+    }
+  }
+
+  @Test
+  public void testGetService() {
+    assertEquals("default", VersionResource.getService(parse("runtime: java17")));
+    assertEquals("backend", VersionResource.getService(parse("service: backend")));
+    assertEquals("legacy", VersionResource.getService(parse("module: legacy")));
+  }
+
+  private static void assertUnsupported(String appYaml, String setting) {
+    try {
+      VersionResource.fromAppYaml(parse(appYaml));
+      fail();
+    } catch (AppEngineException ex) {
+      assertEquals(
+          "app.yaml setting " + setting + " is not supported by the native deploy client",
+          ex.getMessage());
+    }
+  }
+
+  private static Map<String, ?> parse(String appYaml) {
+    return new Yaml().load(appYaml);
+  }
+}
@@ -0,0 +1,233 @@
+/*
+ * Copyright 2026 Google LLC.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.tools.appengine.operations.api;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableList;
+import com.google.gson.JsonObject;
+import java.io.IOException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class VersionsClientTest {
+
+  private FakeAppEngineApi api;
+  private VersionsClient versionsClient;
+
+  @Before
+  public void setUp() throws IOException {
+    api = new FakeAppEngineApi();
+    versionsClient =
+        VersionsClient.builder(api.newClient())
+            .maxConcurrentOperations(3)
+            .maxRequestsPerSecond(1000)
+            .retryDelayMillis(1)
+            .clock(Clock.fixed(Instant.parse("2026-03-01T00:00:00Z"), ZoneOffset.UTC))
+            .build();
+    api.addVersion("default", "v1", "STOPPED", "2026-01-01T00:00:00Z", 0);
+    api.addVersion("default", "v2", "SERVING", "2026-01-02T00:00:00Z", 0);
+    api.addVersion("default", "v3", "SERVING", "2026-01-03T00:00:00Z", 0);
+    api.addVersion("default", "v4", "SERVING", "2026-01-04T00:00:00Z", 0.25);
+    api.addVersion("default", "v5", "SERVING", "2026-01-05T00:00:00Z", 0.75);
+    api.addVersion("backend", "b1", "SERVING", "2026-01-01T00:00:00Z", 0);
+    api.addVersion("backend", "b2", "SERVING", "2026-02-28T12:00:00Z", 1);
+    api.addVersion("worker", "w1", "STOPPED", "2026-01-01T00:00:00Z", 0);
+  }
+
+  @After
+  public void tearDown() {
+    api.close();
+  }
+
+  @Test
+  public void testList_allServices() throws Exception {
+    List<VersionInfo> versions = versionsClient.listAll("project", null);
+
+    assertEquals(
+        Arrays.asList(
+            "backend/b1",
+            "backend/b2",
+            "default/v1",
+            "default/v2",
+            "default/v3",
+            "default/v4",
+            "default/v5",
+            "worker/w1"),
+        versions.stream().map(VersionInfo::toString).collect(Collectors.toList()));
+    VersionInfo v4 = versions.get(5);
+    assertEquals("default", v4.getService());
+    assertEquals("v4", v4.getId());
+    assertEquals(VersionInfo.SERVING, v4.getServingStatus());
+    assertEquals(Instant.parse("2026-01-04T00:00:00Z"), v4.getCreateTime());
+    assertEquals(0.25, v4.getTrafficAllocation(), 0);
+    assertTrue(v4.isServing());
+    assertTrue(v4.hasTraffic());
+    assertFalse(versions.get(2).isServing());
+    assertFalse(versions.get(2).hasTraffic());
+  }
+
+  @Test
+  public void testList_pagesFetchedLazily() throws Exception {
+    try (Stream<VersionInfo> versions = versionsClient.list("project", "default")) {
+      assertEquals("v1", versions.findFirst().get().getId());
+    }
+    assertEquals(1, api.versionListRequests.get());
+
+    assertEquals(5, versionsClient.listAll("project", "default").size());
+    assertEquals(4, api.versionListRequests.get());
+  }
+
+  @Test
+  public void testList_unknownService() throws Exception {
+    try {
+      versionsClient.list("project", "unknown");
+      fail();
+    } catch (ApiException ex) {
+      assertEquals(404, ex.getStatusCode());
+    }
+  }
+
+  @Test
+  public void testStopAndStart() throws Exception {
+    List<VersionInfo> versions =
+        versionsClient
+            .list("project", "default")
+            .filter(VersionInfo::isServing)
+            .collect(Collectors.toList());
+
+    BulkOperationResult stopped = versionsClient.stop("project", versions);
+
+    assertTrue(stopped.isSuccessful());
+    assertEquals(versions, stopped.getSucceeded());
+    assertTrue(
+        versionsClient.listAll("project", "default").stream().noneMatch(VersionInfo::isServing));
+
+    BulkOperationResult started =
+        versionsClient.start("project", ImmutableList.of(versions.get(0)));
+
+    assertEquals(ImmutableList.of(versions.get(0)), started.getSucceeded());
+    assertEquals(
+        VersionInfo.SERVING,
+        Preconditions.checkNotNull(versionsOf("default").get("v2"))
+            .get("servingStatus")
+            .getAsString());
+  }
+
+  @Test
+  public void testDelete_reportsFailuresPerVersion() throws Exception {
+    VersionInfo v1 = VersionInfo.builder("default", "v1").build();
+    VersionInfo v5 = VersionInfo.builder("default", "v5").build();
+    VersionInfo missing = VersionInfo.builder("default", "missing").build();
+
+    BulkOperationResult result =
+        versionsClient.delete("project", ImmutableList.of(v1, v5, missing));
+
+    assertFalse(result.isSuccessful());
+    assertEquals(ImmutableList.of(v1), result.getSucceeded());
+    assertEquals(
+        ImmutableList.of(v5, missing), ImmutableList.copyOf(result.getFailures().keySet()));
+    assertEquals(400, statusCode(result, v5));
+    assertEquals(404, statusCode(result, missing));
+    assertFalse(versionsOf("default").containsKey("v1"));
+    assertTrue(versionsOf("default").containsKey("v5"));
+  }
+
+  @Test
+  public void testDelete_retriesThrottledRequests() throws Exception {
+    api.throttledRequests.set(2);
+    List<VersionInfo> versions =
+        ImmutableList.of(
+            VersionInfo.builder("default", "v1").build(),
+            VersionInfo.builder("worker", "w1").build());
+
+    BulkOperationResult result = versionsClient.delete("project", versions);
+
+    assertTrue(result.isSuccessful());
+    assertEquals(4, api.versionChangeRequests.get());
+    assertFalse(versionsOf("default").containsKey("v1"));
+    assertTrue(versionsOf("worker").isEmpty());
+  }
+
+  @Test
+  public void testDelete_givesUpAfterRepeatedThrottling() throws Exception {
+    api.throttledRequests.set(10);
+    VersionInfo v1 = VersionInfo.builder("default", "v1").build();
+
+    BulkOperationResult result = versionsClient.delete("project", ImmutableList.of(v1));
+
+    assertEquals(429, statusCode(result, v1));
+    assertEquals(4, api.versionChangeRequests.get());
+  }
+
+  @Test
+  public void testDelete_empty() throws Exception {
+    BulkOperationResult result = versionsClient.delete("project", ImmutableList.of());
+
+    assertTrue(result.isSuccessful());
+    assertEquals(0, api.versionChangeRequests.get());
+  }
+
+  @Test
+  public void testPrune() throws Exception {
+    BulkOperationResult result =
+        versionsClient.prune(
+            "project", null, RetentionPolicy.builder(1).minimumAge(Duration.ofDays(7)).build());
+
+    // default keeps v3 and the versions with traffic, backend has one version without traffic
+    // and worker has only one
+    assertEquals(
+        Arrays.asList("default/v1", "default/v2"),
+        result.getSucceeded().stream().map(VersionInfo::toString).collect(Collectors.toList()));
+    assertEquals(
+        Arrays.asList("v3", "v4", "v5"),
+        versionsClient.listAll("project", "default").stream()
+            .map(VersionInfo::getId)
+            .collect(Collectors.toList()));
+  }
+
+  private Map<String, JsonObject> versionsOf(String service) {
+    return Preconditions.checkNotNull(api.versions.get(service));
+  }
+
+  private static int statusCode(BulkOperationResult result, VersionInfo version) {
+    return ((ApiException) Preconditions.checkNotNull(result.getFailures().get(version)))
+        .getStatusCode();
+  }
+
+  @Test
+  public void testIsRetryable() {
+    assertTrue(VersionsClient.isRetryable(429));
+    assertTrue(VersionsClient.isRetryable(503));
+    assertFalse(VersionsClient.isRetryable(400));
+    assertFalse(VersionsClient.isRetryable(404));
+  }
+}
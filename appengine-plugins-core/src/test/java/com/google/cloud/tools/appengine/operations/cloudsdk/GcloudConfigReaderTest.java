@@ -0,0 +1,202 @@
+/*
+ * Copyright 2026 Google LLC.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.tools.appengine.operations.cloudsdk;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import com.google.common.collect.ImmutableMap;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.FileTime;
+import java.util.Arrays;
+import java.util.Map;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class GcloudConfigReaderTest {
+
+  @Rule public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+  private Path configDirectory;
+  private Path installationDirectory;
+
+  @Before
+  public void setUp() throws IOException {
+    configDirectory = temporaryFolder.newFolder("gcloud").toPath();
+    installationDirectory = temporaryFolder.newFolder("google-cloud-sdk").toPath();
+    Files.createDirectory(configDirectory.resolve("configurations"));
+  }
+
+  @Test
+  public void testGetProperties_defaultConfiguration() throws IOException {
+    writeConfiguration("default", "[core]", "project = my-project", "account = me@example.com");
+
+    GcloudConfigReader reader = newReader(ImmutableMap.of());
+
+    assertEquals("default", reader.getActiveConfigurationName());
+    assertEquals("my-project", reader.getProject());
+    assertEquals("me@example.com", reader.getProperty("core", "account"));
+  }
+
+  @Test
+  public void testGetProperties_activeConfigFile() throws IOException {
+    writeConfiguration("default", "[core]", "project = default-project");
+    writeConfiguration("staging", "[core]", "project = staging-project");
+    write(configDirectory.resolve("active_config"), "staging");
+
+    GcloudConfigReader reader = newReader(ImmutableMap.of());
+
+    assertEquals("staging", reader.getActiveConfigurationName());
+    assertEquals("staging-project", reader.getProject());
+  }
+
+  @Test
+  public void testGetProperties_activeConfigEnvironment() throws IOException {
+    writeConfiguration("staging", "[core]", "project = staging-project");
+    writeConfiguration("prod", "[core]", "project = prod-project");
+    write(configDirectory.resolve("active_config"), "staging");
+
+    GcloudConfigReader reader = newReader(ImmutableMap.of("CLOUDSDK_ACTIVE_CONFIG_NAME", "prod"));
+
+    assertEquals("prod-project", reader.getProject());
+  }
+
+  @Test
+  public void testGetProperties_precedence() throws IOException {
+    write(
+        installationDirectory.resolve("properties"),
+        "[core]",
+        "project = installation-project",
+        "[app]",
+        "promote_by_default = false");
+    writeConfiguration("default", "[core]", "project = user-project");
+
+    GcloudConfigReader reader = newReader(ImmutableMap.of());
+    assertEquals("user-project", reader.getProject());
+    assertEquals("false", reader.getProperty("app", "promote_by_default"));
+
+    reader = newReader(ImmutableMap.of("CLOUDSDK_CORE_PROJECT", "env-project"));
+    assertEquals("env-project", reader.getProject());
+  }
+
+  @Test
+  public void testGetProperties_noFiles() throws IOException {
+    GcloudConfigReader reader = newReader(ImmutableMap.of());
+
+    assertEquals("default", reader.getActiveConfigurationName());
+    assertNull(reader.getProject());
+    assertTrue(reader.getProperties().isEmpty());
+  }
+
+  @Test
+  public void testGetProperties_reloadsChangedFile() throws IOException {
+    Path file = writeConfiguration("default", "[core]", "project = first");
+    GcloudConfigReader reader = newReader(ImmutableMap.of());
+    assertEquals("first", reader.getProject());
+
+    write(file, "[core]", "project = second-project");
+    Files.setLastModifiedTime(file, FileTime.fromMillis(0));
+
+    assertEquals("second-project", reader.getProject());
+  }
+
+  @Test
+  public void testGetProperties_noConfigDirectory() {
+    GcloudConfigReader reader = new GcloudConfigReader(null, null, ImmutableMap.of());
+    try {
+      reader.getProperties();
+      fail();
+    } catch (IOException ex) {
+      assertEquals("Cannot determine the gcloud configuration directory", ex.getMessage());
+    }
+  }
+
+  @Test
+  public void testParse() {
+    Map<String, String> properties =
+        GcloudConfigReader.parse(
+            Arrays.asList(
+                "# comment",
+                "ignored = no section",
+                "[core]",
+                "project=my-project",
+                "; comment",
+                "",
+                "[api_endpoint_overrides]",
+                "appengine = https://appengine.example.com/",
+                "[compute]",
+                "region: us-central1"));
+
+    assertEquals(
+        ImmutableMap.of(
+            "core/project", "my-project",
+            "api_endpoint_overrides/appengine", "https://appengine.example.com/",
+            "compute/region", "us-central1"),
+        properties);
+  }
+
+  @Test
+  public void testParseEnvironment() {
+    Map<String, String> properties =
+        GcloudConfigReader.parseEnvironment(
+            ImmutableMap.of(
+                "CLOUDSDK_CORE_PROJECT", "my-project",
+                "CLOUDSDK_CORE_DISABLE_PROMPTS", "1",
+                "CLOUDSDK_CONFIG", "/tmp/gcloud",
+                "CLOUDSDK_ACTIVE_CONFIG_NAME", "prod",
+                "PATH", "/usr/bin"));
+
+    assertEquals(
+        ImmutableMap.of("core/project", "my-project", "core/disable_prompts", "1"), properties);
+  }
+
+  @Test
+  public void testGetConfigDirectory() {
+    assertEquals(
+        Paths.get("/custom"),
+        GcloudConfigReader.getConfigDirectory(
+            ImmutableMap.of("CLOUDSDK_CONFIG", "/custom"), "/home/me", false));
+    assertEquals(
+        Paths.get("/home/me", ".config", "gcloud"),
+        GcloudConfigReader.getConfigDirectory(ImmutableMap.of(), "/home/me", false));
+    assertEquals(
+        Paths.get("C:\\Users\\me\\AppData\\Roaming", "gcloud"),
+        GcloudConfigReader.getConfigDirectory(
+            ImmutableMap.of("APPDATA", "C:\\Users\\me\\AppData\\Roaming"), "C:\\Users\\me", true));
+    assertNull(GcloudConfigReader.getConfigDirectory(ImmutableMap.of(), "C:\\Users\\me", true));
+  }
+
+  private GcloudConfigReader newReader(Map<String, String> environment) {
+    return new GcloudConfigReader(installationDirectory, configDirectory, environment);
+  }
+
+  private Path writeConfiguration(String name, String... lines) throws IOException {
+    return write(configDirectory.resolve("configurations").resolve("config_" + name), lines);
+  }
+
+  private static Path write(Path file, String... lines) throws IOException {
+    return Files.write(file, Arrays.asList(lines), StandardCharsets.UTF_8);
+  }
+}
@@ -0,0 +1,139 @@
+/*
+ * Copyright 2026 Google LLC.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.tools.appengine.operations.cloudsdk.internal.process;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.google.cloud.tools.appengine.operations.cloudsdk.process.ProcessMetrics;
+import com.google.cloud.tools.appengine.operations.cloudsdk.process.ProcessMetricsListener;
+import com.google.common.io.ByteStreams;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+/** Unit tests for {@link MeteredProcess}. */
+@RunWith(MockitoJUnitRunner.class)
+public class MeteredProcessTest {
+
+  @Mock private Process delegate;
+  @Mock private ProcessMetricsListener listener;
+  @Mock private ProcessResourceSampler sampler;
+
+  private MeteredProcess process;
+
+  @Before
+  public void setUp() {
+    process =
+        new MeteredProcess(
+            delegate,
+            "gcloud app deploy",
+            Arrays.asList("gcloud", "app", "deploy"),
+            listener,
+            sampler,
+            System.nanoTime());
+  }
+
+  private static InputStream stream(String content) {
+    return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+  }
+
+  @Test
+  public void testReportsAfterExitAndStreamsConsumed() throws IOException, InterruptedException {
+    when(delegate.getInputStream()).thenReturn(stream("hello"));
+    when(delegate.getErrorStream()).thenReturn(stream("err"));
+    when(delegate.waitFor()).thenReturn(3);
+    when(sampler.getCpuTimeMillis()).thenReturn(120L);
+    when(sampler.getPeakRssBytes()).thenReturn(4096L);
+
+    ByteStreams.exhaust(process.getInputStream());
+    ByteStreams.exhaust(process.getErrorStream());
+    verify(listener, never()).onProcessMetrics(any());
+
+    assertEquals(3, process.waitFor());
+
+    ArgumentCaptor<ProcessMetrics> captor = ArgumentCaptor.forClass(ProcessMetrics.class);
+    verify(listener).onProcessMetrics(captor.capture());
+    ProcessMetrics metrics = captor.getValue();
+    assertEquals("gcloud app deploy", metrics.getCommandType());
+    assertEquals(Arrays.asList("gcloud", "app", "deploy"), metrics.getCommand());
+    assertEquals(5, metrics.getStdOutBytes());
+    assertEquals(3, metrics.getStdErrBytes());
+    assertEquals(3, metrics.getExitCode());
+    assertEquals(Long.valueOf(120), metrics.getCpuTimeMillis());
+    assertEquals(Long.valueOf(4096), metrics.getPeakRssBytes());
+    assertNotNull(metrics.getTimeToFirstOutputMillis());
+    verify(sampler).stop();
+  }
+
+  @Test
+  public void testWaitsForOpenStreams() throws IOException, InterruptedException {
+    when(delegate.getInputStream()).thenReturn(stream("hello"));
+    when(delegate.waitFor()).thenReturn(0);
+
+    InputStream stdOut = process.getInputStream();
+    process.waitFor();
+    verify(listener, never()).onProcessMetrics(any());
+
+    stdOut.close();
+    verify(listener).onProcessMetrics(any());
+  }
+
+  @Test
+  public void testReportsOnce() throws InterruptedException {
+    when(delegate.waitFor()).thenReturn(0);
+    when(delegate.exitValue()).thenReturn(0);
+
+    process.waitFor();
+    process.exitValue();
+
+    verify(listener).onProcessMetrics(any());
+  }
+
+  @Test
+  public void testNoOutput() throws InterruptedException {
+    when(delegate.waitFor()).thenReturn(0);
+
+    process.waitFor();
+
+    ArgumentCaptor<ProcessMetrics> captor = ArgumentCaptor.forClass(ProcessMetrics.class);
+    verify(listener).onProcessMetrics(captor.capture());
+    assertEquals(0, captor.getValue().getStdOutBytes());
+    assertEquals(null, captor.getValue().getTimeToFirstOutputMillis());
+  }
+
+  @Test
+  public void testListenerFailureDoesNotPropagate() throws InterruptedException {
+    when(delegate.waitFor()).thenReturn(0);
+    doThrow(new IllegalStateException("boom")).when(listener).onProcessMetrics(any());
+
+    assertEquals(0, process.waitFor());
+  }
+}
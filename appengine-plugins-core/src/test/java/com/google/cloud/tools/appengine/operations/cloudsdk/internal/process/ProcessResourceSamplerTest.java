@@ -0,0 +1,52 @@
+/*
+ * Copyright 2026 Google LLC.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.tools.appengine.operations.cloudsdk.internal.process;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import org.junit.Test;
+
+/** Unit tests for {@link ProcessResourceSampler}. */
+public class ProcessResourceSamplerTest {
+
+  @Test
+  public void testParseCpuTimeMillis() {
+    String stat =
+        "4242 (java (gcloud)) S 1 4242 4242 0 -1 4194560 2000 0 0 0 150 50 7 3 20 0 12 0 100 0 0";
+    // utime 150 + stime 50 + cutime 7 + cstime 3 = 210 ticks
+    assertEquals(Long.valueOf(2100), ProcessResourceSampler.parseCpuTimeMillis(stat));
+  }
+
+  @Test
+  public void testParseCpuTimeMillis_malformed() {
+    assertNull(ProcessResourceSampler.parseCpuTimeMillis("4242 S 1"));
+    assertNull(ProcessResourceSampler.parseCpuTimeMillis("4242 (java) S 1 2 3"));
+  }
+
+  @Test
+  public void testParsePeakRssBytes() {
+    assertEquals(
+        Long.valueOf(2048L * 1024),
+        ProcessResourceSampler.parsePeakRssBytes("VmHWM:\t    2048 kB"));
+  }
+
+  @Test
+  public void testParsePeakRssBytes_otherLine() {
+    assertNull(ProcessResourceSampler.parsePeakRssBytes("VmRSS:\t    2048 kB"));
+  }
+}
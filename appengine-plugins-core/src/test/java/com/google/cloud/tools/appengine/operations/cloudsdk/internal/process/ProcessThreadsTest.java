@@ -0,0 +1,96 @@
+/*
+ * Copyright 2026 Google LLC.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.tools.appengine.operations.cloudsdk.internal.process;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.Mockito.when;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import org.junit.Assume;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+/** Unit tests for {@link ProcessThreads}. */
+@RunWith(MockitoJUnitRunner.class)
+public class ProcessThreadsTest {
+
+  @Mock private Process process;
+
+  @Test
+  public void testStartOutputThread() throws InterruptedException {
+    CountDownLatch ran = new CountDownLatch(1);
+    Thread thread = ProcessThreads.startOutputThread("standard-out", ran::countDown);
+
+    assertTrue(ran.await(10, TimeUnit.SECONDS));
+    thread.join();
+    assertEquals("standard-out", thread.getName());
+    assertTrue(thread.isDaemon());
+  }
+
+  @Test
+  public void testStartOutputThread_virtualFromMultiReleaseJar() throws Exception {
+    // only set by the java21_and_up test run on the packaged jar
+    Assume.assumeTrue(Boolean.getBoolean("appengine.test.multiReleaseJar"));
+    CountDownLatch ran = new CountDownLatch(1);
+    Thread thread = ProcessThreads.startOutputThread("standard-out", ran::countDown);
+
+    assertTrue(ran.await(10, TimeUnit.SECONDS));
+    thread.join();
+    assertEquals(true, Thread.class.getMethod("isVirtual").invoke(thread));
+  }
+
+  @Test
+  public void testNewOutputExecutor() throws InterruptedException, ExecutionException {
+    ExecutorService executor = ProcessThreads.newOutputExecutor();
+    try {
+      assertEquals("done", executor.submit(() -> "done").get());
+    } finally {
+      executor.shutdown();
+    }
+  }
+
+  @Test
+  public void testOnExit() throws InterruptedException, ExecutionException {
+    when(process.waitFor()).thenReturn(3);
+
+    CompletableFuture<Integer> exitCode = ProcessThreads.onExit(process, "wait-for-exit");
+
+    assertEquals(3, (int) exitCode.get());
+  }
+
+  @Test
+  public void testOnExit_interrupted() throws InterruptedException {
+    when(process.waitFor()).thenThrow(new InterruptedException());
+
+    CompletableFuture<Integer> exitCode = ProcessThreads.onExit(process, "wait-for-exit");
+
+    try {
+      exitCode.get();
+      fail();
+    } catch (ExecutionException ex) {
+      assertTrue(ex.getCause() instanceof InterruptedException);
+    }
+  }
+}
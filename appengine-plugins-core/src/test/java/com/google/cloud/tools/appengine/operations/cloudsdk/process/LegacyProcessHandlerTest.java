@@ -17,13 +17,21 @@
 package com.google.cloud.tools.appengine.operations.cloudsdk.process;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
 import com.google.cloud.tools.appengine.operations.cloudsdk.internal.process.WaitingProcessOutputLineListener;
 import com.google.common.collect.ImmutableList;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Handler;
+import java.util.logging.Level;
+import java.util.logging.LogRecord;
+import java.util.logging.Logger;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -80,4 +88,56 @@ public class LegacyProcessHandlerTest {
     assertEquals(ImmutableList.of(start), startListeners);
     assertEquals(ImmutableList.of(exit), exitListeners);
   }
+
+  @Test
+  public void testBuilder_addExitListener() {
+    ProcessExitListener structuredLogs = exitCode -> {};
+    new LegacyProcessHandler.Builder(
+            stdOutListeners, stdErrListeners, startListeners, exitListeners, watcherFactory)
+        .setExitListener(structuredLogs)
+        .addExitListener(exit)
+        .build();
+
+    assertEquals(ImmutableList.of(structuredLogs, exit), exitListeners);
+  }
+
+  @Test
+  public void testHandleProcess_asyncExitListenerFailureLogged() throws Exception {
+    Process process = mock(Process.class);
+    when(process.waitFor()).thenReturn(0);
+    CountDownLatch logged = new CountDownLatch(1);
+    List<LogRecord> records = new ArrayList<>();
+    Handler handler =
+        new Handler() {
+          @Override
+          public void publish(LogRecord record) {
+            records.add(record);
+            logged.countDown();
+          }
+
+          @Override
+          public void flush() {}
+
+          @Override
+          public void close() {}
+        };
+    Logger logger = Logger.getLogger(LegacyProcessHandler.class.getName());
+    logger.addHandler(handler);
+    try {
+      LegacyProcessHandler.builder()
+          .setExitListener(
+              exitCode -> {
+                throw new IllegalStateException("listener failed");
+              })
+          .async(true)
+          .build()
+          .handleProcess(process);
+
+      assertTrue(logged.await(10, TimeUnit.SECONDS));
+    } finally {
+      logger.removeHandler(handler);
+    }
+    assertEquals(Level.WARNING, records.get(0).getLevel());
+    assertEquals("listener failed", records.get(0).getThrown().getMessage());
+  }
 }
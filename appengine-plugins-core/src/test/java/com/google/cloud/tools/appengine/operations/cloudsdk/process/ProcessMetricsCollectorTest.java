@@ -0,0 +1,114 @@
+/*
+ * Copyright 2026 Google LLC.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.tools.appengine.operations.cloudsdk.process;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import com.google.common.base.Preconditions;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import javax.annotation.Nullable;
+import org.junit.Before;
+import org.junit.Test;
+
+/** Unit tests for {@link ProcessMetricsCollector}. */
+public class ProcessMetricsCollectorTest {
+
+  private ProcessMetricsCollector collector;
+
+  @Before
+  public void setUp() {
+    collector = new ProcessMetricsCollector();
+  }
+
+  private static ProcessMetrics metrics(
+      String commandType,
+      long wallTimeMillis,
+      @Nullable Long cpuTimeMillis,
+      @Nullable Long peakRssBytes,
+      int exit) {
+    return ProcessMetrics.builder(commandType, Collections.emptyList())
+        .wallTimeMillis(wallTimeMillis)
+        .cpuTimeMillis(cpuTimeMillis)
+        .peakRssBytes(peakRssBytes)
+        .stdOutBytes(100)
+        .stdErrBytes(10)
+        .exitCode(exit)
+        .build();
+  }
+
+  @Test
+  public void testGetSummaries_aggregatesByCommandType() {
+    collector.onProcessMetrics(metrics("gcloud app deploy", 2000, 300L, 64L << 20, 0));
+    collector.onProcessMetrics(metrics("gcloud app deploy", 1000, 200L, 128L << 20, 1));
+    collector.onProcessMetrics(metrics("gcloud info", 500, null, null, 0));
+
+    Map<String, ProcessMetricsCollector.Summary> summaries = collector.getSummaries();
+    assertEquals(2, summaries.size());
+
+    ProcessMetricsCollector.Summary deploy =
+        Preconditions.checkNotNull(summaries.get("gcloud app deploy"));
+    assertEquals(2, deploy.getCount());
+    assertEquals(1, deploy.getFailures());
+    assertEquals(3000, deploy.getTotalWallTimeMillis());
+    assertEquals(2000, deploy.getMaxWallTimeMillis());
+    assertEquals(Long.valueOf(500), deploy.getTotalCpuTimeMillis());
+    assertEquals(Long.valueOf(128L << 20), deploy.getMaxPeakRssBytes());
+    assertEquals(200, deploy.getTotalStdOutBytes());
+    assertEquals(20, deploy.getTotalStdErrBytes());
+
+    ProcessMetricsCollector.Summary info = Preconditions.checkNotNull(summaries.get("gcloud info"));
+    assertNull(info.getTotalCpuTimeMillis());
+    assertNull(info.getMaxPeakRssBytes());
+  }
+
+  @Test
+  public void testGetSummaries_slowestFirst() {
+    collector.onProcessMetrics(metrics("gcloud info", 500, null, null, 0));
+    collector.onProcessMetrics(metrics("gcloud app deploy", 2000, null, null, 0));
+
+    Iterator<String> commandTypes = collector.getSummaries().keySet().iterator();
+    assertEquals("gcloud app deploy", commandTypes.next());
+    assertEquals("gcloud info", commandTypes.next());
+  }
+
+  @Test
+  public void testFormatSummary() {
+    collector.onProcessMetrics(metrics("gcloud app deploy", 2000, 300L, 64L << 20, 0));
+    collector.onProcessMetrics(metrics("gcloud app deploy", 1000, 200L, 128L << 20, 1));
+
+    List<String> lines = collector.formatSummary();
+    assertEquals(1, lines.size());
+    assertEquals(
+        "gcloud app deploy: 2 runs (1 failed), wall 3.0s (max 2.0s), cpu 0.5s, peak rss 128 MiB,"
+            + " output 200/20 bytes (stdout/stderr)",
+        lines.get(0));
+  }
+
+  @Test
+  public void testClear() {
+    collector.onProcessMetrics(metrics("gcloud info", 500, null, null, 0));
+    collector.clear();
+
+    assertTrue(collector.getInvocations().isEmpty());
+    assertTrue(collector.formatSummary().isEmpty());
+  }
+}
@@ -0,0 +1,86 @@
+/*
+ * Copyright 2026 Google LLC.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.tools.appengine.operations.cloudsdk.process;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Arrays;
+import java.util.Collections;
+import org.junit.Test;
+
+/** Unit tests for {@link ProcessMetrics}. */
+public class ProcessMetricsTest {
+
+  @Test
+  public void testCommandType_stopsAtPositionalArgument() {
+    assertEquals(
+        "gcloud app deploy",
+        ProcessMetrics.commandType(
+            "gcloud", Arrays.asList("app", "deploy", "/tmp/app.yaml", "--promote")));
+  }
+
+  @Test
+  public void testCommandType_stopsAtFlag() {
+    assertEquals(
+        "gcloud app versions list",
+        ProcessMetrics.commandType(
+            "gcloud", Arrays.asList("app", "versions", "list", "--format", "json")));
+  }
+
+  @Test
+  public void testCommandType_releaseTrack() {
+    assertEquals(
+        "gcloud beta app deploy",
+        ProcessMetrics.commandType("gcloud", Arrays.asList("beta", "app", "deploy", "--quiet")));
+  }
+
+  @Test
+  public void testCommandType_limitsSubcommands() {
+    assertEquals(
+        "gcloud components install app-engine-java",
+        ProcessMetrics.commandType(
+            "gcloud", Arrays.asList("components", "install", "app-engine-java", "beta")));
+  }
+
+  @Test
+  public void testCommandType_noArguments() {
+    assertEquals(
+        "dev_appserver", ProcessMetrics.commandType("dev_appserver", Collections.emptyList()));
+  }
+
+  @Test
+  public void testBuilder() {
+    ProcessMetrics metrics =
+        ProcessMetrics.builder("gcloud info", Arrays.asList("gcloud", "info"))
+            .wallTimeMillis(1500)
+            .timeToFirstOutputMillis(200L)
+            .stdOutBytes(10)
+            .stdErrBytes(2)
+            .exitCode(1)
+            .build();
+
+    assertEquals("gcloud info", metrics.getCommandType());
+    assertEquals(Arrays.asList("gcloud", "info"), metrics.getCommand());
+    assertEquals(1500, metrics.getWallTimeMillis());
+    assertEquals(Long.valueOf(200), metrics.getTimeToFirstOutputMillis());
+    assertEquals(null, metrics.getCpuTimeMillis());
+    assertEquals(null, metrics.getPeakRssBytes());
+    assertEquals(10, metrics.getStdOutBytes());
+    assertEquals(2, metrics.getStdErrBytes());
+    assertEquals(1, metrics.getExitCode());
+  }
+}
@@ -0,0 +1,144 @@
+/*
+ * Copyright 2026 Google LLC.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.tools.appengine.operations.cloudsdk.process;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import com.google.common.base.Ticker;
+import com.google.common.collect.ImmutableMap;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import org.junit.Before;
+import org.junit.Test;
+
+/** Unit tests for {@link StructuredLogLineListener}. */
+public class StructuredLogLineListenerTest {
+
+  private final List<DeployEvent> events = new ArrayList<>();
+  private final List<String> messages = new ArrayList<>();
+  private long nanos;
+  private StructuredLogLineListener listener;
+
+  @Before
+  public void setUp() {
+    Ticker ticker =
+        new Ticker() {
+          @Override
+          public long read() {
+            return nanos;
+          }
+        };
+    listener = new StructuredLogLineListener(events::add, messages::add, ticker);
+  }
+
+  private static String log(String verbosity, String message) {
+    return "{\"version\": \"0.0.1\", \"verbosity\": \""
+        + verbosity
+        + "\", \"timestamp\": \"2026-01-01T00:00:00.000Z\", \"message\": \""
+        + message
+        + "\"}";
+  }
+
+  private void advanceSeconds(long seconds) {
+    nanos += TimeUnit.SECONDS.toNanos(seconds);
+  }
+
+  @Test
+  public void testDeployPhases() {
+    listener.onOutputLine(log("INFO", "Beginning deployment of service [default]..."));
+    listener.onOutputLine(log("INFO", "Uploading 12 files to Google Cloud Storage"));
+    advanceSeconds(5);
+    listener.onOutputLine(log("INFO", "File upload done."));
+    listener.onOutputLine(log("INFO", "Updating service [default]..."));
+    advanceSeconds(60);
+    listener.onOutputLine(log("INFO", "Updating service [default]...done."));
+    listener.onOutputLine(log("INFO", "Setting traffic split for service [default]..."));
+    advanceSeconds(3);
+    listener.onOutputLine(log("INFO", "Deployed service [default] to [https://x.appspot.com]"));
+    listener.onExit(0);
+
+    assertEquals(
+        ImmutableMap.of(
+            DeployPhase.UPLOAD, 5000L,
+            DeployPhase.VERSION_CREATE, 60000L,
+            DeployPhase.TRAFFIC_PROMOTE, 3000L),
+        listener.getPhaseTimingsMillis());
+    assertEquals(
+        "upload 5.0s, version create 60.0s, traffic promote 3.0s", listener.formatPhaseTimings());
+    assertEquals(
+        Arrays.asList(
+            "PHASE_STARTED UPLOAD",
+            "FILE_UPLOAD_PROGRESS UPLOAD",
+            "FILE_UPLOAD_PROGRESS UPLOAD",
+            "PHASE_FINISHED UPLOAD",
+            "PHASE_STARTED VERSION_CREATE",
+            "PHASE_FINISHED VERSION_CREATE",
+            "PHASE_STARTED TRAFFIC_PROMOTE",
+            "PHASE_FINISHED TRAFFIC_PROMOTE"),
+        events.stream().map(e -> e.getType() + " " + e.getPhase()).collect(Collectors.toList()));
+
+    DeployEvent uploadDone = events.get(2);
+    assertEquals(12, uploadDone.getUploadedFiles());
+    assertEquals(12, uploadDone.getTotalFiles());
+    assertEquals(Long.valueOf(60000), events.get(5).getPhaseDurationMillis());
+  }
+
+  @Test
+  public void testBuildPhaseClosedByNextPhase() {
+    listener.onOutputLine(log("INFO", "Building and pushing image for service [default]"));
+    advanceSeconds(90);
+    listener.onOutputLine(log("INFO", "Updating service [default]..."));
+    advanceSeconds(10);
+    listener.onExit(1);
+
+    assertEquals(
+        ImmutableMap.of(DeployPhase.BUILD, 90000L, DeployPhase.VERSION_CREATE, 10000L),
+        listener.getPhaseTimingsMillis());
+    assertEquals("gcloud exited with code 1", events.get(events.size() - 1).getMessage());
+  }
+
+  @Test
+  public void testWarningsAndErrors() {
+    listener.onOutputLine(log("WARNING", "Your app is using a deprecated runtime"));
+    listener.onOutputLine(log("ERROR", "(gcloud.app.deploy) Permission denied"));
+
+    assertEquals(2, events.size());
+    assertEquals(DeployEvent.Type.WARNING, events.get(0).getType());
+    assertEquals("Your app is using a deprecated runtime", events.get(0).getMessage());
+    assertEquals(DeployEvent.Type.ERROR, events.get(1).getType());
+    assertEquals(
+        Arrays.asList(
+            "WARNING: Your app is using a deprecated runtime",
+            "ERROR: (gcloud.app.deploy) Permission denied"),
+        messages);
+  }
+
+  @Test
+  public void testPlainLinesPassedThrough() {
+    listener.onOutputLine("Services to deploy:");
+    listener.onOutputLine("{not json");
+
+    assertEquals(Arrays.asList("Services to deploy:", "{not json"), messages);
+    assertTrue(events.isEmpty());
+    assertTrue(listener.getPhaseTimingsMillis().isEmpty());
+    assertEquals("", listener.formatPhaseTimings());
+  }
+}
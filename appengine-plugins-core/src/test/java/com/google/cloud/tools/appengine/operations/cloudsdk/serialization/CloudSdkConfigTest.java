@@ -16,6 +16,7 @@
 
 package com.google.cloud.tools.appengine.operations.cloudsdk.serialization;
 
+import com.google.common.collect.ImmutableMap;
 import org.junit.Assert;
 import org.junit.Test;
 
@@ -33,4 +34,13 @@ public class CloudSdkConfigTest {
   public void testGetProject_unset() {
     Assert.assertNull(CloudSdkConfig.fromJson("{}").getProject());
   }
+
+  @Test
+  public void testFromProperties() {
+    Assert.assertEquals(
+        "test-gcp-project",
+        CloudSdkConfig.fromProperties(ImmutableMap.of("core/project", "test-gcp-project"))
+            .getProject());
+    Assert.assertNull(CloudSdkConfig.fromProperties(ImmutableMap.of()).getProject());
+  }
 }
@@ -0,0 +1,208 @@
+/*
+ * Copyright 2026 Google LLC.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.tools.appengine.operations.coordination;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import com.google.cloud.tools.appengine.AppEngineException;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class DeployCoordinatorTest {
+
+  @Rule public TemporaryFolder tmpDir = new TemporaryFolder();
+
+  private Path directory;
+  private FileDeployLockBackend backend;
+
+  @Before
+  public void setUp() throws IOException {
+    directory = tmpDir.newFolder("locks").toPath();
+    backend = new FileDeployLockBackend(directory);
+  }
+
+  private DeployCoordinator.Builder newCoordinator(String owner) {
+    return DeployCoordinator.builder(backend).owner(owner).pollIntervalMillis(5);
+  }
+
+  private long countTickets() throws IOException {
+    try (Stream<Path> tickets = Files.list(directory.resolve("project"))) {
+      return tickets.count();
+    }
+  }
+
+  @Test
+  public void testRun_serializesDeployments() throws Exception {
+    AtomicInteger running = new AtomicInteger();
+    AtomicInteger maxRunning = new AtomicInteger();
+    ExecutorService nodes = Executors.newFixedThreadPool(4);
+    try {
+      List<Future<DeployCoordinator.Outcome>> outcomes = new ArrayList<>();
+      for (int node = 0; node < 4; node++) {
+        DeployCoordinator coordinator = newCoordinator("node-" + node).build();
+        outcomes.add(
+            nodes.submit(
+                () ->
+                    coordinator.run(
+                        "project",
+                        "default",
+                        () -> {
+                          maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                          sleep(20);
+                          running.decrementAndGet();
+                        })));
+      }
+      for (Future<DeployCoordinator.Outcome> outcome : outcomes) {
+        assertEquals(DeployCoordinator.Outcome.COMPLETED, outcome.get(10, TimeUnit.SECONDS));
+      }
+    } finally {
+      nodes.shutdownNow();
+    }
+    assertEquals(1, maxRunning.get());
+    assertEquals(0, countTickets());
+  }
+
+  @Test
+  public void testRun_coalescesQueuedDeploymentsOfTheSameService() throws Exception {
+    DeployTicket holder = backend.enqueue("project", "other-node", null);
+    List<String> deployed = Collections.synchronizedList(new ArrayList<>());
+    ExecutorService nodes = Executors.newFixedThreadPool(2);
+    try {
+      Future<DeployCoordinator.Outcome> older =
+          nodes.submit(
+              () ->
+                  newCoordinator("node-1")
+                      .coalesce(true)
+                      .build()
+                      .run("project", "default", () -> deployed.add("older")));
+      while (countTickets() < 2) {
+        sleep(1);
+      }
+      Future<DeployCoordinator.Outcome> newer =
+          nodes.submit(
+              () ->
+                  newCoordinator("node-2")
+                      .coalesce(true)
+                      .build()
+                      .run("project", "default", () -> deployed.add("newer")));
+
+      assertEquals(DeployCoordinator.Outcome.SUPERSEDED, older.get(10, TimeUnit.SECONDS));
+      holder.release();
+      assertEquals(DeployCoordinator.Outcome.COMPLETED, newer.get(10, TimeUnit.SECONDS));
+    } finally {
+      nodes.shutdownNow();
+    }
+    assertEquals(Collections.singletonList("newer"), deployed);
+  }
+
+  @Test
+  public void testRun_timesOut() throws Exception {
+    DeployTicket holder = backend.enqueue("project", "other-node", null);
+    try {
+      newCoordinator("node-1")
+          .acquireTimeoutMillis(20)
+          .build()
+          .run("project", null, () -> fail("must not run"));
+      fail();
+    } catch (AppEngineException ex) {
+      assertTrue(String.valueOf(ex.getMessage()).startsWith("Timed out"));
+    }
+    // the timed out ticket left the queue
+    assertEquals(1, countTickets());
+    holder.release();
+  }
+
+  @Test
+  public void testRun_releasesLockWhenActionFails() throws Exception {
+    AppEngineException failure = new AppEngineException("deploy failed");
+    try {
+      newCoordinator("node-1")
+          .build()
+          .run(
+              "project",
+              null,
+              () -> {
+                throw failure;
+              });
+      fail();
+    } catch (AppEngineException ex) {
+      assertSame(failure, ex);
+    }
+    assertEquals(0, countTickets());
+  }
+
+  @Test
+  public void testRun_renewsLeaseWhileRunning() throws Exception {
+    backend = new FileDeployLockBackend(directory, 300);
+    AtomicInteger polls = new AtomicInteger();
+
+    newCoordinator("node-1")
+        .build()
+        .run(
+            "project",
+            null,
+            () -> {
+              // outlive several leases, the running deployment must keep the lock
+              DeployTicket other = backend.enqueue("project", "node-2", null);
+              for (int i = 0; i < 10; i++) {
+                sleep(50);
+                assertEquals(TicketState.WAITING, other.poll());
+                polls.incrementAndGet();
+              }
+              other.release();
+            });
+    assertEquals(10, polls.get());
+  }
+
+  @Test
+  public void testIntervals() {
+    DeployCoordinator coordinator =
+        DeployCoordinator.builder(new FileDeployLockBackend(directory, 30_000))
+            .pollIntervalMillis(60_000)
+            .build();
+
+    assertEquals(10_000, coordinator.getPollIntervalMillis());
+    assertEquals(10_000, coordinator.getRenewIntervalMillis());
+    assertTrue(coordinator.getOwner().length() > 0);
+  }
+
+  private static void sleep(long millis) {
+    try {
+      Thread.sleep(millis);
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+      throw new AssertionError(ex);
+    }
+  }
+}
@@ -0,0 +1,187 @@
+/*
+ * Copyright 2026 Google LLC.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.tools.appengine.operations.coordination;
+
+import com.google.common.base.Splitter;
+import com.google.common.io.ByteStreams;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.annotation.Nullable;
+
+/**
+ * A local stand-in for the lease service {@link HttpDeployLockBackend} talks to. Time is only
+ * advanced by tests, through {@link #nowMillis}.
+ */
+class FakeLeaseService implements AutoCloseable {
+
+  static final String TOKEN = "lease-token";
+
+  final AtomicLong nowMillis = new AtomicLong();
+  final AtomicInteger unauthorizedRequests = new AtomicInteger();
+
+  private final HttpServer server;
+  private final AtomicInteger ticketCount = new AtomicInteger();
+
+  // guarded by this
+  private final Map<String, List<Ticket>> queues = new HashMap<>();
+
+  FakeLeaseService() throws IOException {
+    server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+    server.createContext("/v1/locks/", this::handle);
+    server.start();
+  }
+
+  String getEndpoint() {
+    return "http://127.0.0.1:" + server.getAddress().getPort() + "/";
+  }
+
+  synchronized List<String> getQueue(String lock) {
+    List<String> owners = new ArrayList<>();
+    for (Ticket ticket : queues.getOrDefault(lock, new ArrayList<>())) {
+      owners.add(ticket.owner);
+    }
+    return owners;
+  }
+
+  @Override
+  public void close() {
+    server.stop(0);
+  }
+
+  private void handle(HttpExchange exchange) throws IOException {
+    try {
+      if (!("Bearer " + TOKEN).equals(exchange.getRequestHeaders().getFirst("Authorization"))) {
+        unauthorizedRequests.incrementAndGet();
+        respond(exchange, 401, null);
+        return;
+      }
+      // v1/locks/{lock}/tickets[/{id}[:heartbeat]]
+      List<String> segments =
+          Splitter.on('/').splitToList(exchange.getRequestURI().getRawPath().substring(1));
+      String lock = URLDecoder.decode(segments.get(2), "UTF-8");
+      String method = exchange.getRequestMethod();
+      byte[] body = ByteStreams.toByteArray(exchange.getRequestBody());
+      if (segments.size() == 4 && method.equals("POST")) {
+        JsonObject request =
+            JsonParser.parseString(new String(body, StandardCharsets.UTF_8)).getAsJsonObject();
+        JsonElement coalesceKey = request.get("coalesceKey");
+        String id = "t" + ticketCount.incrementAndGet();
+        enqueue(
+            lock,
+            new Ticket(
+                id,
+                request.get("owner").getAsString(),
+                coalesceKey == null ? null : coalesceKey.getAsString(),
+                request.get("leaseMillis").getAsLong()));
+        JsonObject response = new JsonObject();
+        response.addProperty("id", id);
+        respond(exchange, 200, response);
+      } else if (segments.size() == 5
+          && method.equals("POST")
+          && segments.get(4).endsWith(":heartbeat")) {
+        String state = heartbeat(lock, segments.get(4).substring(0, segments.get(4).indexOf(':')));
+        if (state == null) {
+          respond(exchange, 404, null);
+        } else {
+          JsonObject response = new JsonObject();
+          response.addProperty("state", state);
+          respond(exchange, 200, response);
+        }
+      } else if (segments.size() == 5 && method.equals("DELETE")) {
+        respond(exchange, release(lock, segments.get(4)) ? 200 : 404, null);
+      } else {
+        respond(exchange, 400, null);
+      }
+    } finally {
+      exchange.close();
+    }
+  }
+
+  private synchronized void enqueue(String lock, Ticket ticket) {
+    ticket.lastHeartbeatMillis = nowMillis.get();
+    queues.computeIfAbsent(lock, key -> new ArrayList<>()).add(ticket);
+  }
+
+  @Nullable
+  private synchronized String heartbeat(String lock, String id) {
+    List<Ticket> queue = queues.getOrDefault(lock, new ArrayList<>());
+    long now = nowMillis.get();
+    queue.removeIf(ticket -> now - ticket.lastHeartbeatMillis > ticket.leaseMillis);
+    for (int position = 0; position < queue.size(); position++) {
+      Ticket ticket = queue.get(position);
+      if (!ticket.id.equals(id)) {
+        continue;
+      }
+      ticket.lastHeartbeatMillis = now;
+      if (position == 0) {
+        return "GRANTED";
+      }
+      for (Ticket newer : queue.subList(position + 1, queue.size())) {
+        if (ticket.coalesceKey != null && ticket.coalesceKey.equals(newer.coalesceKey)) {
+          return "SUPERSEDED";
+        }
+      }
+      return "WAITING";
+    }
+    return null;
+  }
+
+  private synchronized boolean release(String lock, String id) {
+    return queues.getOrDefault(lock, new ArrayList<>()).removeIf(ticket -> ticket.id.equals(id));
+  }
+
+  private static void respond(HttpExchange exchange, int status, @Nullable JsonObject body)
+      throws IOException {
+    byte[] bytes = body == null ? new byte[0] : body.toString().getBytes(StandardCharsets.UTF_8);
+    exchange.sendResponseHeaders(status, bytes.length == 0 ? -1 : bytes.length);
+    if (bytes.length > 0) {
+      try (OutputStream out = exchange.getResponseBody()) {
+        out.write(bytes);
+      }
+    }
+  }
+
+  private static class Ticket {
+    private final String id;
+    private final String owner;
+    @Nullable private final String coalesceKey;
+    private final long leaseMillis;
+    private long lastHeartbeatMillis;
+
+    private Ticket(String id, String owner, @Nullable String coalesceKey, long leaseMillis) {
+      this.id = id;
+      this.owner = owner;
+      this.coalesceKey = coalesceKey;
+      this.leaseMillis = leaseMillis;
+    }
+  }
+}
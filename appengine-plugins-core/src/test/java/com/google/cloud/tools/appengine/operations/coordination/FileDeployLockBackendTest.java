@@ -0,0 +1,188 @@
+/*
+ * Copyright 2026 Google LLC.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.tools.appengine.operations.coordination;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class FileDeployLockBackendTest {
+
+  private static final long LEASE_MILLIS = 60_000;
+
+  @Rule public TemporaryFolder tmpDir = new TemporaryFolder();
+
+  /** Clock readings returned before {@link #millis}, to replay a race. */
+  private final Deque<Long> readings = new ArrayDeque<>();
+
+  private final AtomicLong millis =
+      new AtomicLong(Instant.parse("2026-03-01T00:00:00Z").toEpochMilli());
+  private final Clock clock =
+      new Clock() {
+        @Override
+        public ZoneId getZone() {
+          return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+          return this;
+        }
+
+        @Override
+        public Instant instant() {
+          Long reading = readings.poll();
+          return Instant.ofEpochMilli(reading != null ? reading : millis.get());
+        }
+      };
+
+  private Path directory;
+  private FileDeployLockBackend backend;
+
+  @Before
+  public void setUp() throws IOException {
+    directory = tmpDir.newFolder("locks").toPath();
+    backend = new FileDeployLockBackend(directory, LEASE_MILLIS, clock);
+  }
+
+  @Test
+  public void testTicketsGrantedInArrivalOrder() throws Exception {
+    DeployTicket first = backend.enqueue("project", "node-1", null);
+    DeployTicket second = backend.enqueue("project", "node-2", null);
+    DeployTicket third = backend.enqueue("project", "node-3", null);
+
+    assertEquals(TicketState.WAITING, third.poll());
+    assertEquals(TicketState.WAITING, second.poll());
+    assertEquals(TicketState.GRANTED, first.poll());
+
+    first.release();
+    assertEquals(TicketState.WAITING, third.poll());
+    assertEquals(TicketState.GRANTED, second.poll());
+
+    second.release();
+    assertEquals(TicketState.GRANTED, third.poll());
+  }
+
+  @Test
+  public void testLocksAreIndependent() throws Exception {
+    DeployTicket first = backend.enqueue("project-a", "node-1", null);
+    DeployTicket second = backend.enqueue("project:b", "node-2", null);
+
+    assertEquals(TicketState.GRANTED, first.poll());
+    assertEquals(TicketState.GRANTED, second.poll());
+    assertTrue(Files.isDirectory(directory.resolve("project_b")));
+  }
+
+  @Test
+  public void testNewTicketsQueueBehindTheLast() throws Exception {
+    DeployTicket first = backend.enqueue("project", "node-1", null);
+    DeployTicket second = backend.enqueue("project", "node-2", null);
+    first.release();
+    DeployTicket third = backend.enqueue("project", "node-3", null);
+
+    assertEquals(TicketState.GRANTED, second.poll());
+    assertEquals(TicketState.WAITING, third.poll());
+  }
+
+  @Test
+  public void testExpiredTicketsAreRemoved() throws Exception {
+    DeployTicket crashed = backend.enqueue("project", "node-1", null);
+    DeployTicket waiting = backend.enqueue("project", "node-2", null);
+    assertEquals(TicketState.WAITING, waiting.poll());
+
+    millis.addAndGet(LEASE_MILLIS / 2);
+    assertEquals(TicketState.WAITING, waiting.poll());
+    millis.addAndGet(LEASE_MILLIS / 2 + 1);
+    assertEquals(TicketState.GRANTED, waiting.poll());
+
+    try {
+      crashed.renew();
+      fail();
+    } catch (LeaseLostException ex) {
+      // expected
+    }
+  }
+
+  @Test
+  public void testTicketRenewedWhileExpiringIsKept() throws Exception {
+    DeployTicket holder = backend.enqueue("project", "node-1", null);
+    DeployTicket waiting = backend.enqueue("project", "node-2", null);
+
+    long start = millis.get();
+    // the waiting ticket renews itself and sees the holder as expired, the holder renews before
+    // its ticket is checked again
+    readings.add(start + LEASE_MILLIS + 1);
+    readings.add(start + LEASE_MILLIS + 1);
+    readings.add(start);
+    assertEquals(TicketState.WAITING, waiting.poll());
+
+    holder.renew();
+    try (Stream<Path> files = Files.list(directory.resolve("project"))) {
+      assertEquals(2, files.count());
+    }
+  }
+
+  @Test
+  public void testRenewKeepsTicket() throws Exception {
+    DeployTicket holder = backend.enqueue("project", "node-1", null);
+    DeployTicket waiting = backend.enqueue("project", "node-2", null);
+
+    for (int i = 0; i < 4; i++) {
+      millis.addAndGet(LEASE_MILLIS / 2);
+      holder.renew();
+      assertEquals(TicketState.WAITING, waiting.poll());
+    }
+  }
+
+  @Test
+  public void testCoalesce() throws Exception {
+    DeployTicket holder = backend.enqueue("project", "node-1", "default");
+    DeployTicket older = backend.enqueue("project", "node-2", "default");
+    DeployTicket otherService = backend.enqueue("project", "node-3", "backend");
+    DeployTicket notCoalesced = backend.enqueue("project", "node-4", null);
+    DeployTicket newer = backend.enqueue("project", "node-5", "default");
+
+    assertEquals(TicketState.GRANTED, holder.poll());
+    assertEquals(TicketState.SUPERSEDED, older.poll());
+    assertEquals(TicketState.WAITING, otherService.poll());
+    assertEquals(TicketState.WAITING, notCoalesced.poll());
+    assertEquals(TicketState.WAITING, newer.poll());
+  }
+
+  @Test
+  public void testRelease_twice() throws Exception {
+    DeployTicket ticket = backend.enqueue("project", "node-1", null);
+    ticket.release();
+    ticket.release();
+  }
+}
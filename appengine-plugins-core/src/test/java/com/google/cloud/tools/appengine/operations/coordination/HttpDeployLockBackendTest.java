@@ -0,0 +1,175 @@
+/*
+ * Copyright 2026 Google LLC.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.tools.appengine.operations.coordination;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import com.google.cloud.tools.appengine.AppEngineException;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class HttpDeployLockBackendTest {
+
+  private FakeLeaseService service;
+  private HttpDeployLockBackend backend;
+
+  @Before
+  public void setUp() throws IOException {
+    service = new FakeLeaseService();
+    backend = new HttpDeployLockBackend(service.getEndpoint(), () -> FakeLeaseService.TOKEN, 1000);
+  }
+
+  @After
+  public void tearDown() {
+    service.close();
+  }
+
+  @Test
+  public void testTicketsGrantedInArrivalOrder() throws Exception {
+    DeployTicket first = backend.enqueue("my project", "node-1", null);
+    DeployTicket second = backend.enqueue("my project", "node-2", null);
+
+    assertEquals(Arrays.asList("node-1", "node-2"), service.getQueue("my project"));
+    assertEquals(TicketState.WAITING, second.poll());
+    assertEquals(TicketState.GRANTED, first.poll());
+
+    first.release();
+    assertEquals(TicketState.GRANTED, second.poll());
+    assertEquals(Collections.singletonList("node-2"), service.getQueue("my project"));
+  }
+
+  @Test
+  public void testCoalesce() throws Exception {
+    DeployTicket holder = backend.enqueue("project", "node-1", "default");
+    DeployTicket older = backend.enqueue("project", "node-2", "default");
+    DeployTicket newer = backend.enqueue("project", "node-3", "default");
+
+    assertEquals(TicketState.GRANTED, holder.poll());
+    assertEquals(TicketState.SUPERSEDED, older.poll());
+    assertEquals(TicketState.WAITING, newer.poll());
+  }
+
+  @Test
+  public void testExpiredTicket() throws Exception {
+    DeployTicket crashed = backend.enqueue("project", "node-1", null);
+    DeployTicket waiting = backend.enqueue("project", "node-2", null);
+
+    service.nowMillis.addAndGet(600);
+    waiting.renew();
+    service.nowMillis.addAndGet(600);
+    assertEquals(TicketState.GRANTED, waiting.poll());
+    try {
+      crashed.renew();
+      fail();
+    } catch (LeaseLostException ex) {
+      // expected
+    }
+    // releasing an expired ticket is not an error
+    crashed.release();
+  }
+
+  @Test
+  public void testCoordinator() throws Exception {
+    DeployTicket holder = backend.enqueue("project", "node-1", null);
+    DeployCoordinator coordinator =
+        DeployCoordinator.builder(backend).owner("node-2").pollIntervalMillis(5).build();
+    Thread releaser =
+        new Thread(
+            () -> {
+              try {
+                while (service.getQueue("project").size() < 2) {
+                  Thread.sleep(1);
+                }
+                holder.release();
+              } catch (InterruptedException | AppEngineException ex) {
+                throw new AssertionError(ex);
+              }
+            });
+    releaser.start();
+
+    assertEquals(
+        DeployCoordinator.Outcome.COMPLETED,
+        coordinator.run(
+            "project",
+            null,
+            () -> assertEquals(Collections.singletonList("node-2"), service.getQueue("project"))));
+    releaser.join();
+    assertTrue(service.getQueue("project").isEmpty());
+  }
+
+  @Test
+  public void testCoordinator_leaseLost() throws Exception {
+    HttpDeployLockBackend shortLease =
+        new HttpDeployLockBackend(service.getEndpoint(), () -> FakeLeaseService.TOKEN, 300);
+    DeployCoordinator coordinator =
+        DeployCoordinator.builder(shortLease).owner("node-1").pollIntervalMillis(5).build();
+    try {
+      coordinator.run(
+          "project",
+          null,
+          () -> {
+            // the build stalls past the lease, the next renewal finds the ticket expired
+            service.nowMillis.addAndGet(1000);
+            try {
+              while (!service.getQueue("project").isEmpty()) {
+                Thread.sleep(1);
+              }
+              Thread.sleep(3 * coordinator.getRenewIntervalMillis());
+            } catch (InterruptedException ex) {
+              throw new AssertionError(ex);
+            }
+          });
+      fail();
+    } catch (LeaseLostException ex) {
+      assertTrue(ex.getCause() instanceof LeaseLostException);
+    }
+  }
+
+  @Test
+  public void testEnqueue_notFoundIsNotLeaseLost() throws Exception {
+    HttpDeployLockBackend misconfigured =
+        new HttpDeployLockBackend(
+            service.getEndpoint() + "missing/", () -> FakeLeaseService.TOKEN, 1000);
+    try {
+      misconfigured.enqueue("project", "node-1", null);
+      fail();
+    } catch (LeaseLostException ex) {
+      fail("a missing lease service is not an expired ticket");
+    } catch (AppEngineException ex) {
+      assertTrue(String.valueOf(ex.getMessage()).endsWith("returned HTTP 404"));
+    }
+  }
+
+  @Test
+  public void testUnauthorized() throws Exception {
+    HttpDeployLockBackend unauthorized =
+        new HttpDeployLockBackend(service.getEndpoint(), () -> "wrong-token");
+    try {
+      unauthorized.enqueue("project", "node-1", null);
+      fail();
+    } catch (AppEngineException ex) {
+      assertTrue(String.valueOf(ex.getMessage()).endsWith("returned HTTP 401"));
+    }
+    assertEquals(1, service.unauthorizedRequests.get());
+  }
+}
@@ -0,0 +1,234 @@
+/*
+ * Copyright 2026 Google LLC.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.tools.io;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import com.google.common.collect.ImmutableList;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.FileTime;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/** Test for {@link DirectorySync}. */
+public class DirectorySyncTest {
+
+  @Rule public TemporaryFolder testDir = new TemporaryFolder();
+
+  private Path source;
+  private Path target;
+
+  @Before
+  public void setUp() throws IOException {
+    source = testDir.newFolder("source").toPath();
+    target = testDir.getRoot().toPath().resolve("target");
+    write(source.resolve("root.txt"), "root");
+    write(source.resolve("sub/sub.txt"), "sub");
+    Files.createDirectories(source.resolve("empty"));
+  }
+
+  @Test
+  public void testSync_copiesEverythingIntoNewTarget() throws IOException {
+    DirectorySync.Result result = newSync().sync();
+
+    assertEquals(ImmutableList.of(Paths.get("root.txt"), Paths.get("sub/sub.txt")), sorted(result));
+    assertEquals("root", read(target.resolve("root.txt")));
+    assertEquals("sub", read(target.resolve("sub/sub.txt")));
+    assertTrue(Files.isDirectory(target.resolve("empty")));
+    assertEquals(
+        Files.getLastModifiedTime(source.resolve("root.txt")).toMillis(),
+        Files.getLastModifiedTime(target.resolve("root.txt")).toMillis());
+  }
+
+  @Test
+  public void testSync_copiesOnlyChangedFiles() throws IOException {
+    newSync().sync();
+    write(source.resolve("sub/sub.txt"), "changed");
+
+    DirectorySync.Result result = newSync().sync();
+
+    assertEquals(ImmutableList.of(Paths.get("sub/sub.txt")), result.getCopied());
+    assertEquals(ImmutableList.of(Paths.get("root.txt")), result.getUnchanged());
+    assertTrue(result.getDeleted().isEmpty());
+    assertEquals("changed", read(target.resolve("sub/sub.txt")));
+  }
+
+  @Test
+  public void testSync_copiesFileWithNewTime() throws IOException {
+    newSync().sync();
+    Path file = source.resolve("root.txt");
+    Files.setLastModifiedTime(file, FileTime.fromMillis(file.toFile().lastModified() + 60_000));
+
+    assertEquals(ImmutableList.of(Paths.get("root.txt")), newSync().sync().getCopied());
+  }
+
+  @Test
+  public void testSync_parallelCopy() throws IOException {
+    DirectorySync.Builder builder =
+        DirectorySync.builder(target).parallelCopy(ParallelDirectoryCopy.getDefault());
+    builder.build().addDirectory(source, target).sync();
+    write(source.resolve("sub/sub.txt"), "changed");
+
+    DirectorySync.Result result = builder.build().addDirectory(source, target).sync();
+
+    assertEquals(ImmutableList.of(Paths.get("sub/sub.txt")), result.getCopied());
+    assertEquals(ImmutableList.of(Paths.get("root.txt")), result.getUnchanged());
+    assertEquals("root", read(target.resolve("root.txt")));
+    assertEquals("changed", read(target.resolve("sub/sub.txt")));
+    assertEquals(
+        Files.getLastModifiedTime(source.resolve("sub/sub.txt")).toMillis(),
+        Files.getLastModifiedTime(target.resolve("sub/sub.txt")).toMillis());
+  }
+
+  @Test
+  public void testSync_deletesWhatIsNotPlanned() throws IOException {
+    newSync().sync();
+    write(target.resolve("stale.txt"), "stale");
+    write(target.resolve("stale/nested/file.txt"), "stale");
+    Files.delete(source.resolve("sub/sub.txt"));
+    Files.delete(source.resolve("sub"));
+
+    DirectorySync.Result result = newSync().sync();
+
+    assertEquals(3, result.getDeleted().size());
+    assertFalse(Files.exists(target.resolve("stale.txt")));
+    assertFalse(Files.exists(target.resolve("stale")));
+    assertFalse(Files.exists(target.resolve("sub")));
+    assertTrue(Files.isDirectory(target.resolve("empty")));
+    assertTrue(Files.isRegularFile(target.resolve("root.txt")));
+  }
+
+  @Test
+  public void testSync_replacesDirectoryWithFile() throws IOException {
+    write(target.resolve("root.txt/file.txt"), "in the way");
+
+    newSync().sync();
+
+    assertEquals("root", read(target.resolve("root.txt")));
+  }
+
+  @Test
+  public void testSync_compareContent() throws IOException {
+    newSync().sync();
+    Path file = source.resolve("root.txt");
+    // same content, new time
+    Files.setLastModifiedTime(file, FileTime.fromMillis(file.toFile().lastModified() + 60_000));
+    DirectorySync.Result result =
+        DirectorySync.builder(target)
+            .compareContent(true)
+            .build()
+            .addDirectory(source, target)
+            .sync();
+    assertTrue(result.getCopied().isEmpty());
+
+    // new content, same size and time
+    FileTime time = Files.getLastModifiedTime(file);
+    write(file, "ROOT");
+    Files.setLastModifiedTime(file, time);
+    result =
+        DirectorySync.builder(target)
+            .compareContent(true)
+            .build()
+            .addDirectory(source, target)
+            .sync();
+    assertEquals(ImmutableList.of(Paths.get("root.txt")), result.getCopied());
+    assertEquals("ROOT", read(target.resolve("root.txt")));
+  }
+
+  @Test
+  public void testAddFile_replacesPlannedFile() throws IOException {
+    Path other = write(testDir.getRoot().toPath().resolve("other.txt"), "other");
+
+    newSync().addFile(other, target.resolve("root.txt")).sync();
+
+    assertEquals("other", read(target.resolve("root.txt")));
+  }
+
+  @Test
+  public void testAddDirectory_doesNotOverwrite() throws IOException {
+    Path other = testDir.newFolder("other").toPath();
+    write(other.resolve("root.txt"), "other");
+
+    try {
+      newSync().addDirectory(other, target);
+      fail();
+    } catch (FileAlreadyExistsException ex) {
+      assertEquals(target.resolve("root.txt").toString(), ex.getMessage());
+    }
+  }
+
+  @Test
+  public void testAddDirectory_excludes() throws IOException {
+    DirectorySync.builder(target)
+        .build()
+        .addDirectory(source, target.resolve("nested"), ImmutableList.of(source.resolve("sub")))
+        .sync();
+
+    assertTrue(Files.isRegularFile(target.resolve("nested/root.txt")));
+    assertFalse(Files.exists(target.resolve("nested/sub")));
+  }
+
+  @Test
+  public void testLinkFile() throws IOException {
+    Path jar = write(testDir.getRoot().toPath().resolve("store/dep.jar"), "dep");
+
+    DirectorySync.Result result = newSync().linkFile(jar, target.resolve("lib/dep.jar")).sync();
+    assertTrue(result.getCopied().contains(Paths.get("lib/dep.jar")));
+    assertEquals("dep", read(target.resolve("lib/dep.jar")));
+
+    result = newSync().linkFile(jar, target.resolve("lib/dep.jar")).sync();
+    assertTrue(result.getUnchanged().contains(Paths.get("lib/dep.jar")));
+    assertEquals(ImmutableList.of(), result.getCopied());
+  }
+
+  @Test
+  public void testAddFile_outsideTarget() throws IOException {
+    try {
+      newSync().addFile(source.resolve("root.txt"), testDir.getRoot().toPath().resolve("x"));
+      fail();
+    } catch (IllegalArgumentException ex) {
+      assertTrue(String.valueOf(ex.getMessage()).contains("is not in the target directory"));
+    }
+  }
+
+  private DirectorySync newSync() throws IOException {
+    return DirectorySync.builder(target).build().addDirectory(source, target);
+  }
+
+  private static ImmutableList<Path> sorted(DirectorySync.Result result) {
+    return ImmutableList.sortedCopyOf(result.getCopied());
+  }
+
+  private static Path write(Path file, String content) throws IOException {
+    Files.createDirectories(file.getParent());
+    return Files.write(file, content.getBytes(StandardCharsets.UTF_8));
+  }
+
+  private static String read(Path file) throws IOException {
+    return new String(Files.readAllBytes(file), StandardCharsets.UTF_8);
+  }
+}
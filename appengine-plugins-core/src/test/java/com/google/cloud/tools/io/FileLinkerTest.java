@@ -0,0 +1,138 @@
+/*
+ * Copyright 2026 Google LLC.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.tools.io;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/** Test for {@link FileLinker}. */
+public class FileLinkerTest {
+
+  @Rule public TemporaryFolder testDir = new TemporaryFolder();
+
+  private final AtomicInteger reflinkAttempts = new AtomicInteger();
+
+  private Path source;
+  private Path staging;
+
+  @Before
+  public void setUp() throws IOException {
+    source = write(testDir.getRoot().toPath().resolve("app.jar"), "app");
+    staging = testDir.newFolder("staging").toPath();
+  }
+
+  @Test
+  public void testLink_reflinkWhenSupported() throws IOException {
+    FileLinker linker =
+        new FileLinker(
+            (from, to) -> {
+              reflinkAttempts.incrementAndGet();
+              Files.copy(from, to, StandardCopyOption.COPY_ATTRIBUTES);
+              return true;
+            });
+
+    Path target = staging.resolve("app.jar");
+    assertEquals(FileLinker.Strategy.REFLINK, linker.link(source, target));
+    assertEquals("app", read(target));
+    assertEquals(1, reflinkAttempts.get());
+  }
+
+  @Test
+  public void testLink_smallFilesNotReflinked() throws IOException {
+    FileLinker linker =
+        new FileLinker(
+            (from, to) -> {
+              reflinkAttempts.incrementAndGet();
+              Files.copy(from, to, StandardCopyOption.COPY_ATTRIBUTES);
+              return true;
+            },
+            4);
+
+    assertEquals(FileLinker.Strategy.HARD_LINK, linker.link(source, staging.resolve("app.jar")));
+    assertEquals(0, reflinkAttempts.get());
+
+    Path large = write(testDir.getRoot().toPath().resolve("large.jar"), "large");
+    assertEquals(FileLinker.Strategy.REFLINK, linker.link(large, staging.resolve("large.jar")));
+    assertEquals(1, reflinkAttempts.get());
+  }
+
+  @Test
+  public void testLink_hardLinkWithoutReflinks() throws IOException {
+    FileLinker linker = unsupportedReflinks();
+
+    Path target = staging.resolve("libs/app.jar");
+    assertEquals(FileLinker.Strategy.HARD_LINK, linker.link(source, target));
+    assertTrue(Files.isSameFile(source, target));
+
+    // unsupported reflinks are only tried once per file store
+    linker.link(source, staging.resolve("other.jar"));
+    assertEquals(1, reflinkAttempts.get());
+  }
+
+  @Test
+  public void testLink_replacesTargetWithoutWritingThroughIt() throws IOException {
+    FileLinker linker = unsupportedReflinks();
+    Path previous = write(testDir.getRoot().toPath().resolve("previous.jar"), "previous");
+    Path target = staging.resolve("app.jar");
+    linker.link(previous, target);
+
+    linker.link(source, target);
+
+    assertEquals("app", read(target));
+    assertEquals("previous", read(previous));
+  }
+
+  @Test
+  public void testLink_defaultLinker() throws IOException {
+    Path target = staging.resolve("app.jar");
+    Files.createFile(target);
+
+    FileLinker.getDefault().link(source, target);
+
+    assertArrayEquals(Files.readAllBytes(source), Files.readAllBytes(target));
+    assertEquals(
+        Files.getLastModifiedTime(source).toMillis(), Files.getLastModifiedTime(target).toMillis());
+  }
+
+  private FileLinker unsupportedReflinks() {
+    return new FileLinker(
+        (from, to) -> {
+          reflinkAttempts.incrementAndGet();
+          return false;
+        });
+  }
+
+  private static Path write(Path file, String content) throws IOException {
+    return Files.write(file, content.getBytes(StandardCharsets.UTF_8));
+  }
+
+  private static String read(Path file) throws IOException {
+    return new String(Files.readAllBytes(file), StandardCharsets.UTF_8);
+  }
+}
@@ -19,8 +19,12 @@ package com.google.cloud.tools.io;
 import static org.junit.Assume.assumeTrue;
 
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.Sets;
 import java.io.IOException;
+import java.net.URI;
+import java.nio.file.FileSystem;
+import java.nio.file.FileSystems;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
@@ -52,6 +56,25 @@ public class FileUtilTest {
     Assert.assertTrue(Files.isRegularFile(dest.resolve(src.relativize(subFile))));
   }
 
+  @Test
+  public void testCopyDirectory_parallel() throws IOException {
+    Path src = testDir.newFolder("src").toPath();
+    Path dest = testDir.newFolder("dest").toPath();
+    Path subDir = Files.createDirectory(src.resolve("sub"));
+    Files.createFile(subDir.resolve("sub.file"));
+
+    FileUtil.copyDirectory(src, dest, PathFilter.acceptAll(), ParallelDirectoryCopy.getDefault());
+    Assert.assertTrue(Files.isRegularFile(dest.resolve("sub").resolve("sub.file")));
+
+    try {
+      FileUtil.copyDirectory(
+          src, subDir, PathFilter.acceptAll(), ParallelDirectoryCopy.getDefault());
+      Assert.fail();
+    } catch (IllegalArgumentException ex) {
+      Assert.assertEquals("destination is child of source", ex.getMessage());
+    }
+  }
+
   @Test
   public void testCopyDirectory_posixPermissions() throws IOException {
     assumeTrue(!System.getProperty("os.name").startsWith("Windows"));
@@ -176,4 +199,101 @@ public class FileUtilTest {
     Assert.assertFalse(Files.exists(destExcludes.resolve(src.relativize(excludedSubDir))));
     Assert.assertFalse(Files.exists(destExcludes.resolve(src.relativize(autoExcludedSubFile))));
   }
+
+  @Test
+  public void testSyncDirectory_mirrorsSource() throws IOException {
+    Path src = testDir.newFolder("src").toPath();
+    Path dest = testDir.newFolder("dest").toPath();
+    Files.createFile(src.resolve("root.file"));
+    Path excluded = Files.createFile(src.resolve("excluded.file"));
+    Files.createFile(dest.resolve("stale.file"));
+
+    DirectorySync.Result result = FileUtil.syncDirectory(src, dest, ImmutableList.of(excluded));
+
+    Assert.assertEquals(ImmutableList.of(Paths.get("root.file")), result.getCopied());
+    Assert.assertEquals(ImmutableList.of(Paths.get("stale.file")), result.getDeleted());
+    Assert.assertTrue(Files.isRegularFile(dest.resolve("root.file")));
+    Assert.assertFalse(Files.exists(dest.resolve("excluded.file")));
+    Assert.assertFalse(Files.exists(dest.resolve("stale.file")));
+  }
+
+  @Test
+  public void testSyncDirectory_destinationInsideSource() throws IOException {
+    Path src = testDir.newFolder("src").toPath();
+    try {
+      FileUtil.syncDirectory(src, src.resolve("dest"), ImmutableList.of());
+      Assert.fail();
+    } catch (IllegalArgumentException ex) {
+      Assert.assertEquals("destination is child of source", ex.getMessage());
+    }
+  }
+
+  @Test
+  public void testCopyDirectory_intoZipFileSystem() throws IOException {
+    Path src = testDir.newFolder("src").toPath();
+    Files.createDirectories(src.resolve("sub/dir"));
+    Files.write(src.resolve("sub/dir/small.file"), new byte[] {1, 2, 3});
+    byte[] large = new byte[(int) ParallelDirectoryCopy.DEFAULT_LARGE_FILE_THRESHOLD + 1];
+    large[large.length - 1] = 7;
+    Files.write(src.resolve("large.file"), large);
+    Path zip = testDir.getRoot().toPath().resolve("staged.zip");
+
+    try (FileSystem zipFileSystem = newZipFileSystem(zip)) {
+      FileUtil.copyDirectory(src, zipFileSystem.getPath("/"));
+    }
+
+    try (FileSystem zipFileSystem = FileSystems.newFileSystem(zip, (ClassLoader) null)) {
+      Assert.assertArrayEquals(
+          new byte[] {1, 2, 3}, Files.readAllBytes(zipFileSystem.getPath("/sub/dir/small.file")));
+      Assert.assertArrayEquals(large, Files.readAllBytes(zipFileSystem.getPath("/large.file")));
+    }
+  }
+
+  @Test
+  public void testSyncDirectory_intoZipFileSystem() throws IOException {
+    Path src = testDir.newFolder("src").toPath();
+    Files.createDirectories(src.resolve("sub"));
+    Files.write(src.resolve("sub/root.file"), new byte[] {1});
+
+    try (FileSystem zipFileSystem = newZipFileSystem(testDir.getRoot().toPath().resolve("a.zip"))) {
+      Path dest = zipFileSystem.getPath("/staged");
+      Files.createDirectories(dest.resolve("stale"));
+
+      DirectorySync.Result result = FileUtil.syncDirectory(src, dest, ImmutableList.of());
+
+      Assert.assertEquals(
+          ImmutableList.of(zipFileSystem.getPath("sub/root.file")), result.getCopied());
+      Assert.assertEquals(ImmutableList.of(zipFileSystem.getPath("stale")), result.getDeleted());
+      Assert.assertTrue(Files.isRegularFile(dest.resolve("sub/root.file")));
+    }
+  }
+
+  @Test
+  public void testResolve_otherFileSystem() throws IOException {
+    try (FileSystem zipFileSystem = newZipFileSystem(testDir.getRoot().toPath().resolve("a.zip"))) {
+      Path resolved = FileUtil.resolve(zipFileSystem.getPath("/staged"), Paths.get("lib", "a.jar"));
+
+      Assert.assertEquals(zipFileSystem.getPath("/staged/lib/a.jar"), resolved);
+    }
+  }
+
+  @Test
+  public void testCanonicalize_resolvesLinksOfExistingPrefix() throws IOException {
+    assumeTrue(!System.getProperty("os.name").startsWith("Windows"));
+    Path outside = testDir.newFolder("outside").toPath().toRealPath();
+    Path root = testDir.newFolder("root").toPath();
+    Files.createSymbolicLink(root.resolve("link"), outside);
+
+    Assert.assertEquals(
+        outside.resolve("new.file"),
+        FileUtil.canonicalize(root.resolve("link/missing/../new.file")));
+    Assert.assertEquals(
+        root.toRealPath().resolve("new.file"),
+        FileUtil.canonicalize(root.resolve("missing/../new.file")));
+  }
+
+  private static FileSystem newZipFileSystem(Path zip) throws IOException {
+    return FileSystems.newFileSystem(
+        URI.create("jar:" + zip.toUri()), ImmutableMap.of("create", "true"));
+  }
 }
@@ -0,0 +1,202 @@
+/*
+ * Copyright 2026 Google LLC.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.tools.io;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.stream.Stream;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/** Test for {@link JarStore}. */
+public class JarStoreTest {
+
+  @Rule public TemporaryFolder testDir = new TemporaryFolder();
+
+  private Path storeDirectory;
+  private JarStore store;
+
+  @Before
+  public void setUp() {
+    storeDirectory = testDir.getRoot().toPath().resolve("store");
+    // no reflinks, so that staged jars are hard links to the stored ones
+    store = new JarStore(storeDirectory, new FileLinker((source, target) -> false));
+  }
+
+  @Test
+  public void testPut_storesContentOnce() throws IOException {
+    Path first = write("service-a/lib/guava.jar", "guava");
+    Path second = write("service-b/lib/guava.jar", "guava");
+    Path other = write("service-b/lib/gson.jar", "gson");
+
+    Path stored = store.put(first);
+
+    assertEquals(stored, store.put(second));
+    assertNotEquals(stored, store.put(other));
+    assertTrue(stored.startsWith(storeDirectory));
+    assertArrayEquals(Files.readAllBytes(first), Files.readAllBytes(stored));
+    assertEquals(2, countStoredFiles());
+  }
+
+  @Test
+  public void testPut_changedJar() throws IOException {
+    Path jar = write("lib/app.jar", "v1");
+    Path first = store.put(jar);
+
+    write("lib/app.jar", "v2.0");
+    Files.setLastModifiedTime(
+        jar, FileTime.fromMillis(Files.getLastModifiedTime(jar).toMillis() + 2000));
+    Path second = store.put(jar);
+
+    assertNotEquals(first, second);
+    assertEquals("v2.0", read(second));
+  }
+
+  @Test
+  public void testStageAll_linksStoredJars() throws IOException {
+    Map<Path, Path> jars = new LinkedHashMap<>();
+    Path staging = testDir.getRoot().toPath().resolve("staging");
+    for (int i = 0; i < 20; i++) {
+      jars.put(staging.resolve("lib/dep" + i + ".jar"), write("build/dep" + i + ".jar", "dep" + i));
+    }
+    Path other = testDir.getRoot().toPath().resolve("other");
+    jars.put(other.resolve("lib/dep0.jar"), write("other-build/dep0.jar", "dep0"));
+
+    store.stageAll(jars);
+
+    for (Map.Entry<Path, Path> jar : jars.entrySet()) {
+      assertEquals(read(jar.getValue()), read(jar.getKey()));
+    }
+    assertTrue(Files.isSameFile(staging.resolve("lib/dep0.jar"), other.resolve("lib/dep0.jar")));
+    assertEquals(20, countStoredFiles());
+  }
+
+  @Test
+  public void testStage_replacesTargetWithoutWritingThroughIt() throws IOException {
+    Path target = testDir.getRoot().toPath().resolve("staging/lib/app.jar");
+    Path stored = store.put(write("build/v1.jar", "v1"));
+    store.stage(write("build/v1.jar", "v1"), target);
+
+    store.stage(write("build/v2.jar", "v2"), target);
+
+    assertEquals("v2", read(target));
+    assertEquals("v1", read(stored));
+  }
+
+  @Test
+  public void testPrune_deletesLeastRecentlyUsed() throws IOException {
+    Path staged = testDir.getRoot().toPath().resolve("staging/lib/a.jar");
+    store.stage(write("build/a.jar", "aaaa"), staged);
+    Path a = store.put(write("build/a.jar", "aaaa"));
+    Path b = store.put(write("build/b.jar", "bbbb"));
+    Path c = store.put(write("build/c.jar", "cccc"));
+    Files.setLastModifiedTime(JarStore.getUsedMarker(a), FileTime.fromMillis(1000));
+    Files.setLastModifiedTime(JarStore.getUsedMarker(b), FileTime.fromMillis(3000));
+    Files.setLastModifiedTime(JarStore.getUsedMarker(c), FileTime.fromMillis(2000));
+
+    assertEquals(0, store.prune(12));
+    assertEquals(1, store.prune(8));
+
+    assertFalse(Files.exists(a));
+    assertFalse(Files.exists(JarStore.getUsedMarker(a)));
+    assertTrue(Files.exists(b));
+    assertTrue(Files.exists(c));
+    assertEquals("aaaa", read(staged));
+    // stored again when staged next
+    store.stage(write("build/a.jar", "aaaa"), staged);
+    assertTrue(Files.exists(a));
+  }
+
+  @Test
+  public void testPut_marksStoredJarUsed() throws IOException {
+    Path jar = write("build/a.jar", "aaaa");
+    Files.setLastModifiedTime(jar, FileTime.fromMillis(1000));
+    Path stored = store.put(jar);
+    Path marker = JarStore.getUsedMarker(stored);
+    Files.setLastModifiedTime(marker, FileTime.fromMillis(1000));
+
+    store.put(jar);
+
+    assertTrue(Files.getLastModifiedTime(marker).toMillis() > 1000);
+    // the stored jar itself is never touched, so copies of it stay up to date
+    assertEquals(1000, Files.getLastModifiedTime(stored).toMillis());
+  }
+
+  @Test
+  public void testSync_reflinkedJarsUpToDate() throws IOException {
+    // a reflink is a copy that keeps the timestamps, like cp --reflink --preserve=timestamps
+    FileLinker reflinker =
+        new FileLinker(
+            (source, target) -> {
+              Files.copy(source, target, StandardCopyOption.COPY_ATTRIBUTES);
+              return true;
+            });
+    Path jar = write("build/a.jar", "aaaa");
+    Path staging = testDir.getRoot().toPath().resolve("staging");
+
+    int[] copied = new int[2];
+    for (int i = 0; i < 2; i++) {
+      Path stored = store.put(jar);
+      copied[i] =
+          DirectorySync.builder(staging)
+              .fileLinker(reflinker)
+              .build()
+              .linkFile(stored, staging.resolve("lib/a.jar"))
+              .sync()
+              .getCopied()
+              .size();
+    }
+
+    assertEquals(1, copied[0]);
+    assertEquals(0, copied[1]);
+  }
+
+  @Test
+  public void testPrune_missingStore() throws IOException {
+    assertEquals(0, store.prune(0));
+  }
+
+  private Path write(String path, String content) throws IOException {
+    Path file = testDir.getRoot().toPath().resolve(path);
+    Files.createDirectories(file.getParent());
+    return Files.write(file, content.getBytes(StandardCharsets.UTF_8));
+  }
+
+  private static String read(Path file) throws IOException {
+    return new String(Files.readAllBytes(file), StandardCharsets.UTF_8);
+  }
+
+  private long countStoredFiles() throws IOException {
+    try (Stream<Path> files = Files.walk(storeDirectory)) {
+      return files.filter(file -> file.toString().endsWith(".jar")).count();
+    }
+  }
+}
@@ -0,0 +1,204 @@
+/*
+ * Copyright 2026 Google LLC.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.tools.io;
+
+import static org.junit.Assume.assumeTrue;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Sets;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.nio.file.attribute.PosixFilePermission;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.RejectedExecutionException;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/** Test for {@link ParallelDirectoryCopy}. */
+public class ParallelDirectoryCopyTest {
+
+  @Rule public TemporaryFolder testDir = new TemporaryFolder();
+
+  private final ParallelDirectoryCopy copier =
+      ParallelDirectoryCopy.builder().parallelism(4).largeFileThreshold(1000).build();
+
+  private Path src;
+  private Path dest;
+
+  @Before
+  public void setUp() throws IOException {
+    src = testDir.newFolder("src").toPath();
+    dest = testDir.newFolder("dest").toPath();
+  }
+
+  @After
+  public void tearDown() {
+    copier.close();
+  }
+
+  @Test
+  public void testClose_sharedPoolKeepsRunning() throws IOException {
+    write(src.resolve("file.txt"), "content");
+    ParallelDirectoryCopy.builder().build().close();
+
+    ParallelDirectoryCopy.getDefault().copy(src, dest, ImmutableList.of());
+
+    Assert.assertTrue(Files.isRegularFile(dest.resolve("file.txt")));
+  }
+
+  @Test
+  public void testClose_ownedPool() throws IOException {
+    write(src.resolve("file.txt"), "content");
+    copier.close();
+
+    try {
+      copier.copy(src, dest, ImmutableList.of());
+      Assert.fail();
+    } catch (RejectedExecutionException expected) {
+      // pass
+    }
+  }
+
+  @Test
+  public void testCopy_manySmallAndLargeFiles() throws IOException {
+    for (int dir = 0; dir < 10; dir++) {
+      Path subDir = Files.createDirectories(src.resolve("dir" + dir).resolve("nested"));
+      for (int file = 0; file < 50; file++) {
+        write(subDir.resolve("file" + file + ".txt"), "content " + dir + "/" + file);
+      }
+    }
+    byte[] large = new byte[100_000];
+    Arrays.fill(large, (byte) 'x');
+    Files.write(src.resolve("large.bin"), large);
+    Files.createDirectory(src.resolve("empty"));
+
+    copier.copy(src, dest, ImmutableList.of());
+
+    Assert.assertArrayEquals(large, Files.readAllBytes(dest.resolve("large.bin")));
+    Assert.assertTrue(Files.isDirectory(dest.resolve("empty")));
+    for (int dir = 0; dir < 10; dir++) {
+      for (int file = 0; file < 50; file++) {
+        Path copy = dest.resolve("dir" + dir).resolve("nested").resolve("file" + file + ".txt");
+        Assert.assertEquals(
+            "content " + dir + "/" + file,
+            new String(Files.readAllBytes(copy), StandardCharsets.UTF_8));
+      }
+    }
+  }
+
+  @Test
+  public void testCopy_largeFileKeepsAttributes() throws IOException {
+    assumeTrue(!System.getProperty("os.name").startsWith("Windows"));
+
+    Path large = Files.write(src.resolve("large.bin"), new byte[5000]);
+    Set<PosixFilePermission> permissions =
+        Sets.newHashSet(PosixFilePermission.OWNER_READ, PosixFilePermission.OTHERS_EXECUTE);
+    Files.setPosixFilePermissions(large, permissions);
+    FileTime time = FileTime.fromMillis(1_500_000_000_000L);
+    Files.setLastModifiedTime(large, time);
+
+    copier.copy(src, dest, ImmutableList.of());
+
+    Path copy = dest.resolve("large.bin");
+    Assert.assertEquals(permissions, Files.getPosixFilePermissions(copy));
+    Assert.assertEquals(time, Files.getLastModifiedTime(copy));
+  }
+
+  @Test
+  public void testCopy_excludes() throws IOException {
+    Path excludedDir = Files.createDirectory(src.resolve("excludedDir"));
+    write(excludedDir.resolve("file.txt"), "excluded");
+    Path excludedFile = write(src.resolve("excluded.txt"), "excluded");
+    write(src.resolve("included.txt"), "included");
+
+    copier.copy(src, dest, ImmutableList.of(excludedDir, excludedFile));
+
+    Assert.assertTrue(Files.isRegularFile(dest.resolve("included.txt")));
+    Assert.assertFalse(Files.exists(dest.resolve("excluded.txt")));
+    Assert.assertFalse(Files.exists(dest.resolve("excludedDir")));
+  }
+
+  @Test
+  public void testCopy_doesNotOverwrite() throws IOException {
+    for (int file = 0; file < 200; file++) {
+      write(src.resolve("file" + file + ".txt"), "new");
+    }
+    write(dest.resolve("file150.txt"), "existing");
+
+    try {
+      copier.copy(src, dest, ImmutableList.of());
+      Assert.fail();
+    } catch (FileAlreadyExistsException ex) {
+      Assert.assertEquals(dest.resolve("file150.txt").toString(), ex.getFile());
+    }
+    Assert.assertEquals(
+        "existing",
+        new String(Files.readAllBytes(dest.resolve("file150.txt")), StandardCharsets.UTF_8));
+  }
+
+  @Test
+  public void testCopyFiles() throws IOException {
+    Map<Path, Path> files = new HashMap<>();
+    for (int file = 0; file < 100; file++) {
+      files.put(dest.resolve("copy" + file + ".txt"), write(src.resolve(file + ".txt"), "" + file));
+    }
+    files.put(dest.resolve("large.bin"), Files.write(src.resolve("large.bin"), new byte[5000]));
+
+    copier.copyFiles(files);
+
+    Assert.assertEquals(
+        "42", new String(Files.readAllBytes(dest.resolve("copy42.txt")), StandardCharsets.UTF_8));
+    Assert.assertEquals(5000, Files.size(dest.resolve("large.bin")));
+    Assert.assertEquals(
+        Files.getLastModifiedTime(src.resolve("42.txt")).toMillis(),
+        Files.getLastModifiedTime(dest.resolve("copy42.txt")).toMillis());
+  }
+
+  @Test
+  public void testTransferFully_sourceShorterThanExpected() throws IOException {
+    Path file = Files.write(src.resolve("truncated.bin"), new byte[100]);
+    Path target = dest.resolve("truncated.bin");
+
+    try (FileChannel in = FileChannel.open(file, StandardOpenOption.READ);
+        FileChannel out =
+            FileChannel.open(target, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+      // the file was truncated after its size was read
+      ParallelDirectoryCopy.transferFully(file, in, 150, out);
+      Assert.fail();
+    } catch (EOFException ex) {
+      Assert.assertEquals("Short copy of " + file + ": got 100 of 150 bytes", ex.getMessage());
+    }
+  }
+
+  private static Path write(Path file, String content) throws IOException {
+    return Files.write(file, content.getBytes(StandardCharsets.UTF_8));
+  }
+}
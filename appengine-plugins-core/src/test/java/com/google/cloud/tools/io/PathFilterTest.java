@@ -0,0 +1,171 @@
+/*
+ * Copyright 2026 Google LLC.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.tools.io;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/** Test for {@link PathFilter}. */
+public class PathFilterTest {
+
+  @Rule public TemporaryFolder testDir = new TemporaryFolder();
+
+  @Test
+  public void testAcceptAll() {
+    PathFilter filter = PathFilter.acceptAll();
+
+    assertTrue(filter.acceptsDirectory(Paths.get("a/b")));
+    assertTrue(filter.acceptsFile(Paths.get("a/b/c.txt")));
+  }
+
+  @Test
+  public void testExclude_nameAtAnyDepth() {
+    PathFilter filter = PathFilter.builder().exclude("node_modules", "*.log").build();
+
+    assertFalse(filter.acceptsDirectory(Paths.get("node_modules")));
+    assertFalse(filter.acceptsDirectory(Paths.get("web/node_modules")));
+    assertFalse(filter.acceptsFile(Paths.get("web/node_modules/lib/index.js")));
+    assertFalse(filter.acceptsFile(Paths.get("logs/server.log")));
+    assertTrue(filter.acceptsDirectory(Paths.get("web")));
+    assertTrue(filter.acceptsFile(Paths.get("web/index.js")));
+  }
+
+  @Test
+  public void testExclude_anchored() {
+    PathFilter filter = PathFilter.builder().exclude("build/tmp", "/static/*.map").build();
+
+    assertFalse(filter.acceptsDirectory(Paths.get("build/tmp")));
+    assertFalse(filter.acceptsFile(Paths.get("build/tmp/a/b.txt")));
+    assertTrue(filter.acceptsDirectory(Paths.get("build")));
+    assertTrue(filter.acceptsDirectory(Paths.get("other/build/tmp")));
+    assertFalse(filter.acceptsFile(Paths.get("static/app.js.map")));
+    assertTrue(filter.acceptsFile(Paths.get("static/js/app.js.map")));
+    assertTrue(filter.acceptsFile(Paths.get("static/app.js")));
+  }
+
+  @Test
+  public void testExclude_doubleStar() {
+    PathFilter filter = PathFilter.builder().exclude("**/cache/*.bin", "static/**/*.map").build();
+
+    assertFalse(filter.acceptsFile(Paths.get("cache/a.bin")));
+    assertFalse(filter.acceptsFile(Paths.get("a/b/cache/a.bin")));
+    assertTrue(filter.acceptsFile(Paths.get("a/b/cache/a.txt")));
+    assertFalse(filter.acceptsFile(Paths.get("static/app.js.map")));
+    assertFalse(filter.acceptsFile(Paths.get("static/js/app.js.map")));
+    assertTrue(filter.acceptsFile(Paths.get("js/app.js.map")));
+  }
+
+  @Test
+  public void testInclude_prunesUnrelatedDirectories() {
+    PathFilter filter = PathFilter.builder().include("static/css", "config/*.yaml").build();
+
+    assertFalse(filter.acceptsDirectory(Paths.get("src")));
+    assertFalse(filter.acceptsFile(Paths.get("README.md")));
+    assertTrue(filter.acceptsDirectory(Paths.get("static")));
+    assertFalse(filter.acceptsDirectory(Paths.get("static/js")));
+    assertTrue(filter.acceptsFile(Paths.get("static/css/sub/site.css")));
+    assertTrue(filter.acceptsDirectory(Paths.get("config")));
+    assertTrue(filter.acceptsFile(Paths.get("config/app.yaml")));
+    assertFalse(filter.acceptsFile(Paths.get("config/app.json")));
+  }
+
+  @Test
+  public void testExcludeTakesPrecedence() {
+    PathFilter filter = PathFilter.builder().include("static").exclude("*.map").build();
+
+    assertTrue(filter.acceptsFile(Paths.get("static/app.js")));
+    assertFalse(filter.acceptsFile(Paths.get("static/app.js.map")));
+  }
+
+  @Test
+  public void testExcludePaths() {
+    Path root = Paths.get("/project/extra");
+    PathFilter filter =
+        PathFilter.builder()
+            .excludePaths(
+                root,
+                Arrays.asList(
+                    root.resolve("a/b"), root, Paths.get("/project/other"), root.resolve("c*")))
+            .build();
+
+    assertFalse(filter.acceptsDirectory(Paths.get("a/b")));
+    assertTrue(filter.acceptsDirectory(Paths.get("a")));
+    assertTrue(filter.acceptsFile(Paths.get("other")));
+    // excluded paths are literal
+    assertFalse(filter.acceptsFile(Paths.get("c*")));
+    assertTrue(filter.acceptsFile(Paths.get("cd")));
+  }
+
+  @Test
+  public void testCopyDirectory() throws IOException {
+    Path source = testDir.newFolder("source").toPath();
+    Path destination = testDir.newFolder("destination").toPath();
+    Files.createDirectories(source.resolve("web/node_modules/lib"));
+    Files.createFile(source.resolve("web/index.html"));
+    Files.createFile(source.resolve("web/debug.log"));
+    Files.createFile(source.resolve("web/node_modules/lib/index.js"));
+    Files.createFile(source.resolve("README.md"));
+
+    FileUtil.copyDirectory(
+        source,
+        destination,
+        PathFilter.builder().include("web").exclude("node_modules", "*.log").build());
+
+    assertEquals(Arrays.asList("web/index.html"), listFiles(destination));
+    assertFalse(Files.exists(destination.resolve("web/node_modules")));
+  }
+
+  @Test
+  public void testSyncDirectory() throws IOException {
+    Path source = testDir.newFolder("source").toPath();
+    Path destination = testDir.getRoot().toPath().resolve("destination");
+    Files.createDirectories(source.resolve("web/node_modules/lib"));
+    Files.createFile(source.resolve("web/index.html"));
+    Files.createFile(source.resolve("web/node_modules/lib/index.js"));
+
+    DirectorySync.builder(destination)
+        .build()
+        .addDirectory(source, destination, PathFilter.builder().exclude("node_modules").build())
+        .sync();
+
+    assertEquals(Arrays.asList("web/index.html"), listFiles(destination));
+    assertFalse(Files.exists(destination.resolve("web/node_modules")));
+  }
+
+  private static List<String> listFiles(Path directory) throws IOException {
+    try (Stream<Path> files = Files.walk(directory)) {
+      return files
+          .filter(Files::isRegularFile)
+          .map(file -> directory.relativize(file).toString())
+          .sorted()
+          .collect(Collectors.toList());
+    }
+  }
+}
@@ -19,7 +19,6 @@ package com.google.cloud.tools.managedcloudsdk.install;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.nio.file.Paths;
 import java.nio.file.attribute.PosixFileAttributeView;
 import java.nio.file.attribute.PosixFilePermission;
 import org.hamcrest.MatcherAssert;
@@ -29,10 +28,11 @@ import org.junit.Assert;
 /** Helper for archives in src/test/resources/genericArchives */
 public class GenericArchivesVerifier {
 
-  private static final Path ROOT = Paths.get("root");
-  private static final Path FILE_1 = ROOT.resolve("file1.txt");
-  private static final Path SUB = ROOT.resolve("sub");
-  private static final Path FILE_2 = SUB.resolve("file2.txt");
+  // strings rather than paths, so that they resolve against a root on any file system
+  private static final String ROOT = "root";
+  private static final String FILE_1 = ROOT + "/file1.txt";
+  private static final String SUB = ROOT + "/sub";
+  private static final String FILE_2 = SUB + "/file2.txt";
 
   public static void assertArchiveExtraction(Path testRoot) {
     Assert.assertTrue(Files.isDirectory(testRoot.resolve(ROOT)));
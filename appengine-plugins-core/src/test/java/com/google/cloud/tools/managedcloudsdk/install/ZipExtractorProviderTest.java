@@ -17,8 +17,12 @@
 package com.google.cloud.tools.managedcloudsdk.install;
 
 import com.google.cloud.tools.managedcloudsdk.ProgressListener;
+import com.google.common.collect.ImmutableMap;
 import java.io.IOException;
+import java.net.URI;
 import java.net.URISyntaxException;
+import java.nio.file.FileSystem;
+import java.nio.file.FileSystems;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
@@ -91,6 +95,43 @@ public class ZipExtractorProviderTest {
     }
   }
 
+  @Test
+  public void testCall_zipFileSystem() throws URISyntaxException, IOException {
+    Path zip = tmp.getRoot().toPath().resolve("extracted.zip");
+    try (FileSystem zipFileSystem =
+        FileSystems.newFileSystem(
+            URI.create("jar:" + zip.toUri()), ImmutableMap.of("create", "true"))) {
+      Path archive = zipFileSystem.getPath("/test.zip");
+      Files.copy(getResource("genericArchives/test.zip"), archive);
+      Path extractionRoot = Files.createDirectory(zipFileSystem.getPath("/extracted"));
+
+      zipExtractorProvider.extract(archive, extractionRoot, mockProgressListener);
+
+      GenericArchivesVerifier.assertArchiveExtraction(extractionRoot);
+    }
+  }
+
+  @Test
+  public void testZipSlipVulnerability_zipFileSystem() throws URISyntaxException, IOException {
+    Assume.assumeTrue(!System.getProperty("os.name").startsWith("Windows"));
+
+    Path zip = tmp.getRoot().toPath().resolve("extracted.zip");
+    try (FileSystem zipFileSystem =
+        FileSystems.newFileSystem(
+            URI.create("jar:" + zip.toUri()), ImmutableMap.of("create", "true"))) {
+      Path extractionRoot = Files.createDirectory(zipFileSystem.getPath("/extracted"));
+      try {
+        zipExtractorProvider.extract(
+            getResource("zipSlipSamples/zip-slip.zip"), extractionRoot, mockProgressListener);
+        Assert.fail("IOException expected");
+      } catch (IOException expected) {
+        MatcherAssert.assertThat(
+            expected.getMessage(),
+            CoreMatchers.startsWith("Blocked unzipping files outside destination: "));
+      }
+    }
+  }
+
   private Path getResource(String resourcePath) throws URISyntaxException {
     Path resource = Paths.get(getClass().getClassLoader().getResource(resourcePath).toURI());
     Assert.assertTrue(Files.exists(resource));
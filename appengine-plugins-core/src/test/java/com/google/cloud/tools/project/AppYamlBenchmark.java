@@ -0,0 +1,123 @@
+/*
+ * Copyright 2026 Google LLC.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.tools.project;
+
+import com.google.cloud.tools.appengine.AppEngineException;
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.Map;
+import org.yaml.snakeyaml.LoaderOptions;
+import org.yaml.snakeyaml.Yaml;
+import org.yaml.snakeyaml.constructor.SafeConstructor;
+
+/**
+ * Compares reading {@code runtime}, {@code env} and {@code entrypoint} through {@link AppYaml} with
+ * the full load into a new {@link Yaml} that it replaced, on a handler heavy app.yaml. It is not
+ * run with the tests. Run its main method on the test classpath with the arguments {@code
+ * [handlers] [iterations]}, 2000 handlers and 200 iterations by default.
+ */
+public class AppYamlBenchmark {
+
+  private static final int ROUNDS = 5;
+
+  public static void main(String[] args) throws AppEngineException {
+    int handlers = args.length > 0 ? Integer.parseInt(args[0]) : 2000;
+    int iterations = args.length > 1 ? Integer.parseInt(args[1]) : 200;
+    byte[] appYaml = createAppYaml(handlers);
+    System.out.println(
+        String.format(
+            Locale.ROOT, "app.yaml with %d handlers, %d KiB", handlers, appYaml.length / 1024));
+
+    for (int round = 0; round < ROUNDS; round++) {
+      long fullLoad = timeFullLoad(appYaml, iterations);
+      long scan = timeScan(appYaml, iterations);
+      System.out.println(
+          String.format(
+              Locale.ROOT,
+              "round %d: full load %.2f ms/parse, top-level scan %.2f ms/parse (%.2fx)",
+              round,
+              fullLoad / 1e6 / iterations,
+              scan / 1e6 / iterations,
+              (double) fullLoad / scan));
+    }
+  }
+
+  /** The implementation of {@link AppYaml#parse} before the top-level scan. */
+  @SuppressWarnings("unchecked")
+  private static long timeFullLoad(byte[] appYaml, int iterations) {
+    long start = System.nanoTime();
+    int found = 0;
+    for (int i = 0; i < iterations; i++) {
+      Yaml yaml = new Yaml(new SafeConstructor(new LoaderOptions()));
+      Map<String, ?> contents = (Map<String, ?>) yaml.load(new ByteArrayInputStream(appYaml));
+      found +=
+          (contents.get("runtime") instanceof String ? 1 : 0)
+              + (contents.get("env") instanceof String ? 1 : 0)
+              + (contents.get("entrypoint") instanceof String ? 1 : 0);
+    }
+    check(found, iterations);
+    return System.nanoTime() - start;
+  }
+
+  private static long timeScan(byte[] appYaml, int iterations) throws AppEngineException {
+    long start = System.nanoTime();
+    int found = 0;
+    for (int i = 0; i < iterations; i++) {
+      AppYaml parsed = AppYaml.parse(new ByteArrayInputStream(appYaml));
+      found +=
+          (parsed.getRuntime() != null ? 1 : 0)
+              + (parsed.getEnvironmentType() != null ? 1 : 0)
+              + (parsed.getEntrypoint() != null ? 1 : 0);
+    }
+    check(found, iterations);
+    return System.nanoTime() - start;
+  }
+
+  private static void check(int found, int iterations) {
+    if (found != 3 * iterations) {
+      throw new IllegalStateException("Expected runtime, env and entrypoint");
+    }
+  }
+
+  private static byte[] createAppYaml(int handlers) {
+    StringBuilder appYaml =
+        new StringBuilder("runtime: java11\nenv: standard\nentrypoint: java -jar app.jar\n");
+    appYaml.append("env_variables:\n  KEY: value\nhandlers:\n");
+    for (int i = 0; i < handlers; i++) {
+      appYaml
+          .append("- url: /static/path")
+          .append(i)
+          .append("/(.*\\.(gif|png|jpg|css|js))$\n")
+          .append("  static_files: static/path")
+          .append(i)
+          .append("/\\1\n")
+          .append("  upload: static/path")
+          .append(i)
+          .append("/.*\\.(gif|png|jpg|css|js)$\n")
+          .append("  secure: always\n")
+          .append("  expiration: 4d 5h\n")
+          .append("  http_headers:\n")
+          .append("    X-Handler: '")
+          .append(i)
+          .append("'\n")
+          .append("    Cache-Control: public, max-age=3600\n");
+    }
+    appYaml.append("automatic_scaling:\n  max_instances: 10\n");
+    return appYaml.toString().getBytes(StandardCharsets.UTF_8);
+  }
+}
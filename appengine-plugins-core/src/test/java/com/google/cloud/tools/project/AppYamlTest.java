@@ -212,6 +212,63 @@ public class AppYamlTest {
     Assert.assertNull(AppYaml.parse(appYaml).getEnvironmentVariables());
   }
 
+  @Test
+  public void testParse_scansTopLevelScalars() throws AppEngineException {
+    AppYaml appYaml =
+        AppYaml.parse(
+            asStream(
+                "runtime: java11\n"
+                    + "handlers:\n"
+                    + "- url: /.*\n"
+                    + "  script: auto\n"
+                    + "  runtime: nested\n"
+                    + "service: '11'\n"
+                    + "version: 11\n"
+                    + "application: !!str 12\n"
+                    + "env: flex\n"
+                    + "env: [duplicate]\n"));
+
+    Assert.assertTrue(appYaml.isScanned());
+    Assert.assertEquals("java11", appYaml.getRuntime());
+    Assert.assertEquals("11", appYaml.getServiceId());
+    Assert.assertNull(appYaml.getProjectVersion());
+    Assert.assertEquals("12", appYaml.getProjectId());
+    Assert.assertNull(appYaml.getEnvironmentType());
+  }
+
+  @Test
+  public void testParse_loadsFullyWhenNeeded() throws AppEngineException {
+    AppYaml aliased = AppYaml.parse(asStream("base: &runtime java11\nruntime: *runtime\n"));
+    Assert.assertFalse(aliased.isScanned());
+    Assert.assertEquals("java11", aliased.getRuntime());
+
+    AppYaml merged =
+        AppYaml.parse(asStream("defaults: &defaults\n  runtime: java17\n<<: *defaults\n"));
+    Assert.assertFalse(merged.isScanned());
+    Assert.assertEquals("java17", merged.getRuntime());
+  }
+
+  @Test
+  public void testGetEnvironmentVariables_loadedLazily() throws AppEngineException {
+    AppYaml appYaml = AppYaml.parse(asStream("runtime: java\nenv_variables:\n  key1: value1\n"));
+
+    Assert.assertTrue(appYaml.isScanned());
+    Map<String, ?> environment = appYaml.getEnvironmentVariables();
+    Assert.assertNotNull(environment);
+    Assert.assertEquals("value1", environment.get("key1"));
+    Assert.assertEquals("java", appYaml.getRuntime());
+  }
+
+  @Test
+  public void testParse_malformed() {
+    try {
+      AppYaml.parse(asStream("runtime: java\nhandlers:\n- url: [/\n"));
+      Assert.fail();
+    } catch (AppEngineException ex) {
+      Assert.assertEquals("Malformed 'app.yaml'.", ex.getMessage());
+    }
+  }
+
   private InputStream asStream(String contents) {
     return new ByteArrayInputStream(contents.getBytes(StandardCharsets.UTF_8));
   }